@@ -34,6 +34,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.sleepycat.bind.tuple.LongBinding;
 import com.sleepycat.je.Cursor;
 import com.sleepycat.je.Database;
@@ -50,6 +51,7 @@ import org.slf4j.Logger;
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.message.EnqueueableMessage;
 import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.store.Event;
 import org.apache.qpid.server.store.EventListener;
 import org.apache.qpid.server.store.EventManager;
@@ -72,6 +74,7 @@ import org.apache.qpid.server.store.handler.MessageHandler;
 import org.apache.qpid.server.store.handler.MessageInstanceHandler;
 import org.apache.qpid.server.txn.Xid;
 import org.apache.qpid.server.util.CachingUUIDFactory;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
 
 
 public abstract class AbstractBDBMessageStore implements MessageStore
@@ -101,6 +104,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
             setWrap(true).
             setCacheSize(100000);
     private ConfiguredObject<?> _parent;
+    private volatile LatencyHistogram _commitLatencyHistogram;
     private long _persistentSizeLowThreshold;
     private long _persistentSizeHighThreshold;
 
@@ -118,6 +122,9 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         if (_messageStoreOpen.compareAndSet(false, true))
         {
             _parent = parent;
+            _commitLatencyHistogram = parent instanceof QueueManagingVirtualHost
+                    ? ((QueueManagingVirtualHost<?>) parent).getStoreCommitLatencyHistogram()
+                    : null;
 
             final SizeMonitoringSettings sizeMonitorSettings = (SizeMonitoringSettings) parent;
             _persistentSizeHighThreshold = sizeMonitorSettings.getStoreOverfullSize();
@@ -771,7 +778,9 @@ public abstract class AbstractBDBMessageStore implements MessageStore
             throw new StoreException("Fatal internal error: transactional is null at commitTran");
         }
 
+        final long startTime = System.nanoTime();
         getEnvironmentFacade().commit(tx, syncCommit);
+        recordCommitLatency(startTime);
 
         getLogger().debug("commitTranImpl completed {} transaction {}",
                           syncCommit ? "synchronous" : "asynchronous", tx);
@@ -786,13 +795,28 @@ public abstract class AbstractBDBMessageStore implements MessageStore
             throw new StoreException("Fatal internal error: transactional is null at commitTran");
         }
 
+        final LatencyHistogram commitLatencyHistogram = _commitLatencyHistogram;
+        final long startTime = System.nanoTime();
         ListenableFuture<X> result = getEnvironmentFacade().commitAsync(tx, val);
+        if (commitLatencyHistogram != null)
+        {
+            result.addListener(() -> recordCommitLatency(startTime), MoreExecutors.directExecutor());
+        }
 
         getLogger().debug("commitTranAsynImpl completed transaction {}", tx);
 
         return result;
     }
 
+    private void recordCommitLatency(final long startTime)
+    {
+        final LatencyHistogram commitLatencyHistogram = _commitLatencyHistogram;
+        if (commitLatencyHistogram != null)
+        {
+            commitLatencyHistogram.record((System.nanoTime() - startTime) / 1000L);
+        }
+    }
+
 
     /**
      * Abandons all operations performed within a given transaction.
@@ -943,6 +967,12 @@ public abstract class AbstractBDBMessageStore implements MessageStore
 
     private static class MessageDataRef<T extends StorableMessageMetaData>
     {
+        /**
+         * Shared by all messages that are stored and have neither metadata nor content in memory, so that a deep
+         * queue of messages flowed to disk does not retain an empty holder per message. Never mutated.
+         */
+        private static final MessageDataRef<?> FLOWED_TO_DISK = new MessageDataRef<>(null, false);
+
         private volatile T _metaData;
         private volatile QpidByteBuffer _data;
         private volatile boolean _isHardRef;
@@ -990,7 +1020,16 @@ public abstract class AbstractBDBMessageStore implements MessageStore
             {
                 _metaData.reallocate();
             }
-            _data = QpidByteBuffer.reallocateIfNecessary(_data);
+            if (_data != null)
+            {
+                _data = QpidByteBuffer.reallocateIfNecessary(_data);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T extends StorableMessageMetaData> MessageDataRef<T> flowedToDisk()
+        {
+            return (MessageDataRef<T>) FLOWED_TO_DISK;
         }
 
         public long clear(boolean close)
@@ -1110,7 +1149,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
                 {
                     checkMessageStoreOpen();
                     data = AbstractBDBMessageStore.this.getAllContent(_messageId);
-                    _messageDataRef.setData(data);
+                    _messageDataRef = new MessageDataRef<>(_messageDataRef.getMetaData(), data, false);
                     _inMemorySize.addAndGet(getContentSize());
                 }
                 else
@@ -1231,6 +1270,14 @@ public abstract class AbstractBDBMessageStore implements MessageStore
             return _messageDataRef != null && !_messageDataRef.isHardRef();
         }
 
+        /**
+         * Returns true if the message holds the shared empty data holder, i.e. retains no per-message data on heap.
+         */
+        synchronized boolean isFlowedToDisk()
+        {
+            return _messageDataRef == MessageDataRef.FLOWED_TO_DISK;
+        }
+
         @Override
         public synchronized boolean flowToDisk()
         {
@@ -1239,6 +1286,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
             if(_messageDataRef != null && !_messageDataRef.isHardRef())
             {
                 final long bytesCleared = _messageDataRef.clear(false);
+                _messageDataRef = MessageDataRef.flowedToDisk();
                 _inMemorySize.addAndGet(-bytesCleared);
                 _bytesEvacuatedFromMemory.addAndGet(bytesCleared);
             }
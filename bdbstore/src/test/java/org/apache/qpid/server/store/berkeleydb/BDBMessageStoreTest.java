@@ -22,6 +22,7 @@ package org.apache.qpid.server.store.berkeleydb;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -30,7 +31,9 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -141,6 +144,39 @@ public class BDBMessageStoreTest extends MessageStoreTestCase
         }
     }
 
+    @Test
+    public void testDeepQueueFlowedToDiskRetainsNoPerMessageData()
+    {
+        final BDBMessageStore bdbStore = (BDBMessageStore) getStore();
+        final List<StoredMessage<MessageMetaData>> messages = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            messages.add(createAndStoreSingleChunkMessage_0_8(bdbStore));
+        }
+
+        for (StoredMessage<MessageMetaData> message : messages)
+        {
+            message.flowToDisk();
+        }
+
+        assertEquals("Unexpected in memory size", 0, bdbStore.getInMemorySize());
+        for (StoredMessage<MessageMetaData> message : messages)
+        {
+            assertTrue("Message should hold no data of its own",
+                       ((AbstractBDBMessageStore.StoredBDBMessage) message).isFlowedToDisk());
+        }
+
+        final StoredMessage<MessageMetaData> message = messages.get(0);
+        try (QpidByteBuffer content = message.getContent(0, CONTENT_BYTES.length))
+        {
+            assertEquals("Unexpected content size", CONTENT_BYTES.length, content.remaining());
+        }
+        assertFalse("Message read back should hold its own data",
+                    ((AbstractBDBMessageStore.StoredBDBMessage) message).isFlowedToDisk());
+        assertTrue("Other messages should still hold no data of their own",
+                   ((AbstractBDBMessageStore.StoredBDBMessage) messages.get(1)).isFlowedToDisk());
+    }
+
     private StoredMessage<MessageMetaData> createAndStoreSingleChunkMessage_0_8(MessageStore store)
     {
         QpidByteBuffer chunk1 = QpidByteBuffer.wrap(CONTENT_BYTES);
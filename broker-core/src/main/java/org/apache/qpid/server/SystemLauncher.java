@@ -50,6 +50,7 @@ import org.slf4j.LoggerFactory;
 import org.apache.qpid.server.configuration.CommonProperties;
 import org.apache.qpid.server.configuration.updater.TaskExecutor;
 import org.apache.qpid.server.configuration.updater.TaskExecutorImpl;
+import org.apache.qpid.server.logging.AsyncMessageLogger;
 import org.apache.qpid.server.logging.EventLogger;
 import org.apache.qpid.server.logging.LogMessage;
 import org.apache.qpid.server.logging.LoggingMessageLogger;
@@ -78,6 +79,7 @@ public class SystemLauncher
 
 
     private EventLogger _eventLogger;
+    private AsyncMessageLogger _asyncMessageLogger;
     private final TaskExecutor _taskExecutor = new TaskExecutorImpl();
 
     private volatile SystemConfig _systemConfig;
@@ -194,6 +196,12 @@ public class SystemLauncher
     {
         _taskExecutor.stop();
 
+        if (_asyncMessageLogger != null)
+        {
+            _asyncMessageLogger.close();
+            _asyncMessageLogger = null;
+        }
+
         _listener.onShutdown(exitStatusCode);
 
         _systemConfig = null;
@@ -241,7 +249,18 @@ public class SystemLauncher
 
         // Create the RootLogger to be used during broker operation
         boolean statusUpdatesEnabled = Boolean.parseBoolean(System.getProperty(SystemConfig.PROPERTY_STATUS_UPDATES, "true"));
-        MessageLogger messageLogger = new LoggingMessageLogger(statusUpdatesEnabled);
+        LoggingMessageLogger loggingMessageLogger = new LoggingMessageLogger(statusUpdatesEnabled);
+        MessageLogger messageLogger = loggingMessageLogger;
+        if (statusUpdatesEnabled && Boolean.parseBoolean(System.getProperty(SystemConfig.PROPERTY_STATUS_UPDATES_ASYNC)))
+        {
+            int bufferSize = Integer.getInteger(SystemConfig.PROPERTY_STATUS_UPDATES_ASYNC_BUFFER_SIZE,
+                                                SystemConfig.DEFAULT_STATUS_UPDATES_ASYNC_BUFFER_SIZE);
+            AsyncMessageLogger.OverflowPolicy overflowPolicy =
+                    AsyncMessageLogger.OverflowPolicy.valueOf(System.getProperty(SystemConfig.PROPERTY_STATUS_UPDATES_ASYNC_OVERFLOW_POLICY,
+                                                                                 AsyncMessageLogger.OverflowPolicy.BLOCK.name()).toUpperCase());
+            _asyncMessageLogger = new AsyncMessageLogger(loggingMessageLogger, bufferSize, overflowPolicy);
+            messageLogger = _asyncMessageLogger;
+        }
         _eventLogger.setMessageLogger(messageLogger);
 
 
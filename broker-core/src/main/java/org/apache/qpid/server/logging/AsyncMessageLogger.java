@@ -0,0 +1,278 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Message logger handing formatted operational log messages to a single background thread which writes them to
+ * the delegate.
+ * <p>
+ * The actor and subject of a message are resolved on the calling thread, so the output is identical to that of the
+ * delegate apart from the thread writing it. Messages are exchanged through a bounded, lock-free ring buffer
+ * (multiple producers, one consumer). When the buffer is full the {@link OverflowPolicy} decides whether the caller
+ * waits for space or the message is dropped and counted.
+ */
+public class AsyncMessageLogger extends AbstractMessageLogger implements AutoCloseable
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncMessageLogger.class);
+
+    private static final long CONSUMER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    public enum OverflowPolicy
+    {
+        BLOCK, DROP
+    }
+
+    private final AbstractMessageLogger _delegate;
+    private final OverflowPolicy _overflowPolicy;
+    private final int _mask;
+    private final AtomicReferenceArray<PendingMessage> _messages;
+    private final AtomicLongArray _sequences;
+    private final AtomicLong _producerPosition = new AtomicLong();
+    private final LongAdder _droppedMessages = new LongAdder();
+    private final Thread _consumer;
+
+    private long _consumerPosition;
+    private volatile boolean _consumerWaiting;
+    private volatile boolean _closed;
+
+    public AsyncMessageLogger(final AbstractMessageLogger delegate,
+                              final int bufferSize,
+                              final OverflowPolicy overflowPolicy)
+    {
+        super(delegate.isEnabled());
+        if (bufferSize < 1)
+        {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        _delegate = delegate;
+        _overflowPolicy = overflowPolicy;
+
+        final int boundedSize = Math.min(Math.max(bufferSize, 2), 1 << 30);
+        final int capacity = Integer.highestOneBit(boundedSize - 1) << 1;
+        _mask = capacity - 1;
+        _messages = new AtomicReferenceArray<>(capacity);
+        _sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+        {
+            _sequences.set(i, i);
+        }
+
+        _consumer = new Thread(this::consume, "Operational-Logger");
+        _consumer.setDaemon(true);
+        _consumer.start();
+    }
+
+    @Override
+    public boolean isMessageEnabled(final String logHierarchy)
+    {
+        return _delegate.isMessageEnabled(logHierarchy);
+    }
+
+    @Override
+    void rawMessage(final String message, final String logHierarchy)
+    {
+        rawMessage(message, null, logHierarchy);
+    }
+
+    @Override
+    void rawMessage(final String message, final Throwable throwable, final String logHierarchy)
+    {
+        final PendingMessage pendingMessage = new PendingMessage(message, throwable, logHierarchy);
+        while (!_closed)
+        {
+            if (offer(pendingMessage))
+            {
+                if (_consumerWaiting)
+                {
+                    LockSupport.unpark(_consumer);
+                }
+                else if (_closed && !_consumer.isAlive())
+                {
+                    // closed while this message was being published, after the consumer had terminated; if it
+                    // terminated only after this check, the message is drained by close() once it has joined it
+                    drainAfterClose();
+                }
+                return;
+            }
+            else if (_overflowPolicy == OverflowPolicy.DROP)
+            {
+                _droppedMessages.increment();
+                return;
+            }
+            LockSupport.unpark(_consumer);
+            LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+        }
+        _delegate.rawMessage(message, throwable, logHierarchy);
+    }
+
+    public long getDroppedMessageCount()
+    {
+        return _droppedMessages.sum();
+    }
+
+    public OverflowPolicy getOverflowPolicy()
+    {
+        return _overflowPolicy;
+    }
+
+    public int getBufferSize()
+    {
+        return _mask + 1;
+    }
+
+    /**
+     * Stops accepting messages, writes any messages still buffered and waits for the background thread to finish.
+     * Messages logged after closing are written synchronously.
+     */
+    @Override
+    public void close()
+    {
+        _closed = true;
+        LockSupport.unpark(_consumer);
+        if (Thread.currentThread() != _consumer)
+        {
+            try
+            {
+                _consumer.join();
+                // a producer may have published after the consumer found the buffer empty but before it terminated
+                drainAfterClose();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean offer(final PendingMessage message)
+    {
+        while (true)
+        {
+            final long position = _producerPosition.get();
+            final int index = (int) position & _mask;
+            final long difference = _sequences.get(index) - position;
+            if (difference == 0)
+            {
+                if (_producerPosition.compareAndSet(position, position + 1))
+                {
+                    _messages.lazySet(index, message);
+                    _sequences.set(index, position + 1);
+                    return true;
+                }
+            }
+            else if (difference < 0)
+            {
+                return false;
+            }
+        }
+    }
+
+    private PendingMessage poll()
+    {
+        final long position = _consumerPosition;
+        final int index = (int) position & _mask;
+        if (_sequences.get(index) != position + 1)
+        {
+            return null;
+        }
+        final PendingMessage message = _messages.get(index);
+        _messages.lazySet(index, null);
+        _sequences.set(index, position + _mask + 1);
+        _consumerPosition = position + 1;
+        return message;
+    }
+
+    private synchronized void drainAfterClose()
+    {
+        PendingMessage message;
+        while ((message = poll()) != null)
+        {
+            write(message);
+        }
+    }
+
+    private void consume()
+    {
+        while (true)
+        {
+            PendingMessage message = poll();
+            if (message != null)
+            {
+                write(message);
+            }
+            else if (_closed)
+            {
+                // a producer may still be publishing a slot it claimed before the logger was closed
+                if (_producerPosition.get() == _consumerPosition)
+                {
+                    return;
+                }
+                Thread.yield();
+            }
+            else
+            {
+                _consumerWaiting = true;
+                if (_sequences.get((int) _consumerPosition & _mask) != _consumerPosition + 1 && !_closed)
+                {
+                    LockSupport.parkNanos(this, CONSUMER_PARK_NANOS);
+                }
+                _consumerWaiting = false;
+            }
+        }
+    }
+
+    private void write(final PendingMessage message)
+    {
+        try
+        {
+            _delegate.rawMessage(message._message, message._throwable, message._logHierarchy);
+        }
+        catch (RuntimeException e)
+        {
+            LOGGER.warn("Failed to write operational log message", e);
+        }
+    }
+
+    private static final class PendingMessage
+    {
+        private final String _message;
+        private final Throwable _throwable;
+        private final String _logHierarchy;
+
+        private PendingMessage(final String message, final Throwable throwable, final String logHierarchy)
+        {
+            _message = message;
+            _throwable = throwable;
+            _logHierarchy = logHierarchy;
+        }
+    }
+}
@@ -3426,23 +3426,47 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
     @Override
     public Map<String, Object> getStatistics(List<String> statistics)
     {
-        Collection<ConfiguredObjectStatistic<?, ?>> stats = getTypeRegistry().getStatistics(getClass());
+        final StatisticsSnapshotWriter writer = getTypeRegistry().getStatisticsSnapshotWriter(getClass());
         Map<String,Object> map = new HashMap<>();
         boolean allStats = statistics == null || statistics.isEmpty();
-        for(ConfiguredObjectStatistic stat : stats)
+        for(int i = 0; i < writer.size(); i++)
         {
-            if(allStats || statistics.contains(stat.getName()))
+            String name = writer.getName(i);
+            if(allStats || statistics.contains(name))
             {
-                Object value = stat.getValue(this);
+                Object value = writer.getValue(this, i);
                 if(value != null)
                 {
-                    map.put(stat.getName(), value);
+                    map.put(name, value);
                 }
             }
         }
         return map;
     }
 
+    @Override
+    public List<Map<String, Object>> getStatisticsSnapshot(final int depth, final List<String> statistics)
+    {
+        if (depth < 0)
+        {
+            throw new IllegalArgumentException("Depth must not be negative");
+        }
+        final StatisticsSnapshot snapshot = new StatisticsSnapshot();
+        snapshot.captureTree(this, depth);
+        final List<Map<String, Object>> result = new ArrayList<>(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++)
+        {
+            final ConfiguredObject<?> object = snapshot.getObject(i);
+            final Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put(ID, object.getId());
+            entry.put(NAME, object.getName());
+            entry.put("category", object.getCategoryClass().getSimpleName());
+            entry.put("statistics", snapshot.toMap(i, statistics));
+            result.add(entry);
+        }
+        return result;
+    }
+
     @Override
     public String setContextVariable(final String name, final String value)
     {
@@ -61,6 +61,8 @@ import org.apache.qpid.server.configuration.CommonProperties;
 import org.apache.qpid.server.configuration.IllegalConfigurationException;
 import org.apache.qpid.server.configuration.updater.TaskExecutor;
 import org.apache.qpid.server.configuration.updater.TaskExecutorImpl;
+import org.apache.qpid.server.logging.AsyncMessageLogger;
+import org.apache.qpid.server.logging.MessageLogger;
 import org.apache.qpid.server.logging.messages.BrokerMessages;
 import org.apache.qpid.server.model.preferences.Preference;
 import org.apache.qpid.server.model.preferences.UserPreferences;
@@ -902,6 +904,15 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
         return QpidByteBuffer.getNumberOfBuffersInPool();
     }
 
+    @Override
+    public long getOperationalLogMessagesDropped()
+    {
+        final MessageLogger messageLogger = getEventLogger().getMessageLogger();
+        return messageLogger instanceof AsyncMessageLogger
+                ? ((AsyncMessageLogger) messageLogger).getDroppedMessageCount()
+                : 0L;
+    }
+
     @Override
     public long getInboundMessageSizeHighWatermark()
     {
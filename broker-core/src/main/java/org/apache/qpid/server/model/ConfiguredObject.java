@@ -176,6 +176,16 @@ public interface ConfiguredObject<X extends ConfiguredObject<X>> extends Context
     Map<String, Object> getStatistics(@Param(name = "statistics", defaultValue = "[]",
             description = "Optional list of statistic values to retrieve") List<String> statistics);
 
+    @ManagedOperation(description = "Return the (selected) statistic values of this object and its descendants"
+                                    + " down to the given depth, captured in a single pass",
+            nonModifying = true,
+            changesConfiguredObjectState = false,
+            skipAclCheck = true)
+    List<Map<String, Object>> getStatisticsSnapshot(@Param(name = "depth", defaultValue = "0",
+            description = "Depth of descendants to include, zero for this object only") int depth,
+                                                    @Param(name = "statistics", defaultValue = "[]",
+            description = "Optional list of statistic values to retrieve") List<String> statistics);
+
     @ManagedOperation(description = "Set context variable with given name to given value."
                                     + " Previous value is returned or null if not set directly on configured object.",
             changesConfiguredObjectState = true,
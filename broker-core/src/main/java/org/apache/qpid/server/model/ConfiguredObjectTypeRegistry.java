@@ -176,6 +176,9 @@ public class ConfiguredObjectTypeRegistry
     private final Map<Class<? extends ConfiguredObject>, Collection<ConfiguredObjectStatistic<?, ?>>> _allStatistics =
             Collections.synchronizedMap(new HashMap<Class<? extends ConfiguredObject>, Collection<ConfiguredObjectStatistic<?, ?>>>());
 
+    private final ConcurrentMap<Class<? extends ConfiguredObject>, StatisticsSnapshotWriter>
+            _statisticsSnapshotWriters = new ConcurrentHashMap<>();
+
     private final Map<Class<? extends ConfiguredObject>, Map<String, ConfiguredObjectAttribute<?, ?>>>
             _allAttributeTypes =
             Collections.synchronizedMap(new HashMap<Class<? extends ConfiguredObject>, Map<String, ConfiguredObjectAttribute<?, ?>>>());
@@ -1297,6 +1300,21 @@ public class ConfiguredObjectTypeRegistry
         return statistics;
     }
 
+    StatisticsSnapshotWriter getStatisticsSnapshotWriter(final Class<? extends ConfiguredObject> clazz)
+    {
+        StatisticsSnapshotWriter writer = _statisticsSnapshotWriters.get(clazz);
+        if (writer == null)
+        {
+            writer = new StatisticsSnapshotWriter(getStatistics(clazz));
+            final StatisticsSnapshotWriter existing = _statisticsSnapshotWriters.putIfAbsent(clazz, writer);
+            if (existing != null)
+            {
+                writer = existing;
+            }
+        }
+        return writer;
+    }
+
     public Map<String, ConfiguredObjectOperation<?>> getOperations(final Class<? extends ConfiguredObject> clazz)
     {
         return getOperations(clazz, null);
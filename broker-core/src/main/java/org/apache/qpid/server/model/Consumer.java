@@ -82,6 +82,12 @@ public interface Consumer<X extends Consumer<X,T>, T extends ConsumerTarget> ext
     @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.MESSAGES, label = "Prefetch")
     long getUnacknowledgedMessages();
 
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.TIME_DURATION,
+                      label = "Idle While Messages Available",
+                      description = "Total time in milliseconds for which the consumer was ready for messages, having"
+                                    + " become so whilst the queue held available messages, before it was offered any.")
+    long getIdleWhileMessagesAvailableTime();
+
     long getConsumerNumber();
 
     boolean isSuspended();
@@ -94,6 +94,14 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
     @ManagedContextDefault( name = QUEUE_SCAVANGE_COUNT)
     int DEFAULT_QUEUE_SCAVANGE_COUNT = 100;
 
+    String QUEUE_DELIVER_TO_LEAST_LOADED_CONSUMER = "queue.deliverToLeastLoadedConsumer";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_DELIVER_TO_LEAST_LOADED_CONSUMER,
+            description = "If true, consumers of equal priority are offered messages in ascending order of their"
+                          + " unacknowledged bytes rather than in round robin order, so that consumers with large"
+                          + " prefetch cannot take messages while other consumers are idle.")
+    boolean DEFAULT_QUEUE_DELIVER_TO_LEAST_LOADED_CONSUMER = false;
+
 
     String MIME_TYPE_TO_FILE_EXTENSION = "qpid.mimeTypeToFileExtension";
     @SuppressWarnings("unused")
@@ -190,6 +198,29 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
                           + " 'maximumQueueDepthBytes' and 'maximumQueueDepthMessages'.")
     double DEFAULT_FLOW_CONTROL_RESUME_LIMIT = 80.0;
 
+    String QUEUE_FLOW_CONTROL_FAIR_SHARE = "queue.queueFlowControlFairShare";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_FLOW_CONTROL_FAIR_SHARE,
+            description = "If true, a queue with overflow policy 'PRODUCER_FLOW_CONTROL' only blocks the sessions"
+                          + " which have recently published at least their fair share of the messages enqueued,"
+                          + " rather than every session publishing whilst the queue is overfull.")
+    boolean DEFAULT_QUEUE_FLOW_CONTROL_FAIR_SHARE = false;
+
+    String QUEUE_FLOW_CONTROL_FAIR_SHARE_HALF_LIFE = "queue.queueFlowControlFairShareHalfLife";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_FLOW_CONTROL_FAIR_SHARE_HALF_LIFE,
+            description = "Half life, in milliseconds, of the record of bytes published by each session which is"
+                          + " used to evaluate fair share producer flow control.")
+    long DEFAULT_QUEUE_FLOW_CONTROL_FAIR_SHARE_HALF_LIFE = 1000L;
+
+    String QUEUE_FLOW_CONTROL_FAIR_SHARE_HARD_LIMIT = "queue.queueFlowControlFairShareHardLimit";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_FLOW_CONTROL_FAIR_SHARE_HARD_LIMIT,
+            description = "Percentage of the values of attributes 'maximumQueueDepthBytes' and"
+                          + " 'maximumQueueDepthMessages' above which fair share producer flow control blocks every"
+                          + " publishing session.")
+    double DEFAULT_QUEUE_FLOW_CONTROL_FAIR_SHARE_HARD_LIMIT = 120.0;
+
     @SuppressWarnings("unused")
     @DerivedAttribute
     boolean isQueueFlowStopped();
@@ -488,6 +519,19 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
             description = "Total number of enqueued malformed messages.")
     long getTotalMalformedMessages();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.BYTES, label = "Estimated Bytes Per Entry",
+            description = "Estimate of the shallow heap size of the objects used to track each message on the"
+                          + " queue, excluding the message itself. Computed from the field layout, not measured.")
+    long getEstimatedBytesPerEntry();
+
+    @SuppressWarnings("unused")
+    @ManagedOperation(nonModifying = true,
+            description = "Returns the count, mean, maximum and configured percentiles of the residence time and"
+                          + " time to first delivery (both in milliseconds) of messages on this queue.",
+            changesConfiguredObjectState = false)
+    Map<String, Map<String, Number>> getLatencyStatistics();
+
     @ManagedOperation(description = "move messages from this queue to another", changesConfiguredObjectState = false)
     List<Long> moveMessages(@Param(name = "destination", description = "The queue to which the messages should be moved", mandatory = true) Queue<?> destination,
                             @Param(name = "messageIds", description = "If provided, only messages in the queue whose (internal) message-id is supplied will be considered for moving") List<Long> messageIds,
@@ -539,6 +583,21 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
     MessageInfo getMessageInfoById(@Param(name = "messageId") long messageId,
                                    @Param(name = "includeHeaders", defaultValue = "true") boolean includeHeaders);
 
+    @ManagedOperation(description = "streams information about the messages on the queue, walking the queue"
+                                    + " incrementally so that memory use does not depend on the queue depth",
+            nonModifying = true,
+            paramRequiringSecure = "includeHeaders",
+            changesConfiguredObjectState = false)
+    Content browseMessages(@Param(name = "cursor", defaultValue = "-1",
+                                  description = "If provided, browsing resumes after the message with this"
+                                                + " (internal) message-id, as returned by a previous browse") long cursor,
+                           @Param(name = "limit", defaultValue = "-1",
+                                  description = "Maximum number of messages to return") int limit,
+                           @Param(name = "selector",
+                                  description = "A (JMS) selector - if provided, only messages which match the selector"
+                                                + " will be returned") String selector,
+                           @Param(name = "includeHeaders", defaultValue = "false") boolean includeHeaders);
+
     boolean isExclusive();
 
     LogSubject getLogSubject();
@@ -61,6 +61,12 @@ public interface Session<X extends Session<X>> extends ConfiguredObject<X>
     @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.MESSAGES, label = "Prefetched")
     long getUnacknowledgedMessages();
 
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.TIME_DURATION,
+                      label = "Producer Flow Blocked Time",
+                      description = "Total time in milliseconds for which publishing on this session has been blocked"
+                                    + " by queue producer flow control, summed over the blocking queues.")
+    long getProducerFlowBlockedTime();
+
     @ManagedOperation(nonModifying = true,
             changesConfiguredObjectState = false,
             skipAclCheck = true)
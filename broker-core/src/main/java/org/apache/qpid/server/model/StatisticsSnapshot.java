@@ -0,0 +1,212 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A reusable, columnar capture of the statistics of one or more configured objects.
+ * <p>
+ * Values are written into a single primitive array by a per-class {@link StatisticsSnapshotWriter}, so taking a
+ * snapshot of a large object tree neither allocates a map per object nor boxes each value. Maps are only produced
+ * on request by {@link #toMap(int, Collection)}. A snapshot is not thread safe; callers which sample periodically
+ * can {@link #clear()} and reuse the same instance so that its arrays are only grown once.
+ */
+public final class StatisticsSnapshot
+{
+    private static final int INITIAL_OBJECTS = 16;
+
+    private ConfiguredObject<?>[] _objects = new ConfiguredObject<?>[INITIAL_OBJECTS];
+    private StatisticsSnapshotWriter[] _writers = new StatisticsSnapshotWriter[INITIAL_OBJECTS];
+    private int[] _valueOffsets = new int[INITIAL_OBJECTS];
+    private int[] _presenceOffsets = new int[INITIAL_OBJECTS];
+    private long[] _values = new long[INITIAL_OBJECTS * 8];
+    private Object[] _objectValues;
+    private long[] _presence = new long[INITIAL_OBJECTS];
+
+    private int _size;
+    private int _valueCount;
+    private int _presenceCount;
+
+    public void clear()
+    {
+        Arrays.fill(_objects, 0, _size, null);
+        if (_objectValues != null)
+        {
+            Arrays.fill(_objectValues, 0, _valueCount, null);
+        }
+        _size = 0;
+        _valueCount = 0;
+        _presenceCount = 0;
+    }
+
+    public int size()
+    {
+        return _size;
+    }
+
+    /**
+     * Captures the statistics of the given object.
+     */
+    public void capture(final ConfiguredObject<?> object)
+    {
+        final StatisticsSnapshotWriter writer =
+                object.getModel().getTypeRegistry().getStatisticsSnapshotWriter(object.getClass());
+        ensureCapacity(writer);
+
+        final int index = _size++;
+        _objects[index] = object;
+        _writers[index] = writer;
+        _valueOffsets[index] = _valueCount;
+        _presenceOffsets[index] = _presenceCount;
+        writer.write(object, _values, _objectValues, _valueCount, _presence, _presenceCount);
+        _valueCount += writer.size();
+        _presenceCount += writer.presenceWords();
+    }
+
+    /**
+     * Captures the statistics of the given object and of its descendants down to the given depth, parents before
+     * their children.
+     */
+    public void captureTree(final ConfiguredObject<?> root, final int depth)
+    {
+        capture(root);
+        if (depth > 0)
+        {
+            final Model model = root.getModel();
+            for (Class<? extends ConfiguredObject> childType : model.getChildTypes(root.getCategoryClass()))
+            {
+                for (ConfiguredObject<?> child : root.getChildren(childType))
+                {
+                    captureTree(child, depth - 1);
+                }
+            }
+        }
+    }
+
+    public ConfiguredObject<?> getObject(final int index)
+    {
+        checkIndex(index);
+        return _objects[index];
+    }
+
+    /**
+     * Returns the captured value of the named statistic of the object at the given index, boxed as the statistic's
+     * declared type, or null if the statistic is unknown or had no value.
+     */
+    public Object getValue(final int index, final String statistic)
+    {
+        checkIndex(index);
+        final StatisticsSnapshotWriter writer = _writers[index];
+        for (int i = 0; i < writer.size(); i++)
+        {
+            if (writer.getName(i).equals(statistic))
+            {
+                return getValue(index, writer, i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the captured statistics of the object at the given index as a map.
+     *
+     * @param statistics names of the statistics to include, or null or empty for all statistics
+     */
+    public Map<String, Object> toMap(final int index, final Collection<String> statistics)
+    {
+        checkIndex(index);
+        final StatisticsSnapshotWriter writer = _writers[index];
+        final boolean allStatistics = statistics == null || statistics.isEmpty();
+        final Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < writer.size(); i++)
+        {
+            final String name = writer.getName(i);
+            if (allStatistics || statistics.contains(name))
+            {
+                final Object value = getValue(index, writer, i);
+                if (value != null)
+                {
+                    map.put(name, value);
+                }
+            }
+        }
+        return map;
+    }
+
+    private Object getValue(final int index, final StatisticsSnapshotWriter writer, final int statistic)
+    {
+        final long word = _presence[_presenceOffsets[index] + (statistic >>> 6)];
+        if ((word & (1L << (statistic & 63))) == 0)
+        {
+            return null;
+        }
+        final int position = _valueOffsets[index] + statistic;
+        final StatisticsSnapshotWriter.Kind kind = writer.getKind(statistic);
+        return kind == StatisticsSnapshotWriter.Kind.OBJECT
+                ? _objectValues[position]
+                : StatisticsSnapshotWriter.toValue(kind, _values[position]);
+    }
+
+    private void checkIndex(final int index)
+    {
+        if (index < 0 || index >= _size)
+        {
+            throw new IndexOutOfBoundsException(String.format("Index %d is outside snapshot of size %d", index, _size));
+        }
+    }
+
+    private void ensureCapacity(final StatisticsSnapshotWriter writer)
+    {
+        if (_size == _objects.length)
+        {
+            final int capacity = _objects.length * 2;
+            _objects = Arrays.copyOf(_objects, capacity);
+            _writers = Arrays.copyOf(_writers, capacity);
+            _valueOffsets = Arrays.copyOf(_valueOffsets, capacity);
+            _presenceOffsets = Arrays.copyOf(_presenceOffsets, capacity);
+        }
+        final int requiredValues = _valueCount + writer.size();
+        if (requiredValues > _values.length)
+        {
+            _values = Arrays.copyOf(_values, Math.max(requiredValues, _values.length * 2));
+        }
+        if (_objectValues == null)
+        {
+            if (writer.hasObjectStatistics())
+            {
+                _objectValues = new Object[_values.length];
+            }
+        }
+        else if (_objectValues.length < _values.length)
+        {
+            _objectValues = Arrays.copyOf(_objectValues, _values.length);
+        }
+        final int requiredPresence = _presenceCount + writer.presenceWords();
+        if (requiredPresence > _presence.length)
+        {
+            _presence = Arrays.copyOf(_presence, Math.max(requiredPresence, _presence.length * 2));
+        }
+    }
+}
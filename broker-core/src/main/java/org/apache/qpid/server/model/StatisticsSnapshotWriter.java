@@ -0,0 +1,280 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.model;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.qpid.server.util.ServerScopedRuntimeException;
+
+/**
+ * Reads all statistics of one concrete configured object class into a primitive array.
+ * <p>
+ * The writer is built once per class from the type registry metadata. Statistics backed by public getters returning
+ * an {@code int}, {@code long} or {@code double} are read through a {@link MethodHandle} adapted to return a
+ * {@code long} or {@code double}, so that neither reflection nor boxing is involved. Any other statistic (boxed or
+ * date valued getters, injected statistics) falls back to {@link ConfiguredObjectStatistic#getValue(ConfiguredObject)}.
+ */
+final class StatisticsSnapshotWriter
+{
+    enum Kind
+    {
+        INT, LONG, DOUBLE, DATE, OBJECT
+    }
+
+    private static final MethodType LONG_GETTER = MethodType.methodType(long.class, ConfiguredObject.class);
+    private static final MethodType DOUBLE_GETTER = MethodType.methodType(double.class, ConfiguredObject.class);
+
+    private final ConfiguredObjectStatistic[] _statistics;
+    private final String[] _names;
+    private final Kind[] _kinds;
+    private final MethodHandle[] _getters;
+    private final boolean _hasObjectStatistics;
+
+    StatisticsSnapshotWriter(final Collection<ConfiguredObjectStatistic<?, ?>> statistics)
+    {
+        final List<ConfiguredObjectStatistic<?, ?>> ordered = new ArrayList<>(statistics);
+        ordered.sort((left, right) -> left.getName().compareTo(right.getName()));
+        final int size = ordered.size();
+        _statistics = new ConfiguredObjectStatistic[size];
+        _names = new String[size];
+        _kinds = new Kind[size];
+        _getters = new MethodHandle[size];
+        boolean hasObjectStatistics = false;
+        for (int i = 0; i < size; i++)
+        {
+            final ConfiguredObjectStatistic<?, ?> statistic = ordered.get(i);
+            _statistics[i] = statistic;
+            _names[i] = statistic.getName();
+            _kinds[i] = getKind(statistic.getType());
+            _getters[i] = createGetter(statistic, _kinds[i]);
+            hasObjectStatistics |= _kinds[i] == Kind.OBJECT;
+        }
+        _hasObjectStatistics = hasObjectStatistics;
+    }
+
+    int size()
+    {
+        return _names.length;
+    }
+
+    int presenceWords()
+    {
+        return (_names.length + 63) >>> 6;
+    }
+
+    String getName(final int index)
+    {
+        return _names[index];
+    }
+
+    Kind getKind(final int index)
+    {
+        return _kinds[index];
+    }
+
+    boolean hasObjectStatistics()
+    {
+        return _hasObjectStatistics;
+    }
+
+    /**
+     * Writes the statistic values of the object into {@code values} starting at {@code offset}. Statistics of kind
+     * {@link Kind#OBJECT} are written to {@code objects} at the same position instead. Values which are present are
+     * flagged in the bit set {@code presence} starting at word {@code presenceOffset}.
+     */
+    void write(final ConfiguredObject<?> object,
+               final long[] values,
+               final Object[] objects,
+               final int offset,
+               final long[] presence,
+               final int presenceOffset)
+    {
+        for (int i = 0; i < _names.length; i++)
+        {
+            final MethodHandle getter = _getters[i];
+            boolean present = true;
+            if (getter != null)
+            {
+                values[offset + i] = _kinds[i] == Kind.DOUBLE
+                        ? Double.doubleToRawLongBits(invokeDouble(getter, object))
+                        : invokeLong(getter, object);
+            }
+            else
+            {
+                final Object value = _statistics[i].getValue(object);
+                if (value == null)
+                {
+                    present = false;
+                }
+                else if (_kinds[i] == Kind.OBJECT)
+                {
+                    objects[offset + i] = value;
+                }
+                else
+                {
+                    values[offset + i] = toLong(_kinds[i], value);
+                }
+            }
+            final int word = presenceOffset + (i >>> 6);
+            final long bit = 1L << (i & 63);
+            if (present)
+            {
+                presence[word] |= bit;
+            }
+            else
+            {
+                presence[word] &= ~bit;
+            }
+        }
+    }
+
+    /**
+     * Returns the value of a single statistic boxed as its declared type, or null if the value is absent.
+     */
+    Object getValue(final ConfiguredObject<?> object, final int index)
+    {
+        final MethodHandle getter = _getters[index];
+        if (getter == null)
+        {
+            return _statistics[index].getValue(object);
+        }
+        else if (_kinds[index] == Kind.DOUBLE)
+        {
+            return invokeDouble(getter, object);
+        }
+        return toValue(_kinds[index], invokeLong(getter, object));
+    }
+
+    static Object toValue(final Kind kind, final long value)
+    {
+        switch (kind)
+        {
+            case INT:
+                return (int) value;
+            case DOUBLE:
+                return Double.longBitsToDouble(value);
+            case DATE:
+                return new Date(value);
+            default:
+                return value;
+        }
+    }
+
+    private static long toLong(final Kind kind, final Object value)
+    {
+        switch (kind)
+        {
+            case DATE:
+                return ((Date) value).getTime();
+            case DOUBLE:
+                return Double.doubleToRawLongBits(((Number) value).doubleValue());
+            default:
+                return ((Number) value).longValue();
+        }
+    }
+
+    private static Kind getKind(final Class<?> type)
+    {
+        if (Date.class.isAssignableFrom(type))
+        {
+            return Kind.DATE;
+        }
+        else if (type == int.class || type == Integer.class)
+        {
+            return Kind.INT;
+        }
+        else if (type == long.class || type == Long.class)
+        {
+            return Kind.LONG;
+        }
+        else if (type == double.class || type == Double.class)
+        {
+            return Kind.DOUBLE;
+        }
+        return Kind.OBJECT;
+    }
+
+    private static MethodHandle createGetter(final ConfiguredObjectStatistic<?, ?> statistic, final Kind kind)
+    {
+        if (statistic instanceof ConfiguredObjectMethodStatistic && kind != Kind.DATE && kind != Kind.OBJECT)
+        {
+            final Method getter = ((ConfiguredObjectMethodStatistic<?, ?>) statistic).getGetter();
+            if (getter.getReturnType().isPrimitive()
+                && Modifier.isPublic(getter.getModifiers())
+                && Modifier.isPublic(getter.getDeclaringClass().getModifiers()))
+            {
+                try
+                {
+                    return MethodHandles.publicLookup()
+                                        .unreflect(getter)
+                                        .asType(kind == Kind.DOUBLE ? DOUBLE_GETTER : LONG_GETTER);
+                }
+                catch (IllegalAccessException | RuntimeException e)
+                {
+                    // fall back to the statistic's own accessor
+                }
+            }
+        }
+        return null;
+    }
+
+    private long invokeLong(final MethodHandle getter, final ConfiguredObject<?> object)
+    {
+        try
+        {
+            return (long) getter.invokeExact((ConfiguredObject) object);
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable t)
+        {
+            throw new ServerScopedRuntimeException("Unable to get statistic value from configured object of category "
+                                                   + object.getCategoryClass().getSimpleName(), t);
+        }
+    }
+
+    private double invokeDouble(final MethodHandle getter, final ConfiguredObject<?> object)
+    {
+        try
+        {
+            return (double) getter.invokeExact((ConfiguredObject) object);
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable t)
+        {
+            throw new ServerScopedRuntimeException("Unable to get statistic value from configured object of category "
+                                                   + object.getCategoryClass().getSimpleName(), t);
+        }
+    }
+}
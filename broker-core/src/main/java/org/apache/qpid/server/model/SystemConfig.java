@@ -71,6 +71,11 @@ public interface SystemConfig<X extends SystemConfig<X>> extends ConfiguredObjec
 
     String PROPERTY_STATUS_UPDATES = "qpid.broker_status_updates";
 
+    String PROPERTY_STATUS_UPDATES_ASYNC = "qpid.broker_status_updates_async";
+    String PROPERTY_STATUS_UPDATES_ASYNC_BUFFER_SIZE = "qpid.broker_status_updates_async_buffer_size";
+    int DEFAULT_STATUS_UPDATES_ASYNC_BUFFER_SIZE = 8192;
+    String PROPERTY_STATUS_UPDATES_ASYNC_OVERFLOW_POLICY = "qpid.broker_status_updates_async_overflow_policy";
+
     @ManagedAttribute(immutable = true, defaultValue = Broker.BROKER_TYPE)
     String getDefaultContainerType();
 
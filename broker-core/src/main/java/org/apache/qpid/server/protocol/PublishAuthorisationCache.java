@@ -20,54 +20,104 @@
  */
 package org.apache.qpid.server.protocol;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
+import javax.security.auth.Subject;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.apache.qpid.server.connection.SessionPrincipal;
 import org.apache.qpid.server.message.MessageDestination;
 import org.apache.qpid.server.security.SecurityToken;
+import org.apache.qpid.server.security.auth.SocketConnectionPrincipal;
 import org.apache.qpid.server.transport.AbstractAMQPConnection;
 
+/**
+ * Caches successful publish authorisations so that they may be shared by all sessions of a virtualhost.
+ *
+ * Entries are keyed on the publisher's identity (as returned by {@link #getPublisherIdentity(Subject)}),
+ * the destination, the routing key and the version reported by the access control, so that a change of access
+ * control makes every earlier entry unreachable, even one added concurrently with the change. An entry is valid
+ * until it times out. Denials are never cached.
+ */
 public class PublishAuthorisationCache
 {
-    private final SecurityToken _token;
-
     private final long _publishAuthCacheTimeout;
-    private final int _publishAuthCacheSize;
-    private final LinkedHashMap<PublishAuthKey, Long> _publishAuthCache =
-            new LinkedHashMap<PublishAuthKey, Long>()
-            {
-                @Override
-                protected boolean removeEldestEntry(final Map.Entry<PublishAuthKey, Long> eldest)
-                {
-                    return size() > _publishAuthCacheSize;
-                }
-            };
+    private final LongSupplier _accessControlVersion;
+    private final Cache<PublishAuthKey, Long> _publishAuthCache;
+    private final LongAdder _hitCount = new LongAdder();
+    private final LongAdder _missCount = new LongAdder();
+    private volatile long _version;
 
-    public PublishAuthorisationCache(final SecurityToken token,
-                                     final long publishAuthCacheTimeout,
-                                     final int publishAuthCacheSize)
+    public PublishAuthorisationCache(final long publishAuthCacheTimeout,
+                                     final int publishAuthCacheSize,
+                                     final LongSupplier accessControlVersion)
     {
-        _token = token;
         _publishAuthCacheTimeout = publishAuthCacheTimeout;
-        _publishAuthCacheSize = publishAuthCacheSize;
+        _accessControlVersion = accessControlVersion;
+        _publishAuthCache = CacheBuilder.newBuilder()
+                                        .maximumSize(Math.max(0, publishAuthCacheSize))
+                                        .expireAfterWrite(Math.max(0L, publishAuthCacheTimeout), TimeUnit.MILLISECONDS)
+                                        .build();
+        _version = accessControlVersion.getAsLong();
+    }
+
+    /**
+     * Returns the part of the subject's identity on which a publish authorisation may depend: its principals,
+     * other than those identifying the session and connection, and the remote host (for firewall rules).
+     */
+    public static Set<Object> getPublisherIdentity(final Subject subject)
+    {
+        final Set<Object> identity = new HashSet<>();
+        for (Principal principal : subject.getPrincipals())
+        {
+            if (principal instanceof SocketConnectionPrincipal)
+            {
+                final SocketAddress remoteAddress = ((SocketConnectionPrincipal) principal).getRemoteAddress();
+                if (remoteAddress instanceof InetSocketAddress)
+                {
+                    identity.add(((InetSocketAddress) remoteAddress).getAddress());
+                }
+            }
+            else if (!(principal instanceof SessionPrincipal))
+            {
+                identity.add(principal);
+            }
+        }
+        return Collections.unmodifiableSet(identity);
     }
 
-    private final class PublishAuthKey
+    private static final class PublishAuthKey
     {
+        private final long _version;
+        private final Set<Object> _publisherIdentity;
         private final MessageDestination _messageDestination;
         private final String _routingKey;
         private final boolean _immediate;
         private final int _hashCode;
 
-        public PublishAuthKey(final MessageDestination messageDestination,
+        public PublishAuthKey(final long version,
+                              final Set<Object> publisherIdentity,
+                              final MessageDestination messageDestination,
                               final String routingKey,
                               final boolean immediate)
         {
+            _version = version;
+            _publisherIdentity = publisherIdentity;
             _messageDestination = messageDestination;
             _routingKey = routingKey;
             _immediate = immediate;
-            _hashCode = Objects.hash(_messageDestination, _routingKey, _immediate);
+            _hashCode = Objects.hash(_version, _publisherIdentity, _messageDestination, _routingKey, _immediate);
         }
 
         @Override
@@ -83,9 +133,11 @@ public class PublishAuthorisationCache
             }
             final PublishAuthKey that = (PublishAuthKey) o;
             return _hashCode == that._hashCode
+                   && _version == that._version
                    && _immediate == that._immediate
                    && Objects.equals(_messageDestination, that._messageDestination)
-                   && Objects.equals(_routingKey, that._routingKey);
+                   && Objects.equals(_routingKey, that._routingKey)
+                   && Objects.equals(_publisherIdentity, that._publisherIdentity);
         }
 
         @Override
@@ -95,16 +147,48 @@ public class PublishAuthorisationCache
         }
     }
 
-    public void authorisePublish(MessageDestination destination, String routingKey, boolean isImmediate, long currentTime)
+    public void authorisePublish(final SecurityToken token,
+                                 final Set<Object> publisherIdentity,
+                                 final MessageDestination destination,
+                                 final String routingKey,
+                                 final boolean isImmediate,
+                                 final long currentTime)
     {
-        PublishAuthKey key = new PublishAuthKey(destination, routingKey, isImmediate);
-        Long expiration = _publishAuthCache.get(key);
+        final long version = _accessControlVersion.getAsLong();
+        if (version != _version)
+        {
+            // entries of earlier versions can no longer be hit; discarding them only frees the space early
+            _version = version;
+            _publishAuthCache.invalidateAll();
+        }
+
+        final PublishAuthKey key = new PublishAuthKey(version, publisherIdentity, destination, routingKey, isImmediate);
+        final Long expiration = _publishAuthCache.getIfPresent(key);
 
         if(expiration == null || expiration < currentTime)
         {
-            destination.authorisePublish(_token, AbstractAMQPConnection.PUBLISH_ACTION_MAP_CREATOR.createMap(routingKey, isImmediate));
+            _missCount.increment();
+            destination.authorisePublish(token, AbstractAMQPConnection.PUBLISH_ACTION_MAP_CREATOR.createMap(routingKey, isImmediate));
             _publishAuthCache.put(key, currentTime + _publishAuthCacheTimeout);
         }
+        else
+        {
+            _hitCount.increment();
+        }
     }
 
+    public long getHitCount()
+    {
+        return _hitCount.sum();
+    }
+
+    public long getMissCount()
+    {
+        return _missCount.sum();
+    }
+
+    public int size()
+    {
+        return (int) _publishAuthCache.size();
+    }
 }
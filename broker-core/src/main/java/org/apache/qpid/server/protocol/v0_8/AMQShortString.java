@@ -21,17 +21,19 @@
 
 package org.apache.qpid.server.protocol.v0_8;
 
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.AccessController;
 import java.util.Arrays;
 
-import com.google.common.cache.Cache;
+import javax.security.auth.Subject;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
-import org.apache.qpid.server.virtualhost.CacheFactory;
-import org.apache.qpid.server.virtualhost.NullCache;
+import org.apache.qpid.server.security.QpidPrincipal;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+import org.apache.qpid.server.virtualhost.VirtualHostPrincipal;
 
 /**
  * A short string is a representation of an AMQ Short String
@@ -47,12 +49,11 @@ public final class AMQShortString implements Comparable<AMQShortString>
     public static final int MAX_LENGTH = 255;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AMQShortString.class);
-    private static final NullCache<ByteBuffer, AMQShortString> NULL_CACHE = new NullCache<>();
+    private static final AMQShortStringCache NULL_CACHE = new AMQShortStringCache(0);
 
-    // Unfortunately CacheBuilder does not yet support keyEquivalence, so we have to wrap the keys in ByteBuffers
-    // rather than using the byte arrays as keys.
-    private static final ThreadLocal<Cache<ByteBuffer, AMQShortString>> CACHE =
-            ThreadLocal.withInitial(() -> CacheFactory.getCache("amqShortStringCache", NULL_CACHE));
+    // The intern table is resolved once per thread from the virtualhost associated with the current subject
+    private static final ThreadLocal<AMQShortStringCache> CACHE =
+            ThreadLocal.withInitial(AMQShortString::resolveShortStringCache);
 
     private final byte[] _data;
     private int _hashCode;
@@ -74,27 +75,40 @@ public final class AMQShortString implements Comparable<AMQShortString>
         _data = data;
     }
 
-    static byte[] readAMQShortStringAsBytes(QpidByteBuffer buffer)
+    static AMQShortString createUncached(final byte[] data, final int hashCode)
+    {
+        final AMQShortString shortString = new AMQShortString(data);
+        shortString._hashCode = hashCode;
+        return shortString;
+    }
+
+    private static int readAMQShortStringLength(QpidByteBuffer buffer)
     {
         int length = buffer.getUnsignedByte();
+        if (length > MAX_LENGTH)
+        {
+            throw new IllegalArgumentException("Cannot create AMQShortString with number of octets over 255!");
+        }
+        if(length > buffer.remaining())
+        {
+            throw new IllegalArgumentException("Cannot create AMQShortString with length "
+                                               + length + " from a ByteBuffer with only "
+                                               + buffer.remaining()
+                                               + " bytes.");
+
+        }
+        return length;
+    }
+
+    static byte[] readAMQShortStringAsBytes(QpidByteBuffer buffer)
+    {
+        int length = readAMQShortStringLength(buffer);
         if(length == 0)
         {
             return null;
         }
         else
         {
-            if (length > MAX_LENGTH)
-            {
-                throw new IllegalArgumentException("Cannot create AMQShortString with number of octets over 255!");
-            }
-            if(length > buffer.remaining())
-            {
-                throw new IllegalArgumentException("Cannot create AMQShortString with length "
-                                                   + length + " from a ByteBuffer with only "
-                                                   + buffer.remaining()
-                                                   + " bytes.");
-
-            }
             byte[] data = new byte[length];
             buffer.get(data,0, length);
 
@@ -117,21 +131,14 @@ public final class AMQShortString implements Comparable<AMQShortString>
 
     public static AMQShortString readAMQShortString(QpidByteBuffer buffer)
     {
-        byte[] data = readAMQShortStringAsBytes(buffer);
-        if (data == null)
+        int length = readAMQShortStringLength(buffer);
+        if (length == 0)
         {
             return null;
         }
         else
         {
-            ByteBuffer stringBuffer = ByteBuffer.wrap(data);
-            AMQShortString cached = getShortStringCache().getIfPresent(stringBuffer);
-            if (cached == null)
-            {
-                cached = new AMQShortString(data);
-                getShortStringCache().put(stringBuffer, cached);
-            }
-            return cached;
+            return getShortStringCache().intern(buffer, length);
         }
     }
 
@@ -142,7 +149,7 @@ public final class AMQShortString implements Comparable<AMQShortString>
             throw new NullPointerException("Cannot create AMQShortString with null data[]");
         }
 
-        final AMQShortString cached = getShortStringCache().getIfPresent(ByteBuffer.wrap(data));
+        final AMQShortString cached = getShortStringCache().getIfPresent(data);
         return cached != null ? cached : new AMQShortString(data);
     }
 
@@ -150,7 +157,7 @@ public final class AMQShortString implements Comparable<AMQShortString>
     {
         final byte[] data = EncodingUtils.asUTF8Bytes(string);
 
-        final AMQShortString cached = getShortStringCache().getIfPresent(ByteBuffer.wrap(data));
+        final AMQShortString cached = getShortStringCache().getIfPresent(data);
         if (cached != null)
         {
             return cached;
@@ -325,6 +332,27 @@ public final class AMQShortString implements Comparable<AMQShortString>
         }
     }
 
+    boolean contentEquals(final byte[] data)
+    {
+        return Arrays.equals(_data, data);
+    }
+
+    boolean contentEquals(final QpidByteBuffer buffer, final int offset, final int length)
+    {
+        if (length != _data.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < length; i++)
+        {
+            if (_data[i] != buffer.get(offset + i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public boolean contains(final byte b)
     {
         final int end = _data.length;
@@ -395,14 +423,29 @@ public final class AMQShortString implements Comparable<AMQShortString>
         return amqShortString == null ? null : amqShortString.toString();
     }
 
-    static Cache<ByteBuffer, AMQShortString> getShortStringCache()
+    static AMQShortStringCache getShortStringCache()
     {
         return CACHE.get();
     }
 
     /** Unit testing only */
-    static void setShortStringCache(final Cache<ByteBuffer, AMQShortString> cache)
+    static void setShortStringCache(final AMQShortStringCache cache)
     {
         CACHE.set(cache);
     }
+
+    private static AMQShortStringCache resolveShortStringCache()
+    {
+        Subject subject = Subject.getSubject(AccessController.getContext());
+        if (subject != null)
+        {
+            VirtualHostPrincipal principal =
+                    QpidPrincipal.getSingletonPrincipal(subject, true, VirtualHostPrincipal.class);
+            if (principal != null && principal.getVirtualHost() instanceof QueueManagingVirtualHost)
+            {
+                return ((QueueManagingVirtualHost<?>) principal.getVirtualHost()).getShortStringCache();
+            }
+        }
+        return NULL_CACHE;
+    }
 }
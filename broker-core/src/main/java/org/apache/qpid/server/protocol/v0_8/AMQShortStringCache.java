@@ -0,0 +1,181 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v0_8;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+
+/**
+ * A bounded open-addressing intern table for {@link AMQShortString} instances.
+ *
+ * Lookups are keyed directly on the raw octets (either a byte array or a region of a {@link QpidByteBuffer}),
+ * so a hit never allocates. The table has a fixed, power-of-two number of slots. On a miss the new value is
+ * stored in the first free slot within a short probe sequence, otherwise the value in its home slot is evicted.
+ *
+ * Slots are written without synchronization: a racing reader either sees the previous value or the new one,
+ * both of which are fully constructed as {@link AMQShortString} is immutable.
+ */
+public final class AMQShortStringCache
+{
+    private static final int MAX_PROBES = 4;
+
+    private final AMQShortString[] _entries;
+    private final int _mask;
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+
+    public AMQShortStringCache(final int maximumSize)
+    {
+        if (maximumSize < 0)
+        {
+            throw new IllegalArgumentException("Maximum size cannot be negative: " + maximumSize);
+        }
+        final int capacity = maximumSize == 0
+                ? 0
+                : Integer.highestOneBit(Math.max(1, Math.min(maximumSize - 1, 1 << 29))) << 1;
+        _entries = new AMQShortString[capacity];
+        _mask = capacity - 1;
+    }
+
+    /**
+     * Returns the cached short string equal to the given octets, or null if there is none.
+     */
+    public AMQShortString getIfPresent(final byte[] data)
+    {
+        if (_entries.length == 0)
+        {
+            return null;
+        }
+        final int hash = hash(data);
+        final int home = spread(hash) & _mask;
+        for (int i = 0; i < MAX_PROBES; i++)
+        {
+            final AMQShortString entry = _entries[(home + i) & _mask];
+            if (entry == null)
+            {
+                break;
+            }
+            if (entry.hashCode() == hash && entry.contentEquals(data))
+            {
+                _hits.increment();
+                return entry;
+            }
+        }
+        _misses.increment();
+        return null;
+    }
+
+    /**
+     * Reads a short string of the given length from the current position of the buffer, returning the cached
+     * instance when there is one and adding a new one otherwise. The buffer position is advanced past the octets.
+     */
+    public AMQShortString intern(final QpidByteBuffer buffer, final int length)
+    {
+        final int position = buffer.position();
+        final int hash = hash(buffer, position, length);
+        if (_entries.length != 0)
+        {
+            final int home = spread(hash) & _mask;
+            for (int i = 0; i < MAX_PROBES; i++)
+            {
+                final AMQShortString entry = _entries[(home + i) & _mask];
+                if (entry == null)
+                {
+                    break;
+                }
+                if (entry.hashCode() == hash && entry.contentEquals(buffer, position, length))
+                {
+                    buffer.position(position + length);
+                    _hits.increment();
+                    return entry;
+                }
+            }
+            _misses.increment();
+        }
+
+        final byte[] data = new byte[length];
+        buffer.get(data, 0, length);
+        final AMQShortString shortString = AMQShortString.createUncached(data, hash);
+        put(shortString, hash);
+        return shortString;
+    }
+
+    public int getCapacity()
+    {
+        return _entries.length;
+    }
+
+    public long getHitCount()
+    {
+        return _hits.sum();
+    }
+
+    public long getMissCount()
+    {
+        return _misses.sum();
+    }
+
+    private void put(final AMQShortString shortString, final int hash)
+    {
+        if (_entries.length == 0)
+        {
+            return;
+        }
+        final int home = spread(hash) & _mask;
+        for (int i = 0; i < MAX_PROBES; i++)
+        {
+            final int index = (home + i) & _mask;
+            if (_entries[index] == null)
+            {
+                _entries[index] = shortString;
+                return;
+            }
+        }
+        _entries[home] = shortString;
+    }
+
+    static int hash(final byte[] data)
+    {
+        int hash = 0;
+        for (final byte b : data)
+        {
+            hash = (31 * hash) + b;
+        }
+        return hash;
+    }
+
+    private static int hash(final QpidByteBuffer buffer, final int offset, final int length)
+    {
+        int hash = 0;
+        for (int i = 0; i < length; i++)
+        {
+            hash = (31 * hash) + buffer.get(offset + i);
+        }
+        return hash;
+    }
+
+    private static int spread(final int hash)
+    {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -108,6 +108,7 @@ import org.apache.qpid.server.security.SecurityToken;
 import org.apache.qpid.server.security.access.Operation;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
 import org.apache.qpid.server.session.AMQPSession;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.store.MessageDurability;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.StorableMessageMetaData;
@@ -260,12 +261,16 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     private static final int RECOVERING = 1;
     private static final int COMPLETING_RECOVERY = 2;
     private static final int RECOVERED = 3;
+    private static final int EXPIRY_INDEX_PURGE_THRESHOLD = 1024;
 
     private final AtomicInteger _recovering = new AtomicInteger(RECOVERING);
     private final AtomicInteger _enqueuingWhileRecovering = new AtomicInteger(0);
     private final ConcurrentLinkedQueue<EnqueueRequest> _postRecoveryQueue = new ConcurrentLinkedQueue<>();
     private final ConcurrentMap<String, Callable<MessageFilter>> _defaultFiltersMap = new ConcurrentHashMap<>();
     private final List<HoldMethod> _holdMethods = new CopyOnWriteArrayList<>();
+    private final QueueEntryExpiryIndex _expiryIndex = new QueueEntryExpiryIndex();
+    private final Set<QueueEntry> _heldEntries = ConcurrentHashMap.newKeySet();
+    private final Set<QueueEntry> _alertedEntries = ConcurrentHashMap.newKeySet();
     private final Set<DestinationReferrer> _referrers = Collections.newSetFromMap(new ConcurrentHashMap<DestinationReferrer,Boolean>());
     private final Set<LocalTransaction> _transactions = ConcurrentHashMap.newKeySet();
     private final LocalTransaction.LocalTransactionListener _localTransactionListener = _transactions::remove;
@@ -352,6 +357,11 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         {
             throw new IllegalConfigurationException("Flow resume limit value cannot be greater than 100 or lower than 0");
         }
+        Double fairShareHardLimit = getContextValue(Double.class, QUEUE_FLOW_CONTROL_FAIR_SHARE_HARD_LIMIT);
+        if (fairShareHardLimit != null && fairShareHardLimit < 100.0)
+        {
+            throw new IllegalConfigurationException("Flow control fair share hard limit value cannot be lower than 100");
+        }
     }
 
     @Override
@@ -1289,6 +1299,10 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     {
         final QueueEntry entry = getEntries().add(message, enqueueRecord);
         updateExpiration(entry);
+        if (!_holdMethods.isEmpty() && isHeld(entry, System.currentTimeMillis()))
+        {
+            _heldEntries.add(entry);
+        }
 
         try
         {
@@ -1298,7 +1312,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
                 notifyConsumers(entry);
             }
 
-            checkForNotificationOnNewMessage(entry.getMessage());
+            checkForNotificationOnNewMessage(entry);
         }
         finally
         {
@@ -1322,7 +1336,16 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         long expiration = calculateExpiration(entry.getMessage());
         if (expiration > 0)
         {
+            final long previousExpiration = entry.getExpiration();
             entry.setExpiration(expiration);
+            if (previousExpiration != expiration && previousExpiration > 0 && previousExpiration != Long.MAX_VALUE)
+            {
+                _expiryIndex.remove(entry, previousExpiration);
+            }
+            if (expiration != Long.MAX_VALUE)
+            {
+                _expiryIndex.add(entry, expiration);
+            }
         }
     }
 
@@ -1636,6 +1659,17 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return _queueStatistics;
     }
 
+    @Override
+    public Map<String, Map<String, Number>> getLatencyStatistics()
+    {
+        final double[] percentiles = LatencyHistogram.parsePercentiles(
+                getContextValue(String.class, QueueManagingVirtualHost.LATENCY_PERCENTILES));
+        final Map<String, Map<String, Number>> statistics = new LinkedHashMap<>();
+        statistics.put("residenceTime", _queueStatistics.getResidenceTime().getSummary(percentiles));
+        statistics.put("firstDeliveryLatency", _queueStatistics.getFirstDeliveryLatency().getSummary(percentiles));
+        return statistics;
+    }
+
     protected final QueueConsumerManagerImpl getQueueConsumerManager()
     {
         return _queueConsumerManager;
@@ -2129,7 +2163,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return messageContainer;
     }
 
-    private boolean hasAvailableMessages()
+    boolean hasAvailableMessages()
     {
         return _queueStatistics.getAvailableCount() != 0;
     }
@@ -2274,8 +2308,6 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     @Override
     public void checkMessageStatus()
     {
-        QueueEntryIterator queueListIterator = getEntries().iterator();
-
         final Set<NotificationCheck> perMessageChecks = new HashSet<>();
         final Set<NotificationCheck> queueLevelChecks = new HashSet<>();
 
@@ -2294,48 +2326,16 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         final long currentTime = System.currentTimeMillis();
         final long thresholdTime = currentTime - getAlertRepeatGap();
 
-        while (!_stopped.get() && queueListIterator.advance())
+        if (!_stopped.get())
         {
-            final QueueEntry node = queueListIterator.getNode();
-            // Only process nodes that are not currently deleted and not dequeued
-            if (!node.isDeleted())
+            _expiryIndex.removeDue(currentTime, this::expireEntry);
+            if (_expiryIndex.size() > 2L * getQueueDepthMessages() + EXPIRY_INDEX_PURGE_THRESHOLD)
             {
-                // If the node has expired then acquire it
-                if (node.expired())
-                {
-                    expireEntry(node);
-                }
-                else
-                {
-                    node.checkHeld(currentTime);
-
-                    // There is a chance that the node could be deleted by
-                    // the time the check actually occurs. So verify we
-                    // can actually get the message to perform the check.
-                    ServerMessage msg = node.getMessage();
-                    if (msg != null)
-                    {
-                        try (MessageReference messageReference = msg.newReference())
-                        {
-                            if (!msg.checkValid())
-                            {
-                                malformedEntry(node);
-                            }
-                            else
-                            {
-                                for (NotificationCheck check : perMessageChecks)
-                                {
-                                    checkForNotification(msg, listener, currentTime, thresholdTime, check);
-                                }
-                            }
-                        }
-                        catch(MessageDeletedException e)
-                        {
-                            // Ignore
-                        }
-                    }
-                }
+                _expiryIndex.purgeDeleted();
             }
+
+            checkHeldEntries(currentTime);
+            checkAlertedEntries(perMessageChecks, listener, currentTime, thresholdTime);
         }
 
         for(NotificationCheck check : queueLevelChecks)
@@ -2344,6 +2344,61 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         }
     }
 
+    private void checkHeldEntries(final long currentTime)
+    {
+        final Iterator<QueueEntry> iterator = _heldEntries.iterator();
+        while (!_stopped.get() && iterator.hasNext())
+        {
+            final QueueEntry node = iterator.next();
+            // an entry acquired while held (e.g. by a management operation) may be released back later
+            if (node.isDeleted() || (node.isAvailable() && !node.checkHeld(currentTime)))
+            {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void checkAlertedEntries(final Set<NotificationCheck> perMessageChecks,
+                                     final QueueNotificationListener listener,
+                                     final long currentTime,
+                                     final long thresholdTime)
+    {
+        if (perMessageChecks.isEmpty())
+        {
+            _alertedEntries.clear();
+            return;
+        }
+
+        final Iterator<QueueEntry> iterator = _alertedEntries.iterator();
+        while (!_stopped.get() && iterator.hasNext())
+        {
+            final QueueEntry node = iterator.next();
+            boolean notified = false;
+            // There is a chance that the node could be deleted by
+            // the time the check actually occurs. So verify we
+            // can actually get the message to perform the check.
+            ServerMessage msg = node.isDeleted() ? null : node.getMessage();
+            if (msg != null)
+            {
+                try (MessageReference messageReference = msg.newReference())
+                {
+                    for (NotificationCheck check : perMessageChecks)
+                    {
+                        notified |= checkForNotification(msg, listener, currentTime, thresholdTime, check);
+                    }
+                }
+                catch(MessageDeletedException e)
+                {
+                    // Ignore
+                }
+            }
+            if (!notified)
+            {
+                iterator.remove();
+            }
+        }
+    }
+
     private void expireEntry(final QueueEntry node)
     {
         ExpiryPolicy expiryPolicy = getExpiryPolicy();
@@ -2426,6 +2481,22 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return _queueStatistics.getMalformedCount();
     }
 
+    @Override
+    public long getEstimatedBytesPerEntry()
+    {
+        final QueueEntryList entries = getEntries();
+        if (entries == null)
+        {
+            return 0L;
+        }
+        QueueEntry sample = entries.getOldestEntry();
+        if (sample == null)
+        {
+            sample = entries.getHead();
+        }
+        return sample instanceof QueueEntryImpl ? ((QueueEntryImpl) sample).getEstimatedHeapSize() : 0L;
+    }
+
     @Override
     public void reallocateMessages()
     {
@@ -2858,35 +2929,41 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return _queueStatistics.getExpiredCount();
     }
 
-    private void checkForNotification(final ServerMessage<?> msg,
-                                      final QueueNotificationListener listener,
-                                      final long currentTime,
-                                      final long thresholdTime,
-                                      final NotificationCheck check)
+    private boolean checkForNotification(final ServerMessage<?> msg,
+                                         final QueueNotificationListener listener,
+                                         final long currentTime,
+                                         final long thresholdTime,
+                                         final NotificationCheck check)
     {
         if (check.isMessageSpecific() || (_lastNotificationTimes[check.ordinal()] < thresholdTime))
         {
             if (check.notifyIfNecessary(msg, this, listener))
             {
                 _lastNotificationTimes[check.ordinal()] = currentTime;
+                return true;
             }
         }
+        return false;
     }
 
-    private void checkForNotificationOnNewMessage(final ServerMessage<?> msg)
+    private void checkForNotificationOnNewMessage(final QueueEntry entry)
     {
         final Set<NotificationCheck> notificationChecks = getNotificationChecks();
         QueueNotificationListener listener = _notificationListener;
         if (!notificationChecks.isEmpty())
         {
+            final ServerMessage<?> msg = entry.getMessage();
             final long currentTime = System.currentTimeMillis();
             final long thresholdTime = currentTime - getAlertRepeatGap();
 
             for (NotificationCheck check : notificationChecks)
             {
-                if (check.isCheckOnMessageArrival())
+                if (check.isCheckOnMessageArrival()
+                    && checkForNotification(msg, listener, currentTime, thresholdTime, check)
+                    && check.isMessageSpecific())
                 {
-                    checkForNotification(msg, listener, currentTime, thresholdTime, check);
+                    // re-notified by housekeeping for as long as the message remains on the queue
+                    _alertedEntries.add(entry);
                 }
             }
         }
@@ -3527,6 +3604,12 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
     }
 
+    @Override
+    public Content browseMessages(final long cursor, final int limit, final String selector, final boolean includeHeaders)
+    {
+        return new MessageBrowseContent(this, parseSelector(selector), cursor, limit, includeHeaders);
+    }
+
     @Override
     public MessageInfo getMessageInfoById(final long messageId, boolean includeHeaders)
     {
@@ -21,8 +21,11 @@
 package org.apache.qpid.server.queue;
 
 import org.apache.qpid.server.message.MessageInstance;
+import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.store.MessageDurability;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
 
 abstract class AbstractQueueEntryList implements QueueEntryList
 {
@@ -31,6 +34,8 @@ abstract class AbstractQueueEntryList implements QueueEntryList
     private final boolean _respectPersistent;
     private final Queue<?> _queue;
     private final QueueStatistics _queueStatistics;
+    private final LatencyHistogram _virtualHostResidenceTime;
+    private final LatencyHistogram _virtualHostFirstDeliveryLatency;
 
     protected AbstractQueueEntryList(final Queue<?> queue, final QueueStatistics queueStatistics)
     {
@@ -38,6 +43,9 @@ abstract class AbstractQueueEntryList implements QueueEntryList
         final MessageDurability messageDurability = queue.getMessageDurability();
         _queue = queue;
         _queueStatistics = queueStatistics;
+        final QueueManagingVirtualHost<?> virtualHost = queue.getVirtualHost();
+        _virtualHostResidenceTime = virtualHost == null ? null : virtualHost.getResidenceTimeHistogram();
+        _virtualHostFirstDeliveryLatency = virtualHost == null ? null : virtualHost.getFirstDeliveryLatencyHistogram();
         _forcePersistent = messageDurability == MessageDurability.ALWAYS;
         _respectPersistent = messageDurability == MessageDurability.DEFAULT;
     }
@@ -86,11 +94,19 @@ abstract class AbstractQueueEntryList implements QueueEntryList
                 if(isConsumerAcquired && !wasConsumerAcquired)
                 {
                     queueStatistics.addToUnacknowledged(sizeWithHeader);
+                    if (!entry.getDeliveredToConsumer())
+                    {
+                        recordFirstDeliveryLatency(entry);
+                    }
                 }
                 break;
             case DELETED:
                 queueStatistics.removeFromQueue(sizeWithHeader);
                 queueStatistics.addToDequeued(sizeWithHeader);
+                if (wasConsumerAcquired)
+                {
+                    recordResidenceTime(entry);
+                }
                 if(_forcePersistent || (_respectPersistent && entry.isPersistent()))
                 {
                     queueStatistics.addToPersistentDequeued(sizeWithHeader);
@@ -100,4 +116,31 @@ abstract class AbstractQueueEntryList implements QueueEntryList
         }
     }
 
+    private void recordFirstDeliveryLatency(final QueueEntry entry)
+    {
+        final ServerMessage<?> message = entry.getMessage();
+        if (message != null)
+        {
+            final long latency = System.currentTimeMillis() - message.getArrivalTime();
+            _queueStatistics.getFirstDeliveryLatency().record(latency);
+            if (_virtualHostFirstDeliveryLatency != null)
+            {
+                _virtualHostFirstDeliveryLatency.record(latency);
+            }
+        }
+    }
+
+    private void recordResidenceTime(final QueueEntry entry)
+    {
+        final ServerMessage<?> message = entry.getMessage();
+        if (message != null)
+        {
+            final long residenceTime = System.currentTimeMillis() - message.getArrivalTime();
+            _queueStatistics.getResidenceTime().record(residenceTime);
+            if (_virtualHostResidenceTime != null)
+            {
+                _virtualHostResidenceTime.record(residenceTime);
+            }
+        }
+    }
 }
@@ -20,10 +20,11 @@
  */
 package org.apache.qpid.server.queue;
 
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,15 +41,21 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
     private static final Logger LOGGER = LoggerFactory.getLogger(DefinedGroupMessageGroupManager.class);
     private final String _groupId;
     private final String _defaultGroup;
-    private final Map<Object, Group> _groupMap = new HashMap<>();
+    private final Map<Object, Group> _groupMap = new ConcurrentHashMap<>();
     private final ConsumerResetHelper _resetHelper;
 
+    /**
+     * Group state is guarded by the group's own monitor rather than by the manager, so deliveries for different
+     * groups do not contend. A group is removed from the group map only while its monitor is held and it is
+     * invalidated at the same time, so callers which looked a group up without holding its monitor must re-check
+     * its validity once they have acquired it.
+     */
     private final class Group
     {
         private final Object _group;
         private final SortedSet<QueueEntry> _skippedEntries = new TreeSet<>();
-        private QueueConsumer<?,?> _consumer;
-        private int _activeCount;
+        private volatile QueueConsumer<?,?> _consumer;
+        private volatile int _activeCount;
 
         private Group(final Object key, final QueueConsumer<?,?> consumer)
         {
@@ -77,7 +84,7 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
             }
             if(--_activeCount == 0)
             {
-                _groupMap.remove(_group);
+                _groupMap.remove(_group, this);
                 if(!_skippedEntries.isEmpty())
                 {
                     _resetHelper.resetSubPointersForGroups(_skippedEntries.first());
@@ -87,32 +94,10 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
             }
         }
 
-        @Override
-        public boolean equals(final Object o)
-        {
-            if (this == o)
-            {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass())
-            {
-                return false;
-            }
-
-            Group group = (Group) o;
-
-            return _group.equals(group._group);
-        }
-
-        @Override
-        public int hashCode()
-        {
-            return _group.hashCode();
-        }
-
         public boolean isValid()
         {
-            return !(_consumer == null || (_activeCount == 0 && _consumer.isClosed()));
+            final QueueConsumer<?, ?> consumer = _consumer;
+            return !(consumer == null || (_activeCount == 0 && consumer.isClosed()));
         }
 
         public QueueConsumer<?,?> getConsumer()
@@ -134,6 +119,24 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
         {
             _skippedEntries.add(entry);
         }
+
+        QueueEntry getEarliestAvailableSkippedEntry()
+        {
+            final Iterator<QueueEntry> iterator = _skippedEntries.iterator();
+            while (iterator.hasNext())
+            {
+                final QueueEntry entry = iterator.next();
+                if (entry.isAvailable())
+                {
+                    return entry;
+                }
+                else if (entry.isDeleted())
+                {
+                    iterator.remove();
+                }
+            }
+            return null;
+        }
     }
 
     DefinedGroupMessageGroupManager(final String groupId, String defaultGroup, ConsumerResetHelper resetHelper)
@@ -144,103 +147,101 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
     }
     
     @Override
-    public synchronized boolean mightAssign(final QueueEntry entry, final QueueConsumer sub)
+    public boolean mightAssign(final QueueEntry entry, final QueueConsumer sub)
     {
         Object groupId = getKey(entry);
 
         Group group = _groupMap.get(groupId);
-        final boolean possibleAssignment = group == null || !group.isValid() || group.getConsumer() == sub;
-        if(!possibleAssignment)
+        if (group == null)
+        {
+            return true;
+        }
+        synchronized (group)
         {
-            group.addSkippedEntry(entry);
+            final boolean possibleAssignment = !group.isValid() || group.getConsumer() == sub;
+            if (!possibleAssignment)
+            {
+                group.addSkippedEntry(entry);
+            }
+            return possibleAssignment;
         }
-        return possibleAssignment;
     }
 
     @Override
-    public synchronized boolean acceptMessage(final QueueConsumer<?,?> sub, final QueueEntry entry)
-    {
-        return assignMessage(sub, entry) && entry.acquire(sub);
-    }
-
-    private boolean assignMessage(final QueueConsumer<?,?> sub, final QueueEntry entry)
+    public boolean acceptMessage(final QueueConsumer<?,?> sub, final QueueEntry entry)
     {
         Object groupId = getKey(entry);
-        Group group = _groupMap.get(groupId);
 
-        if(group == null || !group.isValid())
+        while (true)
         {
-            group = new Group(groupId, sub);
-
-            _groupMap.put(groupId, group);
+            Group group = _groupMap.get(groupId);
 
-            // there's a small chance that the group became empty between the point at which getNextAvailable() was
-            // called on the consumer, and when accept message is called... in that case we want to avoid delivering
-            // out of order
-            if(_resetHelper.isEntryAheadOfConsumer(entry, sub))
+            if (group == null || !group.isValid())
             {
-                return false;
+                final Group newGroup = new Group(groupId, sub);
+                final boolean installed = group == null
+                        ? _groupMap.putIfAbsent(groupId, newGroup) == null
+                        : _groupMap.replace(groupId, group, newGroup);
+                if (!installed)
+                {
+                    continue;
+                }
+                group = newGroup;
+
+                // there's a small chance that the group became empty between the point at which getNextAvailable() was
+                // called on the consumer, and when accept message is called... in that case we want to avoid delivering
+                // out of order
+                if (_resetHelper.isEntryAheadOfConsumer(entry, sub))
+                {
+                    return false;
+                }
             }
-        }
 
-        QueueConsumer<?,?> assignedSub = group.getConsumer();
+            synchronized (group)
+            {
+                if (!group.isValid())
+                {
+                    continue;
+                }
 
-        if(assignedSub == sub)
-        {
-            entry.addStateChangeListener(new GroupStateChangeListener(group));
-            return true;
-        }
-        else
-        {
-            group.addSkippedEntry(entry);
-            return false;            
+                if (group.getConsumer() == sub)
+                {
+                    // the acquisition is made while the group's monitor is held so that the group cannot be
+                    // dissolved between assigning the entry and the consumer acquiring it
+                    entry.addStateChangeListener(new GroupStateChangeListener(group));
+                    return entry.acquire(sub);
+                }
+                else
+                {
+                    group.addSkippedEntry(entry);
+                    return false;
+                }
+            }
         }
     }
 
     @Override
-    public synchronized QueueEntry findEarliestAssignedAvailableEntry(final QueueConsumer<?,?> sub)
-    {
-        EntryFinder visitor = new EntryFinder(sub);
-        sub.getQueue().visit(visitor);
-        return visitor.getEntry();
-    }
-
-    private class EntryFinder implements QueueEntryVisitor
+    public QueueEntry findEarliestAssignedAvailableEntry(final QueueConsumer<?,?> sub)
     {
-        private QueueEntry _entry;
-        private QueueConsumer<?,?> _sub;
-
-        EntryFinder(final QueueConsumer<?, ?> sub)
+        QueueEntry earliest = null;
+        for (Group group : _groupMap.values())
         {
-            _sub = sub;
-        }
-
-        @Override
-        public boolean visit(final QueueEntry entry)
-        {
-            if(!entry.isAvailable())
-            {
-                return false;
-            }
-
-            Object groupId = getKey(entry);
-
-            Group group = _groupMap.get(groupId);
-            if(group != null && group.getConsumer() == _sub)
-            {
-                _entry = entry;
-                return true;
-            }
-            else
+            if (group.getConsumer() == sub)
             {
-                return false;
+                synchronized (group)
+                {
+                    if (group.getConsumer() == sub)
+                    {
+                        final QueueEntry entry = group.getEarliestAvailableSkippedEntry();
+                        if (entry != null && (earliest == null || entry.compareTo(earliest) < 0))
+                        {
+                            earliest = entry;
+                        }
+                    }
+                }
             }
         }
-
-        public QueueEntry getEntry()
-        {
-            return _entry;
-        }
+        return earliest;
     }
 
     
@@ -277,7 +278,7 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
         @Override
         public void stateChanged(final MessageInstance entry, final EntryState oldState, final EntryState newState)
         {
-            synchronized (DefinedGroupMessageGroupManager.this)
+            synchronized (_group)
             {
                 if(_group.isValid())
                 {
@@ -25,7 +25,6 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,11 +50,7 @@ public class LastValueQueueList extends OrderedQueueEntryList
     };
 
     private final String _conflationKey;
-    private final ConcurrentMap<Object, AtomicReference<ConflationQueueEntry>> _latestValuesMap =
-        new ConcurrentHashMap<Object, AtomicReference<ConflationQueueEntry>>();
-
-    private final ConflationQueueEntry _deleteInProgress = new ConflationQueueEntry(this);
-    private final ConflationQueueEntry _newerEntryAlreadyBeenAndGone = new ConflationQueueEntry(this);
+    private final ConcurrentMap<Object, ConflationQueueEntry> _latestValuesMap = new ConcurrentHashMap<>();
 
     public LastValueQueueList(LastValueQueue<?> queue, QueueStatistics queueStatistics)
     {
@@ -72,7 +67,8 @@ public class LastValueQueueList extends OrderedQueueEntryList
     protected ConflationQueueEntry createQueueEntry(ServerMessage message,
                                                     final MessageEnqueueRecord enqueueRecord)
     {
-        return new ConflationQueueEntry(this, message, enqueueRecord);
+        return new ConflationQueueEntry(this, message, enqueueRecord,
+                                        message.getMessageHeader().getHeader(_conflationKey));
     }
 
 
@@ -85,7 +81,7 @@ public class LastValueQueueList extends OrderedQueueEntryList
     {
         final ConflationQueueEntry addedEntry = (ConflationQueueEntry) super.add(message, enqueueRecord);
 
-        final Object keyValue = message.getMessageHeader().getHeader(_conflationKey);
+        final Object keyValue = addedEntry.getConflationKeyValue();
         if (keyValue != null)
         {
             if(LOGGER.isDebugEnabled())
@@ -93,54 +89,41 @@ public class LastValueQueueList extends OrderedQueueEntryList
                 LOGGER.debug("Adding entry " + addedEntry + " for message " + message.getMessageNumber() + " with conflation key " + keyValue);
             }
 
-            final AtomicReference<ConflationQueueEntry> referenceToEntry = new AtomicReference<ConflationQueueEntry>(addedEntry);
-            AtomicReference<ConflationQueueEntry> entryReferenceFromMap;
+            // Iterate until either the entry in the map is newer than the added entry, or the added entry has been
+            // placed in the map. The map holds the entries directly, so an entry which is deleted only removes itself
+            // and a concurrent replacement by a newer entry is detected by the conditional replace failing.
             ConflationQueueEntry entryFromMap;
-
-            // Iterate until we have got a valid atomic reference object and either the referent is newer than the current
-            // entry, or the current entry has replaced it in the reference. Note that the _deletedEntryPlaceholder is a special value
-            // indicating that the reference object is no longer valid (it is being removed from the map).
-            boolean keepTryingToUpdateEntryReference;
-            do
+            while (true)
             {
-                do
+                entryFromMap = _latestValuesMap.putIfAbsent(keyValue, addedEntry);
+                if (entryFromMap == null)
                 {
-                    entryReferenceFromMap = getOrPutIfAbsent(keyValue, referenceToEntry);
-
-                    // entryFromMap can be either an older entry, a newer entry (added recently by another thread), or addedEntry (if it's for a new key value)  
-                    entryFromMap = entryReferenceFromMap.get();
+                    break;
                 }
-                while(entryFromMap == _deleteInProgress);
-
-                boolean entryFromMapIsOlder = entryFromMap != _newerEntryAlreadyBeenAndGone && entryFromMap.compareTo(addedEntry) < 0;
-
-                keepTryingToUpdateEntryReference = entryFromMapIsOlder
-                        && !entryReferenceFromMap.compareAndSet(entryFromMap, addedEntry);
-            }
-            while(keepTryingToUpdateEntryReference);
-
-            if (entryFromMap == _newerEntryAlreadyBeenAndGone)
-            {
-                discardEntry(addedEntry);
-            }
-            else if (entryFromMap.compareTo(addedEntry) > 0)
-            {
-                if(LOGGER.isDebugEnabled())
+                else if (entryFromMap.compareTo(addedEntry) > 0)
                 {
-                    LOGGER.debug("New entry " + addedEntry.getEntryId() + " for message " + addedEntry.getMessage().getMessageNumber() + " being immediately discarded because a newer entry arrived. The newer entry is: " + entryFromMap + " for message " + entryFromMap.getMessage().getMessageNumber());
+                    if(LOGGER.isDebugEnabled())
+                    {
+                        LOGGER.debug("New entry " + addedEntry.getEntryId() + " for message " + addedEntry.getMessage().getMessageNumber() + " being immediately discarded because a newer entry arrived. The newer entry is: " + entryFromMap + " for message " + entryFromMap.getMessage().getMessageNumber());
+                    }
+                    discardEntry(addedEntry);
+                    break;
                 }
-                discardEntry(addedEntry);
-            }
-            else if (entryFromMap.compareTo(addedEntry) < 0)
-            {
-                if(LOGGER.isDebugEnabled())
+                else
                 {
-                    LOGGER.debug("Entry " + addedEntry + " for message " + addedEntry.getMessage().getMessageNumber() + " replacing older entry " + entryFromMap + " for message " + entryFromMap.getMessage().getMessageNumber());
+                    // share the key instance already held for this value rather than retaining one per message
+                    addedEntry.setConflationKeyValue(entryFromMap.getConflationKeyValue());
+                    if (_latestValuesMap.replace(keyValue, entryFromMap, addedEntry))
+                    {
+                        if(LOGGER.isDebugEnabled())
+                        {
+                            LOGGER.debug("Entry " + addedEntry + " for message " + addedEntry.getMessage().getMessageNumber() + " replacing older entry " + entryFromMap + " for message " + entryFromMap.getMessage().getMessageNumber());
+                        }
+                        discardEntry(entryFromMap);
+                        break;
+                    }
                 }
-                discardEntry(entryFromMap);
             }
-
-            addedEntry.setLatestValueReference(entryReferenceFromMap);
         }
 
         return addedEntry;
@@ -152,31 +135,6 @@ public class LastValueQueueList extends OrderedQueueEntryList
         return getOldestEntry();
     }
 
-    /**
-     * Returns:
-     *
-     * <ul>
-     * <li>the existing entry reference if the value already exists in the map, or</li>
-     * <li>referenceToValue if none exists, or</li>
-     * <li>a reference to {@link #_newerEntryAlreadyBeenAndGone} if another thread concurrently
-     * adds and removes during execution of this method.</li>
-     * </ul>
-     */
-    private AtomicReference<ConflationQueueEntry> getOrPutIfAbsent(final Object key, final AtomicReference<ConflationQueueEntry> referenceToAddedValue)
-    {
-        AtomicReference<ConflationQueueEntry> latestValueReference = _latestValuesMap.putIfAbsent(key, referenceToAddedValue);
-
-        if(latestValueReference == null)
-        {
-            latestValueReference = _latestValuesMap.get(key);
-            if(latestValueReference == null)
-            {
-                return new AtomicReference<ConflationQueueEntry>(_newerEntryAlreadyBeenAndGone);
-            }
-        }
-        return latestValueReference;
-    }
-
     private void discardEntry(final QueueEntry entry)
     {
         if(entry.acquire())
@@ -203,7 +161,7 @@ public class LastValueQueueList extends OrderedQueueEntryList
     final class ConflationQueueEntry extends OrderedQueueEntry
     {
 
-        private AtomicReference<ConflationQueueEntry> _latestValueReference;
+        private volatile Object _conflationKeyValue;
 
         private ConflationQueueEntry(final LastValueQueueList queueEntryList)
         {
@@ -212,9 +170,11 @@ public class LastValueQueueList extends OrderedQueueEntryList
 
         public ConflationQueueEntry(LastValueQueueList queueEntryList,
                                     ServerMessage message,
-                                    final MessageEnqueueRecord messageEnqueueRecord)
+                                    final MessageEnqueueRecord messageEnqueueRecord,
+                                    final Object conflationKeyValue)
         {
             super(queueEntryList, message, messageEnqueueRecord);
+            _conflationKeyValue = conflationKeyValue;
         }
 
         @Override
@@ -236,27 +196,30 @@ public class LastValueQueueList extends OrderedQueueEntryList
         @Override
         protected void onDelete()
         {
-            if(_latestValueReference != null && _latestValueReference.compareAndSet(this, _deleteInProgress))
+            final Object key = _conflationKeyValue;
+            if(key != null)
             {
-                Object key = getMessage().getMessageHeader().getHeader(_conflationKey);
-                _latestValuesMap.remove(key,_latestValueReference);
+                _latestValuesMap.remove(key, this);
             }
 
         }
 
-        public void setLatestValueReference(final AtomicReference<ConflationQueueEntry> latestValueReference)
+        Object getConflationKeyValue()
         {
-            _latestValueReference = latestValueReference;
+            return _conflationKeyValue;
+        }
+
+        void setConflationKeyValue(final Object conflationKeyValue)
+        {
+            _conflationKeyValue = conflationKeyValue;
         }
 
         private void discardIfReleasedEntryIsNoLongerLatest()
         {
-            if(_latestValueReference != null)
+            final Object key = _conflationKeyValue;
+            if(key != null && _latestValuesMap.get(key) != this)
             {
-                if(_latestValueReference.get() != this)
-                {
-                    discardEntry(this);
-                }
+                discardEntry(this);
             }
         }
 
@@ -265,7 +228,7 @@ public class LastValueQueueList extends OrderedQueueEntryList
     /**
      * Exposed purposes of unit test only.
      */
-    Map<Object, AtomicReference<ConflationQueueEntry>> getLatestValuesMap()
+    Map<Object, ConflationQueueEntry> getLatestValuesMap()
     {
         return Collections.unmodifiableMap(_latestValuesMap);
     }
@@ -0,0 +1,209 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.apache.qpid.server.filter.MessageFilter;
+import org.apache.qpid.server.message.MessageInfoImpl;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.model.ConfiguredObjectJacksonModule;
+import org.apache.qpid.server.model.Content;
+import org.apache.qpid.server.model.CustomRestHeaders;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.model.RestContentHeader;
+
+/**
+ * Streams information about the messages on a queue as JSON while walking the queue.
+ * <p>
+ * Nothing is collected in memory: each matching entry is written to the output as it is visited, so the memory used
+ * is bounded regardless of the queue depth. The result has the form
+ * {@code {"messages": [...], "cursor": <message id or null>}}. A non-null cursor means the limit was reached before
+ * the end of the queue; passing it back resumes browsing after the message with that id. Should that message have
+ * left the queue in the meantime, browsing resumes with the messages having a greater id.
+ */
+class MessageBrowseContent implements Content, CustomRestHeaders
+{
+    private static final ObjectMapper OBJECT_MAPPER = ConfiguredObjectJacksonModule.newObjectMapper(false);
+
+    static
+    {
+        OBJECT_MAPPER.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // let the generator buffer fill before writing to the output rather than flushing after every message
+        OBJECT_MAPPER.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private final Queue<?> _queue;
+    private final MessageFilter _filter;
+    private final long _cursor;
+    private final int _limit;
+    private final boolean _includeHeaders;
+
+    MessageBrowseContent(final Queue<?> queue,
+                         final MessageFilter filter,
+                         final long cursor,
+                         final int limit,
+                         final boolean includeHeaders)
+    {
+        _queue = queue;
+        _filter = filter;
+        _cursor = cursor;
+        _limit = limit;
+        _includeHeaders = includeHeaders;
+    }
+
+    @Override
+    public void write(final OutputStream outputStream) throws IOException
+    {
+        try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(outputStream))
+        {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("messages");
+
+            final BrowsingVisitor visitor = new BrowsingVisitor(generator, _cursor < 0);
+            _queue.visit(visitor);
+            if (!visitor.hasResumed())
+            {
+                visitor.resumeAfterCursorId();
+                _queue.visit(visitor);
+            }
+            if (visitor.getException() != null)
+            {
+                throw visitor.getException();
+            }
+
+            generator.writeEndArray();
+            if (visitor.isLimitReached())
+            {
+                generator.writeNumberField("cursor", visitor.getLastMessageId());
+            }
+            else
+            {
+                generator.writeNullField("cursor");
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    public void release()
+    {
+    }
+
+    @SuppressWarnings("unused")
+    @RestContentHeader("Content-Type")
+    public String getContentType()
+    {
+        return "application/json";
+    }
+
+    private class BrowsingVisitor implements QueueEntryVisitor
+    {
+        private final JsonGenerator _generator;
+        private boolean _resumed;
+        private boolean _resumeAfterCursorId;
+        private int _written;
+        private long _lastMessageId = -1L;
+        private boolean _limitReached;
+        private IOException _exception;
+
+        private BrowsingVisitor(final JsonGenerator generator, final boolean resumed)
+        {
+            _generator = generator;
+            _resumed = resumed;
+        }
+
+        @Override
+        public boolean visit(final QueueEntry entry)
+        {
+            final ServerMessage message = entry.getMessage();
+            if (message == null)
+            {
+                return false;
+            }
+
+            final long messageId = message.getMessageNumber();
+            if (!_resumed)
+            {
+                if (messageId == _cursor)
+                {
+                    _resumed = true;
+                    return false;
+                }
+                else if (!_resumeAfterCursorId || messageId <= _cursor)
+                {
+                    return false;
+                }
+            }
+
+            if (_filter == null || _filter.matches(entry.asFilterable()))
+            {
+                if (_limit >= 0 && _written >= _limit)
+                {
+                    _limitReached = true;
+                    return true;
+                }
+                try
+                {
+                    OBJECT_MAPPER.writeValue(_generator, new MessageInfoImpl(entry, _includeHeaders));
+                }
+                catch (IOException e)
+                {
+                    _exception = e;
+                    return true;
+                }
+                _written++;
+                _lastMessageId = messageId;
+            }
+            return false;
+        }
+
+        private boolean hasResumed()
+        {
+            return _resumed || _exception != null;
+        }
+
+        private void resumeAfterCursorId()
+        {
+            _resumeAfterCursorId = true;
+        }
+
+        private boolean isLimitReached()
+        {
+            return _limitReached;
+        }
+
+        private long getLastMessageId()
+        {
+            return _lastMessageId;
+        }
+
+        private IOException getException()
+        {
+            return _exception;
+        }
+    }
+}
@@ -34,6 +34,8 @@ public interface PriorityQueue<X extends PriorityQueue<X>> extends Queue<X>
     @ManagedContextDefault( name = "queue.priorities")
     int DEFAULT_PRIORITY_LEVELS = 10;
 
+    int MAX_PRIORITY_LEVELS = 256;
+
     @ManagedAttribute( defaultValue = "${queue.priorities}")
     int getPriorities();
 }
@@ -21,9 +21,12 @@
 package org.apache.qpid.server.queue;
 
 import java.util.Map;
+import java.util.Set;
 
+import org.apache.qpid.server.configuration.IllegalConfigurationException;
 import org.apache.qpid.server.logging.LogMessage;
 import org.apache.qpid.server.logging.messages.QueueMessages;
+import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.LifetimePolicy;
 import org.apache.qpid.server.model.ManagedAttributeField;
 import org.apache.qpid.server.model.ManagedObjectFactoryConstructor;
@@ -43,6 +46,33 @@ public class PriorityQueueImpl extends OutOfOrderQueue<PriorityQueueImpl> implem
         super(attributes, virtualHost);
     }
 
+    @Override
+    protected void validateOnCreate()
+    {
+        super.validateOnCreate();
+        validatePriorities(_priorities);
+    }
+
+    @Override
+    protected void validateChange(final ConfiguredObject<?> proxyForValidation, final Set<String> changedAttributes)
+    {
+        super.validateChange(proxyForValidation, changedAttributes);
+        if (changedAttributes.contains(PRIORITIES))
+        {
+            validatePriorities(((PriorityQueue<?>) proxyForValidation).getPriorities());
+        }
+    }
+
+    private void validatePriorities(final int priorities)
+    {
+        if (priorities < 1 || priorities > MAX_PRIORITY_LEVELS)
+        {
+            throw new IllegalConfigurationException(String.format("Priorities must be between 1 and %d but was %d",
+                                                                  MAX_PRIORITY_LEVELS,
+                                                                  priorities));
+        }
+    }
+
     @Override
     protected void onOpen()
     {
@@ -20,6 +20,8 @@
 */
 package org.apache.qpid.server.queue;
 
+import java.util.concurrent.atomic.AtomicLongArray;
+
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 
@@ -53,6 +55,7 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
         private final PriorityQueueEntrySubList[] _priorityLists;
         private final int _priorities;
         private final int _priorityOffset;
+        private final AtomicLongArray _nonEmptyLevels;
 
         public PriorityQueueMasterList(PriorityQueueImpl queue, int priorities)
         {
@@ -61,6 +64,7 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
             _priorityLists = new PriorityQueueEntrySubList[priorities];
             _priorities = priorities;
             _priorityOffset = 5-((priorities + 1)/2);
+            _nonEmptyLevels = new AtomicLongArray((priorities + 63) >>> 6);
             for(int i = 0; i < priorities; i++)
             {
                 _priorityLists[i] = new PriorityQueueEntrySubList(queue, i);
@@ -91,7 +95,9 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
             {
                 index = 0;
             }
-            return (PriorityQueueEntry) _priorityLists[index].add(message, enqueueRecord);
+            final PriorityQueueEntry entry = (PriorityQueueEntry) _priorityLists[index].add(message, enqueueRecord);
+            markNonEmpty(index);
+            return entry;
 
         }
 
@@ -109,43 +115,77 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
 
             if(next == null)
             {
-                final PriorityQueueList nodeEntryList = (PriorityQueueList) ((PriorityQueueEntry)node).getQueueEntryList();
-                int index;
-                for(index = _priorityLists.length-1; _priorityLists[index] != nodeEntryList; index--)
-                {
-                    // do nothing loop is just to find the index
-                }
+                int index = ((PriorityQueueEntrySubList) ((PriorityQueueEntry) node).getQueueEntryList()).getListPriority();
 
-                while(next == null && index != 0)
+                while(next == null && (index = highestNonEmptyLevelBelow(index)) >= 0)
                 {
-                    index--;
                     next = (PriorityQueueEntry) _priorityLists[index].getHead().getNextValidEntry();
+                    if (next == null)
+                    {
+                        markEmpty(index);
+                    }
                 }
 
             }
             return next;
         }
 
-        private final class PriorityQueueEntryListIterator implements QueueEntryIterator
+        /**
+         * Levels are only ever marked non-empty after the entry has been linked into the sub list, and a level is
+         * only marked empty by a reader which then re-checks the sub list, so a set bit may be stale but a level
+         * holding entries is never left unmarked.
+         */
+        private void markNonEmpty(final int index)
         {
-            private final QueueEntryIterator[] _iterators = new QueueEntryIterator[ _priorityLists.length ];
-            private PriorityQueueEntry _lastNode;
+            final int word = index >>> 6;
+            final long mask = 1L << index;
+            if ((_nonEmptyLevels.get(word) & mask) == 0L)
+            {
+                _nonEmptyLevels.accumulateAndGet(word, mask, (current, bit) -> current | bit);
+            }
+        }
+
+        private void markEmpty(final int index)
+        {
+            final int word = index >>> 6;
+            final long mask = 1L << index;
+            _nonEmptyLevels.accumulateAndGet(word, ~mask, (current, bits) -> current & bits);
+            if (_priorityLists[index].getHead().getNextValidEntry() != null)
+            {
+                markNonEmpty(index);
+            }
+        }
 
-            PriorityQueueEntryListIterator()
+        private int highestNonEmptyLevelBelow(final int index)
+        {
+            if (index <= 0)
             {
-                for(int i = 0; i < _priorityLists.length; i++)
+                return -1;
+            }
+            int word = (index - 1) >>> 6;
+            long bits = _nonEmptyLevels.get(word) & (-1L >>> (63 - ((index - 1) & 63)));
+            while (bits == 0L)
+            {
+                if (word == 0)
                 {
-                    _iterators[i] = _priorityLists[i].iterator();
+                    return -1;
                 }
-                _lastNode = (PriorityQueueEntry) _iterators[_iterators.length - 1].getNode();
+                bits = _nonEmptyLevels.get(--word);
             }
+            return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+        }
+
+        private final class PriorityQueueEntryListIterator implements QueueEntryIterator
+        {
+            private final QueueEntry[] _lastNodes = new QueueEntry[_priorities];
+            private PriorityQueueEntry _lastNode = getHead();
 
             @Override
             public boolean atTail()
             {
-                for(int i = 0; i < _iterators.length; i++)
+                for (int i = highestNonEmptyLevelBelow(_priorities); i >= 0; i = highestNonEmptyLevelBelow(i))
                 {
-                    if(!_iterators[i].atTail())
+                    if (lastNode(i).getNextValidEntry() != null)
                     {
                         return false;
                     }
@@ -162,16 +202,24 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
             @Override
             public boolean advance()
             {
-                for(int i = _iterators.length-1; i >= 0; i--)
+                for (int i = highestNonEmptyLevelBelow(_priorities); i >= 0; i = highestNonEmptyLevelBelow(i))
                 {
-                    if(_iterators[i].advance())
+                    final QueueEntry next = lastNode(i).getNextValidEntry();
+                    if (next != null)
                     {
-                        _lastNode = (PriorityQueueEntry) _iterators[i].getNode();
+                        _lastNodes[i] = next;
+                        _lastNode = (PriorityQueueEntry) next;
                         return true;
                     }
                 }
                 return false;
             }
+
+            private QueueEntry lastNode(final int index)
+            {
+                final QueueEntry lastNode = _lastNodes[index];
+                return lastNode == null ? _priorityLists[index].getHead() : lastNode;
+            }
         }
 
         @Override
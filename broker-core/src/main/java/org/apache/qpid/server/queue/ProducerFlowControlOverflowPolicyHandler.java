@@ -20,9 +20,11 @@
 package org.apache.qpid.server.queue;
 
 import java.security.AccessController;
-import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.security.auth.Subject;
@@ -35,6 +37,7 @@ import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.OverflowPolicy;
 import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.session.AMQPSession;
+import org.apache.qpid.server.util.Action;
 
 public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyHandler
 {
@@ -51,6 +54,11 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
         return _handler.isQueueFlowStopped();
     }
 
+    int getNumberOfProducerShares()
+    {
+        return _handler._producerShares.size();
+    }
+
     @Override
     public void checkOverflow(final QueueEntry newlyEnqueued)
     {
@@ -62,9 +70,18 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
         private final Queue<?> _queue;
         private final EventLogger _eventLogger;
         private final AtomicBoolean _overfullReported = new AtomicBoolean(false);
-        private final Set<AMQPSession<?, ?>> _blockedSessions =
-                Collections.newSetFromMap(new ConcurrentHashMap<AMQPSession<?, ?>, Boolean>());
+        private final Set<AMQPSession<?, ?>> _blockedSessions = ConcurrentHashMap.newKeySet();
+        private final Map<AMQPSession<?, ?>, ProducerShare> _producerShares = new ConcurrentHashMap<>();
+        private final Action<Object> _removeProducerShareTask = session -> _producerShares.remove(session);
+        private final Action<Object> _removeBlockedSessionTask =
+                session -> removeBlockedSession((AMQPSession<?, ?>) session);
+        private volatile double _fairShareMean;
+        private volatile long _fairShareCalculationTime;
+        private volatile boolean _fairShareCalculated;
         private volatile double _queueFlowResumeLimit;
+        private volatile boolean _fairShare;
+        private volatile long _fairShareHalfLifeNanos;
+        private volatile double _fairShareHardLimit;
         private boolean _checkCapacity;
 
         private Handler(final Queue<?> queue, final EventLogger eventLogger)
@@ -76,6 +93,27 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
             {
                 _queueFlowResumeLimit = value;
             }
+            updateFairShareSettings();
+        }
+
+        private void updateFairShareSettings()
+        {
+            final Boolean fairShare = _queue.getContextValue(Boolean.class, Queue.QUEUE_FLOW_CONTROL_FAIR_SHARE);
+            final Long halfLife = _queue.getContextValue(Long.class, Queue.QUEUE_FLOW_CONTROL_FAIR_SHARE_HALF_LIFE);
+            final Double hardLimit = _queue.getContextValue(Double.class, Queue.QUEUE_FLOW_CONTROL_FAIR_SHARE_HARD_LIMIT);
+            _fairShareHalfLifeNanos = TimeUnit.MILLISECONDS.toNanos(
+                    halfLife == null || halfLife <= 0L ? Queue.DEFAULT_QUEUE_FLOW_CONTROL_FAIR_SHARE_HALF_LIFE : halfLife);
+            _fairShareHardLimit = hardLimit == null
+                    ? Queue.DEFAULT_QUEUE_FLOW_CONTROL_FAIR_SHARE_HARD_LIMIT
+                    : Math.max(100.0, hardLimit);
+            _fairShare = Boolean.TRUE.equals(fairShare);
+            if (!_fairShare)
+            {
+                for (AMQPSession<?, ?> session : _producerShares.keySet())
+                {
+                    removeProducerShare(session);
+                }
+            }
         }
 
         private void checkOverflow(final QueueEntry newlyEnqueued)
@@ -84,7 +122,7 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
             long maximumQueueDepthMessages = _queue.getMaximumQueueDepthMessages();
             if (maximumQueueDepthBytes >= 0L || maximumQueueDepthMessages >= 0L)
             {
-                checkOverfull(maximumQueueDepthBytes, maximumQueueDepthMessages);
+                checkOverfull(newlyEnqueued, maximumQueueDepthBytes, maximumQueueDepthMessages);
             }
 
             checkUnderfull(maximumQueueDepthBytes, maximumQueueDepthMessages);
@@ -106,6 +144,7 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
                     _queueFlowResumeLimit = queueFlowResumePercentage;
                     _checkCapacity = true;
                 }
+                updateFairShareSettings();
             }
             if (Queue.MAXIMUM_QUEUE_DEPTH_BYTES.equals(attributeName)
                 || Queue.MAXIMUM_QUEUE_DEPTH_MESSAGES.equals(attributeName))
@@ -158,19 +197,47 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
                 for (final AMQPSession<?, ?> blockedSession : _blockedSessions)
                 {
                     blockedSession.unblock(_queue);
-                    _blockedSessions.remove(blockedSession);
+                    if (removeBlockedSession(blockedSession))
+                    {
+                        blockedSession.removeDeleteTask(_removeBlockedSessionTask);
+                    }
                 }
             }
         }
 
-        private void checkOverfull(final long maximumQueueDepthBytes, final long maximumQueueDepthMessages)
+        private void checkOverfull(final QueueEntry newlyEnqueued,
+                                   final long maximumQueueDepthBytes,
+                                   final long maximumQueueDepthMessages)
         {
             final long queueDepthBytes = _queue.getQueueDepthBytes();
             final long queueDepthMessages = _queue.getQueueDepthMessages();
+            final boolean fairShare = _fairShare;
+            final AMQPSession<?, ?> publishingSession = fairShare ? getPublishingSession() : null;
+            final double publishingSessionShare;
+            if (publishingSession != null)
+            {
+                final long size = newlyEnqueued == null || newlyEnqueued.getMessage() == null
+                        ? 0L
+                        : newlyEnqueued.getMessage().getSizeIncludingHeader();
+                publishingSessionShare = _producerShares.computeIfAbsent(publishingSession, this::createProducerShare)
+                                                        .add(size, System.nanoTime(), _fairShareHalfLifeNanos);
+            }
+            else
+            {
+                publishingSessionShare = 0d;
+            }
 
             if ((maximumQueueDepthBytes >= 0L && queueDepthBytes > maximumQueueDepthBytes) ||
                 (maximumQueueDepthMessages >= 0L && queueDepthMessages > maximumQueueDepthMessages))
             {
+                if (fairShare
+                    && !isAboveHardLimit(queueDepthBytes, maximumQueueDepthBytes, queueDepthMessages, maximumQueueDepthMessages)
+                    && publishingSession != null
+                    && publishingSessionShare < getFairShare())
+                {
+                    return;
+                }
+
                 Subject subject = Subject.getSubject(AccessController.getContext());
                 Set<SessionPrincipal> sessionPrincipals = subject.getPrincipals(SessionPrincipal.class);
                 if (!sessionPrincipals.isEmpty())
@@ -189,13 +256,106 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
                         }
 
                         final AMQPSession<?, ?> session = sessionPrincipal.getSession();
-                        _blockedSessions.add(session);
+                        if (_blockedSessions.add(session))
+                        {
+                            session.producerFlowBlocked(_queue);
+                            // a session deleted whilst blocked is never unblocked
+                            session.addDeleteTask(_removeBlockedSessionTask);
+                        }
                         session.block(_queue);
                     }
                 }
             }
         }
 
+        private boolean removeBlockedSession(final AMQPSession<?, ?> session)
+        {
+            if (_blockedSessions.remove(session))
+            {
+                session.producerFlowUnblocked(_queue);
+                return true;
+            }
+            return false;
+        }
+
+        private ProducerShare createProducerShare(final AMQPSession<?, ?> session)
+        {
+            // the share must not outlive the session, even if the queue never becomes full again to prune it
+            session.addDeleteTask(_removeProducerShareTask);
+            return new ProducerShare();
+        }
+
+        private void removeProducerShare(final AMQPSession<?, ?> session)
+        {
+            if (_producerShares.remove(session) != null)
+            {
+                session.removeDeleteTask(_removeProducerShareTask);
+            }
+        }
+
+        private AMQPSession<?, ?> getPublishingSession()
+        {
+            final Subject subject = Subject.getSubject(AccessController.getContext());
+            if (subject != null)
+            {
+                final Set<SessionPrincipal> sessionPrincipals = subject.getPrincipals(SessionPrincipal.class);
+                if (!sessionPrincipals.isEmpty())
+                {
+                    final SessionPrincipal sessionPrincipal = sessionPrincipals.iterator().next();
+                    return sessionPrincipal == null ? null : sessionPrincipal.getSession();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the mean of the decayed byte counts of the sessions which have recently published to the queue,
+         * dropping the records of sessions which have gone quiet and are not blocked. As every enqueue onto an
+         * overfull queue asks for the mean, it is recalculated at most every sixteenth of the half life, within
+         * which the shares decay by less than 5%.
+         */
+        private double getFairShare()
+        {
+            final long now = System.nanoTime();
+            if (_fairShareCalculated && now - _fairShareCalculationTime < _fairShareHalfLifeNanos / 16L)
+            {
+                return _fairShareMean;
+            }
+            double total = 0d;
+            int producers = 0;
+            final Iterator<Map.Entry<AMQPSession<?, ?>, ProducerShare>> iterator = _producerShares.entrySet().iterator();
+            while (iterator.hasNext())
+            {
+                final Map.Entry<AMQPSession<?, ?>, ProducerShare> entry = iterator.next();
+                final double share = entry.getValue().get(now, _fairShareHalfLifeNanos);
+                if (share < 1d && !_blockedSessions.contains(entry.getKey()))
+                {
+                    iterator.remove();
+                    entry.getKey().removeDeleteTask(_removeProducerShareTask);
+                }
+                else
+                {
+                    total += share;
+                    producers++;
+                }
+            }
+            final double mean = producers == 0 ? 0d : total / producers;
+            _fairShareMean = mean;
+            _fairShareCalculationTime = now;
+            _fairShareCalculated = true;
+            return mean;
+        }
+
+        private boolean isAboveHardLimit(final long queueDepthBytes,
+                                         final long maximumQueueDepthBytes,
+                                         final long queueDepthMessages,
+                                         final long maximumQueueDepthMessages)
+        {
+            final double hardLimit = _fairShareHardLimit / 100.0;
+            return (maximumQueueDepthBytes >= 0L && queueDepthBytes > hardLimit * maximumQueueDepthBytes)
+                   || (maximumQueueDepthMessages >= 0L && queueDepthMessages > hardLimit * maximumQueueDepthMessages);
+        }
+
         private boolean isUnderfull(final long queueDepth,
                                     final long maximumQueueDepth)
         {
@@ -212,5 +372,35 @@ public class ProducerFlowControlOverflowPolicyHandler implements OverflowPolicyH
         }
     }
 
-}
+    /**
+     * Bytes recently published by a session, decaying exponentially with the configured half life.
+     */
+    private static final class ProducerShare
+    {
+        private double _bytes;
+        private long _lastUpdateTime = System.nanoTime();
 
+        synchronized double add(final long bytes, final long now, final long halfLifeNanos)
+        {
+            decay(now, halfLifeNanos);
+            _bytes += bytes;
+            return _bytes;
+        }
+
+        synchronized double get(final long now, final long halfLifeNanos)
+        {
+            decay(now, halfLifeNanos);
+            return _bytes;
+        }
+
+        private void decay(final long now, final long halfLifeNanos)
+        {
+            final long elapsed = now - _lastUpdateTime;
+            if (elapsed > 0L)
+            {
+                _bytes *= Math.pow(0.5d, (double) elapsed / halfLifeNanos);
+                _lastUpdateTime = now;
+            }
+        }
+    }
+}
@@ -214,6 +214,13 @@ class QueueConsumerImpl<T extends ConsumerTarget>
         return _target.getUnacknowledgedMessages();
     }
 
+    @Override
+    public long getIdleWhileMessagesAvailableTime()
+    {
+        final QueueConsumerNode node = _queueConsumerNode;
+        return node == null ? 0L : node.getIdleWhileMessagesAvailableTime();
+    }
+
     @Override
     public AMQPSession<?,?> getSession()
     {
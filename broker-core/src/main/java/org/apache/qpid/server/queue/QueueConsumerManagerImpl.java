@@ -20,13 +20,17 @@
  */
 package org.apache.qpid.server.queue;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.apache.qpid.server.model.Queue;
+
 public class QueueConsumerManagerImpl implements QueueConsumerManager
 {
     private static final EnumSet<NodeState> REMOVED = EnumSet.of(NodeState.REMOVED);
@@ -48,6 +52,8 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
 
     private final List<PriorityConsumerListPair> _allConsumers;
 
+    private final boolean _leastLoadedConsumerFirst;
+
     private volatile int _count;
 
     enum NodeState
@@ -67,6 +73,8 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
         _notified = new CopyOnWriteArrayList<>();
         _nonAcquiring = new QueueConsumerNodeList(queue);
         _allConsumers = new CopyOnWriteArrayList<>();
+        _leastLoadedConsumerFirst =
+                Boolean.TRUE.equals(queue.getContextValue(Boolean.class, Queue.QUEUE_DELIVER_TO_LEAST_LOADED_CONSUMER));
     }
 
     // Always in the config thread
@@ -163,6 +171,10 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
     @Override
     public Iterator<QueueConsumer<?,?>> getInterestedIterator()
     {
+        if (_leastLoadedConsumerFirst)
+        {
+            return new QueueConsumerIterator(new LeastLoadedQueueConsumerNodeIterator(_interested));
+        }
         return new QueueConsumerIterator(new PrioritisedQueueConsumerNodeIterator(_interested));
     }
 
@@ -200,6 +212,11 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
         }
     }
 
+    boolean hasAvailableMessages()
+    {
+        return _queue.hasAvailableMessages();
+    }
+
     QueueConsumerNodeListEntry addNodeToInterestList(final QueueConsumerNode queueConsumerNode)
     {
         QueueConsumerNodeListEntry newListEntry;
@@ -385,4 +402,82 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
             throw new UnsupportedOperationException();
         }
     }
+
+    /**
+     * Iterates over the consumers in priority order, offering each priority's consumers in ascending order of their
+     * unacknowledged bytes. Ties keep the round robin order of the underlying list.
+     */
+    private class LeastLoadedQueueConsumerNodeIterator implements Iterator<QueueConsumerNode>
+    {
+        final Iterator<PriorityConsumerListPair> _outerIterator;
+        Iterator<QueueConsumerNode> _innerIterator;
+
+        private LeastLoadedQueueConsumerNodeIterator(List<PriorityConsumerListPair> list)
+        {
+            _outerIterator = list.iterator();
+            _innerIterator = Collections.emptyIterator();
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (!_innerIterator.hasNext())
+            {
+                if (!_outerIterator.hasNext())
+                {
+                    return false;
+                }
+                _innerIterator = sortByLoad(_outerIterator.next()._consumers.iterator());
+            }
+            return true;
+        }
+
+        @Override
+        public QueueConsumerNode next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            return _innerIterator.next();
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        private Iterator<QueueConsumerNode> sortByLoad(final Iterator<QueueConsumerNode> consumers)
+        {
+            final List<ConsumerLoad> loads = new ArrayList<>();
+            while (consumers.hasNext())
+            {
+                final QueueConsumerNode node = consumers.next();
+                loads.add(new ConsumerLoad(node, node.getQueueConsumer().getUnacknowledgedBytes()));
+            }
+            if (loads.size() > 1)
+            {
+                loads.sort(Comparator.comparingLong(load -> load._unacknowledgedBytes));
+            }
+            final List<QueueConsumerNode> nodes = new ArrayList<>(loads.size());
+            for (ConsumerLoad load : loads)
+            {
+                nodes.add(load._node);
+            }
+            return nodes.iterator();
+        }
+    }
+
+    private static final class ConsumerLoad
+    {
+        private final QueueConsumerNode _node;
+        private final long _unacknowledgedBytes;
+
+        private ConsumerLoad(final QueueConsumerNode node, final long unacknowledgedBytes)
+        {
+            _node = node;
+            _unacknowledgedBytes = unacknowledgedBytes;
+        }
+    }
 }
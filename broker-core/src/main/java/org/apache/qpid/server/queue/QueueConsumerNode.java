@@ -21,6 +21,7 @@
 package org.apache.qpid.server.queue;
 
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 final class QueueConsumerNode
 {
@@ -29,6 +30,8 @@ final class QueueConsumerNode
     private QueueConsumerNodeListEntry _listEntry;
     private QueueConsumerManagerImpl.NodeState _state = QueueConsumerManagerImpl.NodeState.REMOVED;
     private QueueConsumerNodeListEntry _allEntry;
+    private long _interestedWhileMessagesAvailableSince = -1L;
+    private long _idleWhileMessagesAvailableNanos;
 
     QueueConsumerNode(final QueueConsumerManagerImpl queueConsumerManager, final QueueConsumer<?,?> queueConsumer)
     {
@@ -55,7 +58,16 @@ final class QueueConsumerNode
             {
                 _listEntry.remove();
             }
+            if (_interestedWhileMessagesAvailableSince >= 0L)
+            {
+                _idleWhileMessagesAvailableNanos += System.nanoTime() - _interestedWhileMessagesAvailableSince;
+                _interestedWhileMessagesAvailableSince = -1L;
+            }
             _state = toState;
+            if (toState == QueueConsumerManagerImpl.NodeState.INTERESTED && _queueConsumerManager.hasAvailableMessages())
+            {
+                _interestedWhileMessagesAvailableSince = System.nanoTime();
+            }
             _listEntry = _queueConsumerManager.addNodeToInterestList(this);
             return true;
         }
@@ -65,6 +77,20 @@ final class QueueConsumerNode
         }
     }
 
+    /**
+     * Returns the time in milliseconds the consumer has spent interested in messages without being notified of any,
+     * counting only the periods which began whilst the queue held available messages.
+     */
+    public synchronized long getIdleWhileMessagesAvailableTime()
+    {
+        long idle = _idleWhileMessagesAvailableNanos;
+        if (_interestedWhileMessagesAvailableSince >= 0L)
+        {
+            idle += System.nanoTime() - _interestedWhileMessagesAvailableSince;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(idle);
+    }
+
     public QueueConsumerNodeListEntry getAllEntry()
     {
         return _allEntry;
@@ -0,0 +1,159 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Orders the queue entries which carry an expiration time by that time, so that housekeeping only needs to look
+ * at the entries which are actually due rather than walking the whole queue.
+ * <p>
+ * Entries consumed before they expire are not removed eagerly; they are discarded when they become due, or by
+ * {@link #purgeDeleted()} once the index has grown well beyond the number of live entries. A record whose time no
+ * longer matches the expiration of its entry, because the queue's TTL settings have since changed, is stale and is
+ * discarded in the same way.
+ */
+final class QueueEntryExpiryIndex
+{
+    private final ConcurrentSkipListSet<ScheduledEntry> _entries = new ConcurrentSkipListSet<>();
+    private final AtomicInteger _size = new AtomicInteger();
+
+    void add(final QueueEntry entry, final long expiration)
+    {
+        if (_entries.add(new ScheduledEntry(expiration, entry)))
+        {
+            _size.incrementAndGet();
+        }
+    }
+
+    void remove(final QueueEntry entry, final long expiration)
+    {
+        if (_entries.remove(new ScheduledEntry(expiration, entry)))
+        {
+            _size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Removes every entry whose expiration time is before the given time and passes those not yet deleted to the
+     * given consumer, in order of expiration. Entries which the consumer could not delete, for instance because
+     * they are held by a consumer which will not give them up, are put back so that they are retried next time.
+     */
+    int removeDue(final long currentTime, final Consumer<QueueEntry> dueEntryConsumer)
+    {
+        int removed = 0;
+        final List<ScheduledEntry> retained = new ArrayList<>();
+        ScheduledEntry first;
+        while ((first = firstOrNull()) != null && first._expiration < currentTime)
+        {
+            if (_entries.remove(first))
+            {
+                _size.decrementAndGet();
+                removed++;
+                final QueueEntry entry = first._entry;
+                if (isCurrent(first))
+                {
+                    dueEntryConsumer.accept(entry);
+                    if (!entry.isDeleted())
+                    {
+                        retained.add(first);
+                    }
+                }
+            }
+        }
+        for (ScheduledEntry scheduledEntry : retained)
+        {
+            if (_entries.add(scheduledEntry))
+            {
+                _size.incrementAndGet();
+                removed--;
+            }
+        }
+        return removed;
+    }
+
+    int purgeDeleted()
+    {
+        int removed = 0;
+        for (ScheduledEntry scheduledEntry : _entries)
+        {
+            if (!isCurrent(scheduledEntry) && _entries.remove(scheduledEntry))
+            {
+                _size.decrementAndGet();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    int size()
+    {
+        return _size.get();
+    }
+
+    private static boolean isCurrent(final ScheduledEntry scheduledEntry)
+    {
+        final QueueEntry entry = scheduledEntry._entry;
+        return !entry.isDeleted() && entry.getExpiration() == scheduledEntry._expiration;
+    }
+
+    private ScheduledEntry firstOrNull()
+    {
+        return _entries.ceiling(ScheduledEntry.LOWEST);
+    }
+
+    private static final class ScheduledEntry implements Comparable<ScheduledEntry>
+    {
+        private static final ScheduledEntry LOWEST = new ScheduledEntry(Long.MIN_VALUE, null);
+
+        private final long _expiration;
+        private final QueueEntry _entry;
+
+        private ScheduledEntry(final long expiration, final QueueEntry entry)
+        {
+            _expiration = expiration;
+            _entry = entry;
+        }
+
+        @Override
+        public int compareTo(final ScheduledEntry other)
+        {
+            int result = Long.compare(_expiration, other._expiration);
+            if (result == 0 && _entry != other._entry)
+            {
+                if (_entry == null)
+                {
+                    return -1;
+                }
+                else if (other._entry == null)
+                {
+                    return 1;
+                }
+                result = _entry.compareTo(other._entry);
+            }
+            return result;
+        }
+    }
+}
@@ -22,6 +22,7 @@ package org.apache.qpid.server.queue;
 
 import java.util.Collections;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
@@ -44,6 +45,7 @@ import org.apache.qpid.server.store.TransactionLogResource;
 import org.apache.qpid.server.txn.LocalTransaction;
 import org.apache.qpid.server.txn.ServerTransaction;
 import org.apache.qpid.server.util.Action;
+import org.apache.qpid.server.util.ShallowSizeEstimator;
 import org.apache.qpid.server.util.StateChangeListener;
 import org.apache.qpid.server.util.StateChangeListenerEntry;
 
@@ -53,9 +55,13 @@ public abstract class QueueEntryImpl implements QueueEntry
 
     private final MessageReference _message;
 
-    private volatile Set<Object> _rejectedBy = null;
-    private static final AtomicReferenceFieldUpdater<QueueEntryImpl, Set> _rejectedByUpdater =
-            AtomicReferenceFieldUpdater.newUpdater(QueueEntryImpl.class, Set.class, "_rejectedBy");
+    /**
+     * Rejecting consumers and state change listeners are only needed for the few entries which are in flight, so
+     * they share a lazily created holder rather than costing two fields on every entry of a deep queue.
+     */
+    private volatile Attachments _attachments;
+    private static final AtomicReferenceFieldUpdater<QueueEntryImpl, Attachments> _attachmentsUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(QueueEntryImpl.class, Attachments.class, "_attachments");
 
     private static final EntryState HELD_STATE = new EntryState()
     {
@@ -81,16 +87,6 @@ public abstract class QueueEntryImpl implements QueueEntry
         (QueueEntryImpl.class, EntryState.class, "_state");
 
 
-    @SuppressWarnings("unused")
-    private volatile StateChangeListenerEntry<? super QueueEntry, EntryState> _stateChangeListeners;
-
-    private static final
-        AtomicReferenceFieldUpdater<QueueEntryImpl, StateChangeListenerEntry>
-                _listenersUpdater =
-        AtomicReferenceFieldUpdater.newUpdater
-        (QueueEntryImpl.class, StateChangeListenerEntry.class, "_stateChangeListeners");
-
-
     private static final
         AtomicLongFieldUpdater<QueueEntryImpl>
             _entryIdUpdater =
@@ -105,13 +101,18 @@ public abstract class QueueEntryImpl implements QueueEntry
     private static final int PERSISTENT_FLAG = 2;
     private static final int MANDATORY_FLAG = 4;
     private static final int IMMEDIATE_FLAG = 8;
-    private int _flags;
+    private static final int DERIVED_ENQUEUE_RECORD_FLAG = 16;
+    private static final int FLAG_BITS = 5;
+    private static final int DELIVERY_COUNT_UNIT = 1 << FLAG_BITS;
     private long _expiration;
 
-    /** Number of times this message has been delivered */
-    private volatile int _deliveryCount = -1;
-    private static final AtomicIntegerFieldUpdater<QueueEntryImpl> _deliveryCountUpdater = AtomicIntegerFieldUpdater
-                    .newUpdater(QueueEntryImpl.class, "_deliveryCount");
+    /**
+     * The flags in the low bits, and one more than the number of times this message has been delivered in the
+     * remaining bits, so that a count of zero means the entry has never been delivered to a consumer.
+     */
+    private volatile int _flagsAndDeliveryCount;
+    private static final AtomicIntegerFieldUpdater<QueueEntryImpl> _flagsAndDeliveryCountUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(QueueEntryImpl.class, "_flagsAndDeliveryCount");
 
     private final MessageEnqueueRecord _enqueueRecord;
 
@@ -134,7 +135,7 @@ public abstract class QueueEntryImpl implements QueueEntry
 
         _entryIdUpdater.set(this, entryId);
         populateInstanceProperties();
-        _enqueueRecord = enqueueRecord;
+        _enqueueRecord = compactEnqueueRecord(enqueueRecord);
     }
 
     QueueEntryImpl(QueueEntryList queueEntryList,
@@ -144,7 +145,25 @@ public abstract class QueueEntryImpl implements QueueEntry
         _queueEntryList = queueEntryList;
         _message = message == null ? null :  message.newReference(queueEntryList.getQueue());
         populateInstanceProperties();
-        _enqueueRecord = enqueueRecord;
+        _enqueueRecord = compactEnqueueRecord(enqueueRecord);
+    }
+
+    /**
+     * The enqueue records of the message stores only carry the queue id and the message number, both of which the
+     * entry already knows, so for deep persistent queues they are not retained but recreated when needed.
+     */
+    private MessageEnqueueRecord compactEnqueueRecord(final MessageEnqueueRecord enqueueRecord)
+    {
+        if (enqueueRecord != null
+            && _message != null
+            && enqueueRecord.getQueueId() != null
+            && enqueueRecord.getMessageNumber() == _message.getMessage().getMessageNumber()
+            && enqueueRecord.getQueueId().equals(getQueue().getId()))
+        {
+            setFlag(DERIVED_ENQUEUE_RECORD_FLAG);
+            return null;
+        }
+        return enqueueRecord;
     }
 
     private void populateInstanceProperties()
@@ -165,6 +184,12 @@ public abstract class QueueEntryImpl implements QueueEntry
         _expiration = expiration;
     }
 
+    @Override
+    public long getExpiration()
+    {
+        return _expiration;
+    }
+
     @Override
     public InstanceProperties getInstanceProperties()
     {
@@ -208,7 +233,7 @@ public abstract class QueueEntryImpl implements QueueEntry
     @Override
     public boolean getDeliveredToConsumer()
     {
-        return _deliveryCountUpdater.get(this) != -1;
+        return (_flagsAndDeliveryCount >>> FLAG_BITS) != 0;
     }
 
     @Override
@@ -328,7 +353,7 @@ public abstract class QueueEntryImpl implements QueueEntry
         final boolean acquired = acquire(((QueueConsumer<?,?>) consumer).getOwningState().getUnstealableState());
         if(acquired)
         {
-            _deliveryCountUpdater.compareAndSet(this,-1,0);
+            markDelivered();
         }
         return acquired;
     }
@@ -497,17 +522,32 @@ public abstract class QueueEntryImpl implements QueueEntry
             throw new IllegalArgumentException("consumer must not be null");
         }
 
-        if (_rejectedBy == null)
+        final Attachments attachments = getOrCreateAttachments();
+        if (attachments._rejectedBy == null)
         {
-            _rejectedByUpdater.compareAndSet(this, null, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+            Attachments._rejectedByUpdater.compareAndSet(attachments, null,
+                                                         Collections.newSetFromMap(new ConcurrentHashMap<>()));
         }
-        _rejectedBy.add(consumer.getIdentifier());
+        attachments._rejectedBy.add(consumer.getIdentifier());
     }
 
     @Override
     public boolean isRejectedBy(MessageInstanceConsumer<?> consumer)
     {
-        return _rejectedBy != null && _rejectedBy.contains(consumer.getIdentifier());
+        final Attachments attachments = _attachments;
+        final Set<Object> rejectedBy = attachments == null ? null : attachments._rejectedBy;
+        return rejectedBy != null && rejectedBy.contains(consumer.getIdentifier());
+    }
+
+    private Attachments getOrCreateAttachments()
+    {
+        Attachments attachments = _attachments;
+        if (attachments == null)
+        {
+            _attachmentsUpdater.compareAndSet(this, null, new Attachments());
+            attachments = _attachments;
+        }
+        return attachments;
     }
 
     private boolean dequeue()
@@ -534,7 +574,9 @@ public abstract class QueueEntryImpl implements QueueEntry
     private void notifyStateChange(final EntryState oldState, final EntryState newState)
     {
         _queueEntryList.updateStatsOnStateChange(this, oldState, newState);
-        StateChangeListenerEntry<? super QueueEntry, EntryState> entry = _listenersUpdater.get(this);
+        final Attachments attachments = _attachments;
+        StateChangeListenerEntry<? super QueueEntry, EntryState> entry =
+                attachments == null ? null : attachments._stateChangeListeners;
         while(entry != null)
         {
             StateChangeListener<? super QueueEntry, EntryState> l = entry.getListener();
@@ -644,16 +686,18 @@ public abstract class QueueEntryImpl implements QueueEntry
     public void addStateChangeListener(StateChangeListener<? super MessageInstance, EntryState> listener)
     {
         StateChangeListenerEntry<? super QueueEntry, EntryState> entry = new StateChangeListenerEntry<>(listener);
-        if(!_listenersUpdater.compareAndSet(this,null, entry))
+        final Attachments attachments = getOrCreateAttachments();
+        if(!Attachments._listenersUpdater.compareAndSet(attachments, null, entry))
         {
-            _listenersUpdater.get(this).add(entry);
+            Attachments._listenersUpdater.get(attachments).add(entry);
         }
     }
 
     @Override
     public boolean removeStateChangeListener(StateChangeListener<? super MessageInstance, EntryState> listener)
     {
-        StateChangeListenerEntry entry = _listenersUpdater.get(this);
+        final Attachments attachments = _attachments;
+        StateChangeListenerEntry entry = attachments == null ? null : attachments._stateChangeListeners;
         return entry != null && entry.remove(listener);
     }
 
@@ -673,6 +717,12 @@ public abstract class QueueEntryImpl implements QueueEntry
         return _queueEntryList;
     }
 
+    long getEstimatedHeapSize()
+    {
+        return ShallowSizeEstimator.estimate(getClass())
+               + (_message == null ? 0L : ShallowSizeEstimator.estimate(_message.getClass()));
+    }
+
     @Override
     public boolean isDeleted()
     {
@@ -688,7 +738,8 @@ public abstract class QueueEntryImpl implements QueueEntry
     @Override
     public int getDeliveryCount()
     {
-        return _deliveryCount == -1 ? 0 : _deliveryCount;
+        final int deliveryCount = (_flagsAndDeliveryCount >>> FLAG_BITS) - 1;
+        return deliveryCount < 0 ? 0 : deliveryCount;
     }
 
     @Override
@@ -700,14 +751,52 @@ public abstract class QueueEntryImpl implements QueueEntry
     @Override
     public void incrementDeliveryCount()
     {
-        _deliveryCountUpdater.compareAndSet(this,-1,0);
-        _deliveryCountUpdater.incrementAndGet(this);
+        markDelivered();
+        _flagsAndDeliveryCountUpdater.addAndGet(this, DELIVERY_COUNT_UNIT);
     }
 
     @Override
     public void decrementDeliveryCount()
     {
-        _deliveryCountUpdater.decrementAndGet(this);
+        int current;
+        do
+        {
+            current = _flagsAndDeliveryCount;
+            if ((current >>> FLAG_BITS) == 0)
+            {
+                return;
+            }
+        }
+        while (!_flagsAndDeliveryCountUpdater.compareAndSet(this, current, current - DELIVERY_COUNT_UNIT));
+    }
+
+    private void markDelivered()
+    {
+        int current;
+        while (((current = _flagsAndDeliveryCount) >>> FLAG_BITS) == 0)
+        {
+            if (_flagsAndDeliveryCountUpdater.compareAndSet(this, current, current + DELIVERY_COUNT_UNIT))
+            {
+                return;
+            }
+        }
+    }
+
+    private void setFlag(final int flag)
+    {
+        int current;
+        while (((current = _flagsAndDeliveryCount) & flag) == 0)
+        {
+            if (_flagsAndDeliveryCountUpdater.compareAndSet(this, current, current | flag))
+            {
+                return;
+            }
+        }
+    }
+
+    private boolean isFlagSet(final int flag)
+    {
+        return (_flagsAndDeliveryCount & flag) != 0;
     }
 
     @Override
@@ -734,24 +823,24 @@ public abstract class QueueEntryImpl implements QueueEntry
     @Override
     public void setRedelivered()
     {
-        _flags |= REDELIVERED_FLAG;
+        setFlag(REDELIVERED_FLAG);
     }
 
     private void setPersistent()
     {
-        _flags |= PERSISTENT_FLAG;
+        setFlag(PERSISTENT_FLAG);
     }
 
     @Override
     public boolean isRedelivered()
     {
-        return (_flags & REDELIVERED_FLAG) != 0;
+        return isFlagSet(REDELIVERED_FLAG);
     }
 
     @Override
     public boolean isPersistent()
     {
-        return (_flags & PERSISTENT_FLAG) != 0;
+        return isFlagSet(PERSISTENT_FLAG);
     }
 
     @Override
@@ -777,13 +866,13 @@ public abstract class QueueEntryImpl implements QueueEntry
             {
 
                 case REDELIVERED:
-                    return (_flags & REDELIVERED_FLAG) != 0;
+                    return isFlagSet(REDELIVERED_FLAG);
                 case PERSISTENT:
-                    return (_flags & PERSISTENT_FLAG) != 0;
+                    return isFlagSet(PERSISTENT_FLAG);
                 case MANDATORY:
-                    return (_flags & MANDATORY_FLAG) != 0;
+                    return isFlagSet(MANDATORY_FLAG);
                 case IMMEDIATE:
-                    return (_flags & IMMEDIATE_FLAG) != 0;
+                    return isFlagSet(IMMEDIATE_FLAG);
                 case EXPIRATION:
                     return _expiration;
                 default:
@@ -796,6 +885,47 @@ public abstract class QueueEntryImpl implements QueueEntry
     @Override
     public MessageEnqueueRecord getEnqueueRecord()
     {
+        if (_enqueueRecord == null && isFlagSet(DERIVED_ENQUEUE_RECORD_FLAG))
+        {
+            return new DerivedEnqueueRecord(getQueue().getId(), _message.getMessage().getMessageNumber());
+        }
         return _enqueueRecord;
     }
+
+    private static final class Attachments
+    {
+        private static final AtomicReferenceFieldUpdater<Attachments, Set> _rejectedByUpdater =
+                AtomicReferenceFieldUpdater.newUpdater(Attachments.class, Set.class, "_rejectedBy");
+        private static final AtomicReferenceFieldUpdater<Attachments, StateChangeListenerEntry> _listenersUpdater =
+                AtomicReferenceFieldUpdater.newUpdater(Attachments.class,
+                                                       StateChangeListenerEntry.class,
+                                                       "_stateChangeListeners");
+
+        private volatile Set<Object> _rejectedBy;
+        private volatile StateChangeListenerEntry<? super QueueEntry, EntryState> _stateChangeListeners;
+    }
+
+    private static final class DerivedEnqueueRecord implements MessageEnqueueRecord
+    {
+        private final UUID _queueId;
+        private final long _messageNumber;
+
+        private DerivedEnqueueRecord(final UUID queueId, final long messageNumber)
+        {
+            _queueId = queueId;
+            _messageNumber = messageNumber;
+        }
+
+        @Override
+        public UUID getQueueId()
+        {
+            return _queueId;
+        }
+
+        @Override
+        public long getMessageNumber()
+        {
+            return _messageNumber;
+        }
+    }
 }
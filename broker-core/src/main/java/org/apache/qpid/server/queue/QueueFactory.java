@@ -90,6 +90,10 @@ public class QueueFactory<X extends Queue<X>>  implements ConfiguredObjectTypeFa
             {
                 type = "lvq";
             }
+            else if(attributes.containsKey(RingQueue.RING_SIZE))
+            {
+                type = RingQueue.RING_QUEUE_TYPE;
+            }
             else
             {
                 type = "standard";
@@ -23,8 +23,12 @@ package org.apache.qpid.server.queue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
-final class QueueStatistics
+import org.apache.qpid.server.stats.LatencyHistogram;
+
+public final class QueueStatistics
 {
+    public static final long MAXIMUM_TRACKED_LATENCY_MILLIS = 1L << 35;
+
     private final AtomicInteger _queueCount = new AtomicInteger();
     private final AtomicLong _queueSize = new AtomicLong();
 
@@ -57,6 +61,9 @@ final class QueueStatistics
     private final AtomicInteger _malformedCount = new AtomicInteger();
     private final AtomicLong _malformedSize = new AtomicLong();
 
+    private final LatencyHistogram _residenceTime = new LatencyHistogram(MAXIMUM_TRACKED_LATENCY_MILLIS);
+    private final LatencyHistogram _firstDeliveryLatency = new LatencyHistogram(MAXIMUM_TRACKED_LATENCY_MILLIS);
+
     public final int getQueueCount()
     {
         return _queueCount.get();
@@ -167,6 +174,16 @@ final class QueueStatistics
         return _malformedSize.get();
     }
 
+    public LatencyHistogram getResidenceTime()
+    {
+        return _residenceTime;
+    }
+
+    public LatencyHistogram getFirstDeliveryLatency()
+    {
+        return _firstDeliveryLatency;
+    }
+
     void addToQueue(long size)
     {
         int count = _queueCount.incrementAndGet();
@@ -0,0 +1,53 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import org.apache.qpid.server.model.ManagedAttribute;
+import org.apache.qpid.server.model.ManagedContextDefault;
+import org.apache.qpid.server.model.ManagedObject;
+import org.apache.qpid.server.model.ManagedStatistic;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.server.model.StatisticUnit;
+
+@ManagedObject( category = false, type = RingQueue.RING_QUEUE_TYPE,
+        amqpName = "org.apache.qpid.RingQueue" )
+public interface RingQueue<X extends RingQueue<X>> extends Queue<X>
+{
+    String RING_QUEUE_TYPE = "ring";
+    String RING_SIZE = "ringSize";
+
+    /** the slot array is allocated when the queue is opened, 1 << 24 slots take 64MB with compressed references */
+    int MAX_RING_SIZE = 1 << 24;
+
+    @ManagedContextDefault( name = "queue.ringSize")
+    int DEFAULT_RING_SIZE = 1024;
+
+    @ManagedAttribute( immutable = true, defaultValue = "${queue.ringSize}",
+            description = "Number of most recent messages retained by the queue. Rounded up to the next power of two."
+                          + " Enqueuing a message into a full ring overwrites the oldest message.")
+    int getRingSize();
+
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.MESSAGES, label = "Overwritten",
+                      description = "Total number of messages removed from the queue because they were overwritten"
+                                    + " by newer messages.")
+    long getOverwrittenMessages();
+}
@@ -0,0 +1,144 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+
+/**
+ * Entry list of a {@link RingQueue}.
+ * <p>
+ * Besides the linked list consumers traverse, the list keeps a preallocated, power of two sized array of slots
+ * indexed by entry id. As entry ids are allocated sequentially, the slot an entry is written to holds the entry
+ * enqueued one ring length earlier, which is removed from the queue as it is overwritten. Consumers which fall
+ * behind simply find the overwritten entries deleted and move on to the oldest retained entry. An entry deleted
+ * otherwise, e.g. when consumed, releases its slot so that the array does not keep it reachable.
+ */
+public class RingQueueEntryList extends OrderedQueueEntryList
+{
+    private static final HeadCreator HEAD_CREATOR = new HeadCreator()
+    {
+        @Override
+        public RingQueueEntry createHead(final QueueEntryList list)
+        {
+            return new RingQueueEntry((RingQueueEntryList) list);
+        }
+    };
+
+    private final RingQueueImpl _queue;
+    private final AtomicReferenceArray<RingQueueEntry> _slots;
+    private final int _mask;
+    private final LongAdder _overwrittenMessages = new LongAdder();
+
+    public RingQueueEntryList(final RingQueueImpl queue, final QueueStatistics queueStatistics)
+    {
+        super(queue, queueStatistics, HEAD_CREATOR);
+        _queue = queue;
+        final int capacity = ringCapacity(queue.getRingSize());
+        _slots = new AtomicReferenceArray<>(capacity);
+        _mask = capacity - 1;
+    }
+
+    @Override
+    protected RingQueueEntry createQueueEntry(final ServerMessage<?> message,
+                                              final MessageEnqueueRecord enqueueRecord)
+    {
+        return new RingQueueEntry(this, message, enqueueRecord);
+    }
+
+    @Override
+    public RingQueueEntry add(final ServerMessage message, final MessageEnqueueRecord enqueueRecord)
+    {
+        final RingQueueEntry entry = (RingQueueEntry) super.add(message, enqueueRecord);
+        final int slot = slotOf(entry);
+
+        RingQueueEntry overwritten;
+        while (true)
+        {
+            final RingQueueEntry current = _slots.get(slot);
+            if (current != null && current.getEntryId() > entry.getEntryId())
+            {
+                // a concurrent enqueue one ring length later has already claimed the slot
+                overwritten = entry;
+                break;
+            }
+            else if (_slots.compareAndSet(slot, current, entry))
+            {
+                overwritten = current;
+                break;
+            }
+        }
+
+        if (overwritten != null && !overwritten.isDeleted())
+        {
+            _overwrittenMessages.increment();
+            _queue.deleteEntry(overwritten);
+        }
+        if (overwritten != entry && entry.isDeleted())
+        {
+            // consumed before it was placed in its slot
+            _slots.compareAndSet(slot, entry, null);
+        }
+        return entry;
+    }
+
+    @Override
+    public void entryDeleted(final QueueEntry queueEntry)
+    {
+        super.entryDeleted(queueEntry);
+        final RingQueueEntry entry = (RingQueueEntry) queueEntry;
+        _slots.compareAndSet(slotOf(entry), entry, null);
+    }
+
+    @Override
+    public QueueEntry getLeastSignificantOldestEntry()
+    {
+        return getOldestEntry();
+    }
+
+    long getOverwrittenMessages()
+    {
+        return _overwrittenMessages.sum();
+    }
+
+    int getCapacity()
+    {
+        return _slots.length();
+    }
+
+    RingQueueEntry getSlotEntry(final QueueEntry entry)
+    {
+        return _slots.get(slotOf((RingQueueEntry) entry));
+    }
+
+    private int slotOf(final RingQueueEntry entry)
+    {
+        return (int) (entry.getEntryId() & _mask);
+    }
+
+    static int ringCapacity(final int ringSize)
+    {
+        return ringSize <= 1 ? 1 : Integer.highestOneBit(ringSize - 1) << 1;
+    }
+}
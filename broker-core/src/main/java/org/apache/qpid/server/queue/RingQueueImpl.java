@@ -0,0 +1,79 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.Map;
+
+import org.apache.qpid.server.configuration.IllegalConfigurationException;
+import org.apache.qpid.server.model.ManagedAttributeField;
+import org.apache.qpid.server.model.ManagedObjectFactoryConstructor;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+
+public class RingQueueImpl extends AbstractQueue<RingQueueImpl> implements RingQueue<RingQueueImpl>
+{
+    private RingQueueEntryList _entries;
+
+    @ManagedAttributeField
+    private int _ringSize;
+
+    @ManagedObjectFactoryConstructor
+    public RingQueueImpl(final Map<String, Object> arguments, final QueueManagingVirtualHost<?> virtualHost)
+    {
+        super(arguments, virtualHost);
+    }
+
+    @Override
+    public void onValidate()
+    {
+        super.onValidate();
+        if (_ringSize < 1 || _ringSize > MAX_RING_SIZE)
+        {
+            throw new IllegalConfigurationException(String.format("Ring size must be between 1 and %d but was %d",
+                                                                  MAX_RING_SIZE,
+                                                                  _ringSize));
+        }
+    }
+
+    @Override
+    protected void onOpen()
+    {
+        super.onOpen();
+        _entries = new RingQueueEntryList(this, getQueueStatistics());
+    }
+
+    @Override
+    public int getRingSize()
+    {
+        return _ringSize;
+    }
+
+    @Override
+    public long getOverwrittenMessages()
+    {
+        return _entries == null ? 0L : _entries.getOverwrittenMessages();
+    }
+
+    @Override
+    RingQueueEntryList getEntries()
+    {
+        return _entries;
+    }
+}
@@ -27,31 +27,22 @@ import org.apache.qpid.server.store.MessageEnqueueRecord;
  */
 public class SortedQueueEntry extends QueueEntryImpl
 {
-    public static enum Colour
-    {
-        RED, BLACK
-    };
-
-    private volatile SortedQueueEntry _next;
-    private SortedQueueEntry _prev;
-    private String _key;
-
-    private Colour _colour = Colour.BLACK;
-    private SortedQueueEntry _parent;
-    private SortedQueueEntry _left;
-    private SortedQueueEntry _right;
+    private final String _key;
 
     public SortedQueueEntry(final SortedQueueEntryList queueEntryList)
     {
         super(queueEntryList);
+        _key = null;
     }
 
     public SortedQueueEntry(final SortedQueueEntryList queueEntryList,
                             final ServerMessage message,
                             final long entryId,
-                            final MessageEnqueueRecord messageEnqueueRecord)
+                            final MessageEnqueueRecord messageEnqueueRecord,
+                            final String key)
     {
         super(queueEntryList, message, entryId, messageEnqueueRecord);
+        _key = key;
     }
 
     @Override
@@ -63,25 +54,15 @@ public class SortedQueueEntry extends QueueEntryImpl
         return compare == 0 ? super.compareTo(o) : compare;
     }
 
-    public Colour getColour()
-    {
-        return _colour;
-    }
-
     public String getKey()
     {
         return _key;
     }
 
-    public SortedQueueEntry getLeft()
-    {
-        return _left;
-    }
-
     @Override
     public SortedQueueEntry getNextNode()
     {
-        return _next;
+        return getQueueEntryList().next(this);
     }
 
     @Override
@@ -90,59 +71,15 @@ public class SortedQueueEntry extends QueueEntryImpl
         return getNextNode();
     }
 
-    public SortedQueueEntry getParent()
-    {
-        return _parent;
-    }
-
-    public SortedQueueEntry getPrev()
-    {
-        return _prev;
-    }
-
-    public SortedQueueEntry getRight()
-    {
-        return _right;
-    }
-
-    public void setColour(final Colour colour)
-    {
-        _colour = colour;
-    }
-
-    public void setKey(final String key)
-    {
-        _key = key;
-    }
-
-    public void setLeft(final SortedQueueEntry left)
-    {
-        _left = left;
-    }
-
-    public void setNext(final SortedQueueEntry next)
-    {
-        _next = next;
-    }
-
-    public void setParent(final SortedQueueEntry parent)
-    {
-        _parent = parent;
-    }
-
-    public void setPrev(final SortedQueueEntry prev)
-    {
-        _prev = prev;
-    }
-
-    public void setRight(final SortedQueueEntry right)
+    @Override
+    public SortedQueueEntryList getQueueEntryList()
     {
-        _right = right;
+        return (SortedQueueEntryList) super.getQueueEntryList();
     }
 
     @Override
     public String toString()
     {
-        return "(" + (_colour == Colour.RED ? "Red," : "Black,") + _key + ")";
+        return "(" + _key + ")";
     }
 }
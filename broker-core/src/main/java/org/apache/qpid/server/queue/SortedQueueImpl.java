@@ -21,21 +21,12 @@ package org.apache.qpid.server.queue;
 
 import java.util.Map;
 
-import org.apache.qpid.server.message.MessageInstance;
-import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.ManagedAttributeField;
 import org.apache.qpid.server.model.ManagedObjectFactoryConstructor;
-import org.apache.qpid.server.store.MessageEnqueueRecord;
-import org.apache.qpid.server.util.Action;
 import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
 
 public class SortedQueueImpl extends OutOfOrderQueue<SortedQueueImpl> implements SortedQueue<SortedQueueImpl>
 {
-    //Lock object to synchronize enqueue. Used instead of the object
-    //monitor to prevent lock order issues with consumer sendLocks
-    //and consumer updates in the super classes
-    private final Object _sortedQueueLock = new Object();
-
     @ManagedAttributeField
     private String _sortKey;
     private SortedQueueEntryList _entries;
@@ -53,17 +44,6 @@ public class SortedQueueImpl extends OutOfOrderQueue<SortedQueueImpl> implements
         _entries = new SortedQueueEntryList(this, getQueueStatistics());
     }
 
-    @Override
-    protected QueueEntry doEnqueue(final ServerMessage message,
-                        final Action<? super MessageInstance> action,
-                        MessageEnqueueRecord record)
-    {
-        synchronized (_sortedQueueLock)
-        {
-            return super.doEnqueue(message, action, record);
-        }
-    }
-
     @Override
     SortedQueueEntryList getEntries()
     {
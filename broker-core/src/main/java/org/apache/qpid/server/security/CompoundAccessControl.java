@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.security.auth.Subject;
@@ -36,6 +37,7 @@ public class CompoundAccessControl implements AccessControl<CompoundSecurityToke
 {
     private final AtomicReference<List<AccessControl<?>>> _underlyingControls = new AtomicReference<>();
     private final Result _defaultResult;
+    private final AtomicLong _version = new AtomicLong();
 
     public CompoundAccessControl(List<AccessControl<?>> underlying, Result defaultResult)
     {
@@ -46,6 +48,24 @@ public class CompoundAccessControl implements AccessControl<CompoundSecurityToke
     public void setAccessControls(final List<AccessControl<?>> underlying)
     {
         _underlyingControls.set(new CopyOnWriteArrayList<>(underlying));
+        _version.incrementAndGet();
+    }
+
+    /**
+     * Returns a value which changes whenever the access controls of this, or of any nested compound
+     * access control, are replaced.
+     */
+    public long getVersion()
+    {
+        long version = _version.get();
+        for (AccessControl<?> control : _underlyingControls.get())
+        {
+            if (control instanceof CompoundAccessControl)
+            {
+                version += ((CompoundAccessControl) control).getVersion();
+            }
+        }
+        return version;
     }
 
     @Override
@@ -50,6 +50,10 @@ public interface AMQPSession<S extends org.apache.qpid.server.session.AMQPSessio
 
     void unblock(Queue<?> queue);
 
+    void producerFlowBlocked(Queue<?> queue);
+
+    void producerFlowUnblocked(Queue<?> queue);
+
     void block();
 
     void unblock();
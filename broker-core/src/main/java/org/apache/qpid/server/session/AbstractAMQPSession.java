@@ -29,7 +29,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.security.auth.Subject;
 
@@ -45,12 +47,14 @@ import org.apache.qpid.server.logging.EventLoggerProvider;
 import org.apache.qpid.server.logging.LogSubject;
 import org.apache.qpid.server.logging.messages.ChannelMessages;
 import org.apache.qpid.server.logging.subjects.ChannelLogSubject;
+import org.apache.qpid.server.message.MessageDestination;
 import org.apache.qpid.server.model.AbstractConfiguredObject;
 import org.apache.qpid.server.model.Broker;
 import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.Connection;
 import org.apache.qpid.server.model.Consumer;
 import org.apache.qpid.server.model.LifetimePolicy;
+import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.model.Session;
 import org.apache.qpid.server.model.State;
 import org.apache.qpid.server.protocol.PublishAuthorisationCache;
@@ -58,6 +62,7 @@ import org.apache.qpid.server.security.SecurityToken;
 import org.apache.qpid.server.transport.AMQPConnection;
 import org.apache.qpid.server.transport.network.Ticker;
 import org.apache.qpid.server.util.Action;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
 
 public abstract class AbstractAMQPSession<S extends AbstractAMQPSession<S, X>,
                                           X extends ConsumerTarget<X>>
@@ -71,12 +76,15 @@ public abstract class AbstractAMQPSession<S extends AbstractAMQPSession<S, X>,
     protected final AccessControlContext _accessControllerContext;
     protected final Subject _subject;
     protected final SecurityToken _token;
-    protected final PublishAuthorisationCache _publishAuthCache;
+    private final PublishAuthorisationCache _publishAuthCache;
+    private final Set<Object> _publisherIdentity;
 
     protected final LogSubject _logSubject;
 
     protected final List<Action<? super S>> _taskList = new CopyOnWriteArrayList<>();
     private final AtomicInteger _consumerCount = new AtomicInteger();
+    private final LongAdder _producerFlowBlockedTime = new LongAdder();
+    private final Map<Queue<?>, Long> _producerFlowBlockedSince = new ConcurrentHashMap<>();
 
     protected final Set<AbstractConsumerTarget> _consumersWithPendingWork = new ScheduledConsumerTargetSet<>();
     private Iterator<AbstractConsumerTarget> _processPendingIterator;
@@ -114,9 +122,17 @@ public abstract class AbstractAMQPSession<S extends AbstractAMQPSession<S, X>,
 
         _accessControllerContext = _connection.getAccessControlContextFromSubject(_subject);
 
-        final long authCacheTimeout = _connection.getContextValue(Long.class, Session.PRODUCER_AUTH_CACHE_TIMEOUT);
-        final int authCacheSize = _connection.getContextValue(Integer.class, Session.PRODUCER_AUTH_CACHE_SIZE);
-        _publishAuthCache = new PublishAuthorisationCache(_token, authCacheTimeout, authCacheSize);
+        if (_connection.getAddressSpace() instanceof QueueManagingVirtualHost)
+        {
+            _publishAuthCache = ((QueueManagingVirtualHost<?>) _connection.getAddressSpace()).getPublishAuthorisationCache();
+        }
+        else
+        {
+            final long authCacheTimeout = _connection.getContextValue(Long.class, Session.PRODUCER_AUTH_CACHE_TIMEOUT);
+            final int authCacheSize = _connection.getContextValue(Integer.class, Session.PRODUCER_AUTH_CACHE_SIZE);
+            _publishAuthCache = new PublishAuthorisationCache(authCacheTimeout, authCacheSize, () -> 0L);
+        }
+        _publisherIdentity = PublishAuthorisationCache.getPublisherIdentity(_subject);
         _logSubject = new ChannelLogSubject(this);
 
         setState(State.ACTIVE);
@@ -162,6 +178,34 @@ public abstract class AbstractAMQPSession<S extends AbstractAMQPSession<S, X>,
         return getUnacknowledgedMessageCount();
     }
 
+    @Override
+    public long getProducerFlowBlockedTime()
+    {
+        final long now = System.nanoTime();
+        long blockedTime = _producerFlowBlockedTime.sum();
+        for (final long blockedSince : _producerFlowBlockedSince.values())
+        {
+            blockedTime += TimeUnit.NANOSECONDS.toMillis(now - blockedSince);
+        }
+        return blockedTime;
+    }
+
+    @Override
+    public void producerFlowBlocked(final Queue<?> queue)
+    {
+        _producerFlowBlockedSince.putIfAbsent(queue, System.nanoTime());
+    }
+
+    @Override
+    public void producerFlowUnblocked(final Queue<?> queue)
+    {
+        final Long blockedSince = _producerFlowBlockedSince.remove(queue);
+        if (blockedSince != null)
+        {
+            _producerFlowBlockedTime.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - blockedSince));
+        }
+    }
+
     @Override
     public void addDeleteTask(final Action<? super S> task)
     {
@@ -207,6 +251,14 @@ public abstract class AbstractAMQPSession<S extends AbstractAMQPSession<S, X>,
         return _logSubject;
     }
 
+    public void authorisePublish(final MessageDestination destination,
+                                 final String routingKey,
+                                 final boolean immediate,
+                                 final long currentTime)
+    {
+        _publishAuthCache.authorisePublish(_token, _publisherIdentity, destination, routingKey, immediate, currentTime);
+    }
+
     @Override
     protected void logOperation(final String operation)
     {
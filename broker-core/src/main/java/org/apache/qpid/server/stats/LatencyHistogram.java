@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.stats;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent, log-linear latency histogram in the style of HdrHistogram.
+ * <p>
+ * Values are grouped into buckets of sixteen linear sub-buckets per power of two, giving a worst case relative
+ * error of about 6%. Recording a value does not allocate; the bucket array itself is only created on the first
+ * recording so that idle objects carrying a histogram stay cheap. Values above the highest trackable value are
+ * counted in the last bucket, negative values are counted as zero.
+ */
+public final class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private final long _highestTrackableValue;
+    private final int _bucketCount;
+    private final AtomicReference<AtomicLongArray> _buckets = new AtomicReference<>();
+    private final LongAdder _count = new LongAdder();
+    private final LongAdder _sum = new LongAdder();
+    private final LongAccumulator _max = new LongAccumulator(Math::max, 0L);
+
+    public LatencyHistogram(final long highestTrackableValue)
+    {
+        if (highestTrackableValue < SUB_BUCKET_COUNT)
+        {
+            throw new IllegalArgumentException("Highest trackable value must be at least " + SUB_BUCKET_COUNT);
+        }
+        _highestTrackableValue = highestTrackableValue;
+        _bucketCount = bucketIndex(highestTrackableValue) + 1;
+    }
+
+    public void record(final long value)
+    {
+        final long boundedValue = Math.min(Math.max(value, 0L), _highestTrackableValue);
+        AtomicLongArray buckets = _buckets.get();
+        if (buckets == null)
+        {
+            _buckets.compareAndSet(null, new AtomicLongArray(_bucketCount));
+            buckets = _buckets.get();
+        }
+        buckets.incrementAndGet(bucketIndex(boundedValue));
+        _count.increment();
+        _sum.add(boundedValue);
+        _max.accumulate(boundedValue);
+    }
+
+    public long getCount()
+    {
+        return _count.sum();
+    }
+
+    public long getMax()
+    {
+        return _max.get();
+    }
+
+    public double getMean()
+    {
+        final long count = _count.sum();
+        return count == 0 ? 0d : (double) _sum.sum() / count;
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the value at the given percentile, capped at the largest value
+     * recorded so far.
+     *
+     * @param percentile percentile in the range 0 to 100
+     * @return value at percentile, or zero if nothing has been recorded
+     */
+    public long getValueAtPercentile(final double percentile)
+    {
+        final AtomicLongArray buckets = _buckets.get();
+        if (buckets == null)
+        {
+            return 0L;
+        }
+
+        final long[] counts = new long[_bucketCount];
+        long total = 0;
+        for (int i = 0; i < _bucketCount; i++)
+        {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0)
+        {
+            return 0L;
+        }
+
+        final double boundedPercentile = Math.min(Math.max(percentile, 0d), 100d);
+        final long rank = Math.max(1L, (long) Math.ceil(boundedPercentile / 100d * total));
+        long cumulative = 0;
+        for (int i = 0; i < _bucketCount; i++)
+        {
+            cumulative += counts[i];
+            if (cumulative >= rank)
+            {
+                return Math.min(bucketUpperBound(i), _max.get());
+            }
+        }
+        return _max.get();
+    }
+
+    public Map<String, Number> getSummary(final double[] percentiles)
+    {
+        final Map<String, Number> summary = new LinkedHashMap<>();
+        summary.put("count", getCount());
+        summary.put("mean", getMean());
+        summary.put("max", getMax());
+        for (double percentile : percentiles)
+        {
+            summary.put("p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(),
+                        getValueAtPercentile(percentile));
+        }
+        return summary;
+    }
+
+    /**
+     * Parses a comma separated list of percentiles such as {@code "50,90,99,99.9"}.
+     */
+    public static double[] parsePercentiles(final String percentiles)
+    {
+        if (percentiles == null || percentiles.trim().isEmpty())
+        {
+            return new double[0];
+        }
+        final String[] tokens = percentiles.split(",");
+        final double[] result = new double[tokens.length];
+        for (int i = 0; i < tokens.length; i++)
+        {
+            try
+            {
+                result[i] = Double.parseDouble(tokens[i].trim());
+            }
+            catch (NumberFormatException e)
+            {
+                throw new IllegalArgumentException(String.format("Invalid percentile '%s'", tokens[i].trim()), e);
+            }
+            if (result[i] < 0d || result[i] > 100d)
+            {
+                throw new IllegalArgumentException(String.format("Percentile '%s' is outside range 0-100",
+                                                                 tokens[i].trim()));
+            }
+        }
+        return result;
+    }
+
+    static int bucketIndex(final long value)
+    {
+        if (value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+        final int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    static long bucketUpperBound(final int index)
+    {
+        if (index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+        final int shift = (index >> SUB_BUCKET_BITS) - 1;
+        final long subBucket = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Estimates the shallow heap size of instances of a class from its declared instance fields, assuming a 64-bit
+ * JVM with compressed class pointers and compressed references (the default for heaps below 32GB). The estimate
+ * ignores any padding the JVM inserts between the fields of a class and its superclass, so it may be slightly low.
+ */
+public final class ShallowSizeEstimator
+{
+    static final int OBJECT_HEADER_SIZE = 12;
+    static final int REFERENCE_SIZE = 4;
+    static final int OBJECT_ALIGNMENT = 8;
+
+    private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<Long>()
+    {
+        @Override
+        protected Long computeValue(final Class<?> type)
+        {
+            long size = OBJECT_HEADER_SIZE;
+            for (Class<?> c = type; c != null; c = c.getSuperclass())
+            {
+                for (Field field : c.getDeclaredFields())
+                {
+                    if (!Modifier.isStatic(field.getModifiers()))
+                    {
+                        size += fieldSize(field.getType());
+                    }
+                }
+            }
+            return align(size);
+        }
+    };
+
+    private ShallowSizeEstimator()
+    {
+    }
+
+    public static long estimate(final Class<?> type)
+    {
+        return SHALLOW_SIZES.get(type);
+    }
+
+    static int fieldSize(final Class<?> type)
+    {
+        if (type == long.class || type == double.class)
+        {
+            return 8;
+        }
+        else if (type == int.class || type == float.class)
+        {
+            return 4;
+        }
+        else if (type == short.class || type == char.class)
+        {
+            return 2;
+        }
+        else if (type == byte.class || type == boolean.class)
+        {
+            return 1;
+        }
+        return REFERENCE_SIZE;
+    }
+
+    private static long align(final long size)
+    {
+        return (size + OBJECT_ALIGNMENT - 1) & -OBJECT_ALIGNMENT;
+    }
+}
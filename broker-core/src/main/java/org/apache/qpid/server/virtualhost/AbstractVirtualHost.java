@@ -47,6 +47,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -108,8 +109,11 @@ import org.apache.qpid.server.plugin.QpidServiceLoader;
 import org.apache.qpid.server.plugin.SystemNodeCreator;
 import org.apache.qpid.server.pool.SuppressingInheritedAccessControlContextThreadFactory;
 import org.apache.qpid.server.protocol.LinkModel;
+import org.apache.qpid.server.protocol.PublishAuthorisationCache;
+import org.apache.qpid.server.protocol.v0_8.AMQShortStringCache;
 import org.apache.qpid.server.queue.QueueEntry;
 import org.apache.qpid.server.queue.QueueEntryIterator;
+import org.apache.qpid.server.queue.QueueStatistics;
 import org.apache.qpid.server.security.AccessControl;
 import org.apache.qpid.server.security.CompoundAccessControl;
 import org.apache.qpid.server.security.Result;
@@ -118,6 +122,7 @@ import org.apache.qpid.server.security.SubjectFixedResultAccessControl.ResultCal
 import org.apache.qpid.server.security.access.Operation;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
 import org.apache.qpid.server.security.auth.SocketConnectionMetaData;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.stats.StatisticsReportingTask;
 import org.apache.qpid.server.store.ConfiguredObjectRecord;
 import org.apache.qpid.server.store.DurableConfigurationStore;
@@ -161,15 +166,27 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     private volatile TaskExecutor _preferenceTaskExecutor;
     private volatile boolean _deleteRequested;
     private final ConcurrentMap<String, Cache> _caches = new ConcurrentHashMap<>();
+    private volatile AMQShortStringCache _shortStringCache;
+    private volatile PublishAuthorisationCache _publishAuthorisationCache;
+    private final LatencyHistogram _residenceTimeHistogram =
+            new LatencyHistogram(QueueStatistics.MAXIMUM_TRACKED_LATENCY_MILLIS);
+    private final LatencyHistogram _firstDeliveryLatencyHistogram =
+            new LatencyHistogram(QueueStatistics.MAXIMUM_TRACKED_LATENCY_MILLIS);
+    private final LatencyHistogram _storeCommitLatencyHistogram =
+            new LatencyHistogram(MAXIMUM_TRACKED_STORE_COMMIT_LATENCY_MICROS);
 
     private enum BlockingType { STORE, FILESYSTEM };
 
     private static final String USE_ASYNC_RECOVERY = "use_async_message_store_recovery";
+    /** store commit latencies are recorded in microseconds, this tracks commits of up to about 18 minutes */
+    private static final long MAXIMUM_TRACKED_STORE_COMMIT_LATENCY_MICROS = 1L << 30;
 
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractVirtualHost.class);
 
     private static final int HOUSEKEEPING_SHUTDOWN_TIMEOUT = 5;
+    /** name of the named cache which held the AMQP 0-x short strings */
+    private static final String LEGACY_SHORT_STRING_CACHE_NAME = "amqShortStringCache";
 
     private volatile ScheduledThreadPoolExecutor _houseKeepingTaskExecutor;
     private volatile ScheduledFuture<?> _statisticsReportingFuture;
@@ -3226,6 +3243,147 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         }));
     }
 
+    @Override
+    public AMQShortStringCache getShortStringCache()
+    {
+        AMQShortStringCache shortStringCache = _shortStringCache;
+        if (shortStringCache == null)
+        {
+            synchronized (_caches)
+            {
+                shortStringCache = _shortStringCache;
+                if (shortStringCache == null)
+                {
+                    shortStringCache = new AMQShortStringCache(getShortStringCacheMaximumSize());
+                    _shortStringCache = shortStringCache;
+                }
+            }
+        }
+        return shortStringCache;
+    }
+
+    /**
+     * Returns the maximum size of the short string cache, honouring the named cache context variables which
+     * configured the short string cache before it became a dedicated table.
+     */
+    private int getShortStringCacheMaximumSize()
+    {
+        final Set<String> contextKeys = getContextKeys(false);
+        final String legacyExpirationContextVarName =
+                String.format(NAMED_CACHE_EXPIRATION_FORMAT, LEGACY_SHORT_STRING_CACHE_NAME);
+        if (contextKeys.contains(legacyExpirationContextVarName))
+        {
+            LOGGER.warn("Context variable '{}' is ignored, short strings are evicted by size only",
+                        legacyExpirationContextVarName);
+        }
+
+        final int maximumSize = getContextValue(Integer.class, SHORT_STRING_CACHE_MAXIMUM_SIZE);
+        final String legacyMaxSizeContextVarName =
+                String.format(NAMED_CACHE_MAXIMUM_SIZE_FORMAT, LEGACY_SHORT_STRING_CACHE_NAME);
+        if (contextKeys.contains(legacyMaxSizeContextVarName))
+        {
+            if (maximumSize == DEFAULT_SHORT_STRING_CACHE_MAXIMUM_SIZE)
+            {
+                LOGGER.warn("Context variable '{}' is deprecated, use '{}' instead",
+                            legacyMaxSizeContextVarName,
+                            SHORT_STRING_CACHE_MAXIMUM_SIZE);
+                return getContextValue(Integer.class, legacyMaxSizeContextVarName);
+            }
+            LOGGER.warn("Context variable '{}' is ignored as '{}' is set",
+                        legacyMaxSizeContextVarName,
+                        SHORT_STRING_CACHE_MAXIMUM_SIZE);
+        }
+        return maximumSize;
+    }
+
+    @Override
+    public long getShortStringCacheHits()
+    {
+        final AMQShortStringCache shortStringCache = _shortStringCache;
+        return shortStringCache == null ? 0 : shortStringCache.getHitCount();
+    }
+
+    @Override
+    public long getShortStringCacheMisses()
+    {
+        final AMQShortStringCache shortStringCache = _shortStringCache;
+        return shortStringCache == null ? 0 : shortStringCache.getMissCount();
+    }
+
+    @Override
+    public PublishAuthorisationCache getPublishAuthorisationCache()
+    {
+        PublishAuthorisationCache publishAuthorisationCache = _publishAuthorisationCache;
+        if (publishAuthorisationCache == null)
+        {
+            synchronized (_caches)
+            {
+                publishAuthorisationCache = _publishAuthorisationCache;
+                if (publishAuthorisationCache == null)
+                {
+                    publishAuthorisationCache =
+                            new PublishAuthorisationCache(getContextValue(Long.class, Session.PRODUCER_AUTH_CACHE_TIMEOUT),
+                                                          getContextValue(Integer.class,
+                                                                          PUBLISH_AUTHORISATION_CACHE_MAXIMUM_SIZE),
+                                                          this::getAccessControlVersion);
+                    _publishAuthorisationCache = publishAuthorisationCache;
+                }
+            }
+        }
+        return publishAuthorisationCache;
+    }
+
+    private long getAccessControlVersion()
+    {
+        return _accessControl instanceof CompoundAccessControl
+                ? ((CompoundAccessControl) _accessControl).getVersion()
+                : 0L;
+    }
+
+    @Override
+    public long getPublishAuthorisationCacheHits()
+    {
+        final PublishAuthorisationCache publishAuthorisationCache = _publishAuthorisationCache;
+        return publishAuthorisationCache == null ? 0 : publishAuthorisationCache.getHitCount();
+    }
+
+    @Override
+    public long getPublishAuthorisationCacheMisses()
+    {
+        final PublishAuthorisationCache publishAuthorisationCache = _publishAuthorisationCache;
+        return publishAuthorisationCache == null ? 0 : publishAuthorisationCache.getMissCount();
+    }
+
+    @Override
+    public LatencyHistogram getResidenceTimeHistogram()
+    {
+        return _residenceTimeHistogram;
+    }
+
+    @Override
+    public LatencyHistogram getFirstDeliveryLatencyHistogram()
+    {
+        return _firstDeliveryLatencyHistogram;
+    }
+
+    @Override
+    public LatencyHistogram getStoreCommitLatencyHistogram()
+    {
+        return _storeCommitLatencyHistogram;
+    }
+
+    @Override
+    public Map<String, Map<String, Number>> getLatencyStatistics()
+    {
+        final double[] percentiles =
+                LatencyHistogram.parsePercentiles(getContextValue(String.class, LATENCY_PERCENTILES));
+        final Map<String, Map<String, Number>> statistics = new LinkedHashMap<>();
+        statistics.put("residenceTime", _residenceTimeHistogram.getSummary(percentiles));
+        statistics.put("firstDeliveryLatency", _firstDeliveryLatencyHistogram.getSummary(percentiles));
+        statistics.put("storeCommitLatency", _storeCommitLatencyHistogram.getSummary(percentiles));
+        return statistics;
+    }
+
     @Override
     public <K, V> Cache<K, V> getNamedCache(final String cacheName)
     {
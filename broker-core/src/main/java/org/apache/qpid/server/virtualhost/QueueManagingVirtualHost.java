@@ -46,8 +46,11 @@ import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.model.StatisticType;
 import org.apache.qpid.server.model.StatisticUnit;
 import org.apache.qpid.server.model.VirtualHost;
+import org.apache.qpid.server.protocol.PublishAuthorisationCache;
+import org.apache.qpid.server.protocol.v0_8.AMQShortStringCache;
 import org.apache.qpid.server.queue.QueueEntry;
 import org.apache.qpid.server.security.auth.SocketConnectionMetaData;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.stats.StatisticsGatherer;
 import org.apache.qpid.server.store.DurableConfigurationStore;
 import org.apache.qpid.server.store.EventListener;
@@ -176,6 +179,27 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
     long DEFAULT_NAMED_CACHE_EXPIRATION = 300 * 1000;
     String NAMED_CACHE_EXPIRATION_FORMAT = "virtualhost.namedCache.%s.expiration";
 
+    String SHORT_STRING_CACHE_MAXIMUM_SIZE = "virtualhost.shortStringCache.maximumSize";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = SHORT_STRING_CACHE_MAXIMUM_SIZE,
+            description = "Maximum number of AMQP 0-8..0-9-1 short strings (exchange names, routing keys, "
+                          + "consumer tags, etc) interned by this virtualhost. Rounded up to a power of two.")
+    int DEFAULT_SHORT_STRING_CACHE_MAXIMUM_SIZE = 1024;
+
+    String LATENCY_PERCENTILES = "virtualhost.latencyPercentiles";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = LATENCY_PERCENTILES,
+            description = "Comma separated list of the percentiles reported for the latency histograms of this"
+                          + " virtualhost and its queues.")
+    String DEFAULT_LATENCY_PERCENTILES = "50,90,99,99.9";
+
+    String PUBLISH_AUTHORISATION_CACHE_MAXIMUM_SIZE = "virtualhost.publishAuthorisationCache.maximumSize";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = PUBLISH_AUTHORISATION_CACHE_MAXIMUM_SIZE,
+            description = "Maximum number of distinct (publisher, destination, routing key) combinations for which"
+                          + " a successful publish authorisation is cached by this virtualhost.")
+    int DEFAULT_PUBLISH_AUTHORISATION_CACHE_MAXIMUM_SIZE = 10000;
+
     @ManagedAttribute( defaultValue = "${" + QueueManagingVirtualHost.VIRTUALHOST_CONNECTION_THREAD_POOL_NUMBER_OF_SELECTORS + "}")
     int getNumberOfSelectors();
 
@@ -287,6 +311,51 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
             description = "Maximum size of message published into the Virtual Host since start-up.")
     long getInboundMessageSizeHighWatermark();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+            label = "Short String Cache Hits",
+            description = "Total number of AMQP 0-8..0-9-1 short string lookups satisfied from the intern cache.")
+    long getShortStringCacheHits();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+            label = "Short String Cache Misses",
+            description = "Total number of AMQP 0-8..0-9-1 short string lookups not found in the intern cache.")
+    long getShortStringCacheMisses();
+
+    AMQShortStringCache getShortStringCache();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+            label = "Publish Authorisation Cache Hits",
+            description = "Total number of publish authorisations satisfied from the cache.")
+    long getPublishAuthorisationCacheHits();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+            label = "Publish Authorisation Cache Misses",
+            description = "Total number of publish authorisations which required an access control check.")
+    long getPublishAuthorisationCacheMisses();
+
+    PublishAuthorisationCache getPublishAuthorisationCache();
+
+    /** Histogram of the time (in milliseconds) between message arrival and acknowledgement across all queues. */
+    LatencyHistogram getResidenceTimeHistogram();
+
+    /** Histogram of the time (in milliseconds) between message arrival and first delivery across all queues. */
+    LatencyHistogram getFirstDeliveryLatencyHistogram();
+
+    /** Histogram of the duration (in microseconds) of message store transaction commits. */
+    LatencyHistogram getStoreCommitLatencyHistogram();
+
+    @SuppressWarnings("unused")
+    @ManagedOperation(nonModifying = true,
+            description = "Returns the count, mean, maximum and configured percentiles of the message residence time"
+                          + " (milliseconds), time to first delivery (milliseconds) and message store commit"
+                          + " duration (microseconds) for this virtualhost.",
+            changesConfiguredObjectState = false)
+    Map<String, Map<String, Number>> getLatencyStatistics();
+
     @Override
     @ManagedOperation(nonModifying = true, changesConfiguredObjectState = false)
     Collection<? extends Connection<?>> getConnections();
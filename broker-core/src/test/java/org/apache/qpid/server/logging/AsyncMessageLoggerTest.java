@@ -0,0 +1,209 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class AsyncMessageLoggerTest extends UnitTestBase
+{
+    private static final String TEST_HIERARCHY = "test.hierarchy";
+
+    @Test
+    public void testMessagesWrittenInOrderOnClose() throws Exception
+    {
+        final UnitTestMessageLogger delegate = new UnitTestMessageLogger();
+        final AsyncMessageLogger logger = new AsyncMessageLogger(delegate, 4, AsyncMessageLogger.OverflowPolicy.BLOCK);
+
+        final int count = 100;
+        for (int i = 0; i < count; i++)
+        {
+            logger.rawMessage("message" + i, TEST_HIERARCHY);
+        }
+        logger.close();
+
+        final List<Object> messages = delegate.getLogMessages();
+        assertEquals("Unexpected number of messages", (long) count, (long) messages.size());
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals("Unexpected message", "message" + i, messages.get(i));
+        }
+        assertEquals("Unexpected dropped count", 0L, logger.getDroppedMessageCount());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception
+    {
+        final UnitTestMessageLogger delegate = new UnitTestMessageLogger();
+        final AsyncMessageLogger logger = new AsyncMessageLogger(delegate, 16, AsyncMessageLogger.OverflowPolicy.BLOCK);
+
+        final int producers = 4;
+        final int messagesPerProducer = 1000;
+        final List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++)
+        {
+            final String prefix = "producer" + p + "-";
+            final Thread thread = new Thread(() ->
+                                             {
+                                                 for (int i = 0; i < messagesPerProducer; i++)
+                                                 {
+                                                     logger.rawMessage(prefix + i, TEST_HIERARCHY);
+                                                 }
+                                             });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        logger.close();
+
+        final List<Object> messages = delegate.getLogMessages();
+        assertEquals("Unexpected number of messages", (long) producers * messagesPerProducer, (long) messages.size());
+        for (int p = 0; p < producers; p++)
+        {
+            final String prefix = "producer" + p + "-";
+            int expected = 0;
+            for (Object message : messages)
+            {
+                if (((String) message).startsWith(prefix))
+                {
+                    assertEquals("Messages of a producer out of order", prefix + expected, message);
+                    expected++;
+                }
+            }
+            assertEquals("Unexpected number of messages from producer", (long) messagesPerProducer, (long) expected);
+        }
+    }
+
+    @Test
+    public void testOverflowDropsAndCounts() throws Exception
+    {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final UnitTestMessageLogger delegate = new UnitTestMessageLogger()
+        {
+            @Override
+            public void rawMessage(final String message, final Throwable throwable, final String logHierarchy)
+            {
+                writing.countDown();
+                try
+                {
+                    release.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                super.rawMessage(message, throwable, logHierarchy);
+            }
+        };
+        final AsyncMessageLogger logger = new AsyncMessageLogger(delegate, 2, AsyncMessageLogger.OverflowPolicy.DROP);
+        assertEquals("Unexpected buffer size", (long) 2, (long) logger.getBufferSize());
+
+        logger.rawMessage("first", TEST_HIERARCHY);
+        assertTrue("Consumer did not pick up first message", writing.await(10, TimeUnit.SECONDS));
+
+        logger.rawMessage("second", TEST_HIERARCHY);
+        logger.rawMessage("third", TEST_HIERARCHY);
+        logger.rawMessage("fourth", TEST_HIERARCHY);
+        logger.rawMessage("fifth", TEST_HIERARCHY);
+
+        assertEquals("Unexpected dropped count", 2L, logger.getDroppedMessageCount());
+
+        release.countDown();
+        logger.close();
+
+        assertEquals("Unexpected number of messages", (long) 3, (long) delegate.getLogMessages().size());
+    }
+
+    @Test
+    public void testMessageLoggedAfterCloseWrittenSynchronously()
+    {
+        final UnitTestMessageLogger delegate = new UnitTestMessageLogger();
+        final AsyncMessageLogger logger = new AsyncMessageLogger(delegate, 8, AsyncMessageLogger.OverflowPolicy.BLOCK);
+        logger.close();
+
+        logger.rawMessage("late", TEST_HIERARCHY);
+        assertEquals("Unexpected number of messages", (long) 1, (long) delegate.getLogMessages().size());
+    }
+
+    @Test
+    public void testNoMessageLostWhenClosedWhileProducing() throws Exception
+    {
+        for (int iteration = 0; iteration < 20; iteration++)
+        {
+            final AtomicInteger written = new AtomicInteger();
+            final UnitTestMessageLogger delegate = new UnitTestMessageLogger()
+            {
+                @Override
+                public void rawMessage(final String message, final Throwable throwable, final String logHierarchy)
+                {
+                    written.incrementAndGet();
+                }
+            };
+            final AsyncMessageLogger logger = new AsyncMessageLogger(delegate, 16, AsyncMessageLogger.OverflowPolicy.BLOCK);
+
+            final AtomicInteger sent = new AtomicInteger();
+            final AtomicBoolean stopped = new AtomicBoolean();
+            final CountDownLatch producing = new CountDownLatch(4);
+            final List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < 4; p++)
+            {
+                final Thread thread = new Thread(() ->
+                                                 {
+                                                     producing.countDown();
+                                                     while (!stopped.get())
+                                                     {
+                                                         logger.rawMessage("message", TEST_HIERARCHY);
+                                                         sent.incrementAndGet();
+                                                     }
+                                                 });
+                threads.add(thread);
+                thread.start();
+            }
+            assertTrue("Producers did not start", producing.await(10, TimeUnit.SECONDS));
+
+            logger.close();
+            stopped.set(true);
+            for (Thread thread : threads)
+            {
+                thread.join();
+            }
+
+            assertEquals("Messages lost closing the logger in iteration " + iteration,
+                         (long) sent.get(),
+                         (long) written.get());
+        }
+    }
+}
@@ -32,6 +32,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -46,6 +47,7 @@ import org.apache.qpid.server.model.AbstractConfigurationChangeListener;
 import org.apache.qpid.server.model.AbstractConfiguredObject;
 import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.Model;
+import org.apache.qpid.server.model.StatisticsSnapshot;
 import org.apache.qpid.server.model.SystemConfig;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
 import org.apache.qpid.server.security.auth.UsernamePrincipal;
@@ -957,6 +959,61 @@ public class AbstractConfiguredObjectTest extends UnitTestBase
         assertTrue("Expected statistic not found", stats.containsKey("longStatistic"));
     }
 
+    @Test
+    public void testStatisticsSnapshot() throws Exception
+    {
+        final String objectName = "myName";
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(TestSingleton.NAME, objectName);
+
+        TestSingleton object = _model.getObjectFactory().create(TestSingleton.class,
+                                                                    attributes, null);
+
+        final List<Map<String, Object>> snapshot =
+                object.getStatisticsSnapshot(0, Collections.singletonList("longStatistic"));
+        assertEquals("Unexpected number of objects in snapshot", (long) 1, (long) snapshot.size());
+
+        final Map<String, Object> entry = snapshot.get(0);
+        assertEquals("Unexpected id", object.getId(), entry.get(ConfiguredObject.ID));
+        assertEquals("Unexpected name", objectName, entry.get(ConfiguredObject.NAME));
+        assertEquals("Unexpected category", TestSingleton.class.getSimpleName(), entry.get("category"));
+
+        final Map<String, Object> stats = (Map<String, Object>) entry.get("statistics");
+        assertEquals("Unexpected number of statistics", (long) 1, (long) stats.size());
+        assertTrue("Unexpected statistic type", stats.get("longStatistic") instanceof Long);
+    }
+
+    @Test
+    public void testStatisticsSnapshotReuse() throws Exception
+    {
+        TestSingleton object1 = _model.getObjectFactory().create(TestSingleton.class,
+                                                                     Collections.singletonMap(TestSingleton.NAME,
+                                                                                              "object1"), null);
+        TestSingleton object2 = _model.getObjectFactory().create(TestSingleton.class,
+                                                                     Collections.singletonMap(TestSingleton.NAME,
+                                                                                              "object2"), null);
+
+        final StatisticsSnapshot snapshot = new StatisticsSnapshot();
+        for (int i = 0; i < 20; i++)
+        {
+            snapshot.capture(object1);
+            snapshot.capture(object2);
+        }
+        assertEquals("Unexpected snapshot size", (long) 40, (long) snapshot.size());
+        assertEquals("Unexpected object", object2, snapshot.getObject(39));
+        assertTrue("Expected statistic not found", snapshot.getValue(39, "longStatistic") instanceof Long);
+        assertNull("Unknown statistic should have no value", snapshot.getValue(39, "unknown"));
+
+        snapshot.clear();
+        assertEquals("Snapshot should be empty after clear", (long) 0, (long) snapshot.size());
+
+        snapshot.capture(object2);
+        assertEquals("Unexpected object", object2, snapshot.getObject(0));
+        assertEquals("Unexpected statistics", Collections.singleton("longStatistic"),
+                     snapshot.toMap(0, null).keySet());
+    }
+
     @Test
     public void testAuditInformation() throws Exception
     {
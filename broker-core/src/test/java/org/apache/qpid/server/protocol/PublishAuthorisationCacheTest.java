@@ -0,0 +1,190 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.security.AccessControlException;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.security.auth.Subject;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.connection.SessionPrincipal;
+import org.apache.qpid.server.message.MessageDestination;
+import org.apache.qpid.server.security.SecurityToken;
+import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
+import org.apache.qpid.server.security.auth.UsernamePrincipal;
+import org.apache.qpid.server.session.AMQPSession;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class PublishAuthorisationCacheTest extends UnitTestBase
+{
+    private static final long TIMEOUT = 1000L;
+
+    private final AtomicLong _accessControlVersion = new AtomicLong();
+    private PublishAuthorisationCache _cache;
+    private MessageDestination _destination;
+    private SecurityToken _token;
+
+    @Before
+    public void setUp()
+    {
+        _cache = new PublishAuthorisationCache(TIMEOUT, 2, _accessControlVersion::get);
+        _destination = mock(MessageDestination.class);
+        _token = mock(SecurityToken.class);
+    }
+
+    @Test
+    public void testAuthorisationSharedBetweenSessionsOfSameUser()
+    {
+        final Set<Object> session1 = PublishAuthorisationCache.getPublisherIdentity(createSubject("user"));
+        final Set<Object> session2 = PublishAuthorisationCache.getPublisherIdentity(createSubject("user"));
+        assertEquals(session1, session2);
+
+        _cache.authorisePublish(_token, session1, _destination, "key", false, 0);
+        _cache.authorisePublish(_token, session2, _destination, "key", false, 1);
+
+        verify(_destination, times(1)).authorisePublish(any(SecurityToken.class), anyMap());
+        assertEquals(1, _cache.getHitCount());
+        assertEquals(1, _cache.getMissCount());
+    }
+
+    @Test
+    public void testAuthorisationNotSharedBetweenUsers()
+    {
+        _cache.authorisePublish(_token, PublishAuthorisationCache.getPublisherIdentity(createSubject("user1")),
+                                _destination, "key", false, 0);
+        _cache.authorisePublish(_token, PublishAuthorisationCache.getPublisherIdentity(createSubject("user2")),
+                                _destination, "key", false, 0);
+
+        verify(_destination, times(2)).authorisePublish(any(SecurityToken.class), anyMap());
+    }
+
+    @Test
+    public void testExpiredAuthorisationRechecked()
+    {
+        final Set<Object> identity = PublishAuthorisationCache.getPublisherIdentity(createSubject("user"));
+        _cache.authorisePublish(_token, identity, _destination, "key", false, 0);
+        _cache.authorisePublish(_token, identity, _destination, "key", false, TIMEOUT + 1);
+
+        verify(_destination, times(2)).authorisePublish(any(SecurityToken.class), anyMap());
+    }
+
+    @Test
+    public void testAccessControlChangeInvalidatesCache()
+    {
+        final Set<Object> identity = PublishAuthorisationCache.getPublisherIdentity(createSubject("user"));
+        _cache.authorisePublish(_token, identity, _destination, "key", false, 0);
+        _accessControlVersion.incrementAndGet();
+        _cache.authorisePublish(_token, identity, _destination, "key", false, 0);
+
+        verify(_destination, times(2)).authorisePublish(any(SecurityToken.class), anyMap());
+    }
+
+    @Test
+    public void testAuthorisationCompletingAfterAccessControlChangeNotReused()
+    {
+        final Set<Object> identity = PublishAuthorisationCache.getPublisherIdentity(createSubject("user"));
+        final MessageDestination otherDestination = mock(MessageDestination.class);
+        doAnswer(invocation ->
+                 {
+                     // access control changes, and another session notices, while this authorisation is in progress
+                     _accessControlVersion.incrementAndGet();
+                     _cache.authorisePublish(_token, identity, otherDestination, "key", false, 0);
+                     return null;
+                 }).when(_destination).authorisePublish(any(SecurityToken.class), anyMap());
+
+        _cache.authorisePublish(_token, identity, _destination, "key", false, 0);
+        _cache.authorisePublish(_token, identity, _destination, "key", false, 1);
+
+        verify(_destination, times(2)).authorisePublish(any(SecurityToken.class), anyMap());
+    }
+
+    @Test
+    public void testDenialNotCached()
+    {
+        final Set<Object> identity = PublishAuthorisationCache.getPublisherIdentity(createSubject("user"));
+        doThrow(new AccessControlException("denied")).when(_destination).authorisePublish(any(SecurityToken.class), anyMap());
+        for (int i = 0; i < 2; i++)
+        {
+            try
+            {
+                _cache.authorisePublish(_token, identity, _destination, "key", false, 0);
+                fail("Exception not thrown");
+            }
+            catch (AccessControlException e)
+            {
+                // pass
+            }
+        }
+        assertEquals(0, _cache.size());
+    }
+
+    @Test
+    public void testSizeBounded()
+    {
+        final Set<Object> identity = PublishAuthorisationCache.getPublisherIdentity(createSubject("user"));
+        _cache.authorisePublish(_token, identity, _destination, "key1", false, 0);
+        _cache.authorisePublish(_token, identity, _destination, "key2", false, 0);
+        _cache.authorisePublish(_token, identity, _destination, "key3", false, 0);
+
+        assertEquals(2, _cache.size());
+    }
+
+    @Test
+    public void testPublisherIdentityExcludesSessionPrincipal()
+    {
+        final Subject subject = createSubject("user");
+        subject.getPrincipals().add(new SessionPrincipal(mock(AMQPSession.class)));
+
+        final Set<Object> identity = PublishAuthorisationCache.getPublisherIdentity(subject);
+        assertEquals(1, identity.size());
+        assertFalse(identity.stream().anyMatch(o -> o instanceof SessionPrincipal));
+        assertTrue(identity.stream().anyMatch(o -> o instanceof AuthenticatedPrincipal));
+    }
+
+    private Subject createSubject(final String userName)
+    {
+        final Principal principal = new AuthenticatedPrincipal(new UsernamePrincipal(userName, null));
+        return new Subject(false,
+                           new HashSet<>(Collections.singleton(principal)),
+                           Collections.emptySet(),
+                           Collections.emptySet());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v0_8;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class AMQShortStringCacheTest extends UnitTestBase
+{
+    @Test
+    public void testCapacityRoundedUpToPowerOfTwo()
+    {
+        assertEquals(0, new AMQShortStringCache(0).getCapacity());
+        assertEquals(2, new AMQShortStringCache(1).getCapacity());
+        assertEquals(128, new AMQShortStringCache(100).getCapacity());
+        assertEquals(128, new AMQShortStringCache(128).getCapacity());
+    }
+
+    @Test
+    public void testInternFromBuffer()
+    {
+        final AMQShortStringCache cache = new AMQShortStringCache(16);
+        final byte[] bytes = "amq.direct".getBytes(StandardCharsets.US_ASCII);
+
+        try (QpidByteBuffer buffer = QpidByteBuffer.allocate(2 * bytes.length))
+        {
+            buffer.put(bytes);
+            buffer.put(bytes);
+            buffer.flip();
+
+            final AMQShortString first = cache.intern(buffer, bytes.length);
+            assertEquals("Unexpected position", bytes.length, buffer.position());
+            final AMQShortString second = cache.intern(buffer, bytes.length);
+            assertEquals("Unexpected position", 2 * bytes.length, buffer.position());
+
+            assertEquals("amq.direct", first.toString());
+            assertSame(first, second);
+            assertSame(first, cache.getIfPresent(bytes));
+            assertEquals(2, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+        }
+    }
+
+    @Test
+    public void testEviction()
+    {
+        final AMQShortStringCache cache = new AMQShortStringCache(1);
+        for (int i = 0; i < 10; i++)
+        {
+            final byte[] bytes = ("key" + i).getBytes(StandardCharsets.US_ASCII);
+            try (QpidByteBuffer buffer = QpidByteBuffer.wrap(bytes))
+            {
+                assertEquals("key" + i, cache.intern(buffer, bytes.length).toString());
+            }
+        }
+
+        int present = 0;
+        for (int i = 0; i < 10; i++)
+        {
+            if (cache.getIfPresent(("key" + i).getBytes(StandardCharsets.US_ASCII)) != null)
+            {
+                present++;
+            }
+        }
+        assertEquals("Unexpected number of retained entries", cache.getCapacity(), present);
+    }
+
+    @Test
+    public void testNullCacheNeverRetains()
+    {
+        final AMQShortStringCache cache = new AMQShortStringCache(0);
+        final byte[] bytes = "queue".getBytes(StandardCharsets.US_ASCII);
+        try (QpidByteBuffer buffer = QpidByteBuffer.wrap(bytes))
+        {
+            final AMQShortString shortString = cache.intern(buffer, bytes.length);
+            assertEquals("queue", shortString.toString());
+            assertNull(cache.getIfPresent(bytes));
+        }
+    }
+}
@@ -27,11 +27,8 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import org.junit.Test;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
@@ -160,8 +157,8 @@ public class AMQShortStringTest extends UnitTestBase
     @Test
     public void testCaching()
     {
-        Cache<ByteBuffer, AMQShortString> original = AMQShortString.getShortStringCache();
-        Cache<ByteBuffer, AMQShortString> cache = CacheBuilder.newBuilder().maximumSize(1).build();
+        AMQShortStringCache original = AMQShortString.getShortStringCache();
+        AMQShortStringCache cache = new AMQShortStringCache(1);
         AMQShortString.setShortStringCache(cache);
         try
         {
@@ -180,7 +177,6 @@ public class AMQShortStringTest extends UnitTestBase
         }
         finally
         {
-            cache.cleanUp();
             AMQShortString.setShortStringCache(original);
         }
     }
@@ -28,24 +28,30 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -72,6 +78,7 @@ import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.AlternateBinding;
 import org.apache.qpid.server.model.Binding;
 import org.apache.qpid.server.model.BrokerTestHelper;
+import org.apache.qpid.server.model.Content;
 import org.apache.qpid.server.model.Exchange;
 import org.apache.qpid.server.model.OverflowPolicy;
 import org.apache.qpid.server.model.Queue;
@@ -1034,6 +1041,24 @@ abstract class AbstractQueueTestBase extends UnitTestBase
         }
     }
 
+    @Test
+    public void testFairShareHardLimitBelowMaximumDepthRejected()
+    {
+        Map<String, Object> attributes = new HashMap<>(_arguments);
+        attributes.put(Queue.NAME, getTestName());
+        attributes.put(Queue.CONTEXT,
+                       Collections.singletonMap(Queue.QUEUE_FLOW_CONTROL_FAIR_SHARE_HARD_LIMIT, "90"));
+        try
+        {
+            _virtualHost.createChild(Queue.class, attributes);
+            fail("Expected exception is not thrown");
+        }
+        catch (IllegalConfigurationException e)
+        {
+            // pass
+        }
+    }
+
     @Test
     public void testAlternateBindingValidationRejectsSelf()
     {
@@ -1150,6 +1175,113 @@ abstract class AbstractQueueTestBase extends UnitTestBase
         assertEquals("Unexpected DLQ depth", 1, dlq.getQueueDepthMessages());
     }
 
+    @Test
+    public void testCheckMessageStatusExpiresOnlyDueMessages()
+    {
+        ServerMessage expiredMessage = createMessage(1L);
+        when(expiredMessage.getArrivalTime()).thenReturn(50000L);
+        when(expiredMessage.getExpiration()).thenReturn(55000L);
+        _queue.enqueue(expiredMessage, null, null);
+
+        ServerMessage liveMessage = createMessage(2L);
+        when(liveMessage.getExpiration()).thenReturn(System.currentTimeMillis() + 60000L);
+        _queue.enqueue(liveMessage, null, null);
+
+        _queue.enqueue(createMessage(3L), null, null);
+
+        assertEquals("Unexpected queue depth", 3, _queue.getQueueDepthMessages());
+
+        _queue.checkMessageStatus();
+
+        assertEquals("Unexpected queue depth after checking message status", 2, _queue.getQueueDepthMessages());
+        assertEquals("Unexpected expired message count", 1, _queue.getTotalExpiredMessages());
+
+        _queue.checkMessageStatus();
+
+        assertEquals("Unexpected queue depth after checking message status again",
+                     2,
+                     _queue.getQueueDepthMessages());
+    }
+
+    @Test
+    public void testMessageSizeAlertRepeatedWhileMessageRemainsOnQueue() throws Exception
+    {
+        QueueNotificationListener listener = mock(QueueNotificationListener.class);
+        _queue.setNotificationListener(listener);
+        _queue.setAttributes(Collections.<String, Object>singletonMap(Queue.ALERT_THRESHOLD_MESSAGE_SIZE, 1L));
+
+        ServerMessage message = createMessage(24L);
+        when(message.getSizeIncludingHeader()).thenReturn(100L);
+        _queue.enqueue(message, null, null);
+        verify(listener).notifyClients(eq(NotificationCheck.MESSAGE_SIZE_ALERT), eq(_queue), anyString());
+
+        _queue.checkMessageStatus();
+        verify(listener, times(2)).notifyClients(eq(NotificationCheck.MESSAGE_SIZE_ALERT), eq(_queue), anyString());
+
+        _queue.clearQueue();
+        _queue.checkMessageStatus();
+        verify(listener, times(2)).notifyClients(eq(NotificationCheck.MESSAGE_SIZE_ALERT), eq(_queue), anyString());
+    }
+
+    @Test
+    public void testBrowseMessagesWithCursor() throws Exception
+    {
+        _queue.enqueue(createMessage(1L), null, null);
+        _queue.enqueue(createMessage(2L), null, null);
+        _queue.enqueue(createMessage(3L), null, null);
+
+        final Map<String, Object> firstPage = browse(-1L, 2);
+        final List<Number> firstIds = getBrowsedIds(firstPage);
+        assertEquals("Unexpected number of messages in first page", (long) 2, (long) firstIds.size());
+        assertEquals("Unexpected cursor", firstIds.get(1).longValue(), ((Number) firstPage.get("cursor")).longValue());
+
+        final Map<String, Object> secondPage = browse(((Number) firstPage.get("cursor")).longValue(), 2);
+        final List<Number> secondIds = getBrowsedIds(secondPage);
+        assertEquals("Unexpected number of messages in second page", (long) 1, (long) secondIds.size());
+        assertNull("Unexpected cursor at end of queue", secondPage.get("cursor"));
+
+        final Set<Long> browsed = new HashSet<>();
+        for (Number id : firstIds)
+        {
+            browsed.add(id.longValue());
+        }
+        browsed.add(secondIds.get(0).longValue());
+        assertEquals("Unexpected messages browsed", new HashSet<>(Arrays.asList(1L, 2L, 3L)), browsed);
+        assertEquals("Browsing should not remove messages", (long) 3, (long) _queue.getQueueDepthMessages());
+    }
+
+    @Test
+    public void testBrowseMessagesWithSelector() throws Exception
+    {
+        _queue.enqueue(createMessage(1L), null, null);
+        _queue.enqueue(createMessage(2L), null, null);
+
+        final Content content = _queue.browseMessages(-1L, -1, "true = false", false);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        content.write(outputStream);
+        final Map<String, Object> result = new ObjectMapper().readValue(outputStream.toByteArray(), Map.class);
+        assertTrue("No messages expected", getBrowsedIds(result).isEmpty());
+        assertNull("Unexpected cursor", result.get("cursor"));
+    }
+
+    private Map<String, Object> browse(final long cursor, final int limit) throws Exception
+    {
+        final Content content = _queue.browseMessages(cursor, limit, null, false);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        content.write(outputStream);
+        return new ObjectMapper().readValue(outputStream.toByteArray(), Map.class);
+    }
+
+    private List<Number> getBrowsedIds(final Map<String, Object> result)
+    {
+        final List<Number> ids = new ArrayList<>();
+        for (Object message : (List<?>) result.get("messages"))
+        {
+            ids.add((Number) ((Map<?, ?>) message).get("id"));
+        }
+        return ids;
+    }
+
     private void doMoveOrCopyMessageTest(final boolean move)
     {
         Queue target = _virtualHost.createChild(Queue.class, Collections.singletonMap(Queue.NAME, getTestName() + "_target"));
@@ -0,0 +1,266 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.message.AMQMessageHeader;
+import org.apache.qpid.server.message.MessageInstance;
+import org.apache.qpid.server.message.MessageInstanceConsumer;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.util.StateChangeListener;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class DefinedGroupMessageGroupManagerTest extends UnitTestBase
+{
+    private static final String DEFAULT_GROUP = "default";
+
+    private final AtomicLong _entryIdGenerator = new AtomicLong();
+    private final Map<QueueEntry, Long> _entryIds = new ConcurrentHashMap<>();
+    private MessageGroupManager.ConsumerResetHelper _resetHelper;
+    private DefinedGroupMessageGroupManager _groupManager;
+    private QueueConsumer<?, ?> _consumer1;
+    private QueueConsumer<?, ?> _consumer2;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _resetHelper = mock(MessageGroupManager.ConsumerResetHelper.class);
+        _groupManager = new DefinedGroupMessageGroupManager(null, DEFAULT_GROUP, _resetHelper);
+        _consumer1 = mock(QueueConsumer.class);
+        _consumer2 = mock(QueueConsumer.class);
+    }
+
+    @Test
+    public void testGroupAssignedToFirstAcceptingConsumer()
+    {
+        final TestEntry entry1 = createEntry("A");
+        final TestEntry entry2 = createEntry("A");
+        final TestEntry entry3 = createEntry("B");
+
+        assertTrue("Unexpected assignment", _groupManager.mightAssign(entry1.getEntry(), _consumer1));
+        assertTrue("Entry should be accepted", _groupManager.acceptMessage(_consumer1, entry1.getEntry()));
+
+        assertFalse("Group A should be assigned to consumer 1", _groupManager.mightAssign(entry2.getEntry(), _consumer2));
+        assertFalse("Group A should be assigned to consumer 1", _groupManager.acceptMessage(_consumer2, entry2.getEntry()));
+        assertTrue("Group A should be assigned to consumer 1", _groupManager.mightAssign(entry2.getEntry(), _consumer1));
+
+        assertTrue("Group B should be unassigned", _groupManager.mightAssign(entry3.getEntry(), _consumer2));
+        assertTrue("Entry should be accepted", _groupManager.acceptMessage(_consumer2, entry3.getEntry()));
+    }
+
+    @Test
+    public void testGroupReleasedWhenLastEntryDequeued()
+    {
+        final TestEntry entry1 = createEntry("A");
+        final TestEntry entry2 = createEntry("A");
+
+        assertTrue("Entry should be accepted", _groupManager.acceptMessage(_consumer1, entry1.getEntry()));
+        assertFalse("Group A should be assigned to consumer 1", _groupManager.mightAssign(entry2.getEntry(), _consumer2));
+        verify(_resetHelper, never()).resetSubPointersForGroups(any(QueueEntry.class));
+
+        entry1.dequeue();
+
+        verify(_resetHelper).resetSubPointersForGroups(entry2.getEntry());
+        assertTrue("Group A should be unassigned", _groupManager.mightAssign(entry2.getEntry(), _consumer2));
+        assertTrue("Entry should be accepted", _groupManager.acceptMessage(_consumer2, entry2.getEntry()));
+    }
+
+    @Test
+    public void testFindEarliestAssignedAvailableEntry()
+    {
+        final TestEntry entryA1 = createEntry("A");
+        final TestEntry entryB1 = createEntry("B");
+        final TestEntry entryA2 = createEntry("A");
+        final TestEntry entryB2 = createEntry("B");
+
+        assertTrue("Entry should be accepted", _groupManager.acceptMessage(_consumer1, entryA1.getEntry()));
+        assertTrue("Entry should be accepted", _groupManager.acceptMessage(_consumer1, entryB1.getEntry()));
+        assertNull("Unexpected entry", _groupManager.findEarliestAssignedAvailableEntry(_consumer1));
+
+        assertFalse("Group B should be assigned to consumer 1", _groupManager.mightAssign(entryB2.getEntry(), _consumer2));
+        assertFalse("Group A should be assigned to consumer 1", _groupManager.mightAssign(entryA2.getEntry(), _consumer2));
+
+        assertEquals("Unexpected entry", entryA2.getEntry(), _groupManager.findEarliestAssignedAvailableEntry(_consumer1));
+        assertNull("Unexpected entry", _groupManager.findEarliestAssignedAvailableEntry(_consumer2));
+
+        when(entryA2.getEntry().isAvailable()).thenReturn(false);
+        assertEquals("Unexpected entry", entryB2.getEntry(), _groupManager.findEarliestAssignedAvailableEntry(_consumer1));
+    }
+
+    @Test
+    public void testConcurrentAcceptAssignsEachGroupToSingleConsumer() throws Exception
+    {
+        final int consumerCount = 8;
+        final int groupCount = 64;
+        final int entriesPerConsumer = 512;
+        final List<QueueConsumer<?, ?>> consumers = new ArrayList<>();
+        final List<List<TestEntry>> entries = new ArrayList<>();
+        for (int c = 0; c < consumerCount; c++)
+        {
+            consumers.add(mock(QueueConsumer.class));
+            final List<TestEntry> consumerEntries = new ArrayList<>();
+            for (int i = 0; i < entriesPerConsumer; i++)
+            {
+                consumerEntries.add(createEntry("group" + (i % groupCount)));
+            }
+            entries.add(consumerEntries);
+        }
+
+        final Map<Object, QueueConsumer<?, ?>> owners = new ConcurrentHashMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(consumerCount);
+        try
+        {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Boolean>> futures = new ArrayList<>();
+            for (int c = 0; c < consumerCount; c++)
+            {
+                final QueueConsumer<?, ?> consumer = consumers.get(c);
+                final List<TestEntry> consumerEntries = entries.get(c);
+                futures.add(executor.submit(() ->
+                                            {
+                                                start.await();
+                                                boolean consistent = true;
+                                                for (TestEntry entry : consumerEntries)
+                                                {
+                                                    if (_groupManager.acceptMessage(consumer, entry.getEntry()))
+                                                    {
+                                                        final QueueConsumer<?, ?> owner =
+                                                                owners.putIfAbsent(entry.getGroup(), consumer);
+                                                        consistent &= owner == null || owner == consumer;
+                                                    }
+                                                }
+                                                return consistent;
+                                            }));
+            }
+            start.countDown();
+            for (Future<Boolean> future : futures)
+            {
+                assertTrue("Group delivered to more than one consumer", future.get(10, TimeUnit.SECONDS));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertEquals("Unexpected number of assigned groups", groupCount, owners.size());
+    }
+
+    private TestEntry createEntry(final String group)
+    {
+        return new TestEntry(group, _entryIdGenerator.incrementAndGet());
+    }
+
+    private class TestEntry
+    {
+        private final String _group;
+        private final QueueEntry _entry;
+        private final List<StateChangeListener<MessageInstance, MessageInstance.EntryState>> _listeners =
+                new ArrayList<>();
+        private volatile MessageInstance.EntryState _state = MessageInstance.AVAILABLE_STATE;
+
+        @SuppressWarnings("unchecked")
+        TestEntry(final String group, final long entryId)
+        {
+            _group = group;
+            _entry = mock(QueueEntry.class);
+            final ServerMessage<?> message = mock(ServerMessage.class);
+            final AMQMessageHeader header = mock(AMQMessageHeader.class);
+            when(header.getGroupId()).thenReturn(group);
+            when(message.getMessageHeader()).thenReturn(header);
+            when(_entry.getMessage()).thenReturn((ServerMessage) message);
+            when(_entry.isAvailable()).thenReturn(true);
+            when(_entry.compareTo(any(QueueEntry.class))).thenAnswer(invocation ->
+                                                                     {
+                                                                         final QueueEntry other = invocation.getArgument(0);
+                                                                         return Long.compare(entryId, _entryIds.get(other));
+                                                                     });
+            _entryIds.put(_entry, entryId);
+            doAnswer(invocation ->
+                     {
+                         synchronized (_listeners)
+                         {
+                             _listeners.add(invocation.getArgument(0));
+                         }
+                         return null;
+                     }).when(_entry).addStateChangeListener(any(StateChangeListener.class));
+            when(_entry.acquire(any(MessageInstanceConsumer.class))).thenAnswer(invocation ->
+                    {
+                        final MessageInstanceConsumer<?> consumer = invocation.getArgument(0);
+                        changeState(new MessageInstance.StealableConsumerAcquiredState<>(consumer));
+                        return true;
+                    });
+        }
+
+        QueueEntry getEntry()
+        {
+            return _entry;
+        }
+
+        String getGroup()
+        {
+            return _group;
+        }
+
+        void dequeue()
+        {
+            changeState(new MessageInstance.DequeuedState());
+        }
+
+        private void changeState(final MessageInstance.EntryState newState)
+        {
+            final MessageInstance.EntryState oldState = _state;
+            _state = newState;
+            final List<StateChangeListener<MessageInstance, MessageInstance.EntryState>> listeners;
+            synchronized (_listeners)
+            {
+                listeners = new ArrayList<>(_listeners);
+            }
+            for (StateChangeListener<MessageInstance, MessageInstance.EntryState> listener : listeners)
+            {
+                listener.stateChanged(_entry, oldState, newState);
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.qpid.server.queue;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -208,6 +209,23 @@ public class LastValueQueueListTest extends UnitTestBase
         assertEquals((long) 0, (long) _list.getLatestValuesMap().size());
     }
 
+    @Test
+    public void testConflationMapHoldsLatestEntryAndSharesKeyInstance()
+    {
+        final String keyValue1 = new String(TEST_KEY_VALUE);
+        final String keyValue2 = new String(TEST_KEY_VALUE);
+
+        LastValueQueueList.ConflationQueueEntry entry1 =
+                (LastValueQueueList.ConflationQueueEntry) _list.add(createTestServerMessage(keyValue1), null);
+        LastValueQueueList.ConflationQueueEntry entry2 =
+                (LastValueQueueList.ConflationQueueEntry) _list.add(createTestServerMessage(keyValue2), null);
+
+        assertTrue("Superseded entry should be deleted", entry1.isDeleted());
+        assertEquals((long) 1, (long) _list.getLatestValuesMap().size());
+        assertSame("Unexpected latest entry", entry2, _list.getLatestValuesMap().get(TEST_KEY_VALUE));
+        assertSame("Key instance should be shared between entries", keyValue1, entry2.getConflationKeyValue());
+    }
+
     @Test
     public void testGetLesserOldestEntry()
     {
@@ -21,6 +21,9 @@
 package org.apache.qpid.server.queue;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -189,4 +192,74 @@ public class PriorityQueueListTest extends UnitTestBase
 
         assertEquals("Unexpected last entry", newEntry, _list.getLeastSignificantOldestEntry());
     }
+
+    @Test
+    public void testNextSkipsLevelsEmptiedByDeletion()
+    {
+        _priority5message1.acquire();
+        _priority5message1.delete();
+        _priority5message2.acquire();
+        _priority5message2.delete();
+
+        assertEquals("Unexpected next entry", _priority4message1, _list.next(_list.getHead()));
+        assertEquals("Unexpected next entry", _priority4message2, _list.next(_priority4message1));
+        assertNull("Unexpected next entry", _list.next(_priority4message2));
+
+        final QueueEntry newEntry = _list.add(createMessage((byte) 9), null);
+        assertEquals("Unexpected next entry", newEntry, _list.next(_list.getHead()));
+        assertEquals("Unexpected next entry", _priority4message1, _list.next(newEntry));
+    }
+
+    @Test
+    public void testIteratorWithMaximumPriorityLevels()
+    {
+        Map<String,Object> queueAttributes = new HashMap<>();
+        queueAttributes.put(Queue.ID, UUID.randomUUID());
+        queueAttributes.put(Queue.NAME, getTestName() + "_max");
+        queueAttributes.put(PriorityQueue.PRIORITIES, PriorityQueue.MAX_PRIORITY_LEVELS);
+        final QueueManagingVirtualHost<?> virtualHost = BrokerTestHelper.createVirtualHost("testVH2", this);
+        PriorityQueueImpl queue = new PriorityQueueImpl(queueAttributes, virtualHost);
+        queue.open();
+        final PriorityQueueList list = queue.getEntries();
+
+        final byte[] priorities = {0, 9, 3, 9, 7, 0};
+        final QueueEntry[] entries = new QueueEntry[priorities.length];
+        for (int i = 0; i < priorities.length; i++)
+        {
+            entries[i] = list.add(createMessage(priorities[i]), null);
+        }
+
+        final QueueEntry[] expectedOrder = {entries[1], entries[3], entries[4], entries[2], entries[0], entries[5]};
+        final QueueEntryIterator iterator = list.iterator();
+        for (QueueEntry expected : expectedOrder)
+        {
+            assertTrue("Iterator ended early", iterator.advance());
+            assertEquals("Unexpected entry", expected, iterator.getNode());
+        }
+        assertTrue("Iterator should be at tail", iterator.atTail());
+        assertFalse("Iterator should not advance", iterator.advance());
+
+        QueueEntry node = list.getHead();
+        for (QueueEntry expected : expectedOrder)
+        {
+            node = list.next(node);
+            assertEquals("Unexpected next entry", expected, node);
+        }
+        assertNull("Unexpected next entry", list.next(node));
+    }
+
+    private ServerMessage<?> createMessage(final byte priority)
+    {
+        ServerMessage<?> message = mock(ServerMessage.class);
+        AMQMessageHeader header = mock(AMQMessageHeader.class);
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        MessageReference<ServerMessage> ref = mock(MessageReference.class);
+
+        when(message.getMessageHeader()).thenReturn(header);
+        when(message.newReference()).thenReturn(ref);
+        when(message.newReference(any(TransactionLogResource.class))).thenReturn(ref);
+        when(ref.getMessage()).thenReturn(message);
+        when(header.getPriority()).thenReturn(priority);
+        return message;
+    }
 }
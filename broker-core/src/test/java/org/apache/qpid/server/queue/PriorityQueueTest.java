@@ -21,20 +21,25 @@
 package org.apache.qpid.server.queue;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
 
 import junit.framework.AssertionFailedError;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.apache.qpid.server.configuration.IllegalConfigurationException;
 import org.apache.qpid.server.consumer.ConsumerOption;
 import org.apache.qpid.server.message.AMQMessageHeader;
 import org.apache.qpid.server.message.MessageInstance;
 import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.model.Queue;
 public class PriorityQueueTest extends AbstractQueueTestBase
 {
 
@@ -100,6 +105,42 @@ public class PriorityQueueTest extends AbstractQueueTestBase
 
     }
 
+    @Test
+    public void testCreateWithPrioritiesOutOfRangeRejected()
+    {
+        for (int priorities : new int[]{0, PriorityQueue.MAX_PRIORITY_LEVELS + 1})
+        {
+            final Map<String, Object> attributes = new HashMap<>();
+            attributes.put(Queue.NAME, getTestName() + priorities);
+            attributes.put(PriorityQueue.PRIORITIES, priorities);
+            try
+            {
+                getVirtualHost().createChild(Queue.class, attributes);
+                fail("Expected exception is not thrown for priorities " + priorities);
+            }
+            catch (IllegalConfigurationException e)
+            {
+                // pass
+            }
+        }
+    }
+
+    @Test
+    public void testChangePrioritiesOutOfRangeRejected()
+    {
+        try
+        {
+            getQueue().setAttributes(Collections.singletonMap(PriorityQueue.PRIORITIES,
+                                                              PriorityQueue.MAX_PRIORITY_LEVELS + 1));
+            fail("Expected exception is not thrown");
+        }
+        catch (IllegalConfigurationException e)
+        {
+            // pass
+        }
+        assertEquals("Unexpected priorities", 3, ((PriorityQueue<?>) getQueue()).getPriorities());
+    }
+
     protected ServerMessage createMessage(Long id, byte i)
     {
 
@@ -19,11 +19,14 @@
 
 package org.apache.qpid.server.queue;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -38,6 +41,7 @@ import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 
 import org.apache.qpid.server.connection.SessionPrincipal;
@@ -45,9 +49,11 @@ import org.apache.qpid.server.logging.EventLogger;
 import org.apache.qpid.server.logging.LogMessage;
 import org.apache.qpid.server.logging.LogSubject;
 import org.apache.qpid.server.logging.messages.QueueMessages;
+import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.OverflowPolicy;
 import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.session.AMQPSession;
+import org.apache.qpid.server.util.Action;
 import org.apache.qpid.test.utils.UnitTestBase;
 
 public class ProducerFlowControlOverflowPolicyHandlerTest extends UnitTestBase
@@ -86,6 +92,8 @@ public class ProducerFlowControlOverflowPolicyHandlerTest extends UnitTestBase
         checkOverflow(session);
 
         verify(session, times(1)).block(_queue);
+        verify(session, times(1)).producerFlowBlocked(_queue);
+        verify(session, times(1)).addDeleteTask(any(Action.class));
         LogMessage logMessage = QueueMessages.OVERFULL(11, 10, 0, -1);
         verify(_eventLogger).message(same(_subject), argThat(new LogMessageMatcher(logMessage)));
         verifyNoMoreInteractions(_eventLogger);
@@ -102,6 +110,8 @@ public class ProducerFlowControlOverflowPolicyHandlerTest extends UnitTestBase
         checkOverflow(session);
 
         verify(session, times(1)).block(_queue);
+        verify(session, times(1)).producerFlowBlocked(_queue);
+        verify(session, times(1)).addDeleteTask(any(Action.class));
         LogMessage logMessage = QueueMessages.OVERFULL(0, -1, 11, 10);
         verify(_eventLogger).message(same(_subject), argThat(new LogMessageMatcher(logMessage)));
         verifyNoMoreInteractions(_eventLogger);
@@ -141,6 +151,10 @@ public class ProducerFlowControlOverflowPolicyHandlerTest extends UnitTestBase
         _producerFlowControlOverflowPolicyHandler.checkOverflow(null);
 
         verify(session, times(1)).unblock(_queue);
+        verify(session, times(1)).producerFlowBlocked(_queue);
+        verify(session, times(1)).producerFlowUnblocked(_queue);
+        verify(session, times(1)).addDeleteTask(any(Action.class));
+        verify(session, times(1)).removeDeleteTask(any(Action.class));
         assertFalse("Flow should not be stopped", _producerFlowControlOverflowPolicyHandler.isQueueFlowStopped());
         LogMessage underfullMessage = QueueMessages.UNDERFULL(8, 8, 0, -1);
         verify(_eventLogger).message(same(_subject), argThat(new LogMessageMatcher(underfullMessage)));
@@ -167,6 +181,10 @@ public class ProducerFlowControlOverflowPolicyHandlerTest extends UnitTestBase
         _producerFlowControlOverflowPolicyHandler.checkOverflow(null);
 
         verify(session, times(1)).unblock(_queue);
+        verify(session, times(1)).producerFlowBlocked(_queue);
+        verify(session, times(1)).producerFlowUnblocked(_queue);
+        verify(session, times(1)).addDeleteTask(any(Action.class));
+        verify(session, times(1)).removeDeleteTask(any(Action.class));
         assertFalse("Flow should not be stopped", _producerFlowControlOverflowPolicyHandler.isQueueFlowStopped());
         LogMessage underfullMessage = QueueMessages.UNDERFULL(0, -1, 8, 8);
         verify(_eventLogger).message(same(_subject), argThat(new LogMessageMatcher(underfullMessage)));
@@ -174,7 +192,125 @@ public class ProducerFlowControlOverflowPolicyHandlerTest extends UnitTestBase
         verifyNoMoreInteractions(session);
     }
 
+    @Test
+    public void testFairShareBlocksOnlyHeaviestProducer() throws Exception
+    {
+        enableFairShare();
+        AMQPSession<?, ?> heavySession = mock(AMQPSession.class);
+        AMQPSession<?, ?> lightSession = mock(AMQPSession.class);
+        when(_queue.getQueueDepthBytes()).thenReturn(11L);
+        when(_queue.getMaximumQueueDepthBytes()).thenReturn(10L);
+
+        checkOverflow(heavySession, createEntry(100L));
+        checkOverflow(lightSession, createEntry(1L));
+
+        verify(heavySession, times(1)).block(_queue);
+        verify(lightSession, never()).block(_queue);
+        assertTrue("Flow should be stopped", _producerFlowControlOverflowPolicyHandler.isQueueFlowStopped());
+    }
+
+    @Test
+    public void testFairShareBlocksEveryProducerAboveHardLimit() throws Exception
+    {
+        enableFairShare();
+        AMQPSession<?, ?> heavySession = mock(AMQPSession.class);
+        AMQPSession<?, ?> lightSession = mock(AMQPSession.class);
+        when(_queue.getQueueDepthBytes()).thenReturn(13L);
+        when(_queue.getMaximumQueueDepthBytes()).thenReturn(10L);
+
+        checkOverflow(heavySession, createEntry(100L));
+        checkOverflow(lightSession, createEntry(1L));
+
+        verify(heavySession, times(1)).block(_queue);
+        verify(lightSession, times(1)).block(_queue);
+    }
+
+    @Test
+    public void testFairShareResumesFlowForBlockedProducers() throws Exception
+    {
+        enableFairShare();
+        AMQPSession<?, ?> heavySession = mock(AMQPSession.class);
+        when(_queue.getQueueDepthBytes()).thenReturn(11L);
+        when(_queue.getMaximumQueueDepthBytes()).thenReturn(10L);
+
+        checkOverflow(heavySession, createEntry(100L));
+        verify(heavySession, times(1)).block(_queue);
+
+        when(_queue.getQueueDepthBytes()).thenReturn(8L);
+        _producerFlowControlOverflowPolicyHandler.checkOverflow(null);
+
+        verify(heavySession, times(1)).unblock(_queue);
+        verify(heavySession, times(1)).producerFlowUnblocked(_queue);
+        assertFalse("Flow should not be stopped", _producerFlowControlOverflowPolicyHandler.isQueueFlowStopped());
+    }
+
+    @Test
+    public void testFairShareForgetsProducerWhenSessionDeleted() throws Exception
+    {
+        enableFairShare();
+        AMQPSession<?, ?> session = mock(AMQPSession.class);
+        when(_queue.getQueueDepthBytes()).thenReturn(5L);
+        when(_queue.getMaximumQueueDepthBytes()).thenReturn(10L);
+
+        checkOverflow(session, createEntry(5L));
+        checkOverflow(session, createEntry(5L));
+
+        final ArgumentCaptor<Action> deleteTaskCaptor = ArgumentCaptor.forClass(Action.class);
+        verify(session, times(1)).addDeleteTask(deleteTaskCaptor.capture());
+        assertEquals("Unexpected number of producer shares",
+                     1, _producerFlowControlOverflowPolicyHandler.getNumberOfProducerShares());
+
+        deleteTaskCaptor.getValue().performAction(session);
+
+        assertEquals("Producer share should be removed when the session is deleted",
+                     0, _producerFlowControlOverflowPolicyHandler.getNumberOfProducerShares());
+        verify(session, never()).block(_queue);
+    }
+
+    @Test
+    public void testSessionDeletedWhilstBlockedIsUnblocked() throws Exception
+    {
+        AMQPSession<?, ?> session = mock(AMQPSession.class);
+        when(_queue.getQueueDepthBytes()).thenReturn(11L);
+        when(_queue.getMaximumQueueDepthBytes()).thenReturn(10L);
+
+        checkOverflow(session);
+
+        final ArgumentCaptor<Action> deleteTaskCaptor = ArgumentCaptor.forClass(Action.class);
+        verify(session, times(1)).block(_queue);
+        verify(session, times(1)).addDeleteTask(deleteTaskCaptor.capture());
+
+        deleteTaskCaptor.getValue().performAction(session);
+        verify(session, times(1)).producerFlowUnblocked(_queue);
+
+        when(_queue.getQueueDepthBytes()).thenReturn(8L);
+        _producerFlowControlOverflowPolicyHandler.checkOverflow(null);
+
+        verify(session, never()).unblock(_queue);
+        verify(session, times(1)).producerFlowUnblocked(_queue);
+    }
+
+    private void enableFairShare()
+    {
+        when(_queue.getContextValue(Boolean.class, Queue.QUEUE_FLOW_CONTROL_FAIR_SHARE)).thenReturn(true);
+        _producerFlowControlOverflowPolicyHandler = new ProducerFlowControlOverflowPolicyHandler(_queue, _eventLogger);
+    }
+
+    private QueueEntry createEntry(final long size)
+    {
+        ServerMessage<?> message = mock(ServerMessage.class);
+        when(message.getSizeIncludingHeader()).thenReturn(size);
+        QueueEntry entry = mock(QueueEntry.class);
+        when(entry.getMessage()).thenReturn((ServerMessage) message);
+        return entry;
+    }
+
     private void checkOverflow(AMQPSession<?, ?> session)
+    {
+        checkOverflow(session, null);
+    }
+
+    private void checkOverflow(AMQPSession<?, ?> session, final QueueEntry newlyEnqueued)
     {
         Subject subject = createSubject(session);
         Subject.doAs(subject, new PrivilegedAction<Void>()
@@ -182,7 +318,7 @@ public class ProducerFlowControlOverflowPolicyHandlerTest extends UnitTestBase
             @Override
             public Void run()
             {
-                _producerFlowControlOverflowPolicyHandler.checkOverflow(null);
+                _producerFlowControlOverflowPolicyHandler.checkOverflow(newlyEnqueued);
                 return null;
             }
         });
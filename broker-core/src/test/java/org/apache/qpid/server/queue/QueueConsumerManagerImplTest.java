@@ -0,0 +1,142 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class QueueConsumerManagerImplTest extends UnitTestBase
+{
+    private AbstractQueue<?> _queue;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _queue = mock(AbstractQueue.class);
+        when(_queue.getContextValue(Integer.class, Queue.QUEUE_SCAVANGE_COUNT)).thenReturn(10);
+    }
+
+    @Test
+    public void testInterestedConsumersOfferedInRoundRobinOrderByDefault()
+    {
+        final QueueConsumerManagerImpl manager = new QueueConsumerManagerImpl(_queue);
+        final QueueConsumer<?,?> consumer1 = createConsumer(10, 3000L);
+        final QueueConsumer<?,?> consumer2 = createConsumer(10, 2000L);
+        final QueueConsumer<?,?> consumer3 = createConsumer(10, 1000L);
+        manager.addConsumer(consumer1);
+        manager.addConsumer(consumer2);
+        manager.addConsumer(consumer3);
+
+        assertEquals(Arrays.asList(consumer1, consumer2, consumer3), toList(manager.getInterestedIterator()));
+    }
+
+    @Test
+    public void testInterestedConsumersOfferedLeastLoadedFirstWithinPriority()
+    {
+        when(_queue.getContextValue(Boolean.class, Queue.QUEUE_DELIVER_TO_LEAST_LOADED_CONSUMER)).thenReturn(true);
+        final QueueConsumerManagerImpl manager = new QueueConsumerManagerImpl(_queue);
+        final QueueConsumer<?,?> busyHighPriority = createConsumer(10, 5000L);
+        final QueueConsumer<?,?> idleHighPriority = createConsumer(10, 0L);
+        final QueueConsumer<?,?> busyLowPriority = createConsumer(1, 4000L);
+        final QueueConsumer<?,?> idleLowPriority = createConsumer(1, 100L);
+        final QueueConsumer<?,?> equallyIdleLowPriority = createConsumer(1, 100L);
+        manager.addConsumer(busyLowPriority);
+        manager.addConsumer(busyHighPriority);
+        manager.addConsumer(idleLowPriority);
+        manager.addConsumer(idleHighPriority);
+        manager.addConsumer(equallyIdleLowPriority);
+
+        assertEquals(Arrays.asList(idleHighPriority,
+                                   busyHighPriority,
+                                   idleLowPriority,
+                                   equallyIdleLowPriority,
+                                   busyLowPriority),
+                     toList(manager.getInterestedIterator()));
+    }
+
+    @Test
+    public void testIdleTimeAccumulatesOnlyWhileMessagesAvailable() throws Exception
+    {
+        final QueueConsumerManagerImpl manager = new QueueConsumerManagerImpl(_queue);
+        final QueueConsumer<?,?> consumer = createConsumer(10, 0L);
+
+        when(_queue.hasAvailableMessages()).thenReturn(false);
+        manager.addConsumer(consumer);
+        Thread.sleep(20L);
+        assertEquals("Consumer should not be idle while the queue is empty",
+                     0L, consumer.getQueueConsumerNode().getIdleWhileMessagesAvailableTime());
+
+        assertTrue(manager.setNotified(consumer, true));
+        when(_queue.hasAvailableMessages()).thenReturn(true);
+        assertTrue(manager.setNotified(consumer, false));
+        Thread.sleep(20L);
+        assertTrue(manager.setNotified(consumer, true));
+
+        final long idleTime = consumer.getQueueConsumerNode().getIdleWhileMessagesAvailableTime();
+        assertTrue(String.format("Unexpected idle time %d", idleTime), idleTime >= 20L);
+
+        Thread.sleep(20L);
+        assertEquals("Idle time should not grow once the consumer is notified",
+                     idleTime, consumer.getQueueConsumerNode().getIdleWhileMessagesAvailableTime());
+        assertFalse(manager.getInterestedIterator().hasNext());
+    }
+
+    private QueueConsumer<?,?> createConsumer(final int priority, final long unacknowledgedBytes)
+    {
+        final QueueConsumer<?,?> consumer = mock(QueueConsumer.class);
+        final AtomicReference<QueueConsumerNode> node = new AtomicReference<>();
+        when(consumer.getPriority()).thenReturn(priority);
+        when(consumer.acquires()).thenReturn(true);
+        when(consumer.isNotifyWorkDesired()).thenReturn(true);
+        when(consumer.getUnacknowledgedBytes()).thenReturn(unacknowledgedBytes);
+        doAnswer(invocation ->
+                 {
+                     node.set(invocation.getArgument(0));
+                     return null;
+                 }).when(consumer).setQueueConsumerNode(any(QueueConsumerNode.class));
+        when(consumer.getQueueConsumerNode()).thenAnswer(invocation -> node.get());
+        return consumer;
+    }
+
+    private List<QueueConsumer<?,?>> toList(final Iterator<QueueConsumer<?,?>> iterator)
+    {
+        final List<QueueConsumer<?,?>> consumers = new ArrayList<>();
+        iterator.forEachRemaining(consumers::add);
+        return consumers;
+    }
+}
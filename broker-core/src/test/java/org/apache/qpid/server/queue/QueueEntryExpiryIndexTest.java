@@ -0,0 +1,140 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class QueueEntryExpiryIndexTest extends UnitTestBase
+{
+    private final QueueEntryExpiryIndex _index = new QueueEntryExpiryIndex();
+
+    @Test
+    public void testDueEntriesRemovedInExpirationOrder()
+    {
+        final QueueEntry later = createEntry(2000L);
+        final QueueEntry earlier = createEntry(1000L);
+        final QueueEntry notDue = createEntry(5000L);
+        _index.add(later, 2000L);
+        _index.add(earlier, 1000L);
+        _index.add(notDue, 5000L);
+
+        final List<QueueEntry> due = new ArrayList<>();
+        final int removed = _index.removeDue(3000L, entry -> {
+            due.add(entry);
+            when(entry.isDeleted()).thenReturn(true);
+        });
+
+        assertEquals("Unexpected number of removed records", 2, removed);
+        assertEquals("Unexpected due entries", Arrays.asList(earlier, later), due);
+        assertEquals("Unexpected index size", 1, _index.size());
+    }
+
+    @Test
+    public void testStaleRecordIgnoredAfterExpirationExtended()
+    {
+        final QueueEntry entry = createEntry(1000L);
+        _index.add(entry, 1000L);
+
+        // the queue TTL is raised; the entry is re-indexed without the old record being removed
+        when(entry.getExpiration()).thenReturn(10000L);
+        _index.add(entry, 10000L);
+
+        final List<QueueEntry> due = new ArrayList<>();
+        _index.removeDue(5000L, due::add);
+
+        assertEquals("Entry should not be expired using its stale expiration", Collections.emptyList(), due);
+        assertEquals("Unexpected index size", 1, _index.size());
+
+        _index.removeDue(20000L, due::add);
+        assertEquals("Entry should be expired at its new expiration", Arrays.asList(entry), due);
+    }
+
+    @Test
+    public void testRemove()
+    {
+        final QueueEntry entry = createEntry(1000L);
+        _index.add(entry, 1000L);
+        _index.remove(entry, 1000L);
+
+        assertEquals("Unexpected index size", 0, _index.size());
+        final List<QueueEntry> due = new ArrayList<>();
+        _index.removeDue(5000L, due::add);
+        assertEquals("Unexpected due entries", Collections.emptyList(), due);
+    }
+
+    @Test
+    public void testEntryNotDeletedWhenDueIsRetried()
+    {
+        final QueueEntry entry = createEntry(1000L);
+        _index.add(entry, 1000L);
+
+        // the entry is held by a consumer which cannot be made to give it up, so expiring it fails
+        final List<QueueEntry> due = new ArrayList<>();
+        _index.removeDue(5000L, due::add);
+
+        assertEquals("Unexpected due entries", Arrays.asList(entry), due);
+        assertEquals("Entry should remain indexed", 1, _index.size());
+
+        // released later, the entry is expired on the next run even though no consumer visits it
+        _index.removeDue(6000L, e -> {
+            due.add(e);
+            when(e.isDeleted()).thenReturn(true);
+        });
+
+        assertEquals("Entry should have been retried", Arrays.asList(entry, entry), due);
+        assertEquals("Unexpected index size", 0, _index.size());
+    }
+
+    @Test
+    public void testPurgeDeletedRemovesDeletedAndStaleRecords()
+    {
+        final QueueEntry deleted = createEntry(1000L);
+        final QueueEntry stale = createEntry(2000L);
+        final QueueEntry live = createEntry(3000L);
+        _index.add(deleted, 1000L);
+        _index.add(stale, 2000L);
+        _index.add(live, 3000L);
+
+        when(deleted.isDeleted()).thenReturn(true);
+        when(stale.getExpiration()).thenReturn(4000L);
+
+        assertEquals("Unexpected number of purged records", 2, _index.purgeDeleted());
+        assertEquals("Unexpected index size", 1, _index.size());
+    }
+
+    private QueueEntry createEntry(final long expiration)
+    {
+        final QueueEntry entry = mock(QueueEntry.class);
+        when(entry.getExpiration()).thenReturn(expiration);
+        return entry;
+    }
+}
@@ -185,6 +185,33 @@ public abstract class QueueEntryImplTestBase extends UnitTestBase
                                                  eq(NON_CONSUMER_ACQUIRED_STATE));
     }
 
+    @Test
+    public void testDeliveryCountAndFlags()
+    {
+        assertFalse("Entry should not be marked as delivered", _queueEntry.getDeliveredToConsumer());
+        assertEquals("Unexpected delivery count", 0, _queueEntry.getDeliveryCount());
+
+        _queueEntry.setRedelivered();
+        _queueEntry.incrementDeliveryCount();
+        _queueEntry.incrementDeliveryCount();
+
+        assertTrue("Entry should be marked as delivered", _queueEntry.getDeliveredToConsumer());
+        assertEquals("Unexpected delivery count", 2, _queueEntry.getDeliveryCount());
+        assertTrue("Entry should be marked as redelivered", _queueEntry.isRedelivered());
+
+        _queueEntry.decrementDeliveryCount();
+        _queueEntry.decrementDeliveryCount();
+        _queueEntry.decrementDeliveryCount();
+
+        assertEquals("Unexpected delivery count", 0, _queueEntry.getDeliveryCount());
+        assertFalse("Entry should no longer be marked as delivered", _queueEntry.getDeliveredToConsumer());
+        assertTrue("Redelivered flag should be unaffected by the delivery count", _queueEntry.isRedelivered());
+
+        _queueEntry.decrementDeliveryCount();
+        assertEquals("Delivery count should not go below zero", 0, _queueEntry.getDeliveryCount());
+        assertTrue("Redelivered flag should be unaffected by the delivery count", _queueEntry.isRedelivered());
+    }
+
     @Test
     public void testLocking()
     {
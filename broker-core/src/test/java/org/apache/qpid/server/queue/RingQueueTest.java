@@ -0,0 +1,137 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.consumer.ConsumerOption;
+import org.apache.qpid.server.message.MessageInstance;
+import org.apache.qpid.server.model.Queue;
+
+public class RingQueueTest extends AbstractQueueTestBase
+{
+    @Before
+    public void setUp() throws Exception
+    {
+        setArguments(Collections.singletonMap(RingQueue.RING_SIZE, (Object) RingQueue.DEFAULT_RING_SIZE));
+        super.setUp();
+    }
+
+    @Test
+    public void testRingCapacityRoundedUpToPowerOfTwo()
+    {
+        assertEquals(1, RingQueueEntryList.ringCapacity(1));
+        assertEquals(2, RingQueueEntryList.ringCapacity(2));
+        assertEquals(4, RingQueueEntryList.ringCapacity(3));
+        assertEquals(1024, RingQueueEntryList.ringCapacity(1000));
+        assertEquals(1024, RingQueueEntryList.ringCapacity(1024));
+        assertEquals(RingQueue.MAX_RING_SIZE, RingQueueEntryList.ringCapacity(RingQueue.MAX_RING_SIZE));
+    }
+
+    @Test
+    public void testOldestMessagesOverwritten() throws Exception
+    {
+        final RingQueueImpl queue = createRingQueue(3);
+        assertEquals("Unexpected capacity", 4, queue.getEntries().getCapacity());
+
+        for (long i = 1; i <= 10; i++)
+        {
+            queue.enqueue(createMessage(i), null, null);
+        }
+
+        assertEquals("Unexpected queue depth", 4, queue.getQueueDepthMessages());
+        assertEquals("Unexpected overwritten count", 6L, queue.getOverwrittenMessages());
+        assertEquals("Unexpected oldest message", 7L, queue.getEntries().getOldestEntry().getMessage().getMessageNumber());
+
+        queue.addConsumer(getConsumer(), null, null, "test", EnumSet.noneOf(ConsumerOption.class), 0);
+        while (getConsumer().processPending());
+
+        final List<Long> received = new ArrayList<>();
+        for (MessageInstance instance : getConsumer().getMessages())
+        {
+            received.add(instance.getMessage().getMessageNumber());
+        }
+        assertEquals("Unexpected messages received", Arrays.asList(7L, 8L, 9L, 10L), received);
+    }
+
+    @Test
+    public void testConsumedSlotIsNotCountedAsOverwritten() throws Exception
+    {
+        final RingQueueImpl queue = createRingQueue(2);
+
+        queue.enqueue(createMessage(1L), null, null);
+        final QueueEntry first = queue.getEntries().getOldestEntry();
+        assertTrue("Could not acquire entry", first.acquire());
+        first.delete();
+
+        queue.enqueue(createMessage(2L), null, null);
+        queue.enqueue(createMessage(3L), null, null);
+
+        assertEquals("Unexpected overwritten count", 0L, queue.getOverwrittenMessages());
+        assertEquals("Unexpected queue depth", 2, queue.getQueueDepthMessages());
+        assertFalse("Entry should not be deleted", queue.getEntries().getOldestEntry().isDeleted());
+    }
+
+    @Test
+    public void testDeletedEntryReleasesSlot() throws Exception
+    {
+        final RingQueueImpl queue = createRingQueue(2);
+
+        queue.enqueue(createMessage(1L), null, null);
+        queue.enqueue(createMessage(2L), null, null);
+        final QueueEntry first = queue.getEntries().getOldestEntry();
+        assertEquals("Entry should occupy its slot", first, queue.getEntries().getSlotEntry(first));
+
+        assertTrue("Could not acquire entry", first.acquire());
+        first.delete();
+
+        assertNull("Deleted entry should release its slot", queue.getEntries().getSlotEntry(first));
+        final QueueEntry second = queue.getEntries().getOldestEntry();
+        assertEquals("Retained entry should occupy its slot", second, queue.getEntries().getSlotEntry(second));
+    }
+
+    private RingQueueImpl createRingQueue(final int ringSize)
+    {
+        getQueue().close();
+        getQueue().delete();
+        final Map<String, Object> queueAttributes = new HashMap<>();
+        queueAttributes.put(Queue.NAME, getQname());
+        queueAttributes.put(RingQueue.RING_SIZE, ringSize);
+        final RingQueueImpl queue = new RingQueueImpl(queueAttributes, getVirtualHost());
+        queue.open();
+        setQueue(queue);
+        return queue;
+    }
+}
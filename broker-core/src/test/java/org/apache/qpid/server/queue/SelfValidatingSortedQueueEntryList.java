@@ -22,7 +22,6 @@ package org.apache.qpid.server.queue;
 import org.junit.Assert;
 
 import org.apache.qpid.server.message.ServerMessage;
-import org.apache.qpid.server.queue.SortedQueueEntry.Colour;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 
 /**
@@ -61,108 +60,34 @@ public class SelfValidatingSortedQueueEntryList extends SortedQueueEntryList
 
     public void assertQueueProperties()
     {
-        assertRootIsBlack();
-        assertTreeIntegrity();
-        assertChildrenOfRedAreBlack();
-        assertLeavesSameBlackPath();
+        assertEntriesInOrder();
+        assertTailIsLastEntry();
     }
 
-    public void assertRootIsBlack()
+    public void assertEntriesInOrder()
     {
-        if(!isNodeColour(getRoot(), Colour.BLACK))
+        SortedQueueEntry previous = getHead();
+        SortedQueueEntry current;
+        while((current = next(previous)) != null)
         {
-            Assert.fail("Root Not Black");
-        }
-    }
-
-    public void assertTreeIntegrity()
-    {
-        assertTreeIntegrity(getRoot());
-    }
-
-    public void assertTreeIntegrity(final SortedQueueEntry node)
-    {
-        if(node == null)
-        {
-            return;
-        }
-        if(node.getLeft() != null)
-        {
-            if(node.getLeft().getParent() == node)
+            if(previous.compareTo(current) >= 0 || current.compareTo(previous) <= 0)
             {
-                assertTreeIntegrity(node.getLeft());
+                Assert.fail("Entries out of order: " + previous + " precedes " + current);
             }
-            else
+            if(current.isDeleted())
             {
-                Assert.fail("Tree integrity compromised");
+                Assert.fail("Deleted entry " + current + " returned as next entry");
             }
+            previous = current;
         }
-        if(node.getRight() != null)
-        {
-            if(node.getRight().getParent() == node)
-            {
-                assertTreeIntegrity(node.getRight());
-            }
-            else
-            {
-                Assert.fail("Tree integrity compromised");
-            }
-
-        }
-    }
-
-    public void assertLeavesSameBlackPath()
-    {
-        assertLeavesSameBlackPath(getRoot());
-    }
-
-    public int assertLeavesSameBlackPath(final SortedQueueEntry node)
-    {
-        if(node == null)
-        {
-            return 1;
-        }
-        final int left = assertLeavesSameBlackPath(node.getLeft());
-        final int right = assertLeavesSameBlackPath(node.getLeft());
-        if(left == right)
-        {
-            return isNodeColour(node, Colour.BLACK) ? 1 + left : left;
-        }
-        else
-        {
-            Assert.fail("Unequal paths to leaves");
-            return 1; //compiler
-        }
-    }
-
-    public void assertChildrenOfRedAreBlack()
-    {
-        assertChildrenOfRedAreBlack(getRoot());
     }
 
-    public void assertChildrenOfRedAreBlack(final SortedQueueEntry node)
+    public void assertTailIsLastEntry()
     {
-        if(node == null)
-        {
-            return;
-        }
-        else if(node.getColour() == Colour.BLACK)
-        {
-            assertChildrenOfRedAreBlack(node.getLeft());
-            assertChildrenOfRedAreBlack(node.getRight());
-        }
-        else
+        final SortedQueueEntry tail = getTail();
+        if(next(tail) != null)
         {
-            if(isNodeColour(node.getLeft(), Colour.BLACK)
-                    && isNodeColour(node.getRight(), Colour.BLACK))
-            {
-                assertChildrenOfRedAreBlack(node.getLeft());
-                assertChildrenOfRedAreBlack(node.getRight());
-            }
-            else
-            {
-                Assert.fail("Children of Red are not both black");
-            }
+            Assert.fail("Entries found after the tail " + tail);
         }
     }
 }
@@ -20,6 +20,8 @@
  */
 package org.apache.qpid.server.queue;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -32,11 +34,13 @@ import java.util.Map;
 import java.util.UUID;
 
 import org.junit.Before;
+import org.junit.Test;
 
 import org.apache.qpid.server.message.MessageReference;
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.BrokerTestHelper;
 import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.TransactionLogResource;
 import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
 public class SimpleQueueEntryImplTest extends QueueEntryImplTestBase
@@ -119,4 +123,53 @@ public class SimpleQueueEntryImplTest extends QueueEntryImplTestBase
         current = current.getNextValidEntry();
         assertNull(current);
     }
+
+    @Test
+    public void testStoreEnqueueRecordRecreatedFromEntry()
+    {
+        final UUID queueId = queueEntryList.getQueue().getId();
+        final ServerMessage message = createMessage(10);
+        final MessageEnqueueRecord enqueueRecord = mock(MessageEnqueueRecord.class);
+        when(enqueueRecord.getQueueId()).thenReturn(queueId);
+        when(enqueueRecord.getMessageNumber()).thenReturn(10L);
+
+        final QueueEntry entry = queueEntryList.add(message, enqueueRecord);
+
+        final MessageEnqueueRecord recreated = entry.getEnqueueRecord();
+        assertNotNull("Enqueue record should be available", recreated);
+        assertEquals("Unexpected queue id", queueId, recreated.getQueueId());
+        assertEquals("Unexpected message number", 10L, recreated.getMessageNumber());
+    }
+
+    @Test
+    public void testUnrecognisedEnqueueRecordRetained()
+    {
+        final ServerMessage message = createMessage(11);
+        final MessageEnqueueRecord enqueueRecord = mock(MessageEnqueueRecord.class);
+        when(enqueueRecord.getQueueId()).thenReturn(UUID.randomUUID());
+        when(enqueueRecord.getMessageNumber()).thenReturn(11L);
+
+        final QueueEntry entry = queueEntryList.add(message, enqueueRecord);
+
+        assertSame("Enqueue record should be retained", enqueueRecord, entry.getEnqueueRecord());
+    }
+
+    @Test
+    public void testEntryWithoutEnqueueRecord()
+    {
+        final QueueEntry entry = queueEntryList.add(createMessage(12), null);
+
+        assertNull("Entry should not have an enqueue record", entry.getEnqueueRecord());
+    }
+
+    private ServerMessage createMessage(final int msgId)
+    {
+        ServerMessage message = mock(ServerMessage.class);
+        when(message.getMessageNumber()).thenReturn((long)msgId);
+        final MessageReference reference = mock(MessageReference.class);
+        when(reference.getMessage()).thenReturn(message);
+        when(message.newReference()).thenReturn(reference);
+        when(message.newReference(any(TransactionLogResource.class))).thenReturn(reference);
+        return message;
+    }
 }
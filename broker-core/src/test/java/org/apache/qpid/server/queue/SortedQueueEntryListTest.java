@@ -20,17 +20,27 @@
 package org.apache.qpid.server.queue;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -445,6 +455,71 @@ public class SortedQueueEntryListTest extends QueueEntryListTestBase
         assertEquals("Unexpected last entry", entry1, list.getLeastSignificantOldestEntry());
     }
 
+    @Test
+    public void testConcurrentAddsAndDeletesKeepOrder() throws Exception
+    {
+        final SortedQueueEntryList list = new SortedQueueEntryList(_testQueue, _testQueue.getQueueStatistics());
+        final int threadCount = 8;
+        final int messagesPerThread = 250;
+        final ServerMessage[][] messages = new ServerMessage[threadCount][messagesPerThread];
+        long messageId = 0L;
+        for (int t = 0; t < threadCount; t++)
+        {
+            for (int i = 0; i < messagesPerThread; i++)
+            {
+                messages[t][i] = generateTestMessage(messageId, keys[(int) (messageId % keys.length)]);
+                messageId++;
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try
+        {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++)
+            {
+                final ServerMessage[] threadMessages = messages[t];
+                futures.add(executor.submit(() ->
+                                            {
+                                                start.await();
+                                                for (int i = 0; i < threadMessages.length; i++)
+                                                {
+                                                    final QueueEntry entry = list.add(threadMessages[i], null);
+                                                    if (i % 2 == 0)
+                                                    {
+                                                        entry.acquire();
+                                                        entry.delete();
+                                                    }
+                                                }
+                                                return null;
+                                            }));
+            }
+            start.countDown();
+            for (Future<?> future : futures)
+            {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        int count = 0;
+        QueueEntry previous = list.getHead();
+        QueueEntry current;
+        while ((current = list.next(previous)) != null)
+        {
+            assertTrue("Entries out of order", previous == list.getHead() || previous.compareTo(current) < 0);
+            assertFalse("Deleted entry returned", current.isDeleted());
+            previous = current;
+            count++;
+        }
+        assertEquals("Unexpected number of entries", threadCount * messagesPerThread / 2, count);
+        assertSame("Unexpected tail", previous, list.getTail());
+    }
+
     private void validateEntry(final SortedQueueEntry entry, final String expectedSortKey, final long expectedMessageId)
     {
         assertEquals("Sorted queue entry value is not as expected",
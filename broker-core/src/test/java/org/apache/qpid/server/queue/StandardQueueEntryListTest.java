@@ -45,6 +45,7 @@ import org.apache.qpid.server.model.BrokerTestHelper;
 import org.apache.qpid.server.model.ConfiguredObjectFactoryImpl;
 import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.util.ShallowSizeEstimator;
 import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
 public class StandardQueueEntryListTest extends QueueEntryListTestBase
 {
@@ -270,6 +271,13 @@ public class StandardQueueEntryListTest extends QueueEntryListTestBase
         assertNull("The next entry after the last should be null", next);
     }
 
+    @Test
+    public void testEntryFootprint()
+    {
+        assertTrue("Standard queue entries should not need more than 56 bytes of heap each",
+                   ShallowSizeEstimator.estimate(StandardQueueEntry.class) <= 56L);
+    }
+
     @Test
     public void testGetLesserOldestEntry()
     {
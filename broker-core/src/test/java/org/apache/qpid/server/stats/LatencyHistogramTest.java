@@ -0,0 +1,135 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class LatencyHistogramTest extends UnitTestBase
+{
+    @Test
+    public void testEmptyHistogram()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram(1L << 20);
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMax());
+        assertEquals(0L, histogram.getValueAtPercentile(99d));
+    }
+
+    @Test
+    public void testPercentilesWithinPrecision()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram(1L << 20);
+        for (int i = 1; i <= 1000; i++)
+        {
+            histogram.record(i);
+        }
+
+        assertEquals(1000L, histogram.getCount());
+        assertEquals(1000L, histogram.getMax());
+        assertEquals(500.5d, histogram.getMean(), 0.001d);
+        assertWithinPrecision(500L, histogram.getValueAtPercentile(50d));
+        assertWithinPrecision(990L, histogram.getValueAtPercentile(99d));
+        assertEquals(1000L, histogram.getValueAtPercentile(100d));
+    }
+
+    @Test
+    public void testSmallValuesAreExact()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram(1L << 20);
+        histogram.record(3);
+        histogram.record(7);
+        assertEquals(3L, histogram.getValueAtPercentile(50d));
+        assertEquals(7L, histogram.getValueAtPercentile(100d));
+    }
+
+    @Test
+    public void testOutOfRangeValuesAreClamped()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram(1024);
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(2L, histogram.getCount());
+        assertEquals(1024L, histogram.getMax());
+        assertEquals(0L, histogram.getValueAtPercentile(50d));
+        assertEquals(1024L, histogram.getValueAtPercentile(100d));
+    }
+
+    @Test
+    public void testBucketBoundsAreContiguous()
+    {
+        for (int index = 1; index < LatencyHistogram.bucketIndex(Long.MAX_VALUE); index++)
+        {
+            final long lowerBound = LatencyHistogram.bucketUpperBound(index - 1) + 1;
+            assertEquals(index, LatencyHistogram.bucketIndex(lowerBound));
+            assertEquals(index, LatencyHistogram.bucketIndex(LatencyHistogram.bucketUpperBound(index)));
+        }
+    }
+
+    @Test
+    public void testSummary()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram(1L << 20);
+        histogram.record(10);
+        final Map<String, Number> summary = histogram.getSummary(LatencyHistogram.parsePercentiles("50, 99.9"));
+        assertEquals(1L, summary.get("count"));
+        assertEquals(10L, summary.get("max"));
+        assertEquals(10L, summary.get("p50"));
+        assertEquals(10L, summary.get("p99.9"));
+    }
+
+    @Test
+    public void testInvalidPercentiles()
+    {
+        try
+        {
+            LatencyHistogram.parsePercentiles("50,abc");
+            fail("Exception not thrown");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+
+        try
+        {
+            LatencyHistogram.parsePercentiles("101");
+            fail("Exception not thrown");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
+    private void assertWithinPrecision(final long expected, final long actual)
+    {
+        assertTrue(String.format("Value %d not within precision of %d", actual, expected),
+                   actual >= expected && actual <= expected + expected / 16);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ShallowSizeEstimatorTest extends UnitTestBase
+{
+    @Test
+    public void testEmptyObject()
+    {
+        assertEquals(16L, ShallowSizeEstimator.estimate(Object.class));
+    }
+
+    @Test
+    public void testFieldsOfClassAndSuperclassAreCounted()
+    {
+        assertEquals(16L, ShallowSizeEstimator.estimate(Base.class));
+        assertEquals(32L, ShallowSizeEstimator.estimate(Derived.class));
+    }
+
+    @SuppressWarnings("unused")
+    private static class Base
+    {
+        private static long STATIC_FIELD;
+        private int _int;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Derived extends Base
+    {
+        private long _long;
+        private Object _reference;
+        private boolean _flag;
+    }
+}
@@ -34,6 +34,7 @@ import static org.mockito.Mockito.when;
 import java.io.File;
 import java.security.Principal;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -323,6 +324,48 @@ public class AbstractVirtualHostTest extends UnitTestBase
         host.close();
     }
 
+    @Test
+    public void testShortStringCacheSizedByLegacyNamedCacheContextVariable()
+    {
+        final AbstractVirtualHost host = createOpenVirtualHost(Collections.singletonMap(
+                String.format(QueueManagingVirtualHost.NAMED_CACHE_MAXIMUM_SIZE_FORMAT, "amqShortStringCache"), "100"));
+
+        assertEquals("Unexpected short string cache capacity", 128, host.getShortStringCache().getCapacity());
+        host.close();
+    }
+
+    @Test
+    public void testShortStringCacheSizePreferredOverLegacyNamedCacheContextVariable()
+    {
+        final Map<String, String> context = new HashMap<>();
+        context.put(String.format(QueueManagingVirtualHost.NAMED_CACHE_MAXIMUM_SIZE_FORMAT, "amqShortStringCache"), "100");
+        context.put(QueueManagingVirtualHost.SHORT_STRING_CACHE_MAXIMUM_SIZE, "2000");
+        final AbstractVirtualHost host = createOpenVirtualHost(context);
+
+        assertEquals("Unexpected short string cache capacity", 2048, host.getShortStringCache().getCapacity());
+        host.close();
+    }
+
+    private AbstractVirtualHost createOpenVirtualHost(final Map<String, String> context)
+    {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(AbstractVirtualHost.NAME, getTestName());
+        attributes.put(AbstractVirtualHost.CONTEXT, context);
+        final MessageStore store = mock(MessageStore.class);
+        when(store.newMessageStoreReader()).thenReturn(mock(MessageStore.MessageStoreReader.class));
+
+        final AbstractVirtualHost host = new AbstractVirtualHost(attributes, _node)
+        {
+            @Override
+            protected MessageStore createMessageStore()
+            {
+                return store;
+            }
+        };
+        host.open();
+        return host;
+    }
+
     private void assertActionProducesLogMessage(final Runnable action, final String loggerName,
                                                 final Level logLevel, final String message) throws Exception
     {
@@ -21,18 +21,21 @@ package org.apache.qpid.server.security.access.config;
 import java.net.InetAddress;
 import java.security.Principal;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 import javax.security.auth.Subject;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.primitives.Ints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,14 +48,24 @@ import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
 
 /**
  * Models the rule configuration for the access control plugin.
+ *
+ * On construction the rules are compiled into an index keyed by operation and object type. Within each entry
+ * rules constraining the object name to an exact value are further indexed by that name, so that a check only
+ * considers the rules which could possibly match. The set of rules relevant to a subject's principals is computed
+ * once per subject and cached; as a new rule set is created whenever the ACL is reloaded, the cache never outlives
+ * the rules it was computed from.
  */
 public class RuleSet implements EventLoggerProvider
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(RuleSet.class);
+    private static final int[] NO_RULES = new int[0];
 
     private final List<Rule> _rules;
-    private final Map<Subject, Map<LegacyOperation, Map<ObjectType, List<Rule>>>> _cache =
-                        Collections.synchronizedMap(new WeakHashMap<Subject, Map<LegacyOperation, Map<ObjectType, List<Rule>>>>());
+    private final Rule[] _ruleArray;
+    private final BitSet _ownerRules = new BitSet();
+    private final IndexedRules[][] _index;
+    private final LoadingCache<Subject, BitSet> _relevantRulesCache =
+            CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(this::getRelevantRules));
 
     private final EventLoggerProvider _eventLogger;
     private Result _defaultResult = Result.DENIED;
@@ -63,7 +76,16 @@ public class RuleSet implements EventLoggerProvider
     {
         _eventLogger = eventLogger;
         _rules = new ArrayList<>(rules);
+        _ruleArray = _rules.toArray(new Rule[_rules.size()]);
         _defaultResult = defaultResult;
+        for (int i = 0; i < _ruleArray.length; i++)
+        {
+            if (_ruleArray[i].getIdentity().equalsIgnoreCase(Rule.OWNER))
+            {
+                _ownerRules.set(i);
+            }
+        }
+        _index = compileIndex();
     }
 
     int getRuleCount()
@@ -71,55 +93,50 @@ public class RuleSet implements EventLoggerProvider
         return _rules.size();
     }
 
-    /**
-     * Filtered rules list based on a subject and operation.
-     *
-     * Allows only enabled rules with identity equal to all, the same, or a group with identity as a member,
-     * and operation is either all or the same operation.
-     */
-    private List<Rule> getRules(final Subject subject, final LegacyOperation operation, final ObjectType objectType)
+    private IndexedRules[][] compileIndex()
     {
-        final Map<ObjectType, List<Rule>> objects = getObjectToRuleCache(subject, operation);
-
-        // Lookup object type rules for the operation
-        if (!objects.containsKey(objectType))
+        final IndexedRules[][] index = new IndexedRules[LegacyOperation.values().length][ObjectType.values().length];
+        for (LegacyOperation operation : LegacyOperation.values())
         {
-            final Set<Principal> principals = subject.getPrincipals();
-            boolean controlled = false;
-            List<Rule> filtered = new LinkedList<>();
-            for (Rule rule : _rules)
+            for (ObjectType objectType : ObjectType.values())
             {
-                final Action ruleAction = rule.getAction();
-                if ((ruleAction.getOperation() == LegacyOperation.ALL || ruleAction.getOperation() == operation)
-                    && (ruleAction.getObjectType() == ObjectType.ALL || ruleAction.getObjectType() == objectType))
+                final List<Integer> selected = new ArrayList<>();
+                for (int i = 0; i < _ruleArray.length; i++)
                 {
-                    controlled = true;
-
-                    if (isRelevant(principals,rule))
+                    final Action ruleAction = _ruleArray[i].getAction();
+                    if ((ruleAction.getOperation() == LegacyOperation.ALL || ruleAction.getOperation() == operation)
+                        && (ruleAction.getObjectType() == ObjectType.ALL || ruleAction.getObjectType() == objectType))
                     {
-                        filtered.add(rule);
+                        selected.add(i);
                     }
                 }
+
+                // leave the entry null if there are no rules at all for this operation and object type
+                if (!selected.isEmpty())
+                {
+                    index[operation.ordinal()][objectType.ordinal()] = new IndexedRules(selected);
+                }
             }
+        }
+        return index;
+    }
 
-            // Return null if there are no rules at all for this operation and object type
-            if (filtered.isEmpty() && !controlled)
+    /**
+     * Identifies the rules whose identity is all, owner, the subject's user or one of its groups.
+     */
+    private BitSet getRelevantRules(final Subject subject)
+    {
+        final Set<Principal> principals = subject.getPrincipals();
+        final BitSet relevant = new BitSet(_ruleArray.length);
+        for (int i = 0; i < _ruleArray.length; i++)
+        {
+            if (isRelevant(principals, _ruleArray[i]))
             {
-                filtered = null;
+                relevant.set(i);
             }
-
-            // Save the rules we selected
-            objects.put(objectType, filtered == null ? null : Collections.unmodifiableList(filtered));
-
-            LOGGER.debug("Cached {} RulesList: {}", objectType, filtered);
         }
-
-        // Return the cached rules
-        List<Rule> rules = objects.get(objectType);
-
-        LOGGER.debug("Returning RuleList: {}", rules);
-
-        return rules;
+        LOGGER.debug("Cached relevant rules for subject {}: {}", subject, relevant);
+        return relevant;
     }
 
     /**
@@ -147,8 +164,8 @@ public class RuleSet implements EventLoggerProvider
 
         LOGGER.debug("Checking action: {}", action);
 
-        // get the list of rules relevant for this request
-        List<Rule> rules = getRules(subject, operation, objectType);
+        // get the rules relevant for this request
+        final IndexedRules rules = _index[operation.ordinal()][objectType.ordinal()];
         if (rules == null)
         {
 
@@ -157,33 +174,33 @@ public class RuleSet implements EventLoggerProvider
             return getDefault();
         }
 
-        final boolean ownerRules = rules.stream()
-                                        .anyMatch(rule -> rule.getIdentity().equalsIgnoreCase(Rule.OWNER));
+        final BitSet relevant = _relevantRulesCache.getUnchecked(subject);
+        final boolean ownerRulesApply = !rules.hasOwnerRules() || ownerRulesApply(subject, operation, properties);
 
-        if (ownerRules)
+        // Walk the rules which may match the object name in their original order
+        final String name = properties == null ? null : properties.getName();
+        final int[] named = name == null ? NO_RULES : rules.getNamedRules(name);
+        final int[] unnamed = rules.getUnnamedRules();
+        int i = 0;
+        int j = 0;
+        while (i < named.length || j < unnamed.length)
         {
-            rules = new LinkedList<>(rules);
-
-            if (operation == LegacyOperation.CREATE)
+            final int ruleIndex;
+            if (j == unnamed.length || (i < named.length && named[i] < unnamed[j]))
             {
-                rules.removeIf(rule -> rule.getIdentity().equalsIgnoreCase(Rule.OWNER));
+                ruleIndex = named[i++];
             }
             else
             {
-                // Discard OWNER rules if the object wasn't created by the subject
-                final String objectCreator = properties.get(ObjectProperties.Property.CREATED_BY);
-                final Principal principal =
-                        AuthenticatedPrincipal.getOptionalAuthenticatedPrincipalFromSubject(subject);
-                if (principal == null || !principal.getName().equalsIgnoreCase(objectCreator))
-                {
-                    rules.removeIf(rule -> rule.getIdentity().equalsIgnoreCase(Rule.OWNER));
-                }
+                ruleIndex = unnamed[j++];
             }
-        }
 
-        // Iterate through a filtered set of rules dealing with this identity and operation
-        for (Rule rule : rules)
-        {
+            if (!relevant.get(ruleIndex) || (!ownerRulesApply && _ownerRules.get(ruleIndex)))
+            {
+                continue;
+            }
+
+            final Rule rule = _ruleArray[ruleIndex];
             LOGGER.debug("Checking against rule: {}", rule);
 
             if (action.matches(rule.getAclAction(), addressOfClient))
@@ -257,24 +274,20 @@ public class RuleSet implements EventLoggerProvider
         return false;
     }
 
-    private Map<ObjectType, List<Rule>> getObjectToRuleCache(final Subject subject, final LegacyOperation operation)
+    /**
+     * OWNER rules never apply to creation, and otherwise only apply if the object was created by the subject.
+     */
+    private boolean ownerRulesApply(final Subject subject,
+                                    final LegacyOperation operation,
+                                    final ObjectProperties properties)
     {
-        // Lookup identity in cache and create empty operation map if required
-        Map<LegacyOperation, Map<ObjectType, List<Rule>>> operations = _cache.get(subject);
-        if (operations == null)
+        if (operation == LegacyOperation.CREATE)
         {
-            operations = Collections.synchronizedMap(new EnumMap<LegacyOperation, Map<ObjectType, List<Rule>>>(LegacyOperation.class));
-            _cache.put(subject, operations);
+            return false;
         }
-
-        // Lookup operation and create empty object type map if required
-        Map<ObjectType, List<Rule>> objects = operations.get(operation);
-        if (objects == null)
-        {
-            objects = Collections.synchronizedMap(new EnumMap<ObjectType, List<Rule>>(ObjectType.class));
-            operations.put(operation, objects);
-        }
-        return objects;
+        final String objectCreator = properties.get(ObjectProperties.Property.CREATED_BY);
+        final Principal principal = AuthenticatedPrincipal.getOptionalAuthenticatedPrincipalFromSubject(subject);
+        return principal != null && principal.getName().equalsIgnoreCase(objectCreator);
     }
 
     @Override
@@ -282,4 +295,75 @@ public class RuleSet implements EventLoggerProvider
     {
         return _eventLogger.getEventLogger();
     }
+
+    /**
+     * The rules selected for an operation and object type, held as indexes into the rule list. Rules requiring
+     * an exact object name are grouped by that name; all others (no name, wildcard or prefix) are always
+     * candidates. Both arrays are in ascending order so that the rule precedence can be preserved.
+     */
+    private final class IndexedRules
+    {
+        private final int[] _unnamedRules;
+        private final Map<String, int[]> _namedRules;
+        private final boolean _hasOwnerRules;
+
+        private IndexedRules(final List<Integer> ruleIndexes)
+        {
+            final List<Integer> unnamed = new ArrayList<>();
+            final Map<String, List<Integer>> named = new HashMap<>();
+            boolean hasOwnerRules = false;
+            for (Integer ruleIndex : ruleIndexes)
+            {
+                hasOwnerRules |= _ownerRules.get(ruleIndex);
+                final String exactName = getExactName(_ruleArray[ruleIndex]);
+                if (exactName == null)
+                {
+                    unnamed.add(ruleIndex);
+                }
+                else
+                {
+                    named.computeIfAbsent(exactName, n -> new ArrayList<>()).add(ruleIndex);
+                }
+            }
+
+            _unnamedRules = Ints.toArray(unnamed);
+            if (named.isEmpty())
+            {
+                _namedRules = Collections.emptyMap();
+            }
+            else
+            {
+                _namedRules = new HashMap<>();
+                named.forEach((name, indexes) -> _namedRules.put(name, Ints.toArray(indexes)));
+            }
+            _hasOwnerRules = hasOwnerRules;
+        }
+
+        private String getExactName(final Rule rule)
+        {
+            final ObjectProperties properties = rule.getAction().getProperties();
+            final String name = properties == null ? null : properties.getName();
+            if (name == null || name.isEmpty() || name.endsWith(ObjectProperties.WILD_CARD))
+            {
+                return null;
+            }
+            return name;
+        }
+
+        int[] getUnnamedRules()
+        {
+            return _unnamedRules;
+        }
+
+        int[] getNamedRules(final String name)
+        {
+            final int[] rules = _namedRules.get(name);
+            return rules == null ? NO_RULES : rules;
+        }
+
+        boolean hasOwnerRules()
+        {
+            return _hasOwnerRules;
+        }
+    }
 }
@@ -657,4 +657,40 @@ public class RuleSetTest extends UnitTestBase
 
     }
 
+    @Test
+    public void testNamedRulesInterleavedWithWildcardRulesRetainOrder()
+    {
+        _ruleSetCreator.addRule(1, TEST_USER, RuleOutcome.DENY, LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("queue1"));
+        _ruleSetCreator.addRule(2, TEST_USER, RuleOutcome.ALLOW, LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("queue*"));
+        _ruleSetCreator.addRule(3, TEST_USER, RuleOutcome.DENY, LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("queue2"));
+        _ruleSetCreator.addRule(4, TEST_USER, RuleOutcome.ALLOW, LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("other"));
+        RuleSet ruleSet = createRuleSet();
+        assertEquals((long) 4, (long) ruleSet.getRuleCount());
+
+        assertEquals(Result.DENIED,
+                     ruleSet.check(_testSubject, LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("queue1")));
+        assertEquals(Result.ALLOWED,
+                     ruleSet.check(_testSubject, LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("queue2")));
+        assertEquals(Result.ALLOWED,
+                     ruleSet.check(_testSubject, LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("other")));
+        assertEquals(Result.DEFER,
+                     ruleSet.check(_testSubject, LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("another")));
+        assertEquals(Result.DEFER,
+                     ruleSet.check(_testSubject, LegacyOperation.CONSUME, ObjectType.QUEUE, ObjectProperties.EMPTY));
+    }
+
+    @Test
+    public void testNamedRulesOnlyApplyToRelevantSubjects()
+    {
+        _ruleSetCreator.addRule(1, "group", RuleOutcome.ALLOW, LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("queue1"));
+        _ruleSetCreator.addRule(2, Rule.ALL, RuleOutcome.DENY, LegacyOperation.CONSUME, ObjectType.QUEUE, ObjectProperties.EMPTY);
+        RuleSet ruleSet = createRuleSet();
+
+        assertEquals(Result.ALLOWED,
+                     ruleSet.check(TestPrincipalUtils.createTestSubject(TEST_USER, "group"), LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("queue1")));
+        assertEquals(Result.DENIED,
+                     ruleSet.check(_testSubject, LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("queue1")));
+        assertEquals(Result.DENIED,
+                     ruleSet.check(TestPrincipalUtils.createTestSubject(TEST_USER, "group"), LegacyOperation.CONSUME, ObjectType.QUEUE, new ObjectProperties("queue2")));
+    }
 }
@@ -61,7 +61,7 @@ public class ServerAssembler
     private final Method[] _incompleteMethodArray = new Method[ARRAY_SIZE + 1];
     private final Map<Integer, Method> _incompleteMethodMap = new HashMap<>();
 
-    private final Map<Integer,List<ServerFrame>> _segments;
+    private final Map<Integer,List<QpidByteBuffer>> _segments;
 
     public ServerAssembler(ServerConnection connection)
     {
@@ -151,12 +151,12 @@ public class ServerAssembler
         return (frame.getTrack() + 1) * frame.getChannel();
     }
 
-    private List<ServerFrame> getSegment(ServerFrame frame)
+    private List<QpidByteBuffer> getSegment(ServerFrame frame)
     {
         return _segments.get(segmentKey(frame));
     }
 
-    private void setSegment(ServerFrame frame, List<ServerFrame> segment)
+    private void setSegment(ServerFrame frame, List<QpidByteBuffer> segment)
     {
         int key = segmentKey(frame);
         if (_segments.containsKey(key))
@@ -206,27 +206,24 @@ public class ServerAssembler
         }
         else
         {
-            List<ServerFrame> frames;
+            // the frame payloads are retained as received and the segment is presented as a composite view over
+            // them, so assembling a large message does not copy its content
+            List<QpidByteBuffer> frameBuffers;
             if (frame.isFirstFrame())
             {
-                frames = new ArrayList<>();
-                setSegment(frame, frames);
+                frameBuffers = new ArrayList<>();
+                setSegment(frame, frameBuffers);
             }
             else
             {
-                frames = getSegment(frame);
+                frameBuffers = getSegment(frame);
             }
 
-            frames.add(frame);
+            frameBuffers.add(frame.getBody());
 
             if (frame.isLastFrame())
             {
                 clearSegment(frame);
-                List<QpidByteBuffer> frameBuffers = new ArrayList<>(frames.size());
-                for (ServerFrame f : frames)
-                {
-                    frameBuffers.add(f.getBody());
-                }
                 QpidByteBuffer combined = QpidByteBuffer.concatenate(frameBuffers);
                 for (QpidByteBuffer buffer : frameBuffers)
                 {
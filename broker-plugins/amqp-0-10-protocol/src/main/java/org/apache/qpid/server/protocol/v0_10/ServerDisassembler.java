@@ -90,17 +90,21 @@ public final class ServerDisassembler implements ProtocolEventSender, ProtocolDe
         }
     }
 
-    private void frame(byte flags, byte type, byte track, int channel, int size, QpidByteBuffer buffer)
+    private void frame(QpidByteBuffer headers, byte flags, byte type, byte track, int channel, int size,
+                       QpidByteBuffer buffer)
     {
-        try (QpidByteBuffer data = QpidByteBuffer.allocateDirect(HEADER_SIZE))
+        final int offset = headers.position();
+        headers.put(offset, flags);
+        headers.put(offset + 1, type);
+        headers.putShort(offset + 2, (short) (size + HEADER_SIZE));
+        headers.put(offset + 4, (byte) 0);
+        headers.put(offset + 5, track);
+        headers.putShort(offset + 6, (short) channel);
+        headers.putInt(offset + 8, 0);
+        try (QpidByteBuffer header = headers.view(0, HEADER_SIZE))
         {
-            data.put(0, flags);
-            data.put(1, type);
-            data.putShort(2, (short) (size + HEADER_SIZE));
-            data.put(4, (byte) 0);
-            data.put(5, track);
-            data.putShort(6, (short) channel);
-            _sender.send(data);
+            _sender.send(header);
+            headers.position(offset + HEADER_SIZE);
         }
 
         if(size > 0)
@@ -120,28 +124,34 @@ public final class ServerDisassembler implements ProtocolEventSender, ProtocolDe
         byte track = event.getEncodedTrack() == Frame.L4 ? (byte) 1 : (byte) 0;
 
         int remaining = buffer.remaining();
-        boolean first = true;
-        while (true)
+        // the headers of all the frames of the segment share a single buffer; the payload of each frame is sent as
+        // a view onto the segment buffer, so the segment is written with a gathering write without being copied
+        int frameCount = remaining == 0 ? 1 : (remaining + _maxPayload - 1) / _maxPayload;
+        try (QpidByteBuffer headers = QpidByteBuffer.allocateDirect(frameCount * HEADER_SIZE))
         {
-            int size = min(_maxPayload, remaining);
-            remaining -= size;
-
-            byte newflags = flags;
-            if (first)
-            {
-                newflags |= FIRST_FRAME;
-                first = false;
-            }
-            if (remaining == 0)
+            boolean first = true;
+            while (true)
             {
-                newflags |= LAST_FRAME;
-            }
+                int size = min(_maxPayload, remaining);
+                remaining -= size;
+
+                byte newflags = flags;
+                if (first)
+                {
+                    newflags |= FIRST_FRAME;
+                    first = false;
+                }
+                if (remaining == 0)
+                {
+                    newflags |= LAST_FRAME;
+                }
 
-            frame(newflags, typeb, track, event.getChannel(), size, buffer);
+                frame(headers, newflags, typeb, track, event.getChannel(), size, buffer);
 
-            if (remaining == 0)
-            {
-                break;
+                if (remaining == 0)
+                {
+                    break;
+                }
             }
         }
     }
@@ -944,7 +944,7 @@ public class ServerSession extends SessionInvoker
                           final boolean immediate,
                           final long currentTime)
     {
-        _modelObject.getPublishAuthCache().authorisePublish(destination, routingKey, immediate, currentTime);
+        _modelObject.authorisePublish(destination, routingKey, immediate, currentTime);
     }
 
     protected boolean isFull(int id)
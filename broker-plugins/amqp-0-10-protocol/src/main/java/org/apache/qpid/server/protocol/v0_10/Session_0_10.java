@@ -28,7 +28,6 @@ import javax.security.auth.Subject;
 import org.apache.qpid.server.logging.LogSubject;
 import org.apache.qpid.server.model.Connection;
 import org.apache.qpid.server.model.Queue;
-import org.apache.qpid.server.protocol.PublishAuthorisationCache;
 import org.apache.qpid.server.session.AbstractAMQPSession;
 import org.apache.qpid.server.util.Action;
 
@@ -139,11 +138,6 @@ public class Session_0_10 extends AbstractAMQPSession<Session_0_10, ConsumerTarg
         return _accessControllerContext;
     }
 
-    PublishAuthorisationCache getPublishAuthCache()
-    {
-        return _publishAuthCache;
-    }
-
     List<Action<? super Session_0_10>> getTaskList()
     {
         return _taskList;
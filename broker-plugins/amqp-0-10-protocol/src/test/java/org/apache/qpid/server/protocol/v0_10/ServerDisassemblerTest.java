@@ -0,0 +1,136 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v0_10;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v0_10.transport.Header;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageAcceptMode;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageAcquireMode;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageTransfer;
+import org.apache.qpid.server.protocol.v0_10.transport.SegmentType;
+import org.apache.qpid.server.transport.ByteBufferSender;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ServerDisassemblerTest extends UnitTestBase
+{
+    private static final int MAX_PAYLOAD = 8;
+
+    @Test
+    public void testBodyFragmentedIntoFrames()
+    {
+        final CapturingSender sender = new CapturingSender();
+        final ServerDisassembler disassembler = new ServerDisassembler(sender, ServerFrame.HEADER_SIZE + MAX_PAYLOAD);
+
+        final byte[] content = new byte[2 * MAX_PAYLOAD + 4];
+        for (int i = 0; i < content.length; i++)
+        {
+            content[i] = (byte) i;
+        }
+
+        try (QpidByteBuffer body = QpidByteBuffer.wrap(content))
+        {
+            final MessageTransfer transfer = new MessageTransfer("destination",
+                                                                 MessageAcceptMode.NONE,
+                                                                 MessageAcquireMode.PRE_ACQUIRED,
+                                                                 new Header(null, null, null),
+                                                                 body);
+            disassembler.send(transfer);
+            transfer.dispose();
+        }
+        finally
+        {
+            disassembler.closed();
+        }
+
+        final ByteBuffer stream = ByteBuffer.wrap(sender.getBytes());
+        final List<Byte> bodyFrameFlags = new ArrayList<>();
+        final ByteArrayOutputStream bodyContent = new ByteArrayOutputStream();
+        while (stream.hasRemaining())
+        {
+            final byte flags = stream.get();
+            final byte type = stream.get();
+            final int frameSize = stream.getShort() & 0xFFFF;
+            assertEquals("Unexpected reserved byte", 0, stream.get());
+            stream.get();
+            stream.getShort();
+            assertEquals("Unexpected reserved bytes", 0, stream.getInt());
+
+            final byte[] payload = new byte[frameSize - ServerFrame.HEADER_SIZE];
+            stream.get(payload);
+            if (type == SegmentType.BODY.getValue())
+            {
+                bodyFrameFlags.add(flags);
+                bodyContent.write(payload, 0, payload.length);
+            }
+        }
+
+        assertEquals("Unexpected number of body frames", 3, bodyFrameFlags.size());
+        assertEquals(ServerFrame.LAST_SEG | ServerFrame.FIRST_FRAME, (int) bodyFrameFlags.get(0));
+        assertEquals(ServerFrame.LAST_SEG, (int) bodyFrameFlags.get(1));
+        assertEquals(ServerFrame.LAST_SEG | ServerFrame.LAST_FRAME, (int) bodyFrameFlags.get(2));
+        assertArrayEquals("Unexpected body content", content, bodyContent.toByteArray());
+    }
+
+    private static class CapturingSender implements ByteBufferSender
+    {
+        private final ByteArrayOutputStream _output = new ByteArrayOutputStream();
+
+        @Override
+        public boolean isDirectBufferPreferred()
+        {
+            return true;
+        }
+
+        @Override
+        public void send(final QpidByteBuffer msg)
+        {
+            final byte[] data = new byte[msg.remaining()];
+            msg.get(data);
+            _output.write(data, 0, data.length);
+        }
+
+        @Override
+        public void flush()
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+        byte[] getBytes()
+        {
+            return _output.toByteArray();
+        }
+    }
+}
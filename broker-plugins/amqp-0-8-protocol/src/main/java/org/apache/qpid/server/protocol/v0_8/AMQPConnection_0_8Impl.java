@@ -100,6 +100,9 @@ public class AMQPConnection_0_8Impl
 
     private static final String BROKER_DEBUG_BINARY_DATA_LENGTH = "broker.debug.binaryDataLength";
     private static final int DEFAULT_DEBUG_BINARY_DATA_LENGTH = 80;
+    /** frames up to this size are copied into the frame batch, larger frames are cheaper to send uncopied */
+    private static final int MAX_BATCHED_FRAME_SIZE = 4096;
+    private static final int FRAME_BATCH_CAPACITY = 65536;
 
     private final AtomicBoolean _stateChanged = new AtomicBoolean();
     private final AtomicReference<Action<ProtocolEngine>> _workListener = new AtomicReference<>();
@@ -139,6 +142,8 @@ public class AMQPConnection_0_8Impl
     private final ByteBufferSender _sender;
 
     private volatile boolean _deferFlush;
+    /** Guarded by this; small frames written whilst flushing is deferred, sent as a single buffer */
+    private QpidByteBuffer _frameBatch;
     /** Guarded by _channelAddRemoveLock */
     private boolean _blocking;
 
@@ -351,8 +356,24 @@ public class AMQPConnection_0_8Impl
             LOGGER.debug("SEND: " + frame);
         }
 
-        frame.writePayload(_sender);
-
+        final long size = frame.getSize();
+        if (_deferFlush && size <= MAX_BATCHED_FRAME_SIZE)
+        {
+            if (_frameBatch != null && _frameBatch.remaining() < size)
+            {
+                flushFrameBatch();
+            }
+            if (_frameBatch == null)
+            {
+                _frameBatch = QpidByteBuffer.allocate(_sender.isDirectBufferPreferred(), FRAME_BATCH_CAPACITY);
+            }
+            frame.writePayload(_frameBatch);
+        }
+        else
+        {
+            flushFrameBatch();
+            frame.writePayload(_sender);
+        }
 
         updateLastWriteTime();
 
@@ -362,6 +383,29 @@ public class AMQPConnection_0_8Impl
         }
     }
 
+    /**
+     * Sends the frames batched whilst flushing was deferred, so that they precede any frame written afterwards.
+     */
+    synchronized void flushFrameBatch()
+    {
+        if (_frameBatch != null)
+        {
+            _frameBatch.flip();
+            _sender.send(_frameBatch);
+            _frameBatch.dispose();
+            _frameBatch = null;
+        }
+    }
+
+    private synchronized void disposeFrameBatch()
+    {
+        if (_frameBatch != null)
+        {
+            _frameBatch.dispose();
+            _frameBatch = null;
+        }
+    }
+
     public AMQChannel getChannel(int channelId)
     {
         final AMQChannel channel = _channelMap.get(channelId);
@@ -670,6 +714,7 @@ public class AMQPConnection_0_8Impl
         }
         finally
         {
+            disposeFrameBatch();
             markTransportClosed();
         }
     }
@@ -858,6 +903,10 @@ public class AMQPConnection_0_8Impl
     public void setDeferFlush(boolean deferFlush)
     {
         _deferFlush = deferFlush;
+        if (!deferFlush)
+        {
+            flushFrameBatch();
+        }
     }
 
     @Override
@@ -1480,7 +1529,10 @@ public class AMQPConnection_0_8Impl
                         {
                             _sessionIterator.remove();
 
-                            if (session.processPending())
+                            final boolean hasMoreWork = session.processPending();
+                            // the deliveries of the session's work are sent together at the end of it
+                            flushFrameBatch();
+                            if (hasMoreWork)
                             {
                                 _sessionsWithWork.add(session);
                             }
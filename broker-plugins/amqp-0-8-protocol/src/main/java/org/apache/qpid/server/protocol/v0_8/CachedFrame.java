@@ -36,7 +36,7 @@ class CachedFrame extends AMQDataBlock
         _toString = original.toString();
         _size = original.getSize();
         _buffer = QpidByteBuffer.allocate(true, (int)_size);
-        original.writePayload(new BufferWriterSender(_buffer));
+        original.writePayload(_buffer);
         _buffer.flip();
     }
 
@@ -58,46 +58,19 @@ class CachedFrame extends AMQDataBlock
     }
 
     @Override
-    public String toString()
+    public long writePayload(final QpidByteBuffer buffer)
     {
-        return _toString;
-    }
-
-    private static class BufferWriterSender implements ByteBufferSender
-    {
-        private final QpidByteBuffer _buffer;
-
-        BufferWriterSender(final QpidByteBuffer buffer)
-        {
-            _buffer = buffer;
-        }
-
-        @Override
-        public boolean isDirectBufferPreferred()
-        {
-            return true;
-        }
-
-        @Override
-        public void send(final QpidByteBuffer msg)
-        {
-            try (QpidByteBuffer dup = msg.duplicate())
-            {
-                _buffer.put(dup);
-            }
-        }
-
-        @Override
-        public void flush()
+        try (QpidByteBuffer dup = _buffer.duplicate())
         {
-
+            buffer.put(dup);
         }
+        return _size;
+    }
 
-        @Override
-        public void close()
-        {
-
-        }
+    @Override
+    public String toString()
+    {
+        return _toString;
     }
 
     public void dispose()
@@ -21,6 +21,9 @@
 package org.apache.qpid.server.protocol.v0_8;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +39,7 @@ import org.apache.qpid.server.protocol.v0_8.transport.AMQMethodBody;
 import org.apache.qpid.server.protocol.v0_8.transport.AMQVersionAwareProtocolSession;
 import org.apache.qpid.server.protocol.v0_8.transport.BasicCancelOkBody;
 import org.apache.qpid.server.protocol.v0_8.transport.BasicContentHeaderProperties;
+import org.apache.qpid.server.protocol.v0_8.transport.BasicDeliverBody;
 import org.apache.qpid.server.protocol.v0_8.transport.ContentHeaderBody;
 import org.apache.qpid.server.protocol.v0_8.transport.MessagePublishInfo;
 import org.apache.qpid.server.transport.ByteBufferSender;
@@ -44,11 +48,27 @@ import org.apache.qpid.server.util.GZIPUtils;
 public class ProtocolOutputConverterImpl implements ProtocolOutputConverter
 {
     private static final int BASIC_CLASS_ID = 60;
+    private static final int MAX_CACHED_DELIVER_PREFIXES = 256;
     private final AMQPConnection_0_8Impl _connection;
     private static final AMQShortString GZIP_ENCODING = AMQShortString.valueOf(GZIPUtils.GZIP_CONTENT_ENCODING);
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProtocolOutputConverterImpl.class);
 
+    /** pre-encoded class id, method id and consumer tag of basic.deliver, by consumer tag */
+    private final Map<AMQShortString, byte[]> _deliverPrefixes =
+            new LinkedHashMap<AMQShortString, byte[]>(16, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<AMQShortString, byte[]> eldest)
+                {
+                    return size() > MAX_CACHED_DELIVER_PREFIXES;
+                }
+            };
+    /** pre-encoded exchange and routing key of the last basic.deliver, reused whilst a message fans out */
+    private AMQShortString _lastExchangeName;
+    private AMQShortString _lastRoutingKey;
+    private byte[] _lastDeliverSuffix;
+
     public ProtocolOutputConverterImpl(AMQPConnection_0_8Impl connection)
     {
         _connection = connection;
@@ -239,6 +259,16 @@ public class ProtocolOutputConverterImpl implements ProtocolOutputConverter
             return _length;
         }
 
+        @Override
+        public long writePayload(final QpidByteBuffer buffer)
+        {
+            try (QpidByteBuffer duplicate = _content.duplicate())
+            {
+                buffer.put(duplicate);
+            }
+            return _length;
+        }
+
         @Override
         public void handle(int channelId, AMQVersionAwareProtocolSession amqProtocolSession) throws QpidException
         {
@@ -265,47 +295,75 @@ public class ProtocolOutputConverterImpl implements ProtocolOutputConverter
     }
 
 
-    private AMQBody createEncodedDeliverBody(AMQMessage message,
-                                             boolean isRedelivered,
-                                             final long deliveryTag,
-                                             final AMQShortString consumerTag)
+    AMQBody createEncodedDeliverBody(AMQMessage message,
+                                     boolean isRedelivered,
+                                     final long deliveryTag,
+                                     final AMQShortString consumerTag)
     {
-
-        final AMQShortString exchangeName;
-        final AMQShortString routingKey;
-
         final MessagePublishInfo pb = message.getMessagePublishInfo();
-        exchangeName = pb.getExchange();
-        routingKey = pb.getRoutingKey();
+        return new EncodedDeliveryBody(getDeliverPrefix(consumerTag),
+                                       deliveryTag,
+                                       isRedelivered,
+                                       getDeliverSuffix(pb.getExchange(), pb.getRoutingKey()));
+    }
 
-        return new EncodedDeliveryBody(deliveryTag, routingKey, exchangeName, consumerTag, isRedelivered);
+    private synchronized byte[] getDeliverPrefix(final AMQShortString consumerTag)
+    {
+        byte[] prefix = _deliverPrefixes.get(consumerTag);
+        if (prefix == null)
+        {
+            prefix = new byte[4 + EncodingUtils.encodedShortStringLength(consumerTag)];
+            try (QpidByteBuffer buffer = QpidByteBuffer.wrap(prefix))
+            {
+                buffer.putUnsignedShort(BasicDeliverBody.CLASS_ID);
+                buffer.putUnsignedShort(BasicDeliverBody.METHOD_ID);
+                EncodingUtils.writeShortStringBytes(buffer, consumerTag);
+            }
+            _deliverPrefixes.put(consumerTag, prefix);
+        }
+        return prefix;
     }
 
-    private class EncodedDeliveryBody implements AMQBody
+    private synchronized byte[] getDeliverSuffix(final AMQShortString exchangeName, final AMQShortString routingKey)
     {
+        if (_lastDeliverSuffix == null
+            || !Objects.equals(exchangeName, _lastExchangeName)
+            || !Objects.equals(routingKey, _lastRoutingKey))
+        {
+            final byte[] suffix = new byte[EncodingUtils.encodedShortStringLength(exchangeName)
+                                           + EncodingUtils.encodedShortStringLength(routingKey)];
+            try (QpidByteBuffer buffer = QpidByteBuffer.wrap(suffix))
+            {
+                EncodingUtils.writeShortStringBytes(buffer, exchangeName);
+                EncodingUtils.writeShortStringBytes(buffer, routingKey);
+            }
+            _lastExchangeName = exchangeName;
+            _lastRoutingKey = routingKey;
+            _lastDeliverSuffix = suffix;
+        }
+        return _lastDeliverSuffix;
+    }
+
+    /**
+     * A basic.deliver method body assembled from the pre-encoded method prefix (class id, method id and consumer tag)
+     * and suffix (exchange and routing key) around the delivery tag and redelivered flag.
+     */
+    private static class EncodedDeliveryBody implements AMQBody
+    {
+        private final byte[] _prefix;
         private final long _deliveryTag;
-        private final AMQShortString _routingKey;
-        private final AMQShortString _exchangeName;
-        private final AMQShortString _consumerTag;
         private final boolean _isRedelivered;
-        private AMQBody _underlyingBody;
+        private final byte[] _suffix;
 
-        private EncodedDeliveryBody(long deliveryTag, AMQShortString routingKey, AMQShortString exchangeName, AMQShortString consumerTag, boolean isRedelivered)
+        private EncodedDeliveryBody(final byte[] prefix,
+                                    final long deliveryTag,
+                                    final boolean isRedelivered,
+                                    final byte[] suffix)
         {
+            _prefix = prefix;
             _deliveryTag = deliveryTag;
-            _routingKey = routingKey;
-            _exchangeName = exchangeName;
-            _consumerTag = consumerTag;
             _isRedelivered = isRedelivered;
-        }
-
-        public AMQBody createAMQBody()
-        {
-            return _connection.getMethodRegistry().createBasicDeliverBody(_consumerTag,
-                                                                               _deliveryTag,
-                                                                               _isRedelivered,
-                                                                               _exchangeName,
-                                                                               _routingKey);
+            _suffix = suffix;
         }
 
         @Override
@@ -317,21 +375,29 @@ public class ProtocolOutputConverterImpl implements ProtocolOutputConverter
         @Override
         public int getSize()
         {
-            if(_underlyingBody == null)
-            {
-                _underlyingBody = createAMQBody();
-            }
-            return _underlyingBody.getSize();
+            return _prefix.length + 9 + _suffix.length;
         }
 
         @Override
         public long writePayload(ByteBufferSender sender)
         {
-            if(_underlyingBody == null)
+            try (QpidByteBuffer buffer = QpidByteBuffer.allocate(sender.isDirectBufferPreferred(), getSize()))
             {
-                _underlyingBody = createAMQBody();
+                writePayload(buffer);
+                buffer.flip();
+                sender.send(buffer);
             }
-            return _underlyingBody.writePayload(sender);
+            return getSize();
+        }
+
+        @Override
+        public long writePayload(final QpidByteBuffer buffer)
+        {
+            buffer.put(_prefix);
+            buffer.putLong(_deliveryTag);
+            buffer.put(_isRedelivered ? (byte) 1 : (byte) 0);
+            buffer.put(_suffix);
+            return getSize();
         }
 
         @Override
@@ -344,7 +410,8 @@ public class ProtocolOutputConverterImpl implements ProtocolOutputConverter
         @Override
         public String toString()
         {
-            return "[" + getClass().getSimpleName() + " underlyingBody: " + String.valueOf(_underlyingBody) + "]";
+            return "[" + getClass().getSimpleName() + " deliveryTag: " + _deliveryTag
+                   + ", redelivered: " + _isRedelivered + "]";
         }
     }
 
@@ -432,13 +499,32 @@ public class ProtocolOutputConverterImpl implements ProtocolOutputConverter
         @Override
         public long writePayload(final ByteBufferSender sender)
         {
-            long size = (new AMQFrame(_channel, _methodBody)).writePayload(sender);
-
-            size += (new AMQFrame(_channel, _headerBody)).writePayload(sender);
-
-            size += (new AMQFrame(_channel, _contentBody)).writePayload(sender);
+            // the method frame, the content header frame and the header of the first content frame are encoded
+            // into a single buffer; only the content itself is sent as a separate (uncopied) buffer
+            final int prefixSize = 2 * AMQFrame.getFrameOverhead()
+                                   + _methodBody.getSize()
+                                   + _headerBody.getSize()
+                                   + AMQFrame.getFrameHeaderSize();
+            try (QpidByteBuffer prefix = QpidByteBuffer.allocate(sender.isDirectBufferPreferred(), prefixSize))
+            {
+                writeFrame(prefix, _channel, _methodBody);
+                writeFrame(prefix, _channel, _headerBody);
+                AMQFrame.writeFrameHeader(prefix, _contentBody.getFrameType(), _channel, _contentBody.getSize());
+                prefix.flip();
+                sender.send(prefix);
+            }
+            _contentBody.writePayload(sender);
+            AMQFrame.sendFrameEnd(sender);
+            return getSize();
+        }
 
-            return size;
+        @Override
+        public long writePayload(final QpidByteBuffer buffer)
+        {
+            writeFrame(buffer, _channel, _methodBody);
+            writeFrame(buffer, _channel, _headerBody);
+            writeFrame(buffer, _channel, _contentBody);
+            return getSize();
         }
 
         @Override
@@ -481,9 +567,21 @@ public class ProtocolOutputConverterImpl implements ProtocolOutputConverter
         @Override
         public long writePayload(final ByteBufferSender sender)
         {
-            long size = (new AMQFrame(_channel, _methodBody)).writePayload(sender);
-            size += (new AMQFrame(_channel, _headerBody)).writePayload(sender);
-            return size;
+            try (QpidByteBuffer buffer = QpidByteBuffer.allocate(sender.isDirectBufferPreferred(), (int) getSize()))
+            {
+                writePayload(buffer);
+                buffer.flip();
+                sender.send(buffer);
+            }
+            return getSize();
+        }
+
+        @Override
+        public long writePayload(final QpidByteBuffer buffer)
+        {
+            writeFrame(buffer, _channel, _methodBody);
+            writeFrame(buffer, _channel, _headerBody);
+            return getSize();
         }
 
         @Override
@@ -498,6 +596,13 @@ public class ProtocolOutputConverterImpl implements ProtocolOutputConverter
         }
     }
 
+    private static void writeFrame(final QpidByteBuffer buffer, final int channel, final AMQBody body)
+    {
+        AMQFrame.writeFrameHeader(buffer, body.getFrameType(), channel, body.getSize());
+        body.writePayload(buffer);
+        buffer.put(AMQFrame.FRAME_END_BYTE);
+    }
+
     private static class ModifiedContentSource implements DisposableMessageContentSource
     {
         private final QpidByteBuffer _buffer;
@@ -21,6 +21,7 @@
 package org.apache.qpid.server.protocol.v0_8.transport;
 
 import org.apache.qpid.server.QpidException;
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.transport.ByteBufferSender;
 
 public interface AMQBody
@@ -36,4 +37,9 @@ public interface AMQBody
     void handle(final int channelId, final AMQVersionAwareProtocolSession amqProtocolSession) throws QpidException;
 
     long writePayload(ByteBufferSender sender);
+
+    /**
+     * Encodes the body into the buffer, which must have at least {@link #getSize()} bytes remaining.
+     */
+    long writePayload(QpidByteBuffer buffer);
 }
@@ -20,6 +20,7 @@
  */
 package org.apache.qpid.server.protocol.v0_8.transport;
 
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.transport.ByteBufferSender;
 
 
@@ -38,4 +39,48 @@ public abstract class AMQDataBlock implements EncodableAMQDataBlock
 
     public abstract long writePayload(ByteBufferSender sender);
 
+    /**
+     * Encodes the block into the buffer, which must have at least {@link #getSize()} bytes remaining.
+     */
+    public long writePayload(QpidByteBuffer buffer)
+    {
+        return writePayload(new BufferWriterSender(buffer));
+    }
+
+    private static class BufferWriterSender implements ByteBufferSender
+    {
+        private final QpidByteBuffer _buffer;
+
+        BufferWriterSender(final QpidByteBuffer buffer)
+        {
+            _buffer = buffer;
+        }
+
+        @Override
+        public boolean isDirectBufferPreferred()
+        {
+            return _buffer.isDirect();
+        }
+
+        @Override
+        public void send(final QpidByteBuffer msg)
+        {
+            try (QpidByteBuffer dup = msg.duplicate())
+            {
+                _buffer.put(dup);
+            }
+        }
+
+        @Override
+        public void flush()
+        {
+
+        }
+
+        @Override
+        public void close()
+        {
+
+        }
+    }
 }
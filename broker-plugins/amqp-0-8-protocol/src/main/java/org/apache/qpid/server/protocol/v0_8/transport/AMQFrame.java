@@ -48,6 +48,35 @@ public class AMQFrame extends AMQDataBlock implements EncodableAMQDataBlock
         return 1 + 2 + 4 + 1;
     }
 
+    public static int getFrameHeaderSize()
+    {
+        return HEADER_SIZE;
+    }
+
+    /**
+     * Writes the frame type, channel and body size which precede the body of a frame.
+     */
+    public static void writeFrameHeader(final QpidByteBuffer buffer,
+                                        final byte frameType,
+                                        final int channel,
+                                        final int bodySize)
+    {
+        buffer.put(frameType);
+        buffer.putUnsignedShort(channel);
+        buffer.putUnsignedInt((long) bodySize);
+    }
+
+    /**
+     * Sends the byte which terminates every frame, using a shared read-only buffer.
+     */
+    public static void sendFrameEnd(final ByteBufferSender sender)
+    {
+        try (QpidByteBuffer endFrame = FRAME_END_BYTE_BUFFER.duplicate())
+        {
+            sender.send(endFrame);
+        }
+    }
+
 
     private static final QpidByteBuffer FRAME_END_BYTE_BUFFER = QpidByteBuffer.allocateDirect(1);
     static
@@ -61,18 +90,22 @@ public class AMQFrame extends AMQDataBlock implements EncodableAMQDataBlock
     {
         try (QpidByteBuffer frameHeader = QpidByteBuffer.allocate(sender.isDirectBufferPreferred(), HEADER_SIZE))
         {
-            frameHeader.put(_bodyFrame.getFrameType());
-            frameHeader.putUnsignedShort(_channel);
-            frameHeader.putUnsignedInt((long) _bodyFrame.getSize());
+            writeFrameHeader(frameHeader, _bodyFrame.getFrameType(), _channel, _bodyFrame.getSize());
             frameHeader.flip();
             sender.send(frameHeader);
         }
         long size = 8 + _bodyFrame.writePayload(sender);
 
-        try (QpidByteBuffer endFrame = FRAME_END_BYTE_BUFFER.duplicate())
-        {
-            sender.send(endFrame);
-        }
+        sendFrameEnd(sender);
+        return size;
+    }
+
+    @Override
+    public long writePayload(final QpidByteBuffer buffer)
+    {
+        writeFrameHeader(buffer, _bodyFrame.getFrameType(), _channel, _bodyFrame.getSize());
+        long size = 8 + _bodyFrame.writePayload(buffer);
+        buffer.put(FRAME_END_BYTE);
         return size;
     }
 
@@ -82,15 +82,22 @@ public abstract class AMQMethodBodyImpl implements AMQMethodBody
         final int size = getSize();
         try (QpidByteBuffer buf = QpidByteBuffer.allocate(sender.isDirectBufferPreferred(), size))
         {
-            buf.putUnsignedShort(getClazz());
-            buf.putUnsignedShort(getMethod());
-            writeMethodPayload(buf);
+            writePayload(buf);
             buf.flip();
             sender.send(buf);
         }
         return size;
     }
 
+    @Override
+    public long writePayload(final QpidByteBuffer buffer)
+    {
+        buffer.putUnsignedShort(getClazz());
+        buffer.putUnsignedShort(getMethod());
+        writeMethodPayload(buffer);
+        return getSize();
+    }
+
     abstract protected void writeMethodPayload(QpidByteBuffer buffer);
 
 
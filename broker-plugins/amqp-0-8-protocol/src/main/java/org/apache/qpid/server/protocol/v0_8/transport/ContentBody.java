@@ -80,6 +80,23 @@ public class ContentBody implements AMQBody
         }
     }
 
+    @Override
+    public long writePayload(final QpidByteBuffer buffer)
+    {
+        if(_payload != null)
+        {
+            try (QpidByteBuffer duplicate = _payload.duplicate())
+            {
+                buffer.put(duplicate);
+            }
+            return _payload.remaining();
+        }
+        else
+        {
+            return 0l;
+        }
+    }
+
     public QpidByteBuffer getPayload()
     {
         return _payload;
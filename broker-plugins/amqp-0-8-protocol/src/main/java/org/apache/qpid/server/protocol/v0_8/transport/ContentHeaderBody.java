@@ -102,6 +102,7 @@ public class ContentHeaderBody implements AMQBody
         return HEADER_SIZE + _properties.writePropertyListPayload(sender);
     }
 
+    @Override
     public long writePayload(final QpidByteBuffer buf)
     {
         buf.putUnsignedShort(CLASS_ID);
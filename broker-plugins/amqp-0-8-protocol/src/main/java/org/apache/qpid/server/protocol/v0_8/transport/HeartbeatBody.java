@@ -65,6 +65,12 @@ public class HeartbeatBody implements AMQBody
         return 0l;
     }
 
+    @Override
+    public long writePayload(final QpidByteBuffer buffer)
+    {
+        return 0l;
+    }
+
     @Override
     public void handle(final int channelId, final AMQVersionAwareProtocolSession session)
             throws QpidException
@@ -20,6 +20,8 @@
  */
 package org.apache.qpid.server.protocol.v0_8;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -54,11 +56,13 @@ import org.apache.qpid.server.model.Broker;
 import org.apache.qpid.server.model.BrokerModel;
 import org.apache.qpid.server.model.Connection;
 import org.apache.qpid.server.model.Exchange;
+import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.model.Session;
 import org.apache.qpid.server.model.VirtualHost;
 import org.apache.qpid.server.model.port.AmqpPort;
 import org.apache.qpid.server.protocol.ErrorCodes;
 import org.apache.qpid.server.protocol.ProtocolVersion;
+import org.apache.qpid.server.protocol.PublishAuthorisationCache;
 import org.apache.qpid.server.protocol.v0_8.transport.BasicContentHeaderProperties;
 import org.apache.qpid.server.protocol.v0_8.transport.MethodRegistry;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
@@ -101,6 +105,9 @@ public class AMQChannelTest extends UnitTestBase
         when(_virtualHost.getContextValue(Boolean.class, Broker.BROKER_MSG_AUTH)).thenReturn(false);
         when(_virtualHost.getPrincipal()).thenReturn(mock(Principal.class));
         when(_virtualHost.getEventLogger()).thenReturn(mock(EventLogger.class));
+        when(_virtualHost.getPublishAuthorisationCache()).thenReturn(new PublishAuthorisationCache(Session.PRODUCER_AUTH_CACHE_TIMEOUT_DEFAULT,
+                                                                                                 Session.PRODUCER_AUTH_CACHE_SIZE_DEFAULT,
+                                                                                                 () -> 0L));
 
         _port = mock(AmqpPort.class);
         when(_port.getChildExecutor()).thenReturn(taskExecutor);
@@ -248,4 +255,23 @@ public class AMQChannelTest extends UnitTestBase
                                          eq(ROUTING_KEY.toString()),
                                          any(InstanceProperties.class));
     }
+
+    @Test
+    public void testProducerFlowBlockedTimeIncludesCurrentBlock() throws Exception
+    {
+        final AMQChannel channel = new AMQChannel(_amqConnection, 1, _messageStore);
+        final Queue<?> queue = mock(Queue.class);
+        assertEquals("Unexpected blocked time", 0L, channel.getProducerFlowBlockedTime());
+
+        channel.producerFlowBlocked(queue);
+        Thread.sleep(20L);
+        final long blockedTime = channel.getProducerFlowBlockedTime();
+        assertTrue("Blocked time should include the current block but was " + blockedTime, blockedTime >= 20L);
+
+        channel.producerFlowUnblocked(queue);
+        final long unblockedTime = channel.getProducerFlowBlockedTime();
+        assertTrue("Blocked time should not decrease on unblock", unblockedTime >= blockedTime);
+        Thread.sleep(20L);
+        assertEquals("Blocked time should not grow once unblocked", unblockedTime, channel.getProducerFlowBlockedTime());
+    }
 }
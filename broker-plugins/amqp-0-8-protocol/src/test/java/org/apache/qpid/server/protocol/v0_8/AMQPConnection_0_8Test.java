@@ -27,11 +27,14 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import javax.security.auth.Subject;
 
@@ -39,6 +42,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.configuration.updater.TaskExecutorImpl;
 import org.apache.qpid.server.logging.EventLogger;
 import org.apache.qpid.server.model.AuthenticationProvider;
@@ -56,6 +60,8 @@ import org.apache.qpid.server.model.VirtualHostNode;
 import org.apache.qpid.server.model.port.AmqpPort;
 import org.apache.qpid.server.properties.ConnectionStartProperties;
 import org.apache.qpid.server.protocol.ProtocolVersion;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQFrame;
+import org.apache.qpid.server.protocol.v0_8.transport.HeartbeatBody;
 import org.apache.qpid.server.protocol.v0_8.transport.ProtocolInitiation;
 import org.apache.qpid.server.security.SubjectCreator;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
@@ -252,4 +258,33 @@ public class AMQPConnection_0_8Test extends UnitTestBase
                           conn.isClosing());
     }
 
+    @Test
+    public void testFramesBatchedWhilstFlushIsDeferred()
+    {
+        final List<Integer> sentSizes = new ArrayList<>();
+        doAnswer(invocation ->
+                 {
+                     sentSizes.add(((QpidByteBuffer) invocation.getArgument(0)).remaining());
+                     return null;
+                 }).when(_sender).send(any(QpidByteBuffer.class));
+
+        AMQPConnection_0_8Impl
+                conn = new AMQPConnection_0_8Impl(_broker, _network, _port, _transport, _protocol, 0, _ticker);
+        conn.create();
+
+        final AMQFrame frame = HeartbeatBody.FRAME;
+        conn.setDeferFlush(true);
+        conn.writeFrame(frame);
+        conn.writeFrame(frame);
+        assertTrue("Frames should not be sent whilst flushing is deferred", sentSizes.isEmpty());
+
+        conn.setDeferFlush(false);
+        assertEquals("Batched frames should be sent as a single buffer",
+                     Collections.singletonList(2 * (int) frame.getSize()), sentSizes);
+
+        conn.writeFrame(frame);
+        assertEquals("Frame should be sent immediately when flushing is not deferred",
+                     (long) 2, (long) sentSizes.size());
+    }
+
 }
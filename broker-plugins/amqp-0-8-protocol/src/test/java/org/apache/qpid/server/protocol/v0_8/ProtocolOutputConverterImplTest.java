@@ -0,0 +1,228 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v0_8;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQBody;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQFrame;
+import org.apache.qpid.server.protocol.v0_8.transport.BasicContentHeaderProperties;
+import org.apache.qpid.server.protocol.v0_8.transport.BasicDeliverBody;
+import org.apache.qpid.server.protocol.v0_8.transport.ContentBody;
+import org.apache.qpid.server.protocol.v0_8.transport.ContentHeaderBody;
+import org.apache.qpid.server.protocol.v0_8.transport.MessagePublishInfo;
+import org.apache.qpid.server.transport.ByteBufferSender;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ProtocolOutputConverterImplTest extends UnitTestBase
+{
+    private static final int CHANNEL = 3;
+
+    @Test
+    public void testSmallCompositeBlockEncodesAsSeparateFrames()
+    {
+        final AMQBody methodBody = createDeliverBody();
+        final ContentHeaderBody headerBody = createContentHeaderBody(0);
+
+        final CapturingSender expected = new CapturingSender();
+        new AMQFrame(CHANNEL, methodBody).writePayload(expected);
+        new AMQFrame(CHANNEL, headerBody).writePayload(expected);
+
+        final CapturingSender actual = new CapturingSender();
+        final ProtocolOutputConverterImpl.SmallCompositeAMQBodyBlock block =
+                new ProtocolOutputConverterImpl.SmallCompositeAMQBodyBlock(CHANNEL, methodBody, headerBody);
+        final long written = block.writePayload(actual);
+
+        assertEquals(block.getSize(), written);
+        assertArrayEquals(expected.getBytes(), actual.getBytes());
+    }
+
+    @Test
+    public void testCompositeBlockEncodesAsSeparateFrames()
+    {
+        final byte[] content = "content".getBytes();
+        final AMQBody methodBody = createDeliverBody();
+        final ContentHeaderBody headerBody = createContentHeaderBody(content.length);
+
+        try (QpidByteBuffer contentBuffer = QpidByteBuffer.wrap(content))
+        {
+            final ContentBody contentBody = new ContentBody(contentBuffer);
+
+            final CapturingSender expected = new CapturingSender();
+            new AMQFrame(CHANNEL, methodBody).writePayload(expected);
+            new AMQFrame(CHANNEL, headerBody).writePayload(expected);
+            new AMQFrame(CHANNEL, contentBody).writePayload(expected);
+
+            final CapturingSender actual = new CapturingSender();
+            final ProtocolOutputConverterImpl.CompositeAMQBodyBlock block =
+                    new ProtocolOutputConverterImpl.CompositeAMQBodyBlock(CHANNEL, methodBody, headerBody, contentBody);
+            final long written = block.writePayload(actual);
+
+            assertEquals(block.getSize(), written);
+            assertArrayEquals(expected.getBytes(), actual.getBytes());
+            contentBody.dispose();
+        }
+    }
+
+    @Test
+    public void testEncodedDeliverBodyMatchesBasicDeliverBody()
+    {
+        final ProtocolOutputConverterImpl converter =
+                new ProtocolOutputConverterImpl(mock(AMQPConnection_0_8Impl.class));
+        final AMQShortString consumerTag = AMQShortString.valueOf("consumerTag");
+
+        for (int i = 0; i < 2; i++)
+        {
+            final boolean redelivered = i == 1;
+            final AMQBody encoded = converter.createEncodedDeliverBody(createMessage("amq.direct", "routingKey"),
+                                                                       redelivered,
+                                                                       i,
+                                                                       consumerTag);
+            final AMQBody expected = new BasicDeliverBody(consumerTag,
+                                                          i,
+                                                          redelivered,
+                                                          AMQShortString.valueOf("amq.direct"),
+                                                          AMQShortString.valueOf("routingKey"));
+            assertEquals(expected.getSize(), encoded.getSize());
+            assertArrayEquals(encode(new AMQFrame(CHANNEL, expected)), encode(new AMQFrame(CHANNEL, encoded)));
+        }
+
+        final AMQBody otherRoutingKey = converter.createEncodedDeliverBody(createMessage("amq.topic", "other"),
+                                                                           false,
+                                                                           2L,
+                                                                           consumerTag);
+        final AMQBody expected = new BasicDeliverBody(consumerTag,
+                                                      2L,
+                                                      false,
+                                                      AMQShortString.valueOf("amq.topic"),
+                                                      AMQShortString.valueOf("other"));
+        assertArrayEquals(encode(new AMQFrame(CHANNEL, expected)), encode(new AMQFrame(CHANNEL, otherRoutingKey)));
+    }
+
+    @Test
+    public void testCompositeBlockEncodesIntoBufferAsWhenSent()
+    {
+        final byte[] content = "content".getBytes();
+        try (QpidByteBuffer contentBuffer = QpidByteBuffer.wrap(content))
+        {
+            final ContentBody contentBody = new ContentBody(contentBuffer);
+            final ProtocolOutputConverterImpl.CompositeAMQBodyBlock block =
+                    new ProtocolOutputConverterImpl.CompositeAMQBodyBlock(CHANNEL,
+                                                                          createDeliverBody(),
+                                                                          createContentHeaderBody(content.length),
+                                                                          contentBody);
+
+            final CapturingSender sent = new CapturingSender();
+            block.writePayload(sent);
+
+            try (QpidByteBuffer buffer = QpidByteBuffer.allocate(false, (int) block.getSize()))
+            {
+                final long written = block.writePayload(buffer);
+                assertEquals(block.getSize(), written);
+                assertEquals(0, buffer.remaining());
+                buffer.flip();
+                final byte[] encoded = new byte[buffer.remaining()];
+                buffer.get(encoded);
+                assertArrayEquals(sent.getBytes(), encoded);
+            }
+            contentBody.dispose();
+        }
+    }
+
+    private byte[] encode(final AMQFrame frame)
+    {
+        final CapturingSender sender = new CapturingSender();
+        frame.writePayload(sender);
+        return sender.getBytes();
+    }
+
+    private AMQMessage createMessage(final String exchange, final String routingKey)
+    {
+        final AMQMessage message = mock(AMQMessage.class);
+        when(message.getMessagePublishInfo()).thenReturn(new MessagePublishInfo(AMQShortString.valueOf(exchange),
+                                                                                false,
+                                                                                false,
+                                                                                AMQShortString.valueOf(routingKey)));
+        return message;
+    }
+
+    private AMQBody createDeliverBody()
+    {
+        return new BasicDeliverBody(AMQShortString.valueOf("consumerTag"),
+                                    1L,
+                                    false,
+                                    AMQShortString.valueOf("amq.direct"),
+                                    AMQShortString.valueOf("routingKey"));
+    }
+
+    private ContentHeaderBody createContentHeaderBody(final long bodySize)
+    {
+        final BasicContentHeaderProperties properties = new BasicContentHeaderProperties();
+        properties.setContentType("text/plain");
+        return new ContentHeaderBody(properties, bodySize);
+    }
+
+    private static class CapturingSender implements ByteBufferSender
+    {
+        private final ByteArrayOutputStream _output = new ByteArrayOutputStream();
+
+        @Override
+        public boolean isDirectBufferPreferred()
+        {
+            return false;
+        }
+
+        @Override
+        public void send(final QpidByteBuffer msg)
+        {
+            try (QpidByteBuffer duplicate = msg.duplicate())
+            {
+                final byte[] data = new byte[duplicate.remaining()];
+                duplicate.get(data);
+                _output.write(data, 0, data.length);
+            }
+        }
+
+        @Override
+        public void flush()
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+        byte[] getBytes()
+        {
+            return _output.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v0_8.transport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.transport.ByteBufferSender;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class AMQFrameTest extends UnitTestBase
+{
+    @Test
+    public void testWriteFrameHeader()
+    {
+        try (QpidByteBuffer buffer = QpidByteBuffer.allocate(false, AMQFrame.getFrameHeaderSize()))
+        {
+            AMQFrame.writeFrameHeader(buffer, ContentBody.TYPE, 0xABCD, 0x01020304);
+            assertEquals("Unexpected header size", AMQFrame.getFrameHeaderSize(), buffer.position());
+            buffer.flip();
+
+            final byte[] header = new byte[buffer.remaining()];
+            buffer.get(header);
+            assertArrayEquals(new byte[]{ContentBody.TYPE, (byte) 0xAB, (byte) 0xCD, 1, 2, 3, 4}, header);
+        }
+    }
+
+    @Test
+    public void testSendFrameEnd()
+    {
+        final CapturingSender sender = new CapturingSender();
+        AMQFrame.sendFrameEnd(sender);
+        AMQFrame.sendFrameEnd(sender);
+
+        assertArrayEquals(new byte[]{AMQFrame.FRAME_END_BYTE, AMQFrame.FRAME_END_BYTE}, sender.getBytes());
+    }
+
+    @Test
+    public void testWritePayloadUsesFrameLayout()
+    {
+        final byte[] content = "content".getBytes();
+        try (QpidByteBuffer contentBuffer = QpidByteBuffer.wrap(content))
+        {
+            final ContentBody contentBody = new ContentBody(contentBuffer);
+            final AMQFrame frame = new AMQFrame(5, contentBody);
+            final CapturingSender sender = new CapturingSender();
+
+            final long written = frame.writePayload(sender);
+
+            final byte[] bytes = sender.getBytes();
+            assertEquals(frame.getSize(), written);
+            assertEquals(AMQFrame.getFrameOverhead() + content.length, bytes.length);
+            assertEquals(ContentBody.TYPE, bytes[0]);
+            assertEquals(5, ((bytes[1] & 0xFF) << 8) | (bytes[2] & 0xFF));
+            assertEquals(content.length, bytes[6]);
+            assertEquals(AMQFrame.FRAME_END_BYTE, bytes[bytes.length - 1]);
+            contentBody.dispose();
+        }
+    }
+
+    private static class CapturingSender implements ByteBufferSender
+    {
+        private final ByteArrayOutputStream _output = new ByteArrayOutputStream();
+
+        @Override
+        public boolean isDirectBufferPreferred()
+        {
+            return false;
+        }
+
+        @Override
+        public void send(final QpidByteBuffer msg)
+        {
+            try (QpidByteBuffer duplicate = msg.duplicate())
+            {
+                final byte[] data = new byte[duplicate.remaining()];
+                duplicate.get(data);
+                _output.write(data, 0, data.length);
+            }
+        }
+
+        @Override
+        public void flush()
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+        byte[] getBytes()
+        {
+            return _output.toByteArray();
+        }
+    }
+}
@@ -25,6 +25,9 @@ import org.apache.qpid.server.logging.EventLoggerProvider;
 import org.apache.qpid.server.model.DerivedAttribute;
 import org.apache.qpid.server.model.ManagedContextDefault;
 import org.apache.qpid.server.model.ManagedObject;
+import org.apache.qpid.server.model.ManagedStatistic;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.server.model.StatisticUnit;
 import org.apache.qpid.server.protocol.v1_0.codec.SectionDecoderRegistry;
 import org.apache.qpid.server.protocol.v1_0.type.FrameBody;
 import org.apache.qpid.server.protocol.v1_0.type.Symbol;
@@ -50,6 +53,12 @@ public interface AMQPConnection_1_0<C extends AMQPConnection_1_0<C>> extends AMQ
     @ManagedContextDefault(name = SEND_SASL_FINAL_CHALLENGE_AS_CHALLENGE)
     boolean DEFAULT_SEND_SASL_FINAL_CHALLENGE_AS_CHALLENGE = false;
 
+    String CONNECTION_SESSION_FLOW_WINDOW_THRESHOLD = "connection.sessionFlowWindowThreshold";
+    @ManagedContextDefault(name = CONNECTION_SESSION_FLOW_WINDOW_THRESHOLD,
+            description = "Fraction of the session incoming window which the peer must consume before the broker"
+                          + " sends a session flow replenishing it. Must be greater than 0 and not greater than 1.")
+    double DEFAULT_CONNECTION_SESSION_FLOW_WINDOW_THRESHOLD = 0.5;
+
     Symbol ANONYMOUS_RELAY = Symbol.valueOf("ANONYMOUS-RELAY");
     Symbol SHARED_SUBSCRIPTIONS = Symbol.valueOf("SHARED-SUBS");
 
@@ -86,6 +95,18 @@ public interface AMQPConnection_1_0<C extends AMQPConnection_1_0<C>> extends AMQ
 
     void receivedComplete();
 
+    boolean isInReceiveCycle();
+
     @DerivedAttribute(description = "If true send a final SASL challenge using a SaslChallenge performative, rather than SaslOutcome.")
     boolean getSendSaslFinalChallengeAsChallenge();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "Flow Frames Sent",
+                      description = "Total number of flow performatives sent on this connection.")
+    long getFlowFramesSent();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "Flow Frames Received",
+                      description = "Total number of flow performatives received on this connection.")
+    long getFlowFramesReceived();
 }
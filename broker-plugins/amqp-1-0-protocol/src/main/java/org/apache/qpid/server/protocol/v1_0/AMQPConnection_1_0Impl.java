@@ -45,6 +45,7 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -142,6 +143,9 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
 
     private final AtomicBoolean _stateChanged = new AtomicBoolean();
     private final AtomicReference<Action<ProtocolEngine>> _workListener = new AtomicReference<>();
+    private final AtomicLong _flowFramesSent = new AtomicLong();
+    private final AtomicLong _flowFramesReceived = new AtomicLong();
+    private boolean _inReceiveCycle;
 
 
     private static final byte[] SASL_HEADER = new byte[]
@@ -801,6 +805,7 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
     public void receiveFlow(final int channel, final Flow flow)
     {
         assertState(ConnectionState.OPENED);
+        _flowFramesReceived.incrementAndGet();
         final Session_1_0 session = getSession(channel);
         if (session != null)
         {
@@ -1207,6 +1212,10 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
             ValueWriter<FrameBody> writer = _describedTypeRegistry.getValueWriter(body);
             if (payload == null)
             {
+                if (body instanceof Flow)
+                {
+                    _flowFramesSent.incrementAndGet();
+                }
                 send(new TransportFrame(channel, body));
                 return 0;
             }
@@ -1289,6 +1298,7 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
         {
             int remaining;
 
+            _inReceiveCycle = true;
             try
             {
                 do
@@ -1323,6 +1333,7 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
             }
             finally
             {
+                _inReceiveCycle = false;
                 receivedComplete();
             }
         }
@@ -1345,6 +1356,7 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
                     AccessController.doPrivileged((PrivilegedAction<Void>) () ->
                     {
                         session.receivedComplete();
+                        session.flushDeferredFlows();
                         return null;
                     }, context);
                 }
@@ -1352,6 +1364,24 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
         }
     }
 
+    @Override
+    public boolean isInReceiveCycle()
+    {
+        return _inReceiveCycle;
+    }
+
+    @Override
+    public long getFlowFramesSent()
+    {
+        return _flowFramesSent.get();
+    }
+
+    @Override
+    public long getFlowFramesReceived()
+    {
+        return _flowFramesReceived.get();
+    }
+
     private void processProtocolHeader(final QpidByteBuffer msg)
     {
         if(msg.remaining() >= 8)
@@ -516,7 +516,10 @@ public abstract class AbstractLinkEndpoint<S extends BaseSource, T extends BaseT
                 boolean sendFlow = _linkCredit.subtract(clientsCredit).compareTo(clientsCredit) >= 0;
                 if (sendFlow)
                 {
-                    sendFlow(false);
+                    if (!getSession().deferLinkFlow(this))
+                    {
+                        sendFlow(false);
+                    }
                 }
                 else
                 {
@@ -20,6 +20,7 @@
 */
 package org.apache.qpid.server.protocol.v1_0;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
@@ -41,7 +42,6 @@ import org.apache.qpid.server.protocol.v1_0.messaging.SectionDecoderImpl;
 import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
 import org.apache.qpid.server.protocol.v1_0.type.Binary;
 import org.apache.qpid.server.protocol.v1_0.type.Symbol;
-import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
 import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.AmqpSequenceSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.AmqpValueSection;
@@ -50,6 +50,7 @@ import org.apache.qpid.server.protocol.v1_0.type.messaging.DataSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.DeliveryAnnotationsSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.EncodingRetainingSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.FooterSection;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Header;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.HeaderSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.MessageAnnotationsSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.Properties;
@@ -62,7 +63,8 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
     private static final Logger LOGGER = LoggerFactory.getLogger(MessageMetaData_1_0.class);
     private static final MessageMetaDataType_1_0 TYPE = new MessageMetaDataType_1_0();
     public static final MessageMetaDataType.Factory<MessageMetaData_1_0> FACTORY = new MetaDataFactory();
-    private static final byte VERSION_BYTE = 1;
+    private static final byte VERSION_BYTE = 2;
+    private static final int HEADER_SIZE = 17;
 
     private final long _contentSize;
 
@@ -76,7 +78,7 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
     private MessageAnnotationsSection _messageAnnotationsSection;
     private ApplicationPropertiesSection _applicationPropertiesSection;
     private FooterSection _footerSection;
-
+    private volatile RoutingSummary _routingSummary;
 
     private final MessageHeader_1_0 _messageHeader = new MessageHeader_1_0();
     private final int _version;
@@ -126,11 +128,13 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
     private MessageMetaData_1_0(List<EncodingRetainingSection<?>> sections,
                                 long contentSize,
                                 int version,
-                                long arrivalTime)
+                                long arrivalTime,
+                                RoutingSummary routingSummary)
     {
         _contentSize = contentSize;
         _version = version;
         _arrivalTime = arrivalTime;
+        _routingSummary = routingSummary;
 
         Iterator<EncodingRetainingSection<?>> sectIter = sections.iterator();
 
@@ -195,7 +199,7 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
     public int getStorableSize()
     {
 
-        long size = 17L;
+        long size = HEADER_SIZE + getRoutingSummary().getEncodedSize();
         if (_headerSection != null)
         {
             size += _headerSection.getEncodedSize();
@@ -230,6 +234,7 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
         dest.put(VERSION_BYTE);
         dest.putLong(_arrivalTime);
         dest.putLong(_contentSize);
+        getRoutingSummary().writeTo(dest);
         if (_headerSection != null)
         {
             _headerSection.writeTo(dest);
@@ -273,9 +278,28 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
         return _messageHeader;
     }
 
+    public String getInitialRoutingAddress()
+    {
+        return getRoutingSummary().getInitialRoutingAddress();
+    }
+
+    private RoutingSummary getRoutingSummary()
+    {
+        RoutingSummary routingSummary = _routingSummary;
+        if (routingSummary == null)
+        {
+            routingSummary = RoutingSummary.fromSections(_headerSection,
+                                                         _propertiesSection,
+                                                         _applicationPropertiesSection);
+            _routingSummary = routingSummary;
+        }
+        return routingSummary;
+    }
+
     @Override
     public synchronized void dispose()
     {
+        _routingSummary = null;
         if (_headerSection != null)
         {
             _headerSection.dispose();
@@ -427,9 +451,10 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
                 long arrivalTime;
                 long contentSize = 0;
-                if (versionByte == 1)
+                RoutingSummary routingSummary = null;
+                if (versionByte == 1 || versionByte == 2)
                 {
-                    if (!buf.hasRemaining(17))
+                    if (!buf.hasRemaining(HEADER_SIZE))
                     {
                         throw new ConnectionScopedRuntimeException("Cannot decode stored message meta data.");
                     }
@@ -437,6 +462,10 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
                     buf.get();
                     arrivalTime = buf.getLong();
                     contentSize = buf.getLong();
+                    if (versionByte == 2)
+                    {
+                        routingSummary = RoutingSummary.read(buf);
+                    }
                 }
                 else if (versionByte == 0)
                 {
@@ -470,7 +499,11 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
                     }
                 }
 
-                return new MessageMetaData_1_0(sections, contentSize, (int) versionByte & 0xff, arrivalTime);
+                return new MessageMetaData_1_0(sections,
+                                               contentSize,
+                                               (int) versionByte & 0xff,
+                                               arrivalTime,
+                                               routingSummary);
             }
             catch (AmqpErrorException e)
             {
@@ -500,8 +533,8 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
         @Override
         public long getExpiration()
         {
-            final UnsignedInteger ttl = _headerSection == null ? null : _headerSection.getValue().getTtl();
-            return ttl == null ? 0L : ttl.longValue() + getArrivalTime();
+            final long ttl = getRoutingSummary().getTtl();
+            return ttl < 0L ? 0L : ttl + getArrivalTime();
         }
 
         @Override
@@ -546,14 +579,7 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
         @Override
         public byte getPriority()
         {
-            if (_headerSection == null || _headerSection.getValue().getPriority() == null)
-            {
-                return 4; //javax.jms.Message.DEFAULT_PRIORITY;
-            }
-            else
-            {
-                return _headerSection.getValue().getPriority().byteValue();
-            }
+            return getRoutingSummary().getPriority();
         }
 
         @Override
@@ -692,12 +718,12 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
         public String getSubject()
         {
-            return _propertiesSection == null ? null : _propertiesSection.getValue().getSubject();
+            return getRoutingSummary().getSubject();
         }
 
         public String getTo()
         {
-            return _propertiesSection == null ? null : _propertiesSection.getValue().getTo();
+            return getRoutingSummary().getTo();
         }
 
         public Map<String, Object> getHeadersAsMap()
@@ -706,4 +732,222 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
                     _applicationPropertiesSection.getValue());
         }
     }
+
+    /**
+     * The fields used for routing and expiry, extracted from the header, properties and application-properties
+     * sections. It is persisted ahead of the sections (metadata version 2) so that a recovered or reloaded message
+     * can be routed without decoding any of its sections.
+     */
+    private static final class RoutingSummary
+    {
+        private static final byte DEFAULT_PRIORITY = 4; //javax.jms.Message.DEFAULT_PRIORITY;
+
+        private static final int PRIORITY_PRESENT = 0x01;
+        private static final int TTL_PRESENT = 0x02;
+        private static final int SUBJECT_PRESENT = 0x04;
+        private static final int TO_PRESENT = 0x08;
+        private static final int ROUTING_KEY_PRESENT = 0x10;
+
+        private final byte _priority;
+        private final long _ttl;
+        private final String _subject;
+        private final String _to;
+        private final String _routingKey;
+        private final byte[] _encoded;
+
+        private RoutingSummary(final byte priority,
+                               final long ttl,
+                               final String subject,
+                               final String to,
+                               final String routingKey)
+        {
+            _priority = priority;
+            _ttl = ttl;
+            _subject = subject;
+            _to = to;
+            _routingKey = routingKey;
+            _encoded = encode();
+        }
+
+        static RoutingSummary fromSections(final HeaderSection headerSection,
+                                           final PropertiesSection propertiesSection,
+                                           final ApplicationPropertiesSection applicationPropertiesSection)
+        {
+            byte priority = DEFAULT_PRIORITY;
+            long ttl = -1L;
+            if (headerSection != null)
+            {
+                final Header header = headerSection.getValue();
+                if (header.getPriority() != null)
+                {
+                    priority = header.getPriority().byteValue();
+                }
+                if (header.getTtl() != null)
+                {
+                    ttl = header.getTtl().longValue();
+                }
+            }
+
+            String subject = null;
+            String to = null;
+            if (propertiesSection != null)
+            {
+                final Properties properties = propertiesSection.getValue();
+                subject = properties.getSubject();
+                to = properties.getTo();
+            }
+
+            String routingKey = null;
+            if (applicationPropertiesSection != null)
+            {
+                final Map<String, Object> applicationProperties = applicationPropertiesSection.getValue();
+                if (applicationProperties.get("routing-key") instanceof String)
+                {
+                    routingKey = (String) applicationProperties.get("routing-key");
+                }
+                else if (applicationProperties.get("routing_key") instanceof String)
+                {
+                    routingKey = (String) applicationProperties.get("routing_key");
+                }
+            }
+            return new RoutingSummary(priority, ttl, subject, to, routingKey);
+        }
+
+        static RoutingSummary read(final QpidByteBuffer buf)
+        {
+            if (!buf.hasRemaining())
+            {
+                throw new ConnectionScopedRuntimeException("Cannot decode stored message meta data.");
+            }
+            final int flags = buf.get() & 0xff;
+            final byte priority = (flags & PRIORITY_PRESENT) != 0 ? buf.get() : DEFAULT_PRIORITY;
+            final long ttl = (flags & TTL_PRESENT) != 0 ? buf.getUnsignedInt() : -1L;
+            final String subject = (flags & SUBJECT_PRESENT) != 0 ? readString(buf) : null;
+            final String to = (flags & TO_PRESENT) != 0 ? readString(buf) : null;
+            final String routingKey = (flags & ROUTING_KEY_PRESENT) != 0 ? readString(buf) : null;
+            return new RoutingSummary(priority, ttl, subject, to, routingKey);
+        }
+
+        byte getPriority()
+        {
+            return _priority;
+        }
+
+        long getTtl()
+        {
+            return _ttl;
+        }
+
+        String getSubject()
+        {
+            return _subject;
+        }
+
+        String getTo()
+        {
+            return _to;
+        }
+
+        String getInitialRoutingAddress()
+        {
+            if (_routingKey != null)
+            {
+                return _routingKey;
+            }
+            else if (_subject != null)
+            {
+                return _subject;
+            }
+            else
+            {
+                return "";
+            }
+        }
+
+        int getEncodedSize()
+        {
+            return _encoded.length;
+        }
+
+        void writeTo(final QpidByteBuffer dest)
+        {
+            dest.put(_encoded);
+        }
+
+        private byte[] encode()
+        {
+            final byte[] subject = toBytes(_subject);
+            final byte[] to = toBytes(_to);
+            final byte[] routingKey = toBytes(_routingKey);
+
+            int flags = 0;
+            int size = 1;
+            if (_priority != DEFAULT_PRIORITY)
+            {
+                flags |= PRIORITY_PRESENT;
+                size += 1;
+            }
+            if (_ttl >= 0L)
+            {
+                flags |= TTL_PRESENT;
+                size += 4;
+            }
+            if (subject != null)
+            {
+                flags |= SUBJECT_PRESENT;
+                size += 4 + subject.length;
+            }
+            if (to != null)
+            {
+                flags |= TO_PRESENT;
+                size += 4 + to.length;
+            }
+            if (routingKey != null)
+            {
+                flags |= ROUTING_KEY_PRESENT;
+                size += 4 + routingKey.length;
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate(size);
+            buffer.put((byte) flags);
+            if ((flags & PRIORITY_PRESENT) != 0)
+            {
+                buffer.put(_priority);
+            }
+            if ((flags & TTL_PRESENT) != 0)
+            {
+                buffer.putInt((int) _ttl);
+            }
+            for (byte[] bytes : new byte[][]{subject, to, routingKey})
+            {
+                if (bytes != null)
+                {
+                    buffer.putInt(bytes.length);
+                    buffer.put(bytes);
+                }
+            }
+            return buffer.array();
+        }
+
+        private static byte[] toBytes(final String value)
+        {
+            return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static String readString(final QpidByteBuffer buf)
+        {
+            if (!buf.hasRemaining(4))
+            {
+                throw new ConnectionScopedRuntimeException("Cannot decode stored message meta data.");
+            }
+            final int length = buf.getInt();
+            if (length < 0 || !buf.hasRemaining(length))
+            {
+                throw new ConnectionScopedRuntimeException("Cannot decode stored message meta data.");
+            }
+            final byte[] bytes = new byte[length];
+            buf.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
 }
@@ -70,26 +70,7 @@ public class Message_1_0 extends AbstractServerMessageImpl<Message_1_0, MessageM
     @Override
     public String getInitialRoutingAddress()
     {
-        MessageMetaData_1_0.MessageHeader_1_0 messageHeader = getMessageHeader();
-        final String routingAddress;
-        if (messageHeader.getHeader("routing-key") instanceof String)
-        {
-            routingAddress = (String) messageHeader.getHeader("routing-key");
-        }
-        else if (messageHeader.getHeader("routing_key") instanceof String)
-        {
-            routingAddress = (String) messageHeader.getHeader("routing_key");
-        }
-        else if (messageHeader.getSubject() != null)
-        {
-            routingAddress = messageHeader.getSubject();
-        }
-        else
-        {
-            routingAddress = "";
-        }
-
-        return routingAddress;
+        return getMessageMetaData().getInitialRoutingAddress();
     }
 
     @Override
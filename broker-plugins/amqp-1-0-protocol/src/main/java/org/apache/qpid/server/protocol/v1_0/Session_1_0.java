@@ -35,6 +35,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -145,6 +146,9 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
     private volatile long _remoteIncomingWindow;
     private UnsignedInteger _remoteOutgoingWindow = UnsignedInteger.ZERO;
     private UnsignedInteger _lastSentIncomingLimit;
+    private final double _flowWindowThreshold;
+    private boolean _sessionFlowPending;
+    private final Set<AbstractLinkEndpoint<?, ?>> _deferredLinkFlows = new LinkedHashSet<>();
 
     private final DeliveryRegistry _outgoingDeliveryRegistry = new DeliveryRegistryImpl();
     private final DeliveryRegistry _incomingDeliveryRegistry = new DeliveryRegistryImpl();
@@ -169,6 +173,7 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
         _connection = connection;
         _primaryDomain = getPrimaryDomain();
         _incomingWindow = UnsignedInteger.valueOf(incomingWindow);
+        _flowWindowThreshold = getFlowWindowThreshold(connection);
 
         AccessController.doPrivileged((new PrivilegedAction<Object>()
         {
@@ -181,6 +186,23 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
         }), _accessControllerContext);
     }
 
+    private static double getFlowWindowThreshold(final AMQPConnection_1_0 connection)
+    {
+        final Double threshold = connection.getContextValue(Double.class,
+                                                            AMQPConnection_1_0.CONNECTION_SESSION_FLOW_WINDOW_THRESHOLD);
+        // a threshold above one would never replenish the window and one of zero or below would flow on every transfer
+        if (threshold == null || !(threshold > 0 && threshold <= 1))
+        {
+            LOGGER.warn("Invalid value '{}' for context variable '{}', it must be greater than 0 and not greater"
+                        + " than 1. Using default value {}",
+                        threshold,
+                        AMQPConnection_1_0.CONNECTION_SESSION_FLOW_WINDOW_THRESHOLD,
+                        AMQPConnection_1_0.DEFAULT_CONNECTION_SESSION_FLOW_WINDOW_THRESHOLD);
+            return AMQPConnection_1_0.DEFAULT_CONNECTION_SESSION_FLOW_WINDOW_THRESHOLD;
+        }
+        return threshold;
+    }
+
     public void sendDetach(final Detach detach)
     {
         send(detach);
@@ -396,16 +418,49 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
             UnsignedInteger clientsCredit =
                     _lastSentIncomingLimit.subtract(UnsignedInteger.valueOf(_nextIncomingId.intValue()));
 
-            // TODO - we should use a better metric here, and/or manage session credit across the whole connection
-            // send a flow if the window is at least half used up
-            if (_incomingWindow.subtract(clientsCredit).compareTo(clientsCredit) >= 0)
+            // send a flow once the configured fraction of the window has been used up; whilst processing
+            // incoming frames the flow is deferred until the end of the read so that it is sent at most once
+            long used = _incomingWindow.subtract(clientsCredit).longValue();
+            if (used >= Math.ceil(_incomingWindow.longValue() * _flowWindowThreshold))
             {
-                sendFlow();
+                if (_connection.isInReceiveCycle())
+                {
+                    _sessionFlowPending = true;
+                }
+                else
+                {
+                    sendFlow();
+                }
             }
         }
 
     }
 
+    boolean deferLinkFlow(final AbstractLinkEndpoint<?, ?> linkEndpoint)
+    {
+        if (_connection.isInReceiveCycle())
+        {
+            _deferredLinkFlows.add(linkEndpoint);
+            return true;
+        }
+        return false;
+    }
+
+    void flushDeferredFlows()
+    {
+        if (!_deferredLinkFlows.isEmpty())
+        {
+            final List<AbstractLinkEndpoint<?, ?>> linkEndpoints = new ArrayList<>(_deferredLinkFlows);
+            _deferredLinkFlows.clear();
+            // the condition is re-evaluated as a flow sent since the link was deferred may have restored its credit
+            linkEndpoints.forEach(AbstractLinkEndpoint::sendFlowConditional);
+        }
+        if (_sessionFlowPending)
+        {
+            sendFlow();
+        }
+    }
+
     public UnsignedInteger getOutgoingWindow()
     {
         return _outgoingWindow;
@@ -532,6 +587,8 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
 
         flow.setNextOutgoingId(UnsignedInteger.valueOf(_nextOutgoingId.intValue()));
         flow.setOutgoingWindow(_outgoingWindow);
+        // every flow carries the session window so any pending session flow is superseded
+        _sessionFlowPending = false;
         send(flow);
     }
 
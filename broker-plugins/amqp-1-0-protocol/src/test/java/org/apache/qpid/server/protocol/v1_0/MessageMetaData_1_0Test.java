@@ -0,0 +1,103 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v1_0;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedByte;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.ApplicationProperties;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Header;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Properties;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class MessageMetaData_1_0Test extends UnitTestBase
+{
+    private static final long ARRIVAL_TIME = 1000L;
+
+    @Test
+    public void testRoutingFieldsSurviveStoreRoundTrip()
+    {
+        final Header header = new Header();
+        header.setPriority(UnsignedByte.valueOf((byte) 7));
+        header.setTtl(UnsignedInteger.valueOf(5000));
+        final Properties properties = new Properties();
+        properties.setSubject("testSubject");
+        properties.setTo("testTo");
+        final Map<String, Object> applicationProperties = new HashMap<>();
+        applicationProperties.put("routing-key", "testRoutingKey");
+
+        final MessageMetaData_1_0 original = new MessageMetaData_1_0(header.createEncodingRetainingSection(),
+                                                                     null,
+                                                                     null,
+                                                                     properties.createEncodingRetainingSection(),
+                                                                     new ApplicationProperties(applicationProperties)
+                                                                             .createEncodingRetainingSection(),
+                                                                     null,
+                                                                     ARRIVAL_TIME,
+                                                                     0);
+
+        final MessageMetaData_1_0 recovered = roundTrip(original);
+
+        assertEquals(2, recovered.getVersion());
+        assertEquals(ARRIVAL_TIME, recovered.getArrivalTime());
+        assertEquals("testSubject", recovered.getMessageHeader().getSubject());
+        assertEquals("testTo", recovered.getMessageHeader().getTo());
+        assertEquals(7, recovered.getMessageHeader().getPriority());
+        assertEquals(ARRIVAL_TIME + 5000, recovered.getMessageHeader().getExpiration());
+        assertEquals("testRoutingKey", recovered.getInitialRoutingAddress());
+        assertEquals("testRoutingKey", recovered.getMessageHeader().getHeader("routing-key"));
+    }
+
+    @Test
+    public void testDefaultsWithoutSections()
+    {
+        final MessageMetaData_1_0 original =
+                new MessageMetaData_1_0(null, null, null, null, null, null, ARRIVAL_TIME, 0);
+
+        final MessageMetaData_1_0 recovered = roundTrip(original);
+
+        assertNull(recovered.getMessageHeader().getSubject());
+        assertNull(recovered.getMessageHeader().getTo());
+        assertEquals(4, recovered.getMessageHeader().getPriority());
+        assertEquals(0L, recovered.getMessageHeader().getExpiration());
+        assertEquals("", recovered.getInitialRoutingAddress());
+    }
+
+    private MessageMetaData_1_0 roundTrip(final MessageMetaData_1_0 original)
+    {
+        try (QpidByteBuffer buffer = QpidByteBuffer.allocate(original.getStorableSize()))
+        {
+            original.writeToBuffer(buffer);
+            assertEquals("Unexpected storable size", 0, buffer.remaining());
+            buffer.flip();
+            return MessageMetaData_1_0.FACTORY.createMetaData(buffer);
+        }
+    }
+}
@@ -22,10 +22,13 @@ package org.apache.qpid.server.protocol.v1_0;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -78,8 +81,10 @@ import org.apache.qpid.server.protocol.v1_0.type.messaging.TerminusExpiryPolicy;
 import org.apache.qpid.server.protocol.v1_0.type.transport.Attach;
 import org.apache.qpid.server.protocol.v1_0.type.transport.Begin;
 import org.apache.qpid.server.protocol.v1_0.type.transport.Detach;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Flow;
 import org.apache.qpid.server.protocol.v1_0.type.transport.LinkError;
 import org.apache.qpid.server.protocol.v1_0.type.transport.Role;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
 import org.apache.qpid.server.queue.QueueConsumer;
 import org.apache.qpid.server.transport.AggregateTicker;
 import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
@@ -542,6 +547,121 @@ public class Session_1_0Test extends UnitTestBase
         assertAttachSent(connection2, session2, attach);
     }
 
+    @Test
+    public void testSessionFlowDeferredUntilEndOfReceiveCycle()
+    {
+        final Session_1_0 session = createSession_1_0(_connection, 1, 4);
+        session.sendFlow();
+        when(_connection.isInReceiveCycle()).thenReturn(true);
+
+        for (int i = 0; i < 3; i++)
+        {
+            receiveTransfer(session);
+            session.sendFlowConditional();
+        }
+        assertEquals("Session flow should be deferred within the receive cycle", 1, getSentFlows(session).size());
+
+        session.flushDeferredFlows();
+        List<Flow> flows = getSentFlows(session);
+        assertEquals("Deferred session flows should be coalesced into one", 2, flows.size());
+        assertEquals("Unexpected next incoming id", UnsignedInteger.valueOf(4), flows.get(1).getNextIncomingId());
+
+        session.flushDeferredFlows();
+        assertEquals("No flow expected without further transfers", 2, getSentFlows(session).size());
+    }
+
+    @Test
+    public void testSessionFlowSentImmediatelyOutsideReceiveCycle()
+    {
+        final Session_1_0 session = createSession_1_0(_connection, 1, 4);
+        session.sendFlow();
+        when(_connection.isInReceiveCycle()).thenReturn(false);
+
+        receiveTransfer(session);
+        session.sendFlowConditional();
+        assertEquals("Unexpected flow before threshold is reached", 1, getSentFlows(session).size());
+
+        receiveTransfer(session);
+        session.sendFlowConditional();
+        assertEquals("Flow expected once threshold is reached", 2, getSentFlows(session).size());
+    }
+
+    @Test
+    public void testLinkFlowsCoalescedWithinReceiveCycle()
+    {
+        final AbstractLinkEndpoint<?, ?> linkEndpoint1 = mock(AbstractLinkEndpoint.class);
+        final AbstractLinkEndpoint<?, ?> linkEndpoint2 = mock(AbstractLinkEndpoint.class);
+
+        when(_connection.isInReceiveCycle()).thenReturn(false);
+        assertFalse("Link flow should not be deferred outside the receive cycle",
+                    _session.deferLinkFlow(linkEndpoint1));
+
+        when(_connection.isInReceiveCycle()).thenReturn(true);
+        assertTrue("Link flow should be deferred within the receive cycle", _session.deferLinkFlow(linkEndpoint1));
+        assertTrue("Link flow should be deferred within the receive cycle", _session.deferLinkFlow(linkEndpoint2));
+        assertTrue("Link flow should be deferred within the receive cycle", _session.deferLinkFlow(linkEndpoint1));
+        verify(linkEndpoint1, never()).sendFlowConditional();
+        verify(linkEndpoint2, never()).sendFlowConditional();
+
+        _session.flushDeferredFlows();
+        verify(linkEndpoint1).sendFlowConditional();
+        verify(linkEndpoint2).sendFlowConditional();
+
+        _session.flushDeferredFlows();
+        verify(linkEndpoint1).sendFlowConditional();
+        verify(linkEndpoint2).sendFlowConditional();
+    }
+
+    @Test
+    public void testFlowWindowThresholdAboveOneReplacedByDefault()
+    {
+        final AMQPConnection_1_0 connection = createAmqpConnection_1_0();
+        when(connection.getContextValue(Double.class, AMQPConnection_1_0.CONNECTION_SESSION_FLOW_WINDOW_THRESHOLD)).thenReturn(2.0);
+        final Session_1_0 session = createSession_1_0(connection, 0, 4);
+        session.sendFlow();
+
+        receiveTransfer(session);
+        receiveTransfer(session);
+        session.sendFlowConditional();
+        assertEquals("Flow expected once half of the window is used", 2, getSentFlows(session).size());
+    }
+
+    @Test
+    public void testFlowWindowThresholdNotAboveZeroReplacedByDefault()
+    {
+        final AMQPConnection_1_0 connection = createAmqpConnection_1_0();
+        when(connection.getContextValue(Double.class, AMQPConnection_1_0.CONNECTION_SESSION_FLOW_WINDOW_THRESHOLD)).thenReturn(0.0);
+        final Session_1_0 session = createSession_1_0(connection, 0, 4);
+        session.sendFlow();
+
+        receiveTransfer(session);
+        session.sendFlowConditional();
+        assertEquals("Unexpected flow before half of the window is used", 1, getSentFlows(session).size());
+    }
+
+    private void receiveTransfer(final Session_1_0 session)
+    {
+        // the session window is accounted before the link is resolved, so an unattached handle suffices here
+        final Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.valueOf(Integer.MAX_VALUE));
+        session.receiveTransfer(transfer);
+    }
+
+    private List<Flow> getSentFlows(final Session_1_0 session)
+    {
+        final ArgumentCaptor<FrameBody> frameCapture = ArgumentCaptor.forClass(FrameBody.class);
+        verify(session.getConnection(), atLeast(0)).sendFrame(eq(session.getChannelId()), frameCapture.capture());
+        final List<Flow> flows = new ArrayList<>();
+        for (FrameBody frameBody : frameCapture.getAllValues())
+        {
+            if (frameBody instanceof Flow)
+            {
+                flows.add((Flow) frameBody);
+            }
+        }
+        return flows;
+    }
+
     private void assertFilter(final Attach sentAttach, final String selectorExpression)
     {
         Source source = (Source)sentAttach.getSource();
@@ -791,6 +911,7 @@ public class Session_1_0Test extends UnitTestBase
         when(connection.getContextValue(Long.class, Session.PRODUCER_AUTH_CACHE_TIMEOUT)).thenReturn(Session.PRODUCER_AUTH_CACHE_TIMEOUT_DEFAULT);
         when(connection.getContextValue(Integer.class, Session.PRODUCER_AUTH_CACHE_SIZE)).thenReturn(Session.PRODUCER_AUTH_CACHE_SIZE_DEFAULT);
         when(connection.getContextValue(Long.class, Connection.MAX_UNCOMMITTED_IN_MEMORY_SIZE)).thenReturn(Connection.DEFAULT_MAX_UNCOMMITTED_IN_MEMORY_SIZE);
+        when(connection.getContextValue(Double.class, AMQPConnection_1_0.CONNECTION_SESSION_FLOW_WINDOW_THRESHOLD)).thenReturn(AMQPConnection_1_0.DEFAULT_CONNECTION_SESSION_FLOW_WINDOW_THRESHOLD);
         when(connection.getDescribedTypeRegistry()).thenReturn(DESCRIBED_TYPE_REGISTRY);
         when(connection.getMaxFrameSize()).thenReturn(512);
         final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
@@ -818,10 +939,15 @@ public class Session_1_0Test extends UnitTestBase
     }
 
     private Session_1_0 createSession_1_0(final AMQPConnection_1_0 connection, int channelId)
+    {
+        return createSession_1_0(connection, channelId, 2048);
+    }
+
+    private Session_1_0 createSession_1_0(final AMQPConnection_1_0 connection, int channelId, long incomingWindow)
     {
         Begin begin = mock(Begin.class);
         when(begin.getNextOutgoingId()).thenReturn(new UnsignedInteger(channelId));
-        return new Session_1_0(connection, begin, channelId, channelId, 2048);
+        return new Session_1_0(connection, begin, channelId, channelId, incomingWindow);
     }
 
     private void sendDetach(final Session_1_0 session,
@@ -53,6 +53,7 @@ import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.message.EnqueueableMessage;
 import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.plugin.MessageMetaDataType;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.store.Event;
 import org.apache.qpid.server.store.EventListener;
 import org.apache.qpid.server.store.EventManager;
@@ -72,6 +73,7 @@ import org.apache.qpid.server.store.handler.MessageInstanceHandler;
 import org.apache.qpid.server.txn.Xid;
 import org.apache.qpid.server.util.Action;
 import org.apache.qpid.server.util.CachingUUIDFactory;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
 
 public abstract class AbstractJDBCMessageStore implements MessageStore
 {
@@ -93,6 +95,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
 
     protected final EventManager _eventManager = new EventManager();
     private ConfiguredObject<?> _parent;
+    private volatile LatencyHistogram _commitLatencyHistogram;
     private String _tablePrefix = "";
     private final AtomicLong _inMemorySize = new AtomicLong();
     private final AtomicLong _bytesEvacuatedFromMemory = new AtomicLong();
@@ -214,6 +217,9 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     protected void initMessageStore(final ConfiguredObject<?> parent)
     {
         _parent = parent;
+        _commitLatencyHistogram = parent instanceof QueueManagingVirtualHost
+                ? ((QueueManagingVirtualHost<?>) parent).getStoreCommitLatencyHistogram()
+                : null;
         _executor = new ScheduledThreadPoolExecutor(4, new ThreadFactory()
         {
             private final AtomicInteger _count = new AtomicInteger();
@@ -818,7 +824,13 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         try
         {
             Connection conn = connWrapper.getConnection();
+            final long startTime = System.nanoTime();
             conn.commit();
+            final LatencyHistogram commitLatencyHistogram = _commitLatencyHistogram;
+            if (commitLatencyHistogram != null)
+            {
+                commitLatencyHistogram.record((System.nanoTime() - startTime) / 1000L);
+            }
 
             getLogger().debug("commit tran completed");
 
@@ -1306,6 +1318,12 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
 
     private static class MessageDataRef<T extends StorableMessageMetaData>
     {
+        /**
+         * Shared by all messages that are stored and have neither metadata nor content in memory, so that a deep
+         * queue of messages flowed to disk does not retain an empty holder per message. Never mutated.
+         */
+        private static final MessageDataRef<?> FLOWED_TO_DISK = new MessageDataRef<>(null, false);
+
         private volatile T _metaData;
         private volatile QpidByteBuffer _data;
         private volatile boolean _isHardRef;
@@ -1353,7 +1371,16 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             {
                 _metaData.reallocate();
             }
-            _data = QpidByteBuffer.reallocateIfNecessary(_data);
+            if (_data != null)
+            {
+                _data = QpidByteBuffer.reallocateIfNecessary(_data);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T extends StorableMessageMetaData> MessageDataRef<T> flowedToDisk()
+        {
+            return (MessageDataRef<T>) FLOWED_TO_DISK;
         }
 
         public long clear(boolean close)
@@ -1403,7 +1430,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         _messageDeleteListeners.remove(listener);
     }
 
-    private class StoredJDBCMessage<T extends StorableMessageMetaData> implements StoredMessage<T>, MessageHandle<T>
+    class StoredJDBCMessage<T extends StorableMessageMetaData> implements StoredMessage<T>, MessageHandle<T>
     {
 
         private final long _messageId;
@@ -1495,7 +1522,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
                 {
                     checkMessageStoreOpen();
                     data = AbstractJDBCMessageStore.this.getAllContent(_messageId);
-                    _messageDataRef.setData(data);
+                    _messageDataRef = new MessageDataRef<>(_messageDataRef.getMetaData(), data, false);
                     _inMemorySize.addAndGet(getContentSize());
                 }
                 else
@@ -1618,6 +1645,14 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             return _messageDataRef != null && !_messageDataRef.isHardRef();
         }
 
+        /**
+         * Returns true if the message holds the shared empty data holder, i.e. retains no per-message data on heap.
+         */
+        synchronized boolean isFlowedToDisk()
+        {
+            return _messageDataRef == MessageDataRef.FLOWED_TO_DISK;
+        }
+
         @Override
         public synchronized boolean flowToDisk()
         {
@@ -1626,6 +1661,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             if(_messageDataRef != null && !_messageDataRef.isHardRef())
             {
                 final long bytesCleared = _messageDataRef.clear(false);
+                _messageDataRef = MessageDataRef.flowedToDisk();
                 _inMemorySize.addAndGet(-bytesCleared);
                 _bytesEvacuatedFromMemory.addAndGet(bytesCleared);
             }
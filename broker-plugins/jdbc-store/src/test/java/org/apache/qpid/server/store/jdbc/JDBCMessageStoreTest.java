@@ -23,6 +23,7 @@ package org.apache.qpid.server.store.jdbc;
 import static org.apache.qpid.server.store.jdbc.TestJdbcUtils.assertTablesExistence;
 import static org.apache.qpid.server.store.jdbc.TestJdbcUtils.getTableNames;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -30,7 +31,9 @@ import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -48,6 +51,7 @@ import org.apache.qpid.server.store.MessageDurability;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.MessageStore;
 import org.apache.qpid.server.store.MessageStoreTestCase;
+import org.apache.qpid.server.store.StoredMessage;
 import org.apache.qpid.server.store.Transaction;
 import org.apache.qpid.server.store.TransactionLogResource;
 import org.apache.qpid.server.virtualhost.jdbc.JDBCVirtualHost;
@@ -169,6 +173,39 @@ public class JDBCMessageStoreTest extends MessageStoreTestCase
         assertEquals("Delete action was not invoked", true, deleted.get());
     }
 
+    @Test
+    public void testDeepQueueFlowedToDiskRetainsNoPerMessageData()
+    {
+        final GenericJDBCMessageStore store = (GenericJDBCMessageStore) getStore();
+        final List<StoredMessage<?>> messages = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            messages.add(addTestMessage(store, getTestName(), "test" + i).getStoredMessage());
+        }
+
+        for (StoredMessage<?> message : messages)
+        {
+            message.flowToDisk();
+        }
+
+        assertEquals("Unexpected in memory size", 0, store.getInMemorySize());
+        for (StoredMessage<?> message : messages)
+        {
+            assertTrue("Message should hold no data of its own",
+                       ((AbstractJDBCMessageStore.StoredJDBCMessage) message).isFlowedToDisk());
+        }
+
+        final StoredMessage<?> message = messages.get(0);
+        try (QpidByteBuffer content = message.getContent(0, message.getContentSize()))
+        {
+            assertEquals("Unexpected content size", message.getContentSize(), content.remaining());
+        }
+        assertFalse("Message read back should hold its own data",
+                    ((AbstractJDBCMessageStore.StoredJDBCMessage) message).isFlowedToDisk());
+        assertTrue("Other messages should still hold no data of their own",
+                   ((AbstractJDBCMessageStore.StoredJDBCMessage) messages.get(1)).isFlowedToDisk());
+    }
+
     private InternalMessage addTestMessage(final MessageStore store,
                                            final String transactionalLogName,
                                            final String messageContent)
@@ -0,0 +1,69 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.logging.logback;
+
+import org.apache.qpid.server.model.BrokerLogInclusionRule;
+import org.apache.qpid.server.model.ManagedAttribute;
+import org.apache.qpid.server.model.ManagedObject;
+import org.apache.qpid.server.model.ManagedStatistic;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.server.model.StatisticUnit;
+
+@ManagedObject( category = false, type = BrokerRateLimitedLogInclusionRule.TYPE,
+        description = "Limits the rate of events logged per logger name; operational log messages are limited per"
+                      + " message id. The rule only suppresses events, other rules decide which events are logged.")
+public interface BrokerRateLimitedLogInclusionRule<X extends BrokerRateLimitedLogInclusionRule<X>>
+        extends BrokerLogInclusionRule<X>, LogBackLogInclusionRule
+{
+    String TYPE = "RateLimited";
+    String LOGGER_NAME = "loggerName";
+    String MESSAGES_PER_SECOND = "messagesPerSecond";
+    String BURST_SIZE = "burstSize";
+    String SAMPLE_RATE = "sampleRate";
+    String SUMMARY_INTERVAL = "summaryInterval";
+
+    @ManagedAttribute( defaultValue = "ROOT", immutable = true,
+            description = "Logger name, or prefix ending in '.*', of the events to limit.")
+    String getLoggerName();
+
+    @ManagedAttribute( defaultValue = "10",
+            description = "Sustained number of events per second logged for each logger name.")
+    int getMessagesPerSecond();
+
+    @ManagedAttribute( defaultValue = "50",
+            description = "Number of events for each logger name which may be logged in a burst above the"
+                          + " sustained rate.")
+    int getBurstSize();
+
+    @ManagedAttribute( defaultValue = "0",
+            description = "If positive, one in this many events exceeding the rate is logged regardless.")
+    int getSampleRate();
+
+    @ManagedAttribute( defaultValue = "60000",
+            description = "Interval in milliseconds at which the number of suppressed events is logged.")
+    long getSummaryInterval();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+            label = "Suppressed Events",
+            description = "Total number of log events suppressed by this rule.")
+    long getSuppressedCount();
+}
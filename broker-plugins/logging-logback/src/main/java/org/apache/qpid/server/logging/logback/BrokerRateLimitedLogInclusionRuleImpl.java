@@ -0,0 +1,228 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.logging.logback;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.configuration.IllegalConfigurationException;
+import org.apache.qpid.server.model.AbstractConfiguredObject;
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.BrokerLogger;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.ManagedAttributeField;
+import org.apache.qpid.server.model.ManagedObjectFactoryConstructor;
+import org.apache.qpid.server.model.State;
+import org.apache.qpid.server.model.StateTransition;
+
+class BrokerRateLimitedLogInclusionRuleImpl extends AbstractConfiguredObject<BrokerRateLimitedLogInclusionRuleImpl>
+        implements BrokerRateLimitedLogInclusionRule<BrokerRateLimitedLogInclusionRuleImpl>
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(BrokerRateLimitedLogInclusionRuleImpl.class);
+
+    @ManagedAttributeField
+    private String _loggerName;
+    @ManagedAttributeField(afterSet = "limitsAfterSet")
+    private int _messagesPerSecond;
+    @ManagedAttributeField(afterSet = "limitsAfterSet")
+    private int _burstSize;
+    @ManagedAttributeField(afterSet = "limitsAfterSet")
+    private int _sampleRate;
+    @ManagedAttributeField(afterSet = "summaryIntervalAfterSet")
+    private long _summaryInterval;
+
+    private final Broker<?> _broker;
+    private RateLimitingFilter _filter;
+    private ScheduledFuture<?> _summaryFuture;
+
+    @ManagedObjectFactoryConstructor
+    BrokerRateLimitedLogInclusionRuleImpl(final Map<String, Object> attributes, BrokerLogger<?> logger)
+    {
+        super(logger, attributes);
+        _broker = (Broker<?>) logger.getParent();
+    }
+
+    @Override
+    public void onValidate()
+    {
+        super.onValidate();
+        validateLimits(this);
+    }
+
+    @Override
+    protected void validateChange(ConfiguredObject<?> proxyForValidation, Set<String> changedAttributes)
+    {
+        super.validateChange(proxyForValidation, changedAttributes);
+        BrokerRateLimitedLogInclusionRule<?> proxy = (BrokerRateLimitedLogInclusionRule<?>) proxyForValidation;
+        if (changedAttributes.contains(LOGGER_NAME) &&
+            ((getLoggerName() != null && !getLoggerName().equals(proxy.getLoggerName())) ||
+             (getLoggerName() == null && proxy.getLoggerName() != null)))
+        {
+            throw new IllegalConfigurationException("Attribute '" + LOGGER_NAME + " cannot be changed");
+        }
+        validateLimits(proxy);
+    }
+
+    @Override
+    protected void postResolve()
+    {
+        super.postResolve();
+        _filter = new RateLimitingFilter(getLoggerName(), getMessagesPerSecond(), getBurstSize(), getSampleRate());
+    }
+
+    @Override
+    public String getLoggerName()
+    {
+        return _loggerName;
+    }
+
+    @Override
+    public int getMessagesPerSecond()
+    {
+        return _messagesPerSecond;
+    }
+
+    @Override
+    public int getBurstSize()
+    {
+        return _burstSize;
+    }
+
+    @Override
+    public int getSampleRate()
+    {
+        return _sampleRate;
+    }
+
+    @Override
+    public long getSummaryInterval()
+    {
+        return _summaryInterval;
+    }
+
+    @Override
+    public long getSuppressedCount()
+    {
+        return _filter == null ? 0L : _filter.getSuppressedCount();
+    }
+
+    @Override
+    public Filter<ILoggingEvent> asFilter()
+    {
+        return _filter;
+    }
+
+    @SuppressWarnings("unused")
+    private void limitsAfterSet()
+    {
+        if (_filter != null)
+        {
+            _filter.setLimits(getMessagesPerSecond(), getBurstSize(), getSampleRate());
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private void summaryIntervalAfterSet()
+    {
+        if (getState() == State.ACTIVE)
+        {
+            scheduleSummary();
+        }
+    }
+
+    @Override
+    protected ListenableFuture<Void> onDelete()
+    {
+        cancelSummary();
+        return super.onDelete();
+    }
+
+    @Override
+    protected ListenableFuture<Void> onClose()
+    {
+        cancelSummary();
+        return super.onClose();
+    }
+
+    @SuppressWarnings("unused")
+    @StateTransition( currentState = { State.ERRORED, State.UNINITIALIZED }, desiredState = State.ACTIVE )
+    private ListenableFuture<Void> doActivate()
+    {
+        setState(State.ACTIVE);
+        scheduleSummary();
+        return Futures.immediateFuture(null);
+    }
+
+    private synchronized void scheduleSummary()
+    {
+        cancelSummary();
+        _summaryFuture = _broker.scheduleHouseKeepingTask(getSummaryInterval(),
+                                                          TimeUnit.MILLISECONDS,
+                                                          this::logSuppressedSummary);
+    }
+
+    private synchronized void cancelSummary()
+    {
+        if (_summaryFuture != null)
+        {
+            _summaryFuture.cancel(false);
+            _summaryFuture = null;
+        }
+    }
+
+    void logSuppressedSummary()
+    {
+        for (Map.Entry<String, Long> entry : _filter.drainSuppressedCounts().entrySet())
+        {
+            LOGGER.warn("Log inclusion rule '{}' suppressed {} event(s) of logger '{}' within the last {} ms",
+                        getName(), entry.getValue(), entry.getKey(), getSummaryInterval());
+        }
+    }
+
+    private static void validateLimits(final BrokerRateLimitedLogInclusionRule<?> rule)
+    {
+        if (rule.getMessagesPerSecond() < 1)
+        {
+            throw new IllegalConfigurationException("Attribute '" + MESSAGES_PER_SECOND + "' must be positive");
+        }
+        if (rule.getBurstSize() < 1)
+        {
+            throw new IllegalConfigurationException("Attribute '" + BURST_SIZE + "' must be positive");
+        }
+        if (rule.getSampleRate() < 0)
+        {
+            throw new IllegalConfigurationException("Attribute '" + SAMPLE_RATE + "' must not be negative");
+        }
+        if (rule.getSummaryInterval() < 1)
+        {
+            throw new IllegalConfigurationException("Attribute '" + SUMMARY_INTERVAL + "' must be positive");
+        }
+    }
+}
@@ -37,6 +37,8 @@ import ch.qos.logback.core.spi.FilterReply;
 public class CompositeFilter extends Filter<ILoggingEvent>
 {
     private List<Filter<ILoggingEvent>> _filterList = new CopyOnWriteArrayList<>();
+    // rate limits only apply to events which the other rules accept, so they are consulted last
+    private final List<Filter<ILoggingEvent>> _rateLimitingFilterList = new CopyOnWriteArrayList<>();
     private final AtomicLong _warnCount = new AtomicLong();
     private final AtomicLong _errorCount = new AtomicLong();
 
@@ -44,21 +46,37 @@ public class CompositeFilter extends Filter<ILoggingEvent>
     {
         Filter<ILoggingEvent> f = logInclusionRule.asFilter();
         f.setName(logInclusionRule.getName());
-        _filterList.add(f);
+        if (f instanceof RateLimitingFilter)
+        {
+            _rateLimitingFilterList.add(f);
+        }
+        else
+        {
+            _filterList.add(f);
+        }
     }
 
     public void removeLogInclusionRule(LogBackLogInclusionRule logInclusionRule)
     {
-        Iterator<Filter<ILoggingEvent>> it = _filterList.iterator();
+        if (!removeFilter(_filterList, logInclusionRule.getName()))
+        {
+            removeFilter(_rateLimitingFilterList, logInclusionRule.getName());
+        }
+    }
+
+    private boolean removeFilter(final List<Filter<ILoggingEvent>> filterList, final String name)
+    {
+        Iterator<Filter<ILoggingEvent>> it = filterList.iterator();
         while(it.hasNext())
         {
             Filter f = it.next();
-            if (f.getName().equals(logInclusionRule.getName()))
+            if (f.getName().equals(name))
             {
-                _filterList.remove(f);
-                break;
+                filterList.remove(f);
+                return true;
             }
         }
+        return false;
     }
 
     @Override
@@ -78,6 +96,17 @@ public class CompositeFilter extends Filter<ILoggingEvent>
                 reply = filterReply;
             }
         }
+        if (reply == ACCEPT)
+        {
+            for (Filter<ILoggingEvent> filter : _rateLimitingFilterList)
+            {
+                if (filter.decide(event) == DENY)
+                {
+                    reply = DENY;
+                    break;
+                }
+            }
+        }
         if(reply == ACCEPT)
         {
             switch(event.getLevel().toInt())
@@ -0,0 +1,224 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.logging.logback;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Denies events once the events of a logger exceed a rate, optionally letting through a sample of the excess.
+ * <p>
+ * Each logger name matching the filter has its own token bucket, so operational log messages (which are logged
+ * under one hierarchy per message id) are limited per message id. The bucket is implemented with the generic cell
+ * rate algorithm, needing a single compare-and-set per admitted event. The filter never accepts an event on its
+ * own: {@link CompositeFilter} only consults it for events which one of the other inclusion rules has accepted, so
+ * events which would not be logged anyway neither use up the limit nor count as suppressed.
+ */
+public class RateLimitingFilter extends Filter<ILoggingEvent>
+{
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final String _loggerName;
+    private final String _loggerNamePrefix;
+    private final LongSupplier _nanoTime;
+    private final ConcurrentMap<String, Bucket> _buckets = new ConcurrentHashMap<>();
+    private final LongAdder _suppressedCount = new LongAdder();
+
+    private volatile Limits _limits;
+
+    public RateLimitingFilter(final String loggerName,
+                              final int messagesPerSecond,
+                              final int burstSize,
+                              final int sampleRate)
+    {
+        this(loggerName, messagesPerSecond, burstSize, sampleRate, System::nanoTime);
+    }
+
+    RateLimitingFilter(final String loggerName,
+                       final int messagesPerSecond,
+                       final int burstSize,
+                       final int sampleRate,
+                       final LongSupplier nanoTime)
+    {
+        _loggerName = loggerName;
+        if (loggerName == null || "".equals(loggerName) || Logger.ROOT_LOGGER_NAME.equals(loggerName))
+        {
+            _loggerNamePrefix = "";
+        }
+        else if (loggerName.endsWith(".*"))
+        {
+            _loggerNamePrefix = loggerName.substring(0, loggerName.length() - 2);
+        }
+        else
+        {
+            _loggerNamePrefix = null;
+        }
+        _nanoTime = nanoTime;
+        setLimits(messagesPerSecond, burstSize, sampleRate);
+    }
+
+    @Override
+    public FilterReply decide(final ILoggingEvent event)
+    {
+        final String eventLoggerName = event.getLoggerName();
+        if (!matches(eventLoggerName))
+        {
+            return FilterReply.NEUTRAL;
+        }
+
+        final Limits limits = _limits;
+        final long now = _nanoTime.getAsLong();
+        Bucket bucket = _buckets.get(eventLoggerName);
+        if (bucket == null)
+        {
+            bucket = new Bucket(now);
+            final Bucket existing = _buckets.putIfAbsent(eventLoggerName, bucket);
+            if (existing != null)
+            {
+                bucket = existing;
+            }
+        }
+
+        if (bucket.tryAcquire(now, limits))
+        {
+            return FilterReply.NEUTRAL;
+        }
+        else if (limits._sampleRate > 0 && bucket._rejected.incrementAndGet() % limits._sampleRate == 0)
+        {
+            return FilterReply.NEUTRAL;
+        }
+        else
+        {
+            bucket._suppressed.increment();
+            _suppressedCount.increment();
+            return FilterReply.DENY;
+        }
+    }
+
+    public void setLimits(final int messagesPerSecond, final int burstSize, final int sampleRate)
+    {
+        if (messagesPerSecond < 1 || burstSize < 1 || sampleRate < 0)
+        {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid limits: messages per second %d and burst size %d must be positive,"
+                    + " sample rate %d must not be negative", messagesPerSecond, burstSize, sampleRate));
+        }
+        final long emissionInterval = Math.max(1L, NANOS_PER_SECOND / messagesPerSecond);
+        _limits = new Limits(emissionInterval, emissionInterval * (burstSize - 1), sampleRate);
+    }
+
+    public String getLoggerName()
+    {
+        return _loggerName;
+    }
+
+    public long getSuppressedCount()
+    {
+        return _suppressedCount.sum();
+    }
+
+    /**
+     * Returns the number of events suppressed per logger name since the previous call, and forgets loggers which
+     * have been idle long enough for their bucket to be full again.
+     */
+    public Map<String, Long> drainSuppressedCounts()
+    {
+        final long now = _nanoTime.getAsLong();
+        final Map<String, Long> counts = new HashMap<>();
+        for (Map.Entry<String, Bucket> entry : _buckets.entrySet())
+        {
+            final Bucket bucket = entry.getValue();
+            final long suppressed = bucket._suppressed.sumThenReset();
+            if (suppressed > 0)
+            {
+                counts.put(entry.getKey(), suppressed);
+            }
+            else if (bucket._theoreticalArrivalTime.get() - now <= 0)
+            {
+                _buckets.remove(entry.getKey(), bucket);
+            }
+        }
+        return counts;
+    }
+
+    private boolean matches(final String eventLoggerName)
+    {
+        if (_loggerNamePrefix == null)
+        {
+            return _loggerName.equals(eventLoggerName);
+        }
+        return eventLoggerName.startsWith(_loggerNamePrefix);
+    }
+
+    private static final class Limits
+    {
+        private final long _emissionInterval;
+        private final long _tolerance;
+        private final int _sampleRate;
+
+        private Limits(final long emissionInterval, final long tolerance, final int sampleRate)
+        {
+            _emissionInterval = emissionInterval;
+            _tolerance = tolerance;
+            _sampleRate = sampleRate;
+        }
+    }
+
+    private static final class Bucket
+    {
+        private final AtomicLong _theoreticalArrivalTime;
+        private final AtomicLong _rejected = new AtomicLong();
+        private final LongAdder _suppressed = new LongAdder();
+
+        private Bucket(final long now)
+        {
+            _theoreticalArrivalTime = new AtomicLong(now);
+        }
+
+        private boolean tryAcquire(final long now, final Limits limits)
+        {
+            while (true)
+            {
+                final long theoreticalArrivalTime = _theoreticalArrivalTime.get();
+                final long start = theoreticalArrivalTime - now > 0 ? theoreticalArrivalTime : now;
+                if (start - now > limits._tolerance)
+                {
+                    return false;
+                }
+                if (_theoreticalArrivalTime.compareAndSet(theoreticalArrivalTime, start + limits._emissionInterval))
+                {
+                    return true;
+                }
+            }
+        }
+    }
+}
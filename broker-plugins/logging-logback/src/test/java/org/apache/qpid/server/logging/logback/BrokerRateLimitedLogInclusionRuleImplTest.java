@@ -0,0 +1,216 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.logging.logback;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.qpid.server.configuration.IllegalConfigurationException;
+import org.apache.qpid.server.configuration.updater.TaskExecutor;
+import org.apache.qpid.server.configuration.updater.TaskExecutorImpl;
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.BrokerLogger;
+import org.apache.qpid.server.model.BrokerModel;
+import org.apache.qpid.server.model.Model;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class BrokerRateLimitedLogInclusionRuleImplTest extends UnitTestBase
+{
+    private static final String LOGGER_NAME = "qpid.message.queue.overfull";
+
+    private BrokerLogger<?> _brokerLogger;
+    private TaskExecutor _taskExecutor;
+    private final Broker<?> _broker = mock(Broker.class);
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _taskExecutor = new TaskExecutorImpl();
+        _taskExecutor.start();
+
+        Model model = BrokerModel.getInstance();
+
+        when(_broker.getModel()).thenReturn(model);
+        doReturn(Broker.class).when(_broker).getCategoryClass();
+
+        _brokerLogger = mock(BrokerLogger.class);
+        when(_brokerLogger.getModel()).thenReturn(model);
+        when(_brokerLogger.getChildExecutor()).thenReturn(_taskExecutor);
+        when(_brokerLogger.getParent()).thenReturn((Broker) _broker);
+        doReturn(BrokerLogger.class).when(_brokerLogger).getCategoryClass();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        _taskExecutor.stopImmediately();
+    }
+
+    @Test
+    public void testAsFilter()
+    {
+        final BrokerRateLimitedLogInclusionRule<?> rule = createRule(createAttributes(1, 2, 0));
+
+        final boolean condition = rule.asFilter() instanceof RateLimitingFilter;
+        assertTrue("Unexpected filter instance", condition);
+        assertEquals("Unexpected logger name", LOGGER_NAME, ((RateLimitingFilter) rule.asFilter()).getLoggerName());
+    }
+
+    @Test
+    public void testInvalidLimitsRejected()
+    {
+        assertInvalid(createAttributes(0, 1, 0), BrokerRateLimitedLogInclusionRule.MESSAGES_PER_SECOND);
+        assertInvalid(createAttributes(1, 0, 0), BrokerRateLimitedLogInclusionRule.BURST_SIZE);
+        assertInvalid(createAttributes(1, 1, -1), BrokerRateLimitedLogInclusionRule.SAMPLE_RATE);
+
+        final Map<String, Object> attributes = createAttributes(1, 1, 0);
+        attributes.put(BrokerRateLimitedLogInclusionRule.SUMMARY_INTERVAL, 0);
+        assertInvalid(attributes, BrokerRateLimitedLogInclusionRule.SUMMARY_INTERVAL);
+    }
+
+    @Test
+    public void testInvalidLimitChangeRejected()
+    {
+        final BrokerRateLimitedLogInclusionRule<?> rule = createRule(createAttributes(1, 1, 0));
+        try
+        {
+            rule.setAttributes(Collections.singletonMap(BrokerRateLimitedLogInclusionRule.BURST_SIZE, 0));
+            fail("IllegalConfigurationException is expected for invalid burst size");
+        }
+        catch (IllegalConfigurationException e)
+        {
+            // pass
+        }
+        assertEquals("Unexpected burst size", 1, rule.getBurstSize());
+    }
+
+    @Test
+    public void testLimitChangeAffectsFilter()
+    {
+        final BrokerRateLimitedLogInclusionRule<?> rule = createRule(createAttributes(1, 1, 0));
+        final RateLimitingFilter filter = (RateLimitingFilter) rule.asFilter();
+        final ILoggingEvent event = createEvent();
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event));
+        assertEquals("Event beyond burst should be denied", FilterReply.DENY, filter.decide(event));
+
+        rule.setAttributes(Collections.singletonMap(BrokerRateLimitedLogInclusionRule.SAMPLE_RATE, 1));
+        assertEquals("Every excess event should be sampled after the change",
+                     FilterReply.NEUTRAL,
+                     filter.decide(event));
+        assertEquals("Unexpected suppressed count", 1, rule.getSuppressedCount());
+    }
+
+    @Test
+    public void testSummaryTaskDrainsSuppressedCounts()
+    {
+        final BrokerRateLimitedLogInclusionRuleImpl rule = createRule(createAttributes(1, 1, 0));
+
+        final ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(_broker).scheduleHouseKeepingTask(eq(1000L), eq(TimeUnit.MILLISECONDS), taskCaptor.capture());
+
+        final RateLimitingFilter filter = (RateLimitingFilter) rule.asFilter();
+        final ILoggingEvent event = createEvent();
+        filter.decide(event);
+        filter.decide(event);
+        filter.decide(event);
+
+        taskCaptor.getValue().run();
+
+        assertEquals("Suppressed counts should have been drained by the summary task",
+                     Collections.emptyMap(),
+                     filter.drainSuppressedCounts());
+        assertEquals("Total suppressed count should be retained", 2, rule.getSuppressedCount());
+    }
+
+    @Test
+    public void testSummaryIntervalChangeReschedulesTask()
+    {
+        final ScheduledFuture<?> future = mock(ScheduledFuture.class);
+        doReturn(future).when(_broker).scheduleHouseKeepingTask(eq(1000L), eq(TimeUnit.MILLISECONDS), any(Runnable.class));
+        final BrokerRateLimitedLogInclusionRule<?> rule = createRule(createAttributes(1, 1, 0));
+
+        rule.setAttributes(Collections.singletonMap(BrokerRateLimitedLogInclusionRule.SUMMARY_INTERVAL, 2000L));
+
+        verify(future).cancel(false);
+        verify(_broker).scheduleHouseKeepingTask(eq(2000L), eq(TimeUnit.MILLISECONDS), any(Runnable.class));
+    }
+
+    private void assertInvalid(final Map<String, Object> attributes, final String attributeName)
+    {
+        try
+        {
+            createRule(attributes);
+            fail("IllegalConfigurationException is expected for invalid " + attributeName);
+        }
+        catch (IllegalConfigurationException e)
+        {
+            assertTrue("Unexpected exception message: " + e.getMessage(), e.getMessage().contains(attributeName));
+        }
+    }
+
+    private Map<String, Object> createAttributes(final int messagesPerSecond, final int burstSize, final int sampleRate)
+    {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(BrokerRateLimitedLogInclusionRule.NAME, "test");
+        attributes.put(BrokerRateLimitedLogInclusionRule.LOGGER_NAME, LOGGER_NAME);
+        attributes.put(BrokerRateLimitedLogInclusionRule.MESSAGES_PER_SECOND, messagesPerSecond);
+        attributes.put(BrokerRateLimitedLogInclusionRule.BURST_SIZE, burstSize);
+        attributes.put(BrokerRateLimitedLogInclusionRule.SAMPLE_RATE, sampleRate);
+        attributes.put(BrokerRateLimitedLogInclusionRule.SUMMARY_INTERVAL, 1000L);
+        return attributes;
+    }
+
+    private BrokerRateLimitedLogInclusionRuleImpl createRule(final Map<String, Object> attributes)
+    {
+        final BrokerRateLimitedLogInclusionRuleImpl rule =
+                new BrokerRateLimitedLogInclusionRuleImpl(attributes, _brokerLogger);
+        rule.create();
+        return rule;
+    }
+
+    private ILoggingEvent createEvent()
+    {
+        final ILoggingEvent event = mock(ILoggingEvent.class);
+        when(event.getLoggerName()).thenReturn(LOGGER_NAME);
+        return event;
+    }
+}
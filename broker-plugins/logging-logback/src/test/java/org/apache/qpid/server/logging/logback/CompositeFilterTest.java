@@ -134,6 +134,54 @@ public class CompositeFilterTest extends UnitTestBase
         verify(rule.asFilter()).setName("accept");
     }
 
+    @Test
+    public void testRateLimitOnlyAppliedToAcceptedEvents()
+    {
+        CompositeFilter compositeFilter = new CompositeFilter();
+
+        RateLimitingFilter rateLimitingFilter = new RateLimitingFilter("org.apache.qpid.*", 1, 1, 0, () -> 0L);
+        compositeFilter.addLogInclusionRule(createRule(rateLimitingFilter, "rateLimit"));
+        compositeFilter.addLogInclusionRule(createRule(new LoggerNameAndLevelFilter("org.apache.qpid.*", Level.INFO),
+                                                       "level"));
+
+        final ILoggingEvent debugEvent = createEvent("org.apache.qpid.Foo", Level.DEBUG);
+        for (int i = 0; i < 5; i++)
+        {
+            assertEquals("Unexpected reply for event not accepted by any rule",
+                         FilterReply.DENY,
+                         compositeFilter.decide(debugEvent));
+        }
+        assertEquals("Events not accepted by any rule should not count as suppressed",
+                     0, rateLimitingFilter.getSuppressedCount());
+
+        final ILoggingEvent warnEvent = createEvent("org.apache.qpid.Foo", Level.WARN);
+        assertEquals("Unexpected reply for first accepted event", FilterReply.ACCEPT, compositeFilter.decide(warnEvent));
+        assertEquals("Unexpected reply for accepted event over the limit",
+                     FilterReply.DENY,
+                     compositeFilter.decide(warnEvent));
+        assertEquals("Unexpected suppressed count", 1, rateLimitingFilter.getSuppressedCount());
+        assertEquals("Suppressed event should not be counted as logged", 1, compositeFilter.getWarnCount());
+
+        compositeFilter.removeLogInclusionRule(createRule(rateLimitingFilter, "rateLimit"));
+        assertEquals("Unexpected reply after rate limit removed", FilterReply.ACCEPT, compositeFilter.decide(warnEvent));
+    }
+
+    private ILoggingEvent createEvent(final String loggerName, final Level level)
+    {
+        final ILoggingEvent event = mock(ILoggingEvent.class);
+        when(event.getLoggerName()).thenReturn(loggerName);
+        when(event.getLevel()).thenReturn(level);
+        return event;
+    }
+
+    private LogBackLogInclusionRule createRule(final Filter<ILoggingEvent> filter, final String name)
+    {
+        LogBackLogInclusionRule rule = mock(LogBackLogInclusionRule.class);
+        when(rule.getName()).thenReturn(name);
+        when(rule.asFilter()).thenReturn(filter);
+        return rule;
+    }
+
     private LogBackLogInclusionRule createRule(FilterReply decision)
     {
         return createRule(decision, "UNNAMED");
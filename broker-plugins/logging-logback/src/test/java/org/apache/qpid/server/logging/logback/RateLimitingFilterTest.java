@@ -0,0 +1,123 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.logging.logback;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class RateLimitingFilterTest extends UnitTestBase
+{
+    private static final String OVERFULL = "qpid.message.queue.overfull";
+    private static final String UNDERFULL = "qpid.message.queue.underfull";
+
+    private final AtomicLong _nanoTime = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+
+    @Test
+    public void testBurstThenSustainedRate()
+    {
+        final RateLimitingFilter filter = new RateLimitingFilter("ROOT", 10, 3, 0, _nanoTime::get);
+        final ILoggingEvent event = createEvent(OVERFULL);
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event));
+        assertEquals("Event beyond burst should be denied", FilterReply.DENY, filter.decide(event));
+
+        _nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals("One token should have been refilled", FilterReply.NEUTRAL, filter.decide(event));
+        assertEquals(FilterReply.DENY, filter.decide(event));
+
+        assertEquals("Unexpected suppressed count", 2L, filter.getSuppressedCount());
+    }
+
+    @Test
+    public void testLoggersLimitedIndependently()
+    {
+        final RateLimitingFilter filter = new RateLimitingFilter("qpid.message.*", 1, 1, 0, _nanoTime::get);
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(createEvent(OVERFULL)));
+        assertEquals(FilterReply.DENY, filter.decide(createEvent(OVERFULL)));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(createEvent(UNDERFULL)));
+        assertEquals("Non matching logger should not be limited",
+                     FilterReply.NEUTRAL, filter.decide(createEvent("org.apache.qpid.server.foo")));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(createEvent("org.apache.qpid.server.foo")));
+    }
+
+    @Test
+    public void testSampling()
+    {
+        final RateLimitingFilter filter = new RateLimitingFilter(OVERFULL, 1, 1, 3, _nanoTime::get);
+        final ILoggingEvent event = createEvent(OVERFULL);
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event));
+        assertEquals(FilterReply.DENY, filter.decide(event));
+        assertEquals(FilterReply.DENY, filter.decide(event));
+        assertEquals("Every third excess event should be sampled", FilterReply.NEUTRAL, filter.decide(event));
+        assertEquals(FilterReply.DENY, filter.decide(event));
+        assertEquals("Unexpected suppressed count", 3L, filter.getSuppressedCount());
+    }
+
+    @Test
+    public void testDrainSuppressedCounts()
+    {
+        final RateLimitingFilter filter = new RateLimitingFilter("ROOT", 1, 1, 0, _nanoTime::get);
+        filter.decide(createEvent(OVERFULL));
+        filter.decide(createEvent(OVERFULL));
+        filter.decide(createEvent(OVERFULL));
+        filter.decide(createEvent(UNDERFULL));
+
+        final Map<String, Long> counts = filter.drainSuppressedCounts();
+        assertEquals("Unexpected suppressed counts", Collections.singletonMap(OVERFULL, 2L), counts);
+        assertTrue("Counts should be reset after drain", filter.drainSuppressedCounts().isEmpty());
+    }
+
+    @Test
+    public void testChangingLimits()
+    {
+        final RateLimitingFilter filter = new RateLimitingFilter("ROOT", 1, 1, 0, _nanoTime::get);
+        final ILoggingEvent event = createEvent(OVERFULL);
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event));
+        assertEquals(FilterReply.DENY, filter.decide(event));
+
+        filter.setLimits(1, 5, 0);
+        assertEquals("Larger burst should admit further events", FilterReply.NEUTRAL, filter.decide(event));
+    }
+
+    private ILoggingEvent createEvent(final String loggerName)
+    {
+        final ILoggingEvent event = mock(ILoggingEvent.class);
+        when(event.getLoggerName()).thenReturn(loggerName);
+        return event;
+    }
+}
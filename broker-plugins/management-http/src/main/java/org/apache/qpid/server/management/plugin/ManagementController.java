@@ -92,4 +92,13 @@ public interface ManagementController
     Object formatConfiguredObject(Object content,
                                   Map<String, List<String>> parameters,
                                   boolean isSecureOrAllowedOnInsecureChannel);
+
+    /**
+     * Formats the content like {@link #formatConfiguredObject(Object, Map, boolean)} but may return a value which
+     * is only converted when Jackson serialises it, so that large hierarchies are streamed to the response rather
+     * than materialised in memory first. The returned value is intended to be serialised once.
+     */
+    Object formatConfiguredObjectForStreaming(Object content,
+                                              Map<String, List<String>> parameters,
+                                              boolean isSecureOrAllowedOnInsecureChannel);
 }
@@ -43,6 +43,14 @@ public abstract class AbstractManagementController implements ManagementControll
     protected static final String USER_PREFERENCES = "userpreferences";
     protected static final String VISIBLE_USER_PREFERENCES = "visiblepreferences";
 
+    @Override
+    public Object formatConfiguredObjectForStreaming(final Object content,
+                                                     final Map<String, List<String>> parameters,
+                                                     final boolean isSecureOrAllowedOnInsecureChannel)
+    {
+        return formatConfiguredObject(content, parameters, isSecureOrAllowedOnInsecureChannel);
+    }
+
     public ManagementResponse handleGet(final ManagementRequest request) throws ManagementException
     {
         final RequestType type = getRequestType(request);
@@ -521,25 +521,14 @@ public class LatestManagementController extends AbstractManagementController
                                          final Map<String, List<String>> parameters,
                                          final boolean isSecureOrAllowedOnInsecureChannel)
     {
-
-        final int depth = ConverterHelper.getIntParameterFromRequest(parameters, DEPTH_PARAM, DEFAULT_DEPTH);
-        final int oversizeThreshold = ConverterHelper.getIntParameterFromRequest(parameters, OVERSIZE_PARAM, DEFAULT_OVERSIZE);
-        final boolean actuals = Boolean.parseBoolean(getParameter(ACTUALS_PARAM, parameters));
-        final String excludeInheritedContextParameter = getParameter(EXCLUDE_INHERITED_CONTEXT_PARAM, parameters);
-        final boolean excludeInheritedContext = excludeInheritedContextParameter == null
-                                                || Boolean.parseBoolean(excludeInheritedContextParameter);
+        final ConfiguredObjectToMapConverter.ConverterOptions converterOptions =
+                getConverterOptions(parameters, isSecureOrAllowedOnInsecureChannel);
         final boolean responseAsList =
                 Boolean.parseBoolean(getParameter(SINGLETON_MODEL_OBJECT_RESPONSE_AS_LIST, parameters));
 
         if (content instanceof ConfiguredObject)
         {
-            Object object = convertObject(
-                    (ConfiguredObject) content,
-                    depth,
-                    actuals,
-                    oversizeThreshold,
-                    isSecureOrAllowedOnInsecureChannel,
-                    excludeInheritedContext);
+            Object object = convertObject((ConfiguredObject) content, converterOptions);
             return responseAsList ? Collections.singletonList(object) : object;
         }
         else if (content instanceof Collection)
@@ -549,11 +538,7 @@ public class LatestManagementController extends AbstractManagementController
                                                                               .map(ConfiguredObject.class::cast)
                                                                               .map(o -> convertObject(
                                                                                       o,
-                                                                                      depth,
-                                                                                      actuals,
-                                                                                      oversizeThreshold,
-                                                                                      isSecureOrAllowedOnInsecureChannel,
-                                                                                      excludeInheritedContext)).collect(Collectors.toSet());
+                                                                                      converterOptions)).collect(Collectors.toSet());
             if (!results.isEmpty())
             {
                 return results;
@@ -562,19 +547,57 @@ public class LatestManagementController extends AbstractManagementController
         return content;
     }
 
-    private Map<String,Object> convertObject(final ConfiguredObject<?> configuredObject, final int depth,
-                                 final boolean actuals,
-                                 final int oversizeThreshold,
-                                 final boolean isSecureOrConfidentialOperationAllowedOnInsecureChannel,
-                                 final boolean excludeInheritedContext)
+    @Override
+    public Object formatConfiguredObjectForStreaming(final Object content,
+                                                     final Map<String, List<String>> parameters,
+                                                     final boolean isSecureOrAllowedOnInsecureChannel)
+    {
+        final ConfiguredObjectToMapConverter.ConverterOptions converterOptions =
+                getConverterOptions(parameters, isSecureOrAllowedOnInsecureChannel);
+
+        if (content instanceof ConfiguredObject)
+        {
+            final boolean responseAsList =
+                    Boolean.parseBoolean(getParameter(SINGLETON_MODEL_OBJECT_RESPONSE_AS_LIST, parameters));
+            return _objectConverter.toStreamingValue(Collections.singletonList((ConfiguredObject<?>) content),
+                                                     responseAsList,
+                                                     converterOptions);
+        }
+        else if (content instanceof Collection)
+        {
+            final List<ConfiguredObject<?>> objects = ((Collection<?>) content).stream()
+                                                                               .filter(o -> o instanceof ConfiguredObject)
+                                                                               .map(o -> (ConfiguredObject<?>) o)
+                                                                               .collect(Collectors.toList());
+            if (!objects.isEmpty())
+            {
+                return _objectConverter.toStreamingValue(objects, true, converterOptions);
+            }
+        }
+        return content;
+    }
+
+    private ConfiguredObjectToMapConverter.ConverterOptions getConverterOptions(final Map<String, List<String>> parameters,
+                                                                                final boolean isSecureOrAllowedOnInsecureChannel)
+    {
+        final int depth = ConverterHelper.getIntParameterFromRequest(parameters, DEPTH_PARAM, DEFAULT_DEPTH);
+        final int oversizeThreshold = ConverterHelper.getIntParameterFromRequest(parameters, OVERSIZE_PARAM, DEFAULT_OVERSIZE);
+        final boolean actuals = Boolean.parseBoolean(getParameter(ACTUALS_PARAM, parameters));
+        final String excludeInheritedContextParameter = getParameter(EXCLUDE_INHERITED_CONTEXT_PARAM, parameters);
+        final boolean excludeInheritedContext = excludeInheritedContextParameter == null
+                                                || Boolean.parseBoolean(excludeInheritedContextParameter);
+        return new ConfiguredObjectToMapConverter.ConverterOptions(depth,
+                                                                   actuals,
+                                                                   oversizeThreshold,
+                                                                   isSecureOrAllowedOnInsecureChannel,
+                                                                   excludeInheritedContext);
+    }
+
+    private Map<String,Object> convertObject(final ConfiguredObject<?> configuredObject,
+                                             final ConfiguredObjectToMapConverter.ConverterOptions converterOptions)
     {
         return _objectConverter.convertObjectToMap(configuredObject, configuredObject.getCategoryClass(),
-                                                   new ConfiguredObjectToMapConverter.ConverterOptions(
-                                                           depth,
-                                                           actuals,
-                                                           oversizeThreshold,
-                                                           isSecureOrConfidentialOperationAllowedOnInsecureChannel,
-                                                           excludeInheritedContext));
+                                                   converterOptions);
     }
 
     private boolean isFullPath(final ConfiguredObject root, final List<String> parts, final String category)
@@ -230,6 +230,23 @@ public class LatestManagementControllerAdapter implements ManagementController
     public Object formatConfiguredObject(final Object data,
                                          final Map<String, List<String>> parameters,
                                          final boolean isSecureOrAllowedOnInsecureChannel)
+    {
+        return _latestManagementController.formatConfiguredObject(unwrap(data),
+                                                                  parameters,
+                                                                  isSecureOrAllowedOnInsecureChannel);
+    }
+
+    @Override
+    public Object formatConfiguredObjectForStreaming(final Object data,
+                                                     final Map<String, List<String>> parameters,
+                                                     final boolean isSecureOrAllowedOnInsecureChannel)
+    {
+        return _latestManagementController.formatConfiguredObjectForStreaming(unwrap(data),
+                                                                              parameters,
+                                                                              isSecureOrAllowedOnInsecureChannel);
+    }
+
+    private Object unwrap(final Object data)
     {
         Object content = data;
         if (content instanceof LegacyConfiguredObjectObject)
@@ -245,10 +262,7 @@ public class LatestManagementControllerAdapter implements ManagementController
                                             .map(LegacyConfiguredObjectObject::getConfiguredObject)
                                             .collect(Collectors.toSet());
         }
-
-        return _latestManagementController.formatConfiguredObject(content,
-                                                                  parameters,
-                                                                  isSecureOrAllowedOnInsecureChannel);
+        return content;
     }
 
     private Class<? extends ConfiguredObject> getRequestCategoryClass(final String categoryName,
@@ -0,0 +1,158 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.servlet.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.qpid.server.model.AbstractConfigurationChangeListener;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.State;
+
+/**
+ * Secondary index over the children of one category of a parent object, keyed by the immutable name and type
+ * attributes. The index registers itself as a change listener on the parent and is maintained as children are
+ * added and removed. It is discarded (and stops listening) once the parent leaves the active state.
+ */
+public final class ConfiguredObjectIndex
+{
+    private final ConfiguredObject<?> _parent;
+    private final Class<? extends ConfiguredObject> _category;
+    private final NavigableMap<String, ConfiguredObject<?>> _byName = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<ConfiguredObject<?>>> _byType = new ConcurrentHashMap<>();
+    private final ChildListener _listener = new ChildListener();
+    private volatile boolean _valid = true;
+
+    public ConfiguredObjectIndex(final ConfiguredObject<?> parent, final Class<? extends ConfiguredObject> category)
+    {
+        _parent = parent;
+        _category = category;
+        parent.addChangeListener(_listener);
+        for (ConfiguredObject<?> child : parent.getChildren(category))
+        {
+            add(child);
+        }
+    }
+
+    public boolean isValid()
+    {
+        return _valid;
+    }
+
+    public void close()
+    {
+        _valid = false;
+        _parent.removeChangeListener(_listener);
+        _byName.clear();
+        _byType.clear();
+    }
+
+    /**
+     * Returns the indexed children whose name starts with the given prefix and whose type equals the given type.
+     * Either criterion may be null. Callers must still verify that the returned objects are current children, as
+     * a child removed concurrently with the construction of the index may be reported.
+     */
+    public Collection<ConfiguredObject<?>> select(final String namePrefix, final String type)
+    {
+        if (namePrefix != null)
+        {
+            final List<ConfiguredObject<?>> selected = new ArrayList<>();
+            for (Map.Entry<String, ConfiguredObject<?>> entry : _byName.tailMap(namePrefix, true).entrySet())
+            {
+                if (!entry.getKey().startsWith(namePrefix))
+                {
+                    break;
+                }
+                final ConfiguredObject<?> child = entry.getValue();
+                if (type == null || type.equals(child.getType()))
+                {
+                    selected.add(child);
+                }
+            }
+            return selected;
+        }
+        else if (type != null)
+        {
+            final Set<ConfiguredObject<?>> children = _byType.get(type);
+            return children == null ? Collections.<ConfiguredObject<?>>emptyList() : new ArrayList<>(children);
+        }
+        return new ArrayList<>(_byName.values());
+    }
+
+    private void add(final ConfiguredObject<?> child)
+    {
+        _byName.put(child.getName(), child);
+        if (child.getType() != null)
+        {
+            _byType.computeIfAbsent(child.getType(), t -> ConcurrentHashMap.newKeySet()).add(child);
+        }
+    }
+
+    private void remove(final ConfiguredObject<?> child)
+    {
+        _byName.remove(child.getName(), child);
+        if (child.getType() != null)
+        {
+            final Set<ConfiguredObject<?>> children = _byType.get(child.getType());
+            if (children != null)
+            {
+                children.remove(child);
+            }
+        }
+    }
+
+    private class ChildListener extends AbstractConfigurationChangeListener
+    {
+        @Override
+        public void childAdded(final ConfiguredObject<?> object, final ConfiguredObject<?> child)
+        {
+            if (child.getCategoryClass() == _category)
+            {
+                add(child);
+            }
+        }
+
+        @Override
+        public void childRemoved(final ConfiguredObject<?> object, final ConfiguredObject<?> child)
+        {
+            if (child.getCategoryClass() == _category)
+            {
+                remove(child);
+            }
+        }
+
+        @Override
+        public void stateChanged(final ConfiguredObject<?> object, final State oldState, final State newState)
+        {
+            if (newState != State.ACTIVE)
+            {
+                close();
+            }
+        }
+    }
+}
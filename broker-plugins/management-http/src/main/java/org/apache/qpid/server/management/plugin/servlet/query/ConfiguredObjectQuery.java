@@ -26,6 +26,8 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +51,7 @@ public final class ConfiguredObjectQuery
     private final List<List<Object>> _results;
     private final List<String> _headers;
     private final int _totalNumberOfRows;
+    private final String _nextCursor;
 
     interface HeadersAndValueExpressions
     {
@@ -77,6 +80,23 @@ public final class ConfiguredObjectQuery
                                  String orderByClause,
                                  String limitClause,
                                  String offsetClause)
+    {
+        this(objects, selectClause, whereClause, orderByClause, limitClause, offsetClause, null);
+    }
+
+    /**
+     * @param cursorClause if not null, the query is paged by cursor rather than offset: rows are ordered by the
+     *                     orderBy clause and then by id, and only rows after the position encoded in the cursor
+     *                     returned with the previous page are returned (an empty cursor requests the first page).
+     *                     The offset clause is ignored.
+     */
+    public ConfiguredObjectQuery(List<ConfiguredObject<?>> objects,
+                                 String selectClause,
+                                 String whereClause,
+                                 String orderByClause,
+                                 String limitClause,
+                                 String offsetClause,
+                                 String cursorClause)
     {
         int limit = toInt(limitClause, DEFAULT_LIMIT);
         int offset = toInt(offsetClause, DEFAULT_OFFSET);
@@ -84,10 +104,51 @@ public final class ConfiguredObjectQuery
         HeadersAndValueExpressions headersAndValueExpressions = parseSelectClause(selectClause);
 
         List<ConfiguredObject<?>> filteredObjects = whereClause == null ? objects : filterObjects(objects, whereClause);
-        List<ConfiguredObject<?>> orderedObjects = orderByClause == null ? filteredObjects : orderObjects(filteredObjects,
-                                                                                                          orderByClause,
-                                                                                                          headersAndValueExpressions);
-        List<ConfiguredObject<?>> limitedOrderedObjects = applyLimitAndOffset(orderedObjects, limit, offset);
+        List<ConfiguredObject<?>> limitedOrderedObjects;
+        if (cursorClause != null)
+        {
+            List<OrderByExpression> orderByExpressions = orderByClause == null
+                    ? Collections.<OrderByExpression>emptyList()
+                    : parseOrderByClause(orderByClause, headersAndValueExpressions);
+            OrderByComparator comparator =
+                    new OrderByComparator(orderByExpressions, headersAndValueExpressions.getValueExpressions());
+            List<SortEntry> page = selectPageAfterCursor(filteredObjects, comparator, cursorClause, limit);
+            limitedOrderedObjects = toObjects(page);
+            if (limit > 0 && page.size() == limit)
+            {
+                SortEntry last = page.get(limit - 1);
+                _nextCursor = new QueryCursor(last._keys, last._object.getId()).encode();
+            }
+            else
+            {
+                _nextCursor = null;
+            }
+        }
+        else
+        {
+            if (orderByClause == null)
+            {
+                limitedOrderedObjects = applyLimitAndOffset(filteredObjects, limit, offset);
+            }
+            else if (limit >= 0 && offset >= 0 && (long) offset + limit < filteredObjects.size())
+            {
+                limitedOrderedObjects = applyLimitAndOffset(selectFirstOrderedObjects(filteredObjects,
+                                                                                      orderByClause,
+                                                                                      headersAndValueExpressions,
+                                                                                      offset + limit),
+                                                            limit,
+                                                            offset);
+            }
+            else
+            {
+                limitedOrderedObjects = applyLimitAndOffset(orderObjects(filteredObjects,
+                                                                         orderByClause,
+                                                                         headersAndValueExpressions),
+                                                            limit,
+                                                            offset);
+            }
+            _nextCursor = null;
+        }
 
         _headers = headersAndValueExpressions.getHeaders();
         _results = evaluateResults(limitedOrderedObjects, headersAndValueExpressions.getValueExpressions());
@@ -109,6 +170,15 @@ public final class ConfiguredObjectQuery
         return _totalNumberOfRows;
     }
 
+    /**
+     * @return the cursor to request the page following this one, or null if the query was not paged by cursor or
+     *         there are no further rows
+     */
+    public String getNextCursor()
+    {
+        return _nextCursor;
+    }
+
     private int toInt(String value, int defaultValue)
     {
         int returnValue = defaultValue;
@@ -292,14 +362,34 @@ public final class ConfiguredObjectQuery
         @Override
         public int compare(final Object o1, final Object o2)
         {
+            return compareKeys(evaluateKeys(o1), evaluateKeys(o2));
+        }
+
+        int getNumberOfKeys()
+        {
+            return _orderByExpressions.size();
+        }
+
+        Object[] evaluateKeys(final Object object)
+        {
+            Object[] keys = new Object[_orderByExpressions.size()];
             int index = 0;
-            int comparisonResult = 0;
             for (OrderByExpression orderByExpression : _orderByExpressions)
+            {
+                keys[index++] = orderByExpression.evaluate(object);
+            }
+            return keys;
+        }
+
+        int compareKeys(final Object[] leftKeys, final Object[] rightKeys)
+        {
+            int comparisonResult = 0;
+            for (int index = 0; index < leftKeys.length; index++)
             {
                 try
                 {
-                    Comparable left = (Comparable) orderByExpression.evaluate(o1);
-                    Comparable right = (Comparable) orderByExpression.evaluate(o2);
+                    Comparable left = (Comparable) leftKeys[index];
+                    Comparable right = (Comparable) rightKeys[index];
                     if (left == null && right != null)
                     {
                         comparisonResult = -1;
@@ -315,13 +405,12 @@ public final class ConfiguredObjectQuery
                     if (comparisonResult != 0)
                     {
                         int order = 1;
-                        if (orderByExpression.getOrder() == OrderByExpression.Order.DESC)
+                        if (_orderByExpressions.get(index).getOrder() == OrderByExpression.Order.DESC)
                         {
                             order = -1;
                         }
                         return order * comparisonResult;
                     }
-                    index++;
                 }
                 catch (ClassCastException e)
                 {
@@ -332,16 +421,160 @@ public final class ConfiguredObjectQuery
         }
     }
 
+    /**
+     * An object together with its evaluated orderBy keys, so that each expression is evaluated once per object
+     * rather than once per comparison. The position in the input breaks ties, keeping the ordering stable.
+     */
+    private static final class SortEntry
+    {
+        private final ConfiguredObject<?> _object;
+        private final Object[] _keys;
+        private final int _position;
+
+        private SortEntry(final ConfiguredObject<?> object, final Object[] keys, final int position)
+        {
+            _object = object;
+            _keys = keys;
+            _position = position;
+        }
+    }
+
+    private List<SortEntry> toSortEntries(final List<ConfiguredObject<?>> objects, final OrderByComparator comparator)
+    {
+        List<SortEntry> entries = new ArrayList<>(objects.size());
+        int position = 0;
+        for (ConfiguredObject<?> object : objects)
+        {
+            entries.add(new SortEntry(object, comparator.evaluateKeys(object), position++));
+        }
+        return entries;
+    }
+
+    private Comparator<SortEntry> stableComparator(final OrderByComparator comparator)
+    {
+        return (left, right) ->
+        {
+            int result = comparator.compareKeys(left._keys, right._keys);
+            return result != 0 ? result : Integer.compare(left._position, right._position);
+        };
+    }
+
+    private Comparator<SortEntry> cursorComparator(final OrderByComparator comparator)
+    {
+        return (left, right) ->
+        {
+            int result = comparator.compareKeys(left._keys, right._keys);
+            return result != 0 ? result : compareIds(left._object.getId(), right._object.getId());
+        };
+    }
+
+    private int compareToCursor(final SortEntry entry, final QueryCursor cursor, final OrderByComparator comparator)
+    {
+        Object[] cursorKeys = new Object[entry._keys.length];
+        for (int index = 0; index < cursorKeys.length; index++)
+        {
+            cursorKeys[index] = cursor.getKeyLike(index, entry._keys[index]);
+        }
+        int result = comparator.compareKeys(entry._keys, cursorKeys);
+        return result != 0 ? result : compareIds(entry._object.getId(), cursor.getId());
+    }
+
+    private static int compareIds(final UUID leftId, final UUID rightId)
+    {
+        if (leftId == null || rightId == null)
+        {
+            return leftId == rightId ? 0 : (leftId == null ? -1 : 1);
+        }
+        return leftId.compareTo(rightId);
+    }
+
+    private List<ConfiguredObject<?>> toObjects(final List<SortEntry> entries)
+    {
+        List<ConfiguredObject<?>> objects = new ArrayList<>(entries.size());
+        for (SortEntry entry : entries)
+        {
+            objects.add(entry._object);
+        }
+        return objects;
+    }
+
+    /**
+     * Returns the first {@code count} objects in order, using a bounded heap rather than sorting all objects.
+     */
+    private List<ConfiguredObject<?>> selectFirstOrderedObjects(final List<ConfiguredObject<?>> objects,
+                                                                final String orderByClause,
+                                                                final HeadersAndValueExpressions headersAndValue,
+                                                                final int count)
+    {
+        List<OrderByExpression> orderByExpressions = parseOrderByClause(orderByClause, headersAndValue);
+        OrderByComparator comparator = new OrderByComparator(orderByExpressions, headersAndValue.getValueExpressions());
+        return toObjects(selectFirst(toSortEntries(objects, comparator), stableComparator(comparator), count));
+    }
+
+    private List<SortEntry> selectPageAfterCursor(final List<ConfiguredObject<?>> objects,
+                                                  final OrderByComparator comparator,
+                                                  final String cursor,
+                                                  final int limit)
+    {
+        List<SortEntry> entries = toSortEntries(objects, comparator);
+        Comparator<SortEntry> entryComparator = cursorComparator(comparator);
+        if (!cursor.isEmpty())
+        {
+            QueryCursor position = QueryCursor.decode(cursor, comparator.getNumberOfKeys());
+            List<SortEntry> remaining = new ArrayList<>();
+            for (SortEntry entry : entries)
+            {
+                if (compareToCursor(entry, position, comparator) > 0)
+                {
+                    remaining.add(entry);
+                }
+            }
+            entries = remaining;
+        }
+
+        if (limit < 0 || limit >= entries.size())
+        {
+            entries.sort(entryComparator);
+            return entries;
+        }
+        return selectFirst(entries, entryComparator, limit);
+    }
+
+    private List<SortEntry> selectFirst(final List<SortEntry> entries,
+                                        final Comparator<SortEntry> comparator,
+                                        final int count)
+    {
+        if (count <= 0)
+        {
+            return Collections.emptyList();
+        }
+        PriorityQueue<SortEntry> heap = new PriorityQueue<>(count, comparator.reversed());
+        for (SortEntry entry : entries)
+        {
+            if (heap.size() < count)
+            {
+                heap.add(entry);
+            }
+            else if (comparator.compare(entry, heap.peek()) < 0)
+            {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<SortEntry> first = new ArrayList<>(heap);
+        first.sort(comparator);
+        return first;
+    }
+
     private List<ConfiguredObject<?>> orderObjects(final List<ConfiguredObject<?>> unorderedResults,
                                                    final String orderByClause,
                                                    final HeadersAndValueExpressions headersAndValue)
     {
         List<OrderByExpression> orderByExpressions = parseOrderByClause(orderByClause, headersAndValue);
-        List<ConfiguredObject<?>> orderedObjects = new ArrayList<>(unorderedResults.size());
-        orderedObjects.addAll(unorderedResults);
-        Comparator<Object> comparator = new OrderByComparator(orderByExpressions, headersAndValue.getValueExpressions());
-        Collections.sort(orderedObjects, comparator);
-        return orderedObjects;
+        OrderByComparator comparator = new OrderByComparator(orderByExpressions, headersAndValue.getValueExpressions());
+        List<SortEntry> entries = toSortEntries(unorderedResults, comparator);
+        entries.sort(stableComparator(comparator));
+        return toObjects(entries);
     }
 
     private List<OrderByExpression> parseOrderByClause(final String orderByClause,
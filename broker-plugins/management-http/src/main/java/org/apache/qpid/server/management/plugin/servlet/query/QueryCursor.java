@@ -0,0 +1,208 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.servlet.query;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The position of the last row of a page, as carried between requests by the opaque cursor token: the evaluated
+ * orderBy keys of that row followed by its id. The next page continues after this position even if the row itself
+ * has since been deleted, no longer matches the where clause or has a different sort key.
+ * <p>
+ * Keys are encoded as their JSON representation (dates as milliseconds, enums and UUIDs by name) and are converted
+ * back to the type of the key they are compared with.
+ */
+final class QueryCursor
+{
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<Object>> LIST_TYPE = new TypeReference<List<Object>>()
+    {
+    };
+
+    private final Object[] _keys;
+    private final UUID _id;
+
+    QueryCursor(final Object[] keys, final UUID id)
+    {
+        _keys = keys;
+        _id = id;
+    }
+
+    UUID getId()
+    {
+        return _id;
+    }
+
+    String encode()
+    {
+        final List<Object> values = new ArrayList<>(_keys.length + 1);
+        for (Object key : _keys)
+        {
+            values.add(toJsonValue(key));
+        }
+        values.add(_id == null ? null : _id.toString());
+        try
+        {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(values));
+        }
+        catch (IOException e)
+        {
+            throw new EvaluationException("Unable to encode cursor", new IllegalStateException(e));
+        }
+    }
+
+    static QueryCursor decode(final String token, final int numberOfKeys)
+    {
+        final List<Object> values;
+        try
+        {
+            values = MAPPER.readValue(Base64.getUrlDecoder().decode(token), LIST_TYPE);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            throw new EvaluationException(String.format("Cursor '%s' is invalid", token),
+                                          new IllegalArgumentException(e));
+        }
+
+        if (values == null || values.size() != numberOfKeys + 1)
+        {
+            throw new EvaluationException(String.format("Cursor '%s' does not match the orderBy clause", token));
+        }
+
+        final Object id = values.get(numberOfKeys);
+        try
+        {
+            return new QueryCursor(values.subList(0, numberOfKeys).toArray(),
+                                   id == null ? null : UUID.fromString(String.valueOf(id)));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new EvaluationException(String.format("Cursor '%s' is invalid", token), e);
+        }
+    }
+
+    /**
+     * Returns the cursor key at the given index converted to the type of the given key, so that the two can be
+     * compared. If no conversion applies the cursor key is returned unchanged.
+     */
+    Object getKeyLike(final int index, final Object key)
+    {
+        final Object value = _keys[index];
+        if (value == null || key == null || key.getClass() == value.getClass())
+        {
+            return value;
+        }
+        try
+        {
+            if (key instanceof Number && value instanceof Number)
+            {
+                return toNumberLike((Number) value, (Number) key);
+            }
+            else if (key instanceof Enum)
+            {
+                return toEnum(((Enum<?>) key).getDeclaringClass(), String.valueOf(value));
+            }
+            else if (key instanceof Date && value instanceof Number)
+            {
+                return new Date(((Number) value).longValue());
+            }
+            else if (key instanceof UUID)
+            {
+                return UUID.fromString(String.valueOf(value));
+            }
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new EvaluationException(String.format("Cursor key '%s' is invalid", value), e);
+        }
+        return value;
+    }
+
+    private static Object toJsonValue(final Object key)
+    {
+        if (key == null || key instanceof Number || key instanceof String || key instanceof Boolean)
+        {
+            return key;
+        }
+        else if (key instanceof Date)
+        {
+            return ((Date) key).getTime();
+        }
+        else if (key instanceof Enum)
+        {
+            return ((Enum<?>) key).name();
+        }
+        return String.valueOf(key);
+    }
+
+    private static Number toNumberLike(final Number value, final Number key)
+    {
+        if (key instanceof Long)
+        {
+            return value.longValue();
+        }
+        else if (key instanceof Integer)
+        {
+            return value.intValue();
+        }
+        else if (key instanceof Short)
+        {
+            return value.shortValue();
+        }
+        else if (key instanceof Byte)
+        {
+            return value.byteValue();
+        }
+        else if (key instanceof Double)
+        {
+            return value.doubleValue();
+        }
+        else if (key instanceof Float)
+        {
+            return value.floatValue();
+        }
+        else if (key instanceof BigDecimal)
+        {
+            return new BigDecimal(value.toString());
+        }
+        else if (key instanceof BigInteger)
+        {
+            return new BigInteger(value.toString());
+        }
+        return value;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object toEnum(final Class enumClass, final String name)
+    {
+        return Enum.valueOf(enumClass, name);
+    }
+}
@@ -19,6 +19,7 @@
  */
 package org.apache.qpid.server.management.plugin.servlet.rest;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,6 +33,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,6 +77,42 @@ public class ConfiguredObjectToMapConverter
     }
 
 
+    /**
+     * Writes the same representation as {@link #convertObjectToMap(ConfiguredObject, Class, ConverterOptions)}
+     * directly to the generator, without materialising the intermediate maps for the object and its descendants.
+     */
+    public void writeObject(final JsonGenerator generator,
+                            final SerializerProvider provider,
+                            final ConfiguredObject<?> confObject,
+                            final Class<? extends ConfiguredObject> clazz,
+                            final ConverterOptions converterOptions) throws IOException
+    {
+        generator.writeStartObject();
+
+        writeAttributes(generator, provider, confObject, converterOptions);
+        writeStatistics(generator, provider, confObject);
+
+        if(converterOptions.getDepth() > 0)
+        {
+            writeChildren(generator, provider, confObject, clazz, converterOptions);
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Returns a value which Jackson serialises by streaming the given objects through
+     * {@link #writeObject(JsonGenerator, SerializerProvider, ConfiguredObject, Class, ConverterOptions)}.
+     *
+     * @param objects objects to write, in order
+     * @param asList whether a single object should be written as a one element array
+     */
+    public JsonSerializable toStreamingValue(final Collection<? extends ConfiguredObject<?>> objects,
+                                             final boolean asList,
+                                             final ConverterOptions converterOptions)
+    {
+        return new StreamingValue(objects, asList, converterOptions);
+    }
+
     private void incorporateAttributesIntoMap(
             final ConfiguredObject<?> confObject,
             Map<String, Object> object,
@@ -80,15 +121,7 @@ public class ConfiguredObjectToMapConverter
 
         for(String name : confObject.getAttributeNames())
         {
-            Object value =
-                    converterOptions.isUseActualValues()
-                            ? confObject.getActualAttributes().get(name)
-                            : confObject.getAttribute(name);
-            if (value instanceof ConfiguredObject)
-            {
-                object.put(name, ((ConfiguredObject) value).getName());
-            }
-            else if (ConfiguredObject.CONTEXT.equals(name))
+            if (ConfiguredObject.CONTEXT.equals(name))
             {
                 Map<String, Object> contextValues = collectContext(confObject,
                                                                    converterOptions.isExcludeInheritedContext(),
@@ -99,66 +132,106 @@ public class ConfiguredObjectToMapConverter
                     object.put(ConfiguredObject.CONTEXT, contextValues);
                 }
             }
-            else if (value instanceof Collection)
+            else
             {
-                List<Object> converted = new ArrayList<>();
-                for (Object member : (Collection) value)
+                Object value = convertAttributeValue(confObject, name, converterOptions);
+                if (value != null)
                 {
-                    if (member instanceof ConfiguredObject)
-                    {
-                        converted.add(((ConfiguredObject) member).getName());
-                    }
-                    else
-                    {
-                        converted.add(member);
-                    }
+                    object.put(name, value);
                 }
-                object.put(name, converted);
             }
-            else if (value instanceof Named)
+        }
+    }
+
+    private void writeAttributes(final JsonGenerator generator,
+                                 final SerializerProvider provider,
+                                 final ConfiguredObject<?> confObject,
+                                 final ConverterOptions converterOptions) throws IOException
+    {
+        for (String name : confObject.getAttributeNames())
+        {
+            if (ConfiguredObject.CONTEXT.equals(name))
             {
-                object.put(name, ((Named) value).getName());
+                Map<String, Object> contextValues = collectContext(confObject,
+                                                                   converterOptions.isExcludeInheritedContext(),
+                                                                   converterOptions.isUseActualValues());
+
+                if (!contextValues.isEmpty())
+                {
+                    provider.defaultSerializeField(ConfiguredObject.CONTEXT, contextValues, generator);
+                }
             }
-            else if (value != null)
+            else
             {
-                ConfiguredObjectAttribute<?, ?> attribute = confObject.getModel()
-                        .getTypeRegistry()
-                        .getAttributeTypes(confObject.getClass())
-                        .get(name);
-
-                if (attribute.isSecureValue(value))
+                Object value = convertAttributeValue(confObject, name, converterOptions);
+                if (value != null)
                 {
-                    // do not expose actual secure attribute value
-                    // getAttribute() returns encoded value
-                    value = confObject.getAttribute(name);
+                    provider.defaultSerializeField(name, value, generator);
                 }
+            }
+        }
+    }
 
-                if (attribute.isOversized()
-                    && !converterOptions.isUseActualValues())
+    private Object convertAttributeValue(final ConfiguredObject<?> confObject,
+                                         final String name,
+                                         final ConverterOptions converterOptions)
+    {
+        Object value =
+                converterOptions.isUseActualValues()
+                        ? confObject.getActualAttributes().get(name)
+                        : confObject.getAttribute(name);
+        if (value instanceof ConfiguredObject)
+        {
+            return ((ConfiguredObject) value).getName();
+        }
+        else if (value instanceof Collection)
+        {
+            List<Object> converted = new ArrayList<>();
+            for (Object member : (Collection) value)
+            {
+                if (member instanceof ConfiguredObject)
                 {
-                    String valueString = String.valueOf(value);
-                    if (valueString.length() > converterOptions.getOversizeThreshold())
-                    {
-
-                        String replacementValue = "".equals(attribute.getOversizedAltText())
-                                ? String.valueOf(value).substring(0, converterOptions.getOversizeThreshold() - 4)
-                                  + "..."
-                                : attribute.getOversizedAltText();
-
-                        object.put(name, replacementValue);
-                    }
-                    else
-                    {
-                        object.put(name, value);
-                    }
+                    converted.add(((ConfiguredObject) member).getName());
                 }
                 else
                 {
-                    object.put(name, value);
+                    converted.add(member);
                 }
             }
+            return converted;
+        }
+        else if (value instanceof Named)
+        {
+            return ((Named) value).getName();
+        }
+        else if (value != null)
+        {
+            ConfiguredObjectAttribute<?, ?> attribute = confObject.getModel()
+                    .getTypeRegistry()
+                    .getAttributeTypes(confObject.getClass())
+                    .get(name);
+
+            if (attribute.isSecureValue(value))
+            {
+                // do not expose actual secure attribute value
+                // getAttribute() returns encoded value
+                value = confObject.getAttribute(name);
+            }
 
+            if (attribute.isOversized()
+                && !converterOptions.isUseActualValues())
+            {
+                String valueString = String.valueOf(value);
+                if (valueString.length() > converterOptions.getOversizeThreshold())
+                {
+                    return "".equals(attribute.getOversizedAltText())
+                            ? String.valueOf(value).substring(0, converterOptions.getOversizeThreshold() - 4)
+                              + "..."
+                            : attribute.getOversizedAltText();
+                }
+            }
         }
+        return value;
     }
 
     private Map<String, Object> collectContext(ConfiguredObject<?> configuredObject,
@@ -224,11 +297,74 @@ public class ConfiguredObjectToMapConverter
 
     }
 
+    private void writeStatistics(final JsonGenerator generator,
+                                 final SerializerProvider provider,
+                                 final ConfiguredObject<?> confObject) throws IOException
+    {
+        Map<String, Object> statMap = new TreeMap<String,Object>(confObject.getStatistics());
+
+        if(!statMap.isEmpty())
+        {
+            generator.writeObjectFieldStart(STATISTICS_MAP_KEY);
+            for (Map.Entry<String, Object> statistic : statMap.entrySet())
+            {
+                provider.defaultSerializeField(statistic.getKey(), statistic.getValue(), generator);
+            }
+            generator.writeEndObject();
+        }
+    }
+
     private void incorporateChildrenIntoMap(
             final ConfiguredObject confObject,
             Class<? extends ConfiguredObject> clazz,
             Map<String, Object> object,
             ConverterOptions converterOptions)
+    {
+        ConverterOptions childConverterOptions = new ConverterOptions(converterOptions, converterOptions.getDepth() - 1);
+        for(Class<? extends ConfiguredObject> childClass : getSortedChildTypes(confObject, clazz))
+        {
+            List<? extends ConfiguredObject> sortedChildren = getSortedChildren(confObject, childClass);
+            if (!sortedChildren.isEmpty())
+            {
+                List<Map<String, Object>> childObjects = new ArrayList<>();
+
+                for (ConfiguredObject child : sortedChildren)
+                {
+                    childObjects.add(convertObjectToMap(child,
+                                                        childClass,
+                                                        childConverterOptions));
+
+                }
+
+                object.put(getChildrenKey(childClass), childObjects);
+            }
+        }
+    }
+
+    private void writeChildren(final JsonGenerator generator,
+                               final SerializerProvider provider,
+                               final ConfiguredObject<?> confObject,
+                               final Class<? extends ConfiguredObject> clazz,
+                               final ConverterOptions converterOptions) throws IOException
+    {
+        ConverterOptions childConverterOptions = new ConverterOptions(converterOptions, converterOptions.getDepth() - 1);
+        for(Class<? extends ConfiguredObject> childClass : getSortedChildTypes(confObject, clazz))
+        {
+            List<? extends ConfiguredObject> sortedChildren = getSortedChildren(confObject, childClass);
+            if (!sortedChildren.isEmpty())
+            {
+                generator.writeArrayFieldStart(getChildrenKey(childClass));
+                for (ConfiguredObject<?> child : sortedChildren)
+                {
+                    writeObject(generator, provider, child, childClass, childConverterOptions);
+                }
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private List<Class<? extends ConfiguredObject>> getSortedChildTypes(final ConfiguredObject<?> confObject,
+                                                                        final Class<? extends ConfiguredObject> clazz)
     {
         List<Class<? extends ConfiguredObject>> childTypes = new ArrayList<>(confObject.getModel().getChildTypes(clazz));
 
@@ -240,51 +376,83 @@ public class ConfiguredObjectToMapConverter
                 return o1.getSimpleName().compareTo(o2.getSimpleName());
             }
         });
+        return childTypes;
+    }
 
-        ConverterOptions childConverterOptions = new ConverterOptions(converterOptions, converterOptions.getDepth() - 1);
-        for(Class<? extends ConfiguredObject> childClass : childTypes)
+    private List<? extends ConfiguredObject> getSortedChildren(final ConfiguredObject<?> confObject,
+                                                               final Class<? extends ConfiguredObject> childClass)
+    {
+        Collection children = confObject.getChildren(childClass);
+        if (children == null)
+        {
+            return Collections.emptyList();
+        }
+        List<? extends ConfiguredObject> sortedChildren = new ArrayList<ConfiguredObject>(children);
+        if (Comparable.class.isAssignableFrom(childClass))
+        {
+            Collections.sort((List) sortedChildren);
+        }
+        else
         {
-            Collection children = confObject.getChildren(childClass);
-            if (children != null)
+            Collections.sort(sortedChildren, new Comparator<ConfiguredObject>()
             {
-                List<? extends ConfiguredObject> sortedChildren = new ArrayList<ConfiguredObject>(children);
-                if (Comparable.class.isAssignableFrom(childClass))
-                {
-                    Collections.sort((List) sortedChildren);
-                }
-                else
+                @Override
+                public int compare(final ConfiguredObject o1, final ConfiguredObject o2)
                 {
-                    Collections.sort(sortedChildren, new Comparator<ConfiguredObject>()
-                    {
-                        @Override
-                        public int compare(final ConfiguredObject o1, final ConfiguredObject o2)
-                        {
-                            return o1.getName().compareTo(o2.getName());
-                        }
-                    });
+                    return o1.getName().compareTo(o2.getName());
                 }
-                List<Map<String, Object>> childObjects = new ArrayList<>();
+            });
+        }
+        return sortedChildren;
+    }
 
+    private String getChildrenKey(final Class<? extends ConfiguredObject> childClass)
+    {
+        String childTypeSingular = childClass.getSimpleName().toLowerCase();
+        return childTypeSingular + (childTypeSingular.endsWith("s") ? "es" : "s");
+    }
 
-                for (ConfiguredObject child : sortedChildren)
-                {
-                    childObjects.add(convertObjectToMap(child,
-                                                        childClass,
-                                                        childConverterOptions));
+    private final class StreamingValue extends JsonSerializable.Base
+    {
+        private final Collection<? extends ConfiguredObject<?>> _objects;
+        private final boolean _asList;
+        private final ConverterOptions _converterOptions;
 
-                }
+        private StreamingValue(final Collection<? extends ConfiguredObject<?>> objects,
+                               final boolean asList,
+                               final ConverterOptions converterOptions)
+        {
+            _objects = objects;
+            _asList = asList;
+            _converterOptions = converterOptions;
+        }
 
-                if (!childObjects.isEmpty())
-                {
-                    String childTypeSingular = childClass.getSimpleName().toLowerCase();
-                    object.put(childTypeSingular + (childTypeSingular.endsWith("s") ? "es" : "s"), childObjects);
-                }
+        @Override
+        public void serialize(final JsonGenerator generator, final SerializerProvider provider) throws IOException
+        {
+            if (_asList)
+            {
+                generator.writeStartArray();
             }
+            for (ConfiguredObject<?> object : _objects)
+            {
+                writeObject(generator, provider, object, object.getCategoryClass(), _converterOptions);
+            }
+            if (_asList)
+            {
+                generator.writeEndArray();
+            }
+        }
 
+        @Override
+        public void serializeWithType(final JsonGenerator generator,
+                                      final SerializerProvider provider,
+                                      final TypeSerializer typeSerializer) throws IOException
+        {
+            serialize(generator, provider);
         }
     }
 
-
     public static final class ConverterOptions
     {
         private final int _depth;
@@ -0,0 +1,305 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.servlet.rest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.ConfiguredObjectStatistic;
+import org.apache.qpid.server.model.ConfiguredObjectTypeRegistry;
+import org.apache.qpid.server.model.Model;
+import org.apache.qpid.server.model.StatisticType;
+
+/**
+ * Exposes the statistics of the managed object and all of its descendants in the OpenMetrics text format.
+ *
+ * Objects are collected per category, then each statistic is written as a metric family by iterating over
+ * the objects of its category, so values are written straight to the response without being converted to maps.
+ * The categories included can be restricted using the {@value #INCLUDE_CATEGORY_PARAM} and
+ * {@value #EXCLUDE_CATEGORY_PARAM} request parameters.
+ */
+public class MetricsServlet extends AbstractServlet
+{
+    private static final long serialVersionUID = 1L;
+
+    static final String INCLUDE_CATEGORY_PARAM = "includeCategory";
+    static final String EXCLUDE_CATEGORY_PARAM = "excludeCategory";
+    static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    private static final String METRIC_PREFIX = "qpid_";
+
+    public MetricsServlet()
+    {
+        super();
+    }
+
+    @Override
+    protected void doGet(final HttpServletRequest request,
+                         final HttpServletResponse response,
+                         final ConfiguredObject<?> managedObject) throws IOException, ServletException
+    {
+        final Model model = managedObject.getModel();
+        final Set<Class<? extends ConfiguredObject>> selected = getSelectedCategories(request, managedObject);
+        final Set<Class<? extends ConfiguredObject>> visited = new HashSet<>(selected);
+        for (Class<? extends ConfiguredObject> category : selected)
+        {
+            visited.addAll(model.getAncestorCategories(category));
+        }
+
+        final Map<Class<? extends ConfiguredObject>, List<ConfiguredObject<?>>> objectsByCategory = new LinkedHashMap<>();
+        collectObjects(managedObject, managedObject.getCategoryClass(), selected, visited, objectsByCategory);
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(CONTENT_TYPE);
+        sendCachingHeadersOnResponse(response);
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(getOutputStream(request, response),
+                                                                       StandardCharsets.UTF_8)))
+        {
+            for (Map.Entry<Class<? extends ConfiguredObject>, List<ConfiguredObject<?>>> entry : objectsByCategory.entrySet())
+            {
+                writeCategory(writer, model.getTypeRegistry(), entry.getKey(), entry.getValue());
+            }
+            writer.write("# EOF\n");
+        }
+    }
+
+    private Set<Class<? extends ConfiguredObject>> getSelectedCategories(final HttpServletRequest request,
+                                                                         final ConfiguredObject<?> managedObject)
+    {
+        final Model model = managedObject.getModel();
+        final Set<Class<? extends ConfiguredObject>> categories = new HashSet<>();
+        categories.add(managedObject.getCategoryClass());
+        categories.addAll(model.getDescendantCategories(managedObject.getCategoryClass()));
+
+        final Collection<String> included = getCategoryNames(request, INCLUDE_CATEGORY_PARAM);
+        final Collection<String> excluded = getCategoryNames(request, EXCLUDE_CATEGORY_PARAM);
+        categories.removeIf(category -> (!included.isEmpty() && !included.contains(category.getSimpleName().toLowerCase()))
+                                        || excluded.contains(category.getSimpleName().toLowerCase()));
+        return categories;
+    }
+
+    private Collection<String> getCategoryNames(final HttpServletRequest request, final String parameterName)
+    {
+        final String[] values = request.getParameterValues(parameterName);
+        if (values == null)
+        {
+            return Collections.emptySet();
+        }
+        final Set<String> names = new HashSet<>();
+        for (String value : values)
+        {
+            Arrays.stream(value.split(",")).map(String::trim).map(String::toLowerCase).forEach(names::add);
+        }
+        return names;
+    }
+
+    private void collectObjects(final ConfiguredObject<?> object,
+                                final Class<? extends ConfiguredObject> category,
+                                final Set<Class<? extends ConfiguredObject>> selected,
+                                final Set<Class<? extends ConfiguredObject>> visited,
+                                final Map<Class<? extends ConfiguredObject>, List<ConfiguredObject<?>>> objectsByCategory)
+    {
+        if (selected.contains(category))
+        {
+            objectsByCategory.computeIfAbsent(category, c -> new ArrayList<>()).add(object);
+        }
+        for (Class<? extends ConfiguredObject> childCategory : object.getModel().getChildTypes(category))
+        {
+            if (visited.contains(childCategory))
+            {
+                for (ConfiguredObject<?> child : object.getChildren(childCategory))
+                {
+                    collectObjects(child, childCategory, selected, visited, objectsByCategory);
+                }
+            }
+        }
+    }
+
+    private void writeCategory(final Writer writer,
+                               final ConfiguredObjectTypeRegistry typeRegistry,
+                               final Class<? extends ConfiguredObject> category,
+                               final List<ConfiguredObject<?>> objects) throws IOException
+    {
+        // the statistics of each type within the category, keyed by name
+        final Map<Class<?>, Map<String, ConfiguredObjectStatistic<?, ?>>> statisticsByType = new HashMap<>();
+        final Map<String, ConfiguredObjectStatistic<?, ?>> families = new LinkedHashMap<>();
+        for (ConfiguredObject<?> object : objects)
+        {
+            if (!statisticsByType.containsKey(object.getClass()))
+            {
+                final Map<String, ConfiguredObjectStatistic<?, ?>> statistics = new HashMap<>();
+                for (ConfiguredObjectStatistic<?, ?> statistic : typeRegistry.getStatistics(object.getClass()))
+                {
+                    statistics.put(statistic.getName(), statistic);
+                    families.putIfAbsent(statistic.getName(), statistic);
+                }
+                statisticsByType.put(object.getClass(), statistics);
+            }
+        }
+
+        final String categoryName = category.getSimpleName().toLowerCase();
+        for (ConfiguredObjectStatistic<?, ?> family : families.values())
+        {
+            final String familyName = METRIC_PREFIX + categoryName + "_" + toSnakeCase(family.getName());
+            final boolean counter = family.getStatisticType() == StatisticType.CUMULATIVE;
+            writer.write("# TYPE " + familyName + (counter ? " counter\n" : " gauge\n"));
+            writer.write("# HELP " + familyName + " " + escapeHelp(family.getDescription()) + "\n");
+
+            final String sampleName = counter ? familyName + "_total" : familyName;
+            for (ConfiguredObject<?> object : objects)
+            {
+                final ConfiguredObjectStatistic statistic = statisticsByType.get(object.getClass()).get(family.getName());
+                if (statistic != null)
+                {
+                    writeSample(writer, sampleName, object, statistic.getValue(object));
+                }
+            }
+        }
+    }
+
+    private void writeSample(final Writer writer,
+                             final String sampleName,
+                             final ConfiguredObject<?> object,
+                             final Object value) throws IOException
+    {
+        final String formattedValue;
+        if (value instanceof Double || value instanceof Float)
+        {
+            formattedValue = formatDouble(((Number) value).doubleValue());
+        }
+        else if (value instanceof Number)
+        {
+            formattedValue = String.valueOf(((Number) value).longValue());
+        }
+        else if (value instanceof Date)
+        {
+            formattedValue = formatDouble(((Date) value).getTime() / 1000.0);
+        }
+        else
+        {
+            return;
+        }
+
+        writer.write(sampleName);
+        writer.write('{');
+        writeLabels(writer, object);
+        writer.write("} ");
+        writer.write(formattedValue);
+        writer.write('\n');
+    }
+
+    private void writeLabels(final Writer writer, final ConfiguredObject<?> object) throws IOException
+    {
+        writeAncestorLabels(writer, object.getParent());
+        writer.write("name=\"");
+        writer.write(escapeLabelValue(object.getName()));
+        writer.write('"');
+    }
+
+    private void writeAncestorLabels(final Writer writer, final ConfiguredObject<?> ancestor) throws IOException
+    {
+        // the root of the hierarchy (the broker) is not labelled
+        if (ancestor != null && ancestor.getParent() != null)
+        {
+            writeAncestorLabels(writer, ancestor.getParent());
+            writer.write(ancestor.getCategoryClass().getSimpleName().toLowerCase());
+            writer.write("=\"");
+            writer.write(escapeLabelValue(ancestor.getName()));
+            writer.write("\",");
+        }
+    }
+
+    static String toSnakeCase(final String name)
+    {
+        final StringBuilder builder = new StringBuilder(name.length() + 8);
+        for (int i = 0; i < name.length(); i++)
+        {
+            final char c = name.charAt(i);
+            if (Character.isUpperCase(c))
+            {
+                if (i > 0)
+                {
+                    builder.append('_');
+                }
+                builder.append(Character.toLowerCase(c));
+            }
+            else if (Character.isLetterOrDigit(c))
+            {
+                builder.append(c);
+            }
+            else
+            {
+                builder.append('_');
+            }
+        }
+        return builder.toString();
+    }
+
+    static String escapeLabelValue(final String value)
+    {
+        if (value == null)
+        {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    static String escapeHelp(final String value)
+    {
+        if (value == null)
+        {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    static String formatDouble(final double value)
+    {
+        if (Double.isNaN(value))
+        {
+            return "NaN";
+        }
+        else if (Double.isInfinite(value))
+        {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+}
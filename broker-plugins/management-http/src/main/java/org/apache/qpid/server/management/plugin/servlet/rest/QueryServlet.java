@@ -23,6 +23,7 @@ package org.apache.qpid.server.management.plugin.servlet.rest;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,6 +48,10 @@ public abstract class QueryServlet<X extends ConfiguredObject<?>> extends Abstra
 
     private static final CSVFormat CSV_FORMAT = new CSVFormat();
 
+    static final String NAME_PREFIX_PARAM = "namePrefix";
+    static final String TYPE_PARAM = "type";
+    static final String DURABLE_PARAM = "durable";
+
     @Override
     protected void doGet(HttpServletRequest request,
                          HttpServletResponse response,
@@ -81,7 +86,8 @@ public abstract class QueryServlet<X extends ConfiguredObject<?>> extends Abstra
 
             if (category != null)
             {
-                List<ConfiguredObject<?>> objects = getAllObjects(parent, category, request);
+                List<ConfiguredObject<?>> objects = filterByIndexedAttributes(getAllObjects(parent, category, request),
+                                                                             request);
 
                 try
                 {
@@ -90,7 +96,8 @@ public abstract class QueryServlet<X extends ConfiguredObject<?>> extends Abstra
                                                                             request.getParameter("where"),
                                                                             request.getParameter("orderBy"),
                                                                             request.getParameter("limit"),
-                                                                            request.getParameter("offset"));
+                                                                            request.getParameter("offset"),
+                                                                            request.getParameter("cursor"));
 
 
                     String attachmentFilename = request.getParameter(CONTENT_DISPOSITION_ATTACHMENT_FILENAME_PARAM);
@@ -109,6 +116,10 @@ public abstract class QueryServlet<X extends ConfiguredObject<?>> extends Abstra
                         resultsObject.put("headers", query.getHeaders());
                         resultsObject.put("results", query.getResults());
                         resultsObject.put("total", query.getTotalNumberOfRows());
+                        if (request.getParameter("cursor") != null)
+                        {
+                            resultsObject.put("cursor", query.getNextCursor());
+                        }
 
                         sendJsonResponse(resultsObject, request, response);
                     }
@@ -144,6 +155,35 @@ public abstract class QueryServlet<X extends ConfiguredObject<?>> extends Abstra
 
     }
 
+    /**
+     * Applies the namePrefix, type and durable request parameters. Implementations of
+     * {@link #getAllObjects(ConfiguredObject, Class, HttpServletRequest)} may use an index to pre-select on these
+     * parameters; they are re-checked here so that the result does not depend on whether an index was used.
+     */
+    private List<ConfiguredObject<?>> filterByIndexedAttributes(final List<ConfiguredObject<?>> objects,
+                                                                final HttpServletRequest request)
+    {
+        final String namePrefix = request.getParameter(NAME_PREFIX_PARAM);
+        final String type = request.getParameter(TYPE_PARAM);
+        final String durable = request.getParameter(DURABLE_PARAM);
+        if (namePrefix == null && type == null && durable == null)
+        {
+            return objects;
+        }
+
+        final List<ConfiguredObject<?>> filtered = new ArrayList<>();
+        for (ConfiguredObject<?> object : objects)
+        {
+            if ((namePrefix == null || (object.getName() != null && object.getName().startsWith(namePrefix)))
+                && (type == null || type.equals(object.getType()))
+                && (durable == null || Boolean.parseBoolean(durable) == object.isDurable()))
+            {
+                filtered.add(object);
+            }
+        }
+        return filtered;
+    }
+
     private void sendCsvResponse(final ConfiguredObjectQuery query,
                                  final HttpServletResponse response)
             throws IOException
@@ -21,6 +21,7 @@
 package org.apache.qpid.server.management.plugin.servlet.rest;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import javax.servlet.ServletException;
@@ -70,13 +71,16 @@ public class QueueReportServlet extends AbstractServlet
             ReportRunner<?> reportRunner = ReportRunner.createRunner(reportName,request.getParameterMap());
             Object output = reportRunner.runReport(queue);
             response.setContentType(reportRunner.getContentType());
-            if(reportRunner.isBinaryReport())
+            try (OutputStream outputStream = getOutputStream(request, response))
             {
-                response.getOutputStream().write((byte[])output);
-            }
-            else
-            {
-                response.getWriter().write((String)output);
+                if (reportRunner.isBinaryReport())
+                {
+                    outputStream.write((byte[]) output);
+                }
+                else
+                {
+                    outputStream.write(((String) output).getBytes(response.getCharacterEncoding()));
+                }
             }
         }
         else
@@ -260,7 +260,7 @@ public class RestServlet extends AbstractServlet
             response.setContentType(APPLICATION_JSON);
             if (body != null && managementResponse.getType() == ResponseType.MODEL_OBJECT)
             {
-                body = controller.formatConfiguredObject(
+                body = controller.formatConfiguredObjectForStreaming(
                         managementResponse.getBody(),
                         parameters,
                         managementRequest.isSecure()
@@ -25,14 +25,19 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.qpid.server.management.plugin.HttpManagementUtil;
+import org.apache.qpid.server.management.plugin.servlet.query.ConfiguredObjectIndex;
+import org.apache.qpid.server.model.AbstractConfigurationChangeListener;
 import org.apache.qpid.server.model.Broker;
 import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.Connection;
 import org.apache.qpid.server.model.Model;
+import org.apache.qpid.server.model.State;
 import org.apache.qpid.server.model.VirtualHost;
 import org.apache.qpid.server.model.VirtualHostNode;
 
@@ -40,6 +45,9 @@ public class VirtualHostQueryServlet extends QueryServlet<VirtualHost<?>>
 {
     private static final long serialVersionUID = 1L;
 
+    private final transient Map<VirtualHost<?>, Map<Class<? extends ConfiguredObject>, ConfiguredObjectIndex>>
+            _indexes = new ConcurrentHashMap<>();
+
     @Override
     protected VirtualHost<?> getParent(final HttpServletRequest request, final ConfiguredObject<?> managedObject)
     {
@@ -142,6 +150,14 @@ public class VirtualHostQueryServlet extends QueryServlet<VirtualHost<?>>
                 }
             }
             Collections.reverse(hierarchy);
+            final String namePrefix = request.getParameter(NAME_PREFIX_PARAM);
+            final String type = request.getParameter(TYPE_PARAM);
+            if (hierarchy.size() == 1
+                && (namePrefix != null || type != null)
+                && virtualHost.getState() == State.ACTIVE)
+            {
+                return getIndexedObjects(virtualHost, category, namePrefix, type);
+            }
             Collection<ConfiguredObject<?>> parents = Collections.<ConfiguredObject<?>>singletonList(virtualHost);
             return getObjects(hierarchy, parents);
         }
@@ -180,6 +196,43 @@ public class VirtualHostQueryServlet extends QueryServlet<VirtualHost<?>>
         }
     }
 
+    private List<ConfiguredObject<?>> getIndexedObjects(final VirtualHost<?> virtualHost,
+                                                        final Class<? extends ConfiguredObject> category,
+                                                        final String namePrefix,
+                                                        final String type)
+    {
+        final List<ConfiguredObject<?>> objects = new ArrayList<>();
+        for (ConfiguredObject<?> child : getIndex(virtualHost, category).select(namePrefix, type))
+        {
+            if (virtualHost.getChildById(category, child.getId()) == child)
+            {
+                objects.add(child);
+            }
+        }
+        return objects;
+    }
+
+    private ConfiguredObjectIndex getIndex(final VirtualHost<?> virtualHost,
+                                           final Class<? extends ConfiguredObject> category)
+    {
+        final Map<Class<? extends ConfiguredObject>, ConfiguredObjectIndex> indexes =
+                _indexes.computeIfAbsent(virtualHost, vh ->
+                {
+                    vh.addChangeListener(new IndexDiscardingListener());
+                    return new ConcurrentHashMap<>();
+                });
+        synchronized (indexes)
+        {
+            ConfiguredObjectIndex index = indexes.get(category);
+            if (index == null || !index.isValid())
+            {
+                index = new ConfiguredObjectIndex(virtualHost, category);
+                indexes.put(category, index);
+            }
+            return index;
+        }
+    }
+
     private List<ConfiguredObject<?>> getObjects(final List<Class<? extends ConfiguredObject>> hierarchy,
                                                  Collection<ConfiguredObject<?>> parents)
     {
@@ -196,4 +249,21 @@ public class VirtualHostQueryServlet extends QueryServlet<VirtualHost<?>>
 
         return new ArrayList<>(children);
     }
+
+    /**
+     * Drops the indexes of a virtual host once it leaves the active state, so that the servlet does not keep
+     * stopped or deleted virtual hosts reachable.
+     */
+    private class IndexDiscardingListener extends AbstractConfigurationChangeListener
+    {
+        @Override
+        public void stateChanged(final ConfiguredObject<?> object, final State oldState, final State newState)
+        {
+            if (newState != State.ACTIVE)
+            {
+                object.removeChangeListener(this);
+                _indexes.remove(object);
+            }
+        }
+    }
 }
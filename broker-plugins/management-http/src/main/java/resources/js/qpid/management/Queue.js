@@ -359,13 +359,15 @@ define(["dojo/_base/declare",
         var queueTypeKeys = {
             priority: "priorities",
             lvq: "lvqKey",
-            sorted: "sortKey"
+            sorted: "sortKey",
+            ring: "ringSize"
         };
 
         var queueTypeKeyNames = {
             priority: "Number of priorities",
             lvq: "LVQ key",
-            sorted: "Sort key"
+            sorted: "Sort key",
+            ring: "Ring size"
         };
 
         function QueueUpdater(tabObject)
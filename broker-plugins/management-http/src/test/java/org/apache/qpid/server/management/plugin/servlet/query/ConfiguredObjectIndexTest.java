@@ -0,0 +1,116 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.servlet.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.qpid.server.model.ConfigurationChangeListener;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.model.State;
+import org.apache.qpid.server.model.VirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ConfiguredObjectIndexTest extends UnitTestBase
+{
+    private VirtualHost<?> _parent;
+    private Queue<?> _fooStandard;
+    private Queue<?> _fooPriority;
+    private Queue<?> _bar;
+    private ConfiguredObjectIndex _index;
+    private ConfigurationChangeListener _listener;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _parent = mock(VirtualHost.class);
+        _fooStandard = createQueue("foo.standard", "standard");
+        _fooPriority = createQueue("foo.priority", "priority");
+        _bar = createQueue("bar", "standard");
+        when(_parent.getChildren(Queue.class)).thenReturn((Collection) Arrays.asList(_fooStandard, _fooPriority, _bar));
+
+        _index = new ConfiguredObjectIndex(_parent, Queue.class);
+
+        final ArgumentCaptor<ConfigurationChangeListener> captor =
+                ArgumentCaptor.forClass(ConfigurationChangeListener.class);
+        verify(_parent).addChangeListener(captor.capture());
+        _listener = captor.getValue();
+    }
+
+    @Test
+    public void testSelect()
+    {
+        assertSelected(_index.select("foo.", null), _fooStandard, _fooPriority);
+        assertSelected(_index.select("foo.", "priority"), _fooPriority);
+        assertSelected(_index.select(null, "standard"), _fooStandard, _bar);
+        assertSelected(_index.select(null, null), _fooStandard, _fooPriority, _bar);
+        assertSelected(_index.select("baz", null));
+    }
+
+    @Test
+    public void testMaintainedOnChildAddAndRemove()
+    {
+        final Queue<?> fooOther = createQueue("foo.other", "standard");
+        _listener.childAdded(_parent, fooOther);
+        assertSelected(_index.select("foo.", "standard"), _fooStandard, fooOther);
+
+        _listener.childRemoved(_parent, _fooStandard);
+        assertSelected(_index.select("foo.", "standard"), fooOther);
+        assertSelected(_index.select(null, "standard"), fooOther, _bar);
+    }
+
+    @Test
+    public void testInvalidatedWhenParentStops()
+    {
+        assertTrue(_index.isValid());
+        _listener.stateChanged(_parent, State.ACTIVE, State.STOPPED);
+        assertFalse(_index.isValid());
+        verify(_parent).removeChangeListener(any(ConfigurationChangeListener.class));
+    }
+
+    private Queue<?> createQueue(final String name, final String type)
+    {
+        final Queue<?> queue = mock(Queue.class);
+        when(queue.getName()).thenReturn(name);
+        when(queue.getType()).thenReturn(type);
+        when(queue.getCategoryClass()).thenReturn((Class) Queue.class);
+        return queue;
+    }
+
+    private void assertSelected(final Collection<ConfiguredObject<?>> selected, final ConfiguredObject<?>... expected)
+    {
+        assertEquals("Unexpected selection", new HashSet<>(Arrays.asList(expected)), new HashSet<>(selected));
+    }
+}
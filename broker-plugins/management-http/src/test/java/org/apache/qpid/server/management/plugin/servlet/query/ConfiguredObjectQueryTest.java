@@ -21,6 +21,7 @@
 package org.apache.qpid.server.management.plugin.servlet.query;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -776,6 +777,182 @@ public class ConfiguredObjectQueryTest extends UnitTestBase
         assertQueryResults(new Object[][]{{"test-0"},{"test-1"},{"test-2"}}, _query.getResults());
     }
 
+    @Test
+    public void testLimitAndOffsetWithOrderByMatchesFullSort()
+    {
+        final int numberOfTestObjects = 50;
+        for (int i = 0; i < numberOfTestObjects; i++)
+        {
+            final String name = String.format("test-%02d", i);
+            final int depth = (i * 7) % 10;
+            _objects.add(createCO(new HashMap<String, Object>()
+            {{
+                put("name", name);
+                put(NUMBER_ATTR, depth);
+            }}));
+        }
+
+        final ConfiguredObjectQuery fullSort =
+                new ConfiguredObjectQuery(_objects, "name," + NUMBER_ATTR, null, NUMBER_ATTR + " DESC");
+        for (int offset = 0; offset < numberOfTestObjects; offset += 7)
+        {
+            _query = new ConfiguredObjectQuery(_objects,
+                                               "name," + NUMBER_ATTR,
+                                               null,
+                                               NUMBER_ATTR + " DESC",
+                                               "5",
+                                               String.valueOf(offset));
+            final List<List<Object>> expected =
+                    fullSort.getResults().subList(offset, Math.min(numberOfTestObjects, offset + 5));
+            assertEquals("Unexpected page at offset " + offset, expected, _query.getResults());
+            assertEquals("Unexpected total", numberOfTestObjects, _query.getTotalNumberOfRows());
+        }
+    }
+
+    @Test
+    public void testCursorPagination()
+    {
+        final int numberOfTestObjects = 10;
+        for (int i = 0; i < numberOfTestObjects; i++)
+        {
+            final String name = "test-" + i;
+            final int depth = i % 3;
+            final UUID id = new UUID(0, i);
+            final ConfiguredObject object = createCO(new HashMap<String, Object>()
+            {{
+                put("name", name);
+                put(NUMBER_ATTR, depth);
+            }});
+            when(object.getId()).thenReturn(id);
+            _objects.add(object);
+        }
+
+        final List<Object> pagedNames = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null)
+        {
+            _query = new ConfiguredObjectQuery(_objects, "name", null, NUMBER_ATTR, "4", null, cursor);
+            for (List<Object> row : _query.getResults())
+            {
+                pagedNames.add(row.get(0));
+            }
+            cursor = _query.getNextCursor();
+            pages++;
+        }
+
+        assertEquals("Unexpected number of pages", 3, pages);
+        assertEquals("Unexpected paged rows",
+                     Lists.newArrayList("test-0", "test-3", "test-6", "test-9",
+                                        "test-1", "test-4", "test-7",
+                                        "test-2", "test-5", "test-8"),
+                     pagedNames);
+
+        try
+        {
+            new ConfiguredObjectQuery(_objects, "name", null, NUMBER_ATTR, "4", null, "unknown");
+            fail("Exception is expected for unknown cursor");
+        }
+        catch (EvaluationException e)
+        {
+            // pass
+        }
+    }
+
+    @Test
+    public void testCursorPaginationWhenSortKeyOfCursorRowChanges()
+    {
+        final List<ConfiguredObject> objects = createCursorTestObjects(10);
+
+        _query = new ConfiguredObjectQuery(_objects, "name", null, NUMBER_ATTR, "4", null, "");
+        assertEquals("Unexpected first page",
+                     Lists.newArrayList("test-0", "test-3", "test-6", "test-9"),
+                     getColumn(_query.getResults(), 0));
+
+        // the last row of the first page moves to the end of the ordering between requests
+        when(objects.get(9).getAttribute(NUMBER_ATTR)).thenReturn(2);
+
+        _query = new ConfiguredObjectQuery(_objects, "name", null, NUMBER_ATTR, "4", null, _query.getNextCursor());
+        assertEquals("Unexpected second page",
+                     Lists.newArrayList("test-1", "test-4", "test-7", "test-2"),
+                     getColumn(_query.getResults(), 0));
+    }
+
+    @Test
+    public void testCursorPaginationWhenCursorRowRemoved()
+    {
+        final List<ConfiguredObject> objects = createCursorTestObjects(10);
+
+        _query = new ConfiguredObjectQuery(_objects, "name", null, NUMBER_ATTR, "4", null, "");
+        final String cursor = _query.getNextCursor();
+
+        _objects.remove(objects.get(9));
+
+        _query = new ConfiguredObjectQuery(_objects, "name", null, NUMBER_ATTR, "4", null, cursor);
+        assertEquals("Unexpected second page",
+                     Lists.newArrayList("test-1", "test-4", "test-7", "test-2"),
+                     getColumn(_query.getResults(), 0));
+
+        _query = new ConfiguredObjectQuery(_objects,
+                                           "name",
+                                           String.format("%s <> 1", NUMBER_ATTR),
+                                           NUMBER_ATTR,
+                                           "4",
+                                           null,
+                                           cursor);
+        assertEquals("Unexpected second page with where clause",
+                     Lists.newArrayList("test-2", "test-5", "test-8"),
+                     getColumn(_query.getResults(), 0));
+        assertNull("Unexpected cursor for last page", _query.getNextCursor());
+    }
+
+    @Test
+    public void testCursorNotMatchingOrderBy()
+    {
+        createCursorTestObjects(10);
+
+        _query = new ConfiguredObjectQuery(_objects, "name", null, NUMBER_ATTR, "4", null, "");
+        try
+        {
+            new ConfiguredObjectQuery(_objects, "name", null, NUMBER_ATTR + ", name", "4", null,
+                                      _query.getNextCursor());
+            fail("Exception is expected for cursor of a different ordering");
+        }
+        catch (EvaluationException e)
+        {
+            // pass
+        }
+    }
+
+    private List<ConfiguredObject> createCursorTestObjects(final int numberOfTestObjects)
+    {
+        final List<ConfiguredObject> objects = new ArrayList<>();
+        for (int i = 0; i < numberOfTestObjects; i++)
+        {
+            final String name = "test-" + i;
+            final int depth = i % 3;
+            final ConfiguredObject object = createCO(new HashMap<String, Object>()
+            {{
+                put("name", name);
+                put(NUMBER_ATTR, depth);
+            }});
+            when(object.getId()).thenReturn(new UUID(0, i));
+            objects.add(object);
+            _objects.add(object);
+        }
+        return objects;
+    }
+
+    private List<Object> getColumn(final List<List<Object>> results, final int column)
+    {
+        final List<Object> values = new ArrayList<>();
+        for (List<Object> row : results)
+        {
+            values.add(row.get(column));
+        }
+        return values;
+    }
+
     private void assertQueryResults(final Object[][] expectedAttributes,
                                     final List<List<Object>> results)
     {
@@ -39,11 +39,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
 import org.junit.Test;
 
 import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.ConfiguredObjectAttribute;
+import org.apache.qpid.server.model.ConfiguredObjectJacksonModule;
 import org.apache.qpid.server.model.ConfiguredObjectMethodAttribute;
 import org.apache.qpid.server.model.ConfiguredObjectTypeRegistry;
 import org.apache.qpid.server.model.Model;
@@ -484,6 +487,29 @@ public class ConfiguredObjectToMapConverterTest extends UnitTestBase
                             context.get(CHILD_CONTEXT_PROPERTY_NAME));
     }
 
+    @Test
+    public void testStreamingValueMatchesConvertedMap() throws Exception
+    {
+        final TestEngine engine = createEngineWithContext();
+        final ConfiguredObjectToMapConverter.ConverterOptions options =
+                new ConfiguredObjectToMapConverter.ConverterOptions(1, false, 120, false, false);
+        final ObjectMapper mapper = ConfiguredObjectJacksonModule.newObjectMapper(false);
+
+        final Map<String, Object> converted = _converter.convertObjectToMap(engine, TestEngine.class, options);
+        final JsonNode expected = mapper.readTree(mapper.writeValueAsString(converted));
+
+        final String streamed =
+                mapper.writeValueAsString(_converter.toStreamingValue(Collections.singletonList(engine), false, options));
+        assertEquals("Unexpected streamed representation", expected, mapper.readTree(streamed));
+
+        final String streamedAsList =
+                mapper.writeValueAsString(_converter.toStreamingValue(Collections.singletonList(engine), true, options));
+        final JsonNode list = mapper.readTree(streamedAsList);
+        assertTrue("Expected array", list.isArray());
+        assertEquals("Unexpected number of elements", 1, list.size());
+        assertEquals("Unexpected streamed representation", expected, list.get(0));
+    }
+
     private Map<String, String> getContext(final Map<String, Object> resultMap)
     {
         Object contextValue = resultMap.get(ConfiguredObject.CONTEXT);
@@ -0,0 +1,240 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.servlet.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.ConfiguredObjectStatistic;
+import org.apache.qpid.server.model.ConfiguredObjectTypeRegistry;
+import org.apache.qpid.server.model.Model;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.server.model.VirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class MetricsServletTest extends UnitTestBase
+{
+    private static final String VIRTUAL_HOST_METRICS = "# TYPE qpid_virtualhost_connection_count gauge\n"
+                                                       + "# HELP qpid_virtualhost_connection_count Current connections\n"
+                                                       + "qpid_virtualhost_connection_count{name=\"vh\"} 3\n";
+    private static final String QUEUE_METRICS =
+            "# TYPE qpid_queue_queue_depth_messages gauge\n"
+            + "# HELP qpid_queue_queue_depth_messages Current depth\n"
+            + "qpid_queue_queue_depth_messages{virtualhost=\"vh\",name=\"q1\"} 5\n"
+            + "qpid_queue_queue_depth_messages{virtualhost=\"vh\",name=\"q\\\"2\"} 7\n"
+            + "# TYPE qpid_queue_total_enqueued_messages counter\n"
+            + "# HELP qpid_queue_total_enqueued_messages Total enqueued\n"
+            + "qpid_queue_total_enqueued_messages_total{virtualhost=\"vh\",name=\"q1\"} 10\n"
+            + "qpid_queue_total_enqueued_messages_total{virtualhost=\"vh\",name=\"q\\\"2\"} 20\n";
+
+    private Broker<?> _broker;
+    private HttpServletRequest _request;
+    private HttpServletResponse _response;
+    private ByteArrayOutputStream _output;
+    private MetricsServlet _servlet;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        final Model model = mock(Model.class);
+        final ConfiguredObjectTypeRegistry typeRegistry = mock(ConfiguredObjectTypeRegistry.class);
+        when(model.getTypeRegistry()).thenReturn(typeRegistry);
+        when(model.getChildTypes(Broker.class)).thenReturn(Collections.singletonList(VirtualHost.class));
+        when(model.getChildTypes(VirtualHost.class)).thenReturn(Collections.singletonList(Queue.class));
+        when(model.getChildTypes(Queue.class)).thenReturn(Collections.emptyList());
+        doReturn(Broker.class).when(model).getParentType(VirtualHost.class);
+        doReturn(VirtualHost.class).when(model).getParentType(Queue.class);
+
+        _broker = createObject(Broker.class, "broker", null, model);
+        final VirtualHost<?> virtualHost = createObject(VirtualHost.class, "vh", _broker, model);
+        final Queue<?> queue1 = createObject(Queue.class, "q1", virtualHost, model);
+        final Queue<?> queue2 = createObject(Queue.class, "q\"2", virtualHost, model);
+        doReturn(Collections.singletonList(virtualHost)).when(_broker).getChildren(VirtualHost.class);
+        doReturn(Arrays.asList(queue1, queue2)).when(virtualHost).getChildren(Queue.class);
+
+        final ConfiguredObjectStatistic connectionCount =
+                createStatistic("connectionCount", StatisticType.POINT_IN_TIME, "Current connections");
+        when(connectionCount.getValue(virtualHost)).thenReturn(3);
+        doReturn(Collections.singletonList(connectionCount)).when(typeRegistry).getStatistics(virtualHost.getClass());
+
+        final ConfiguredObjectStatistic queueDepth =
+                createStatistic("queueDepthMessages", StatisticType.POINT_IN_TIME, "Current depth");
+        when(queueDepth.getValue(queue1)).thenReturn(5);
+        when(queueDepth.getValue(queue2)).thenReturn(7);
+        final ConfiguredObjectStatistic totalEnqueued =
+                createStatistic("totalEnqueuedMessages", StatisticType.CUMULATIVE, "Total enqueued");
+        when(totalEnqueued.getValue(queue1)).thenReturn(10L);
+        when(totalEnqueued.getValue(queue2)).thenReturn(20L);
+        doReturn(Arrays.asList(queueDepth, totalEnqueued)).when(typeRegistry).getStatistics(queue1.getClass());
+
+        _request = mock(HttpServletRequest.class);
+        _response = mock(HttpServletResponse.class);
+        _output = new ByteArrayOutputStream();
+        _servlet = new MetricsServlet()
+        {
+            @Override
+            protected OutputStream getOutputStream(final HttpServletRequest request,
+                                                   final HttpServletResponse response)
+            {
+                return _output;
+            }
+        };
+    }
+
+    @Test
+    public void testDoGet() throws Exception
+    {
+        _servlet.doGet(_request, _response, _broker);
+
+        verify(_response).setStatus(HttpServletResponse.SC_OK);
+        verify(_response).setContentType(MetricsServlet.CONTENT_TYPE);
+        assertEquals("Unexpected exposition", VIRTUAL_HOST_METRICS + QUEUE_METRICS + "# EOF\n", getOutput());
+    }
+
+    @Test
+    public void testCumulativeStatisticIsCounter() throws Exception
+    {
+        _servlet.doGet(_request, _response, _broker);
+
+        final String output = getOutput();
+        assertTrue("Cumulative statistic should be a counter",
+                   output.contains("# TYPE qpid_queue_total_enqueued_messages counter\n"));
+        assertTrue("Counter sample should have _total suffix",
+                   output.contains("qpid_queue_total_enqueued_messages_total{"));
+        assertTrue("Point in time statistic should be a gauge",
+                   output.contains("# TYPE qpid_queue_queue_depth_messages gauge\n"));
+        assertFalse("Gauge sample should not have _total suffix",
+                    output.contains("qpid_queue_queue_depth_messages_total"));
+    }
+
+    @Test
+    public void testIncludeCategory() throws Exception
+    {
+        when(_request.getParameterValues(MetricsServlet.INCLUDE_CATEGORY_PARAM)).thenReturn(new String[]{"Queue"});
+
+        _servlet.doGet(_request, _response, _broker);
+
+        assertEquals("Unexpected exposition", QUEUE_METRICS + "# EOF\n", getOutput());
+    }
+
+    @Test
+    public void testExcludeCategory() throws Exception
+    {
+        when(_request.getParameterValues(MetricsServlet.EXCLUDE_CATEGORY_PARAM)).thenReturn(new String[]{"virtualhost"});
+
+        _servlet.doGet(_request, _response, _broker);
+
+        assertEquals("Queues below an excluded category should still be exposed",
+                     QUEUE_METRICS + "# EOF\n",
+                     getOutput());
+    }
+
+    @Test
+    public void testIncludeAndExcludeSameCategory() throws Exception
+    {
+        when(_request.getParameterValues(MetricsServlet.INCLUDE_CATEGORY_PARAM)).thenReturn(new String[]{"virtualhost, queue"});
+        when(_request.getParameterValues(MetricsServlet.EXCLUDE_CATEGORY_PARAM)).thenReturn(new String[]{"queue"});
+
+        _servlet.doGet(_request, _response, _broker);
+
+        assertEquals("Unexpected exposition", VIRTUAL_HOST_METRICS + "# EOF\n", getOutput());
+    }
+
+    @Test
+    public void testToSnakeCase()
+    {
+        assertEquals("total_enqueued_messages", MetricsServlet.toSnakeCase("totalEnqueuedMessages"));
+        assertEquals("bytes_in", MetricsServlet.toSnakeCase("bytesIn"));
+        assertEquals("depth", MetricsServlet.toSnakeCase("depth"));
+    }
+
+    @Test
+    public void testEscapeLabelValue()
+    {
+        assertEquals("queue", MetricsServlet.escapeLabelValue("queue"));
+        assertEquals("a\\\"b\\\\c\\nd", MetricsServlet.escapeLabelValue("a\"b\\c\nd"));
+        assertEquals("", MetricsServlet.escapeLabelValue(null));
+    }
+
+    @Test
+    public void testEscapeHelp()
+    {
+        assertEquals("line1\\nline2 \"quoted\"", MetricsServlet.escapeHelp("line1\nline2 \"quoted\""));
+    }
+
+    @Test
+    public void testFormatDouble()
+    {
+        assertEquals("NaN", MetricsServlet.formatDouble(Double.NaN));
+        assertEquals("+Inf", MetricsServlet.formatDouble(Double.POSITIVE_INFINITY));
+        assertEquals("-Inf", MetricsServlet.formatDouble(Double.NEGATIVE_INFINITY));
+        assertEquals("1.5", MetricsServlet.formatDouble(1.5));
+    }
+
+    private String getOutput()
+    {
+        return new String(_output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private <T extends ConfiguredObject> T createObject(final Class<T> category,
+                                                        final String name,
+                                                        final ConfiguredObject<?> parent,
+                                                        final Model model)
+    {
+        final T object = mock(category);
+        when(object.getName()).thenReturn(name);
+        when(object.getModel()).thenReturn(model);
+        doReturn(category).when(object).getCategoryClass();
+        doReturn(parent).when(object).getParent();
+        return object;
+    }
+
+    private ConfiguredObjectStatistic createStatistic(final String name,
+                                                      final StatisticType statisticType,
+                                                      final String description)
+    {
+        final ConfiguredObjectStatistic statistic = mock(ConfiguredObjectStatistic.class);
+        when(statistic.getName()).thenReturn(name);
+        when(statistic.getStatisticType()).thenReturn(statisticType);
+        when(statistic.getDescription()).thenReturn(description);
+        return statistic;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+var ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE = 1;
+var DELIVERY_MODE_TRANSIENT = 1;
+
+var maximumDuration = 30000;
+var numberOfParticipantPairs = 4;
+
+function createLargeMessageTest(name, messageSize, numberOfParticipantPairs)
+{
+    var test = {
+        "_name": name,
+        "_queues": [],
+        "_clients": []
+    };
+
+    for (var i = 0; i < numberOfParticipantPairs; i++)
+    {
+        var destination = "largeMessageQueue_" + i;
+        test._queues.push({
+            "_name": destination,
+            "_durable": true
+        });
+
+        test._clients.push({
+            "_name": "producingClient_" + i,
+            "_connections": [{
+                "_name": "producingConnection_" + i,
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "producingSession_" + i,
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_producers": [{
+                        "_name": "Producer_" + i,
+                        "_destinationName": destination,
+                        "_messageSize": messageSize,
+                        "_deliveryMode": DELIVERY_MODE_TRANSIENT,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        });
+        test._clients.push({
+            "_name": "consumingClient_" + i,
+            "_connections": [{
+                "_name": "consumingConnection_" + i,
+                "_factory": "connectionfactory",
+                "_sessions": [{
+                    "_sessionName": "consumingSession_" + i,
+                    "_acknowledgeMode": ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE,
+                    "_consumers": [{
+                        "_name": "Consumer_" + i,
+                        "_destinationName": destination,
+                        "_maximumDuration": maximumDuration
+                    }]
+                }]
+            }]
+        });
+    }
+
+    return test;
+}
+
+var jsonObject = {
+    _tests: [
+        createLargeMessageTest("transient_autoack_large_64KB", 64 * 1024, numberOfParticipantPairs),
+        createLargeMessageTest("transient_autoack_large_256KB", 256 * 1024, numberOfParticipantPairs),
+        createLargeMessageTest("transient_autoack_large_1MB", 1024 * 1024, numberOfParticipantPairs)
+    ]
+};
@@ -31,6 +31,7 @@ import java.nio.charset.StandardCharsets;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.ProtocolVersion;
 import org.apache.qpid.server.protocol.v0_8.transport.AMQBody;
 import org.apache.qpid.server.protocol.v0_8.transport.AMQVersionAwareProtocolSession;
@@ -142,6 +143,12 @@ public class ProtocolTest extends BrokerAdminUsingTestBase
                                return 0;
                            }
 
+                           @Override
+                           public long writePayload(final QpidByteBuffer buffer)
+                           {
+                               return 0;
+                           }
+
                            @Override
                            public void handle(final int channelId, final AMQVersionAwareProtocolSession session)
                            {